@@ -397,7 +397,13 @@ public enum ConfigNodes {
 			"# include any changes made before the plot was claimed."),
 	NWS_PLOT_MANAGEMENT_REVERT_TIME(
 			"new_world_settings.plot_management.revert_on_unclaim.speed",
-			"1s"),
+			"1s",
+			"# How often unclaimed plots are reverted, set to 0 to revert every tick."),
+	NWS_PLOT_MANAGEMENT_REVERT_BUDGET(
+			"new_world_settings.plot_management.revert_on_unclaim.time_budget",
+			"5",
+			"# How many milliseconds each revert may spend restoring blocks, shared by every plot being reverted.",
+			"# Like speed, this is not set per-world."),
 	NWS_PLOT_MANAGEMENT_REVERT_IGNORE(
 			"new_world_settings.plot_management.revert_on_unclaim.block_ignore",
 			"GOLD_ORE,LAPIS_ORE,LAPIS_BLOCK,GOLD_BLOCK,IRON_ORE,IRON_BLOCK,MOSSY_COBBLESTONE,TORCH,SPAWNER,DIAMOND_ORE,DIAMOND_BLOCK,ACACIA_SIGN,BIRCH_SIGN,DARK_OAK_SIGN,JUNGLE_SIGN,OAK_SIGN,SPRUCE_SIGN,ACACIA_WALL_SIGN,BIRCH_WALL_SIGN,DARK_OAK_WALL_SIGN,JUNGLE_WALL_SIGN,OAK_WALL_SIGN,SPRUCE_WALL_SIGN,GLOWSTONE,EMERALD_ORE,EMERALD_BLOCK,WITHER_SKELETON_SKULL,WITHER_SKELETON_WALL_SKULL,SHULKER_BOX,WHITE_SHULKER_BOX,ORANGE_SHULKER_BOX,MAGENTA_SHULKER_BOX,LIGHT_BLUE_SHULKER_BOX,LIGHT_GRAY_SHULKER_BOX,YELLOW_SHULKER_BOX,LIME_SHULKER_BOX,PINK_SHULKER_BOX,GRAY_SHULKER_BOX,CYAN_SHULKER_BOX,PURPLE_SHULKER_BOX,BLUE_SHULKER_BOX,BROWN_SHULKER_BOX,GREEN_SHULKER_BOX,RED_SHULKER_BOX,BLACK_SHULKER_BOX,BEACON,NETHER_GOLD_ORE,ANCIENT_DEBRIS,SOUL_TORCH,SOUL_WALL_TORCH,CRIMSON_SIGN,CRIMSON_WALL_SIGN,WARPED_SIGN,WARPED_WALL_SIGN,LODESTONE,RESPAWN_ANCHOR,NETHER_PORTAL,FURNACE,BLAST_FURNACE,SMOKER,BREWING_STAND,TNT,AIR,FIRE,NETHER_QUARTZ_ORE,ANCIENT_DEBRIS,NETHERITE_BLOCK,GILDED_BLACKSTONE",
@@ -918,7 +924,10 @@ public enum ConfigNodes {
 			"plugin.database",
 			"",
 			"",
-			"# Valid load and save types are: flatfile and mysql."),
+			"# Valid load and save types are: flatfile, segmentfile and mysql.",
+			"# segmentfile stores townblocks in one file for each 32x32 townblocks, instead of one file per townblock.",
+			"# To convert, set database_load to your current type and database_save to the new type, start the server once,",
+			"# then set database_load to the new type as well."),
 	PLUGIN_DATABASE_LOAD("plugin.database.database_load", "flatfile"),
 	PLUGIN_DATABASE_SAVE("plugin.database.database_save", "flatfile"),
 	
@@ -927,6 +936,13 @@ public enum ConfigNodes {
 			"",
 			"# When true Towny will use a background task to gather UUIDs for residents who do not have UUIDs.",
 			"# This process will greatly improve your database's ability to convert from playernames to UUIDs in the future."),
+	PLUGIN_DATABASE_SAVE_JOURNAL("plugin.database.save_journal",
+			"true",
+			"",
+			"# When true every group of saves is first written to a journal in the data folder, before it is written to the database.",
+			"# Saves left in the journal after a crash are written to the database when Towny next starts, so a save is never left half written.",
+			"# Saves are only journaled once they leave the save queue, anything still queued when the server crashes is lost.",
+			"# That is usually the last quarter of a second of saves, but can be more while the queue is behind, such as after a full save."),
 
 	PLUGIN_DATABASE_SQL_HEADER(
 			"plugin.database.sql",
@@ -952,6 +968,19 @@ public enum ConfigNodes {
 	PLUGIN_DATABASE_POOLING_MAX_LIFETIME("plugin.database.sql.pooling.max_lifetime", "180000"),
 	PLUGIN_DATABASE_POOLING_CONNECTION_TIMEOUT("plugin.database.sql.pooling.connection_timeout", "5000"),
 
+	PLUGIN_DATABASE_LOADING_HEADER(
+		"plugin.database.sql.loading",
+		"",
+		"",
+		"# Settings for loading the residents, towns and townblocks tables when Towny starts."),
+	PLUGIN_DATABASE_LOADING_STREAMING(
+		"plugin.database.sql.loading.streaming",
+		"true",
+		"",
+		"# When true the tables are streamed from the database and parsed on worker threads,",
+		"# while the rows already parsed are being loaded.",
+		"# When false every row is read, parsed and loaded one after another."),
+
 	PLUGIN_DAILY_BACKUPS_HEADER(
 			"plugin.database.daily_backups",
 			"",
@@ -1022,11 +1051,57 @@ public enum ConfigNodes {
 			"20s",
 			"# The interval of each \"short\" timer tick",
 			"# Default is 20s."),
+	PLUGIN_PLOT_SNAPSHOT_BUDGET(
+			"plugin.plot_snapshot_time_budget",
+			"5",
+			"",
+			"# How many milliseconds each second may be spent taking snapshots of newly claimed plots,",
+			"# for the revert_on_unclaim feature of any world.",
+			"# Snapshots are captured on the main thread, as many as fit in this budget,",
+			"# and are then encoded and saved asynchronously."),
+	PLUGIN_SAVE_SNAPSHOT_BUDGET(
+			"plugin.save_snapshot_time_budget",
+			"10",
+			"",
+			"# How many milliseconds every 5 ticks may be spent reading queued flatfile saves on the main thread.",
+			"# Objects are read on the main thread so a save never holds an object half changed,",
+			"# the saves are then written asynchronously. Saves which do not fit wait for the next 5 ticks."),
 	PLUGIN_DEBUG_MODE(
 			"plugin.debug_mode",
 			"false",
 			"",
 			"# Lots of messages to tell you what's going on in the server with time taken for events."),
+	PLUGIN_DEBUG_CATEGORIES(
+			"plugin.debug_categories",
+			"",
+			"",
+			"# Which of the busiest debug messages are sent while debug_mode or dev_mode is enabled.",
+			"# Debug messages which are not in one of these categories are always sent."),
+	PLUGIN_DEBUG_CATEGORIES_PERMISSIONS(
+			"plugin.debug_categories.permissions",
+			"true",
+			"",
+			"# Permission cache lookups, sent for almost every protection check."),
+	PLUGIN_DEBUG_CATEGORIES_CLAIMS(
+			"plugin.debug_categories.claims",
+			"true",
+			"",
+			"# Plots left out of a claim selection."),
+	PLUGIN_DEBUG_CATEGORIES_PLOT_REVERT(
+			"plugin.debug_categories.plot_revert",
+			"true",
+			"",
+			"# Progress of plots being reverted by revert_on_unclaim."),
+	PLUGIN_DEBUG_CATEGORIES_WAR(
+			"plugin.debug_categories.war",
+			"true",
+			"",
+			"# Event war ticks."),
+	PLUGIN_DEBUG_CATEGORIES_DATABASE(
+			"plugin.debug_categories.database",
+			"true",
+			"",
+			"# Writes flushed to the SQL database."),
 	PLUGIN_INFO_TOOL(
 			"plugin.info_tool",
 			"BRICK",
@@ -1594,7 +1669,7 @@ public enum ConfigNodes {
 			"0m",
 			"",
 			"# When set for more than 0m, the amount of time until an invite is considered",
-			"# expired and is removed. Invites are checked for expiration once every hour.",
+			"# expired and is removed. Each invite is removed as soon as its own time is up.",
 			"# Valid values would include: 30s, 30m, 24h, 2d, etc."),
 	INVITE_SYSTEM_MAXIMUM_INVITES_SENT(
 			"invite_system.maximum_invites_sent",
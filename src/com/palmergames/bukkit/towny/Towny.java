@@ -29,20 +29,26 @@ import com.palmergames.bukkit.towny.listeners.TownyPlayerListener;
 import com.palmergames.bukkit.towny.listeners.TownyServerListener;
 import com.palmergames.bukkit.towny.listeners.TownyVehicleListener;
 import com.palmergames.bukkit.towny.listeners.TownyWorldListener;
-import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.PlayerCache;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.object.comparators.GovernmentRankings;
 import com.palmergames.bukkit.towny.permissions.BukkitPermSource;
 import com.palmergames.bukkit.towny.permissions.GroupManagerSource;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
 import com.palmergames.bukkit.towny.permissions.VaultPermSource;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.tasks.OnPlayerLogin;
+import com.palmergames.bukkit.towny.tasks.TownyJobExecutor;
+import com.palmergames.bukkit.towny.tasks.TownyTimingWheel;
+import com.palmergames.bukkit.towny.utils.BorderCache;
 import com.palmergames.bukkit.towny.utils.MoneyUtil;
 import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
 import com.palmergames.bukkit.towny.utils.SpawnUtil;
 import com.palmergames.bukkit.towny.war.common.WarZoneListener;
+import com.palmergames.bukkit.towny.war.common.townruin.TownRuinUtil;
 import com.palmergames.bukkit.towny.war.flagwar.FlagWar;
 import com.palmergames.bukkit.towny.war.flagwar.listeners.FlagWarBlockListener;
 import com.palmergames.bukkit.towny.war.flagwar.listeners.FlagWarCustomListener;
@@ -77,10 +83,10 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Towny Plugin for Bukkit
@@ -110,10 +116,13 @@ public class Towny extends JavaPlugin {
 	private final WarZoneListener warzoneListener = new WarZoneListener(this);
 	private final TownyLoginListener loginListener = new TownyLoginListener();
 	private final HUDManager HUDManager = new HUDManager(this);
+	private final TownyJobExecutor jobExecutor = new TownyJobExecutor(this);
+	private final TownyTimingWheel timingWheel = new TownyTimingWheel(this);
+	private final BorderCache borderCache = new BorderCache(this);
 
 	private TownyUniverse townyUniverse;
 
-	private final Map<String, PlayerCache> playerCache = Collections.synchronizedMap(new HashMap<>());
+	private final Map<UUID, PlayerCache> playerCache = new ConcurrentHashMap<>();
 
 	private Essentials essentials = null;
 	private boolean citizens2 = false;
@@ -210,6 +219,11 @@ public class Towny extends JavaPlugin {
 
 		System.out.println("==============================================================");
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+
+		// Complete the claims and other jobs already running, before anything is saved.
+		jobExecutor.shutdown();
+		timingWheel.shutdown();
+
 		if (townyUniverse.getDataSource() != null && !error) {
 			townyUniverse.getDataSource().saveQueues();
 		}
@@ -275,6 +289,7 @@ public class Towny extends JavaPlugin {
 		
 		// Reset player cache.
 		resetCache();
+		borderCache.clear();
 
 		return true;
 	}
@@ -412,6 +427,7 @@ public class Towny extends JavaPlugin {
 
 		toggleTimersOff();
 		TownyTimerHandler.toggleTownyRepeatingTimer(true);
+		TownyTimerHandler.toggleRevertOnUnclaimTimer(true);
 		TownyTimerHandler.toggleDailyTimer(true);
 		TownyTimerHandler.toggleHourlyTimer(true);
 		TownyTimerHandler.toggleShortTimer(true);
@@ -421,6 +437,7 @@ public class Towny extends JavaPlugin {
 		TownyTimerHandler.toggleCooldownTimer(TownySettings.getPVPCoolDownTime() > 0 || TownySettings.getSpawnCooldownTime() > 0);
 		TownyTimerHandler.toggleDrawSmokeTask(true);
 		TownyTimerHandler.toggleDrawSpointsTask(TownySettings.getVisualizedSpawnPointsEnabled());
+		TownRuinUtil.scheduleRuinedTownRemovals();
 		if (!TownySettings.getUUIDPercent().equals("100%") && TownySettings.isGatheringResidentUUIDS())
 			TownyTimerHandler.toggleGatherResidentUUIDTask(true);
 	}
@@ -428,6 +445,7 @@ public class Towny extends JavaPlugin {
 	private void toggleTimersOff() {
 
 		TownyTimerHandler.toggleTownyRepeatingTimer(false);
+		TownyTimerHandler.toggleRevertOnUnclaimTimer(false);
 		TownyTimerHandler.toggleDailyTimer(false);
 		TownyTimerHandler.toggleHourlyTimer(false);
 		TownyTimerHandler.toggleShortTimer(false);
@@ -457,9 +475,11 @@ public class Towny extends JavaPlugin {
 			pluginManager.registerEvents(serverListener, this);
 			pluginManager.registerEvents(flagWarCustomListener, this);
 			pluginManager.registerEvents(customListener, this);
+			pluginManager.registerEvents(borderCache, this);
 			pluginManager.registerEvents(worldListener, this);
 			pluginManager.registerEvents(loginListener, this);
 			pluginManager.registerEvents(warzoneListener, this);
+			pluginManager.registerEvents(GovernmentRankings.getInstance(), this);
 		}
 
 		// Always register these events.
@@ -549,14 +569,14 @@ public class Towny extends JavaPlugin {
 
 	public boolean hasCache(Player player) {
 
-		return playerCache.containsKey(player.getName().toLowerCase());
+		return playerCache.containsKey(player.getUniqueId());
 	}
 
 	public PlayerCache newCache(Player player) {
 
 		try {
 			PlayerCache cache = new PlayerCache(TownyUniverse.getInstance().getDataSource().getWorld(player.getWorld().getName()), player);
-			playerCache.put(player.getName().toLowerCase(), cache);
+			playerCache.put(player.getUniqueId(), cache);
 			return cache;
 		} catch (NotRegisteredException e) {
 			TownyMessaging.sendErrorMsg(player, "Could not create permission cache for this world (" + player.getWorld().getName() + ".");
@@ -567,30 +587,35 @@ public class Towny extends JavaPlugin {
 
 	public void deleteCache(Player player) {
 
-		deleteCache(player.getName());
+		if (player != null)
+			playerCache.remove(player.getUniqueId());
 	}
 
 	public void deleteCache(String name) {
 
-		playerCache.remove(name.toLowerCase());
+		// Caches are dropped when a player logs out, so only online players can have one.
+		deleteCache(BukkitTools.getPlayerExact(name));
 	}
 
 	/**
 	 * Fetch the current players cache
-	 * Creates a new one, if one doesn't exist.
+	 * Creates a new one, if one doesn't exist, and resets it if it has been
+	 * invalidated since it was filled.
 	 * 
 	 * @param player - Player to get the current cache from.
 	 * @return the current (or new) cache for this player.
 	 */
 	public PlayerCache getCache(Player player) {
 
-		PlayerCache cache = playerCache.get(player.getName().toLowerCase());
+		PlayerCache cache = playerCache.get(player.getUniqueId());
 		
 		if (cache == null) {
 			cache = newCache(player);
 			
 			if (cache != null)
 				cache.setLastTownBlock(WorldCoord.parseWorldCoord(player));
+		} else if (cache.isStale()) {
+			cache.resetAndUpdate(WorldCoord.parseWorldCoord(player)); // Automatically resets permissions.
 		}
 
 		return cache;
@@ -598,12 +623,31 @@ public class Towny extends JavaPlugin {
 
 	/**
 	 * Resets all Online player caches, retaining their location info.
+	 * The caches are reset as they are next fetched.
 	 */
 	public void resetCache() {
 
-		for (Player player : BukkitTools.getOnlinePlayers())
-			if (player != null)
-				getCache(player).resetAndUpdate(WorldCoord.parseWorldCoord(player)); // Automatically resets permissions.
+		PlayerCache.invalidateAll();
+	}
+
+	/**
+	 * Resets the caches of players anywhere in the given world.
+	 * 
+	 * @param world - the world which has changed
+	 */
+	public void resetCache(TownyWorld world) {
+
+		PlayerCache.invalidate(world);
+	}
+
+	/**
+	 * Resets the caches of players in any of the given town's townblocks.
+	 * 
+	 * @param town - the town which has changed
+	 */
+	public void resetCache(Town town) {
+
+		PlayerCache.invalidate(town);
 	}
 
 	/**
@@ -613,10 +657,7 @@ public class Towny extends JavaPlugin {
 	 */
 	public void updateCache(WorldCoord worldCoord) {
 
-		for (Player player : BukkitTools.getOnlinePlayers())
-			if (player != null)
-				if (Coord.parseCoord(player).equals(worldCoord))
-					getCache(player).resetAndUpdate(worldCoord); // Automatically resets permissions.
+		PlayerCache.invalidate(worldCoord);
 	}
 
 	/**
@@ -819,6 +860,30 @@ public class Towny extends JavaPlugin {
 		return HUDManager;
 	}
 
+	/**
+	 * @return the executor running claims, unclaims, purges and merges
+	 */
+	public TownyJobExecutor getJobExecutor() {
+
+		return jobExecutor;
+	}
+
+	/**
+	 * @return the timing wheel running cooldowns, warmups and other expiries
+	 */
+	public TownyTimingWheel getTimingWheel() {
+
+		return timingWheel;
+	}
+
+	/**
+	 * @return the cache of plot and town outlines, and of surface heights along plot edges, used to draw borders
+	 */
+	public BorderCache getBorderCache() {
+
+		return borderCache;
+	}
+
 	public static BukkitAudiences getAdventure() {
 		return adventure;
 	}
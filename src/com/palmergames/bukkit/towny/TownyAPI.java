@@ -572,7 +572,8 @@ public class TownyAPI {
     public TownBlockStatus hasNationZone(WorldCoord worldCoord) {
     	
 		int distance;
-		final TownBlock nearestTownblock = TownyAPI.getInstance().getTownyWorld(worldCoord.getWorldName()).getClosestTownblockWithNationFromCoord(worldCoord);
+		// No townblock further away than the largest nation zone can make this a nation zone.
+		final TownBlock nearestTownblock = TownyAPI.getInstance().getTownyWorld(worldCoord.getWorldName()).getClosestTownblockWithNationFromCoord(worldCoord, TownySettings.getMaxNationZoneSize() + 1);
 		
 		if (nearestTownblock == null) {
 			return TownBlockStatus.UNCLAIMED_ZONE;
@@ -592,22 +593,19 @@ public class TownyAPI {
 			return TownBlockStatus.UNCLAIMED_ZONE;
 		}
 
-		try {
-			int nationZoneRadius = Integer.parseInt(TownySettings.getNationLevel(TownyAPI.getInstance().getTownNationOrNull(nearestTown)).get(TownySettings.NationLevel.NATIONZONES_SIZE).toString());
-			
-			if (nearestTown.isCapital()) {
-				nationZoneRadius += TownySettings.getNationZonesCapitalBonusSize();
-			}
+		int nationZoneRadius = nearestTown.getNationOrNull().getNationLevel().getNationZonesSize();
+		
+		if (nearestTown.isCapital()) {
+			nationZoneRadius += TownySettings.getNationZonesCapitalBonusSize();
+		}
 
-			if (distance <= nationZoneRadius) {
-				NationZoneTownBlockStatusEvent event = new NationZoneTownBlockStatusEvent(nearestTown);
-				Bukkit.getPluginManager().callEvent(event);
-				if (event.isCancelled())
-					return TownBlockStatus.UNCLAIMED_ZONE;
-				
-				return TownBlockStatus.NATION_ZONE;
-			}
-		} catch (NumberFormatException ignored) {
+		if (distance <= nationZoneRadius) {
+			NationZoneTownBlockStatusEvent event = new NationZoneTownBlockStatusEvent(nearestTown);
+			Bukkit.getPluginManager().callEvent(event);
+			if (event.isCancelled())
+				return TownBlockStatus.UNCLAIMED_ZONE;
+			
+			return TownBlockStatus.NATION_ZONE;
 		}
 		
 		return TownBlockStatus.UNCLAIMED_ZONE;
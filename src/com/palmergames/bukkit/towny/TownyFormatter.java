@@ -373,7 +373,7 @@ public class TownyFormatter {
 					if (!town.hasNation())
 						out.add(Translation.of("status_town_outposts", town.getMaxOutpostSpawn(), town.getOutpostLimit()));
 					else {
-						int nationBonus = (Integer) TownySettings.getNationLevel(town.getNationOrNull()).get(TownySettings.NationLevel.NATION_BONUS_OUTPOST_LIMIT);
+						int nationBonus = town.getNationOrNull().getNationLevel().getNationBonusOutpostLimit();
 						out.add(Translation.of("status_town_outposts", town.getMaxOutpostSpawn(), town.getOutpostLimit()) + 
 								(nationBonus > 0 ? Translation.of("status_town_outposts2", nationBonus) : "")
 							   );
@@ -652,7 +652,7 @@ public class TownyFormatter {
 
 		List<String> out = new ArrayList<>();
 		Town town = null;
-		boolean taxExempt = TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt");
+		boolean taxExempt = TownyPerms.hasNode(resident, "towny.tax_exempt");
 		double plotTax = 0.0;
 		double townTax = 0.0;
 
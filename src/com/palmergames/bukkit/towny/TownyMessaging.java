@@ -1,5 +1,6 @@
 package com.palmergames.bukkit.towny;
 
+import com.palmergames.bukkit.config.ConfigNodes;
 import com.palmergames.bukkit.towny.event.nation.NationListDisplayedNumOnlinePlayersCalculationEvent;
 import com.palmergames.bukkit.towny.event.nation.NationListDisplayedNumResidentsCalculationEvent;
 import com.palmergames.bukkit.towny.event.nation.NationListDisplayedNumTownBlocksCalculationEvent;
@@ -35,6 +36,7 @@ import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Towny message handling class
@@ -188,6 +190,18 @@ public class TownyMessaging {
 		}
 	}
 
+	/**
+	 * Sends a message (red) to the named Dev (if DevMode is enabled)
+	 * Uses default_towny_prefix
+	 * The message is only built when DevMode is enabled.
+	 *
+	 * @param msg supplies the message to be sent
+	 */
+	public static void sendDevMsg(Supplier<String> msg) {
+		if (TownySettings.isDevMode())
+			sendDevMsg(msg.get());
+	}
+
 	/**
 	 * Sends a message (red) to the named Dev (if DevMode is enabled)
 	 * Uses default_towny_prefix
@@ -213,6 +227,141 @@ public class TownyMessaging {
 		sendDevMsg(msg);
 	}
 
+	/**
+	 * Checks whether debug messages go anywhere, either to the log or to the named Dev.
+	 * Guard debug messages which are expensive to build with this.
+	 *
+	 * @return true if debug mode or DevMode is enabled.
+	 */
+	public static boolean isDebugging() {
+		TownySettingsSnapshot settings = TownySettings.getSnapshot();
+		return settings.isDebug() || settings.isDevMode();
+	}
+
+	/**
+	 * The busiest kinds of debug messages, each of which can be turned off in the config.
+	 */
+	public enum DebugCategory {
+		PERMISSIONS(ConfigNodes.PLUGIN_DEBUG_CATEGORIES_PERMISSIONS),
+		CLAIMS(ConfigNodes.PLUGIN_DEBUG_CATEGORIES_CLAIMS),
+		PLOT_REVERT(ConfigNodes.PLUGIN_DEBUG_CATEGORIES_PLOT_REVERT),
+		WAR(ConfigNodes.PLUGIN_DEBUG_CATEGORIES_WAR),
+		DATABASE(ConfigNodes.PLUGIN_DEBUG_CATEGORIES_DATABASE);
+
+		private final ConfigNodes node;
+
+		DebugCategory(ConfigNodes node) {
+			this.node = node;
+		}
+
+		public ConfigNodes getNode() {
+			return node;
+		}
+	}
+
+	/**
+	 * Checks whether debug messages of a category go anywhere.
+	 *
+	 * @param category the category of the message
+	 * @return true if debug mode or DevMode is enabled, and so is the category.
+	 */
+	public static boolean isDebugging(DebugCategory category) {
+		TownySettingsSnapshot settings = TownySettings.getSnapshot();
+		return (settings.isDebug() || settings.isDevMode()) && settings.isDebugCategoryEnabled(category);
+	}
+
+	/**
+	 * Sends a message to the log and console, and to the named Dev,
+	 * building it only if debug mode or DevMode is enabled.
+	 * A lambda which captures nothing is not allocated on each call.
+	 *
+	 * @param msg supplies the message to be sent
+	 */
+	public static void sendDebugMsg(Supplier<String> msg) {
+		if (isDebugging())
+			sendDebugMsg(msg.get());
+	}
+
+	/**
+	 * Sends a message to the log and console, and to the named Dev,
+	 * formatting it with {@link String#format(String, Object...)} only if
+	 * debug mode or DevMode is enabled.
+	 * Nothing is allocated when both are disabled, except for boxing primitive arguments.
+	 *
+	 * @param template the message to be sent, with a %s for each argument
+	 * @param arg the argument
+	 */
+	public static void sendDebugMsg(String template, Object arg) {
+		if (isDebugging())
+			sendDebugMsg(String.format(template, arg));
+	}
+
+	public static void sendDebugMsg(String template, Object arg1, Object arg2) {
+		if (isDebugging())
+			sendDebugMsg(String.format(template, arg1, arg2));
+	}
+
+	public static void sendDebugMsg(String template, Object arg1, Object arg2, Object arg3) {
+		if (isDebugging())
+			sendDebugMsg(String.format(template, arg1, arg2, arg3));
+	}
+
+	public static void sendDebugMsg(String template, Object arg1, Object arg2, Object arg3, Object arg4) {
+		if (isDebugging())
+			sendDebugMsg(String.format(template, arg1, arg2, arg3, arg4));
+	}
+
+	/**
+	 * Sends a debug message of a category, if {@link #isDebugging(DebugCategory)}.
+	 *
+	 * @param category the category of the message
+	 * @param msg the message to be sent
+	 */
+	public static void sendDebugMsg(DebugCategory category, String msg) {
+		if (isDebugging(category))
+			sendDebugMsg(msg);
+	}
+
+	/**
+	 * Sends a debug message of a category, building it only if
+	 * {@link #isDebugging(DebugCategory)}.
+	 *
+	 * @param category the category of the message
+	 * @param msg supplies the message to be sent
+	 */
+	public static void sendDebugMsg(DebugCategory category, Supplier<String> msg) {
+		if (isDebugging(category))
+			sendDebugMsg(msg.get());
+	}
+
+	/**
+	 * Sends a debug message of a category, formatting it only if
+	 * {@link #isDebugging(DebugCategory)}.
+	 *
+	 * @param category the category of the message
+	 * @param template the message to be sent, with a %s for each argument
+	 * @param arg the argument
+	 */
+	public static void sendDebugMsg(DebugCategory category, String template, Object arg) {
+		if (isDebugging(category))
+			sendDebugMsg(String.format(template, arg));
+	}
+
+	public static void sendDebugMsg(DebugCategory category, String template, Object arg1, Object arg2) {
+		if (isDebugging(category))
+			sendDebugMsg(String.format(template, arg1, arg2));
+	}
+
+	public static void sendDebugMsg(DebugCategory category, String template, Object arg1, Object arg2, Object arg3) {
+		if (isDebugging(category))
+			sendDebugMsg(String.format(template, arg1, arg2, arg3));
+	}
+
+	public static void sendDebugMsg(DebugCategory category, String template, Object arg1, Object arg2, Object arg3, Object arg4) {
+		if (isDebugging(category))
+			sendDebugMsg(String.format(template, arg1, arg2, arg3, arg4));
+	}
+
 	/////////////////
 
 	/**
@@ -7,11 +7,14 @@ import com.palmergames.bukkit.towny.event.NationUpkeepCalculationEvent;
 import com.palmergames.bukkit.towny.event.TownUpkeepCalculationEvent;
 import com.palmergames.bukkit.towny.event.TownUpkeepPenalityCalculationEvent;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.object.LevelTable;
 import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.NationLevelData;
 import com.palmergames.bukkit.towny.object.NationSpawnLevel.NSpawnLevel;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlockOwner;
+import com.palmergames.bukkit.towny.object.TownLevelData;
 import com.palmergames.bukkit.towny.object.TownSpawnLevel.SpawnLevel;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 import com.palmergames.bukkit.towny.object.TownyPermission.PermLevel;
@@ -21,7 +24,7 @@ import com.palmergames.bukkit.towny.utils.EntityTypeUtil;
 import com.palmergames.bukkit.towny.war.common.WarZoneConfig;
 import com.palmergames.bukkit.towny.war.flagwar.FlagWarConfig;
 import com.palmergames.bukkit.util.Colors;
-import com.palmergames.bukkit.util.ItemLists;
+import com.palmergames.bukkit.util.MaterialSet;
 import com.palmergames.util.FileMgmt;
 import com.palmergames.util.StringMgmt;
 import com.palmergames.util.TimeTools;
@@ -29,6 +32,7 @@ import com.palmergames.util.TimeTools;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -39,9 +43,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class TownySettings {
 
@@ -58,44 +59,39 @@ public class TownySettings {
 	// private static Pattern namePattern = null;
 	private static CommentedConfiguration config, newConfig, playermap;
 	private static int uuidCount;
+	// Rebuilt whenever the config changes, see refreshSnapshot().
+	private static volatile TownySettingsSnapshot snapshot;
 
-	private static final SortedMap<Integer, Map<TownySettings.TownLevel, Object>> configTownLevel = Collections.synchronizedSortedMap(new TreeMap<Integer, Map<TownySettings.TownLevel, Object>>(Collections.reverseOrder()));
-	private static final SortedMap<Integer, Map<TownySettings.NationLevel, Object>> configNationLevel = Collections.synchronizedSortedMap(new TreeMap<Integer, Map<TownySettings.NationLevel, Object>>(Collections.reverseOrder()));
+	// Replaced as a whole when the levels are loaded, never changed in place.
+	private static volatile LevelTable<TownLevelData> townLevels = new LevelTable<>(Collections.emptyMap());
+	private static volatile LevelTable<NationLevelData> nationLevels = new LevelTable<>(Collections.emptyMap());
 	
-	private static final List<String> ItemUseMaterials = new ArrayList<>();
-	private static final List<String> SwitchUseMaterials = new ArrayList<>();
+	private static MaterialSet itemUseMaterials = MaterialSet.of(null);
+	private static MaterialSet switchUseMaterials = MaterialSet.of(null);
 	private static final List<Class<?>> protectedMobs = new ArrayList<>();
 	
+	/**
+	 * Adds a town level to the ones loaded from the config, replacing any level for the same number of residents.
+	 */
 	public static void newTownLevel(int numResidents, String namePrefix, String namePostfix, String mayorPrefix, String mayorPostfix, int townBlockLimit, double townUpkeepMultiplier, int townOutpostLimit, int townBlockBuyBonusLimit, double debtCapModifier) {
 
-		ConcurrentHashMap<TownySettings.TownLevel, Object> m = new ConcurrentHashMap<TownySettings.TownLevel, Object>();
-		m.put(TownySettings.TownLevel.NAME_PREFIX, namePrefix);
-		m.put(TownySettings.TownLevel.NAME_POSTFIX, namePostfix);
-		m.put(TownySettings.TownLevel.MAYOR_PREFIX, mayorPrefix);
-		m.put(TownySettings.TownLevel.MAYOR_POSTFIX, mayorPostfix);
-		m.put(TownySettings.TownLevel.TOWN_BLOCK_LIMIT, townBlockLimit);
-		m.put(TownySettings.TownLevel.UPKEEP_MULTIPLIER, townUpkeepMultiplier);
-		m.put(TownySettings.TownLevel.OUTPOST_LIMIT, townOutpostLimit);
-		m.put(TownySettings.TownLevel.TOWN_BLOCK_BUY_BONUS_LIMIT, townBlockBuyBonusLimit);
-		m.put(TownySettings.TownLevel.DEBT_CAP_MODIFIER, debtCapModifier);
-		configTownLevel.put(numResidents, m);
+		Map<Integer, TownLevelData> levels = new HashMap<>();
+		for (TownLevelData level : townLevels.getLevels())
+			levels.put(level.getNumResidents(), level);
+		levels.put(numResidents, new TownLevelData(numResidents, namePrefix, namePostfix, mayorPrefix, mayorPostfix, townBlockLimit, townUpkeepMultiplier, townOutpostLimit, townBlockBuyBonusLimit, debtCapModifier));
+		townLevels = new LevelTable<>(levels);
 	}
 
+	/**
+	 * Adds a nation level to the ones loaded from the config, replacing any level for the same number of residents.
+	 */
 	public static void newNationLevel(int numResidents, String namePrefix, String namePostfix, String capitalPrefix, String capitalPostfix, String kingPrefix, String kingPostfix, int townBlockLimitBonus, double nationUpkeepMultiplier, double nationTownUpkeepMultiplier, int nationZonesSize, int nationBonusOutpostLimit) {
 
-		ConcurrentHashMap<TownySettings.NationLevel, Object> m = new ConcurrentHashMap<TownySettings.NationLevel, Object>();
-		m.put(TownySettings.NationLevel.NAME_PREFIX, namePrefix);
-		m.put(TownySettings.NationLevel.NAME_POSTFIX, namePostfix);
-		m.put(TownySettings.NationLevel.CAPITAL_PREFIX, capitalPrefix);
-		m.put(TownySettings.NationLevel.CAPITAL_POSTFIX, capitalPostfix);
-		m.put(TownySettings.NationLevel.KING_PREFIX, kingPrefix);
-		m.put(TownySettings.NationLevel.KING_POSTFIX, kingPostfix);
-		m.put(TownySettings.NationLevel.TOWN_BLOCK_LIMIT_BONUS, townBlockLimitBonus);
-		m.put(TownySettings.NationLevel.UPKEEP_MULTIPLIER, nationUpkeepMultiplier);
-		m.put(TownySettings.NationLevel.NATION_TOWN_UPKEEP_MULTIPLIER, nationTownUpkeepMultiplier);
-		m.put(TownySettings.NationLevel.NATIONZONES_SIZE, nationZonesSize);
-		m.put(TownySettings.NationLevel.NATION_BONUS_OUTPOST_LIMIT, nationBonusOutpostLimit);
-		configNationLevel.put(numResidents, m);
+		Map<Integer, NationLevelData> levels = new HashMap<>();
+		for (NationLevelData level : nationLevels.getLevels())
+			levels.put(level.getNumResidents(), level);
+		levels.put(numResidents, new NationLevelData(numResidents, namePrefix, namePostfix, capitalPrefix, capitalPostfix, kingPrefix, kingPostfix, townBlockLimitBonus, nationUpkeepMultiplier, nationTownUpkeepMultiplier, nationZonesSize, nationBonusOutpostLimit));
+		nationLevels = new LevelTable<>(levels);
 	}
 
 	/**
@@ -113,7 +109,8 @@ public class TownySettings {
 
 		// Some configs end up having their numResident: 0 level removed which causes big errors.
 		// Add a 0 level town_level here which may get replaced when the config's town_levels are loaded below.
-		newTownLevel(0, "", " Ruins", "Spirit", "", 1, 1.0, 0, 0, 1.0);
+		Map<Integer, TownLevelData> townLevels = new HashMap<>();
+		townLevels.put(0, new TownLevelData(0, "", " Ruins", "Spirit", "", 1, 1.0, 0, 0, 1.0));
 		
 		List<Map<?, ?>> levels = config.getMapList("levels.town_level");
 		for (Map<?, ?> level : levels) {
@@ -125,8 +122,9 @@ public class TownySettings {
 				 * Until the migrator is revamped to handle different types of primitives, or,
 				 * the nation/town levels are changed this might be least painful alternative.
 				 */
-				newTownLevel(
-						Integer.parseInt(level.get("numResidents").toString()),
+				int numResidents = Integer.parseInt(level.get("numResidents").toString());
+				townLevels.put(numResidents, new TownLevelData(
+						numResidents,
 						String.valueOf(level.get("namePrefix")),
 						String.valueOf(level.get("namePostfix")),
 						String.valueOf(level.get("mayorPrefix")),
@@ -136,7 +134,7 @@ public class TownySettings {
 						Integer.parseInt(level.get("townOutpostLimit").toString()),
 						Integer.parseInt(level.get("townBlockBuyBonusLimit").toString()),
 						Double.parseDouble(level.get("debtCapModifier").toString())
-						);
+						));
 			} catch (NullPointerException e) {
 				System.out.println("Your Towny config.yml's town_level section is out of date.");
 				System.out.println("This can be fixed automatically by deleting the town_level section and letting Towny remake it on the next startup.");
@@ -144,6 +142,8 @@ public class TownySettings {
 			}
 
 		}
+		// Levels removed from the config are dropped on a reload.
+		TownySettings.townLevels = new LevelTable<>(townLevels);
 	}
 
 	/**
@@ -160,7 +160,8 @@ public class TownySettings {
 		
 		// Some configs end up having their numResident: 0 level removed which causes big errors.
 		// Add a 0 level nation_level here which may get replaced when the config's nation_levels are loaded below.
-		newNationLevel(0, "Land of ", " (Nation)", "", "", "Leader ", "", 10, 1.0, 1.0, 1, 0);
+		Map<Integer, NationLevelData> nationLevels = new HashMap<>();
+		nationLevels.put(0, new NationLevelData(0, "Land of ", " (Nation)", "", "", "Leader ", "", 10, 1.0, 1.0, 1, 0));
 
 		List<Map<?, ?>> levels = config.getMapList("levels.nation_level");
 		for (Map<?, ?> level : levels) {
@@ -172,8 +173,9 @@ public class TownySettings {
 				 * Until the migrator is revamped to handle different types of primitives, or,
 				 * the nation/town levels are changed this might be least painful alternative.
 				 */
-				newNationLevel( 
-						Integer.parseInt(level.get("numResidents").toString()), 
+				int numResidents = Integer.parseInt(level.get("numResidents").toString());
+				nationLevels.put(numResidents, new NationLevelData(
+						numResidents,
 						String.valueOf(level.get("namePrefix")),
 						String.valueOf(level.get("namePostfix")),
 						String.valueOf(level.get("capitalPrefix")),
@@ -185,7 +187,7 @@ public class TownySettings {
 						Double.parseDouble(level.get("nationTownUpkeepModifier").toString()),
 						Integer.parseInt(level.get("nationZonesSize").toString()),
 						Integer.parseInt(level.get("nationBonusOutpostLimit").toString())
-						);
+						));
 			} catch (Exception e) {
 				System.out.println("Your Towny config.yml's nation_level section is out of date.");
 				System.out.println("This can be fixed automatically by deleting the nation_level section and letting Towny remake it on the next startup.");
@@ -193,30 +195,79 @@ public class TownySettings {
 			}
 
 		}
+		TownySettings.nationLevels = new LevelTable<>(nationLevels);
 	}
 
+	/**
+	 * @return the town levels, lowest first.
+	 */
+	public static LevelTable<TownLevelData> getTownLevels() {
+
+		return townLevels;
+	}
+
+	/**
+	 * @return the nation levels, lowest first.
+	 */
+	public static LevelTable<NationLevelData> getNationLevels() {
+
+		return nationLevels;
+	}
+
+	/**
+	 * @deprecated Use {@link #getTownLevels()} instead.
+	 */
+	@Deprecated
 	public static Map<TownySettings.TownLevel, Object> getTownLevel(int numResidents) {
 
-		return configTownLevel.get(numResidents);
+		TownLevelData level = townLevels.getExactLevel(numResidents);
+		return level == null ? null : level.asMap();
 	}
 
+	/**
+	 * @deprecated Use {@link #getNationLevels()} instead.
+	 */
+	@Deprecated
 	public static Map<TownySettings.NationLevel, Object> getNationLevel(int numResidents) {
 
-		return configNationLevel.get(numResidents);
+		NationLevelData level = nationLevels.getExactLevel(numResidents);
+		return level == null ? null : level.asMap();
 	}
 
+	/**
+	 * @deprecated Use {@link Town#getTownLevel()} instead.
+	 */
+	@Deprecated
 	public static Map<TownySettings.TownLevel, Object> getTownLevel(Town town) {
 
-		return getTownLevel(calcTownLevel(town));
+		return town.getTownLevel().asMap();
 	}
 
+	/**
+	 * @deprecated Use {@link #getTownLevelData(Town, int)} instead.
+	 */
+	@Deprecated
 	public static Map<TownySettings.TownLevel, Object> getTownLevel(Town town, int residents) {
-		return getTownLevel(calcTownLevel(town, residents));
+		return getTownLevelData(town, residents).asMap();
 	}
 
+	/**
+	 * @deprecated Use {@link Nation#getNationLevel()} instead.
+	 */
+	@Deprecated
 	public static Map<TownySettings.NationLevel, Object> getNationLevel(Nation nation) {
 
-		return getNationLevel(calcNationLevel(nation));
+		return nation.getNationLevel().asMap();
+	}
+
+	/**
+	 * @param town Town to test for.
+	 * @param residents Number of residents the town would have.
+	 * @return the level the town would be at with the given number of residents.
+	 */
+	public static TownLevelData getTownLevelData(Town town, int residents) {
+
+		return townLevels.getLevel(town.isRuined() ? 0 : residents);
 	}
 
 	public static CommentedConfiguration getConfig() {
@@ -224,27 +275,15 @@ public class TownySettings {
 	}
 
 	public static int calcTownLevel(Town town) {
-//Creatorfromhell's PR for replacing SortedMap town and nation levels.
-//		Integer level = configTownLevel.floorKey(town.getNumResidents());
-//
-//		if (level != null) return level;
-//		return 0;
-		if(town.isRuined())
-			return 0;
-		int n = town.getNumResidents();
-		for (Integer level : configTownLevel.keySet())
-			if (n >= level)
-				return level;
-		return 0;
+
+		TownLevelData level = town.getTownLevel();
+		return level == null ? 0 : level.getNumResidents();
 	}
 
 	public static int calcTownLevel(Town town, int residents) {
-		if (town.isRuined())
-			return 0;
-		for (int level : configTownLevel.keySet())
-			if (residents >= level)
-				return level;
-		return 0;
+
+		TownLevelData level = getTownLevelData(town, residents);
+		return level == null ? 0 : level.getNumResidents();
 	}
 
 	/**
@@ -262,26 +301,13 @@ public class TownySettings {
 		if(town.isRuined())
 			return 0;
 
-		int townLevelId = -1;
-		int numResidents = town.getNumResidents();
-		for (Integer level : configTownLevel.keySet()) {
-			if (level <= numResidents)
-				townLevelId ++;
-		}
-		return townLevelId;
+		return townLevels.indexOf(town.getNumResidents());
 	}
 
 	public static int calcNationLevel(Nation nation) {
-//Creatorfromhell's PR for replacing SortedMap town and nation levels.
-//		Integer level = configNationLevel.floorKey(nation.getNumResidents());
-//
-//		if (level != null) return level;
-//		return 0;
-		int n = nation.getNumResidents();
-		for (Integer level : configNationLevel.keySet())
-			if (n >= level)
-				return level;
-		return 0;
+
+		NationLevelData level = nation.getNationLevel();
+		return level == null ? 0 : level.getNumResidents();
 	}
 
 	public static void loadConfig(String filepath, String version) throws IOException {
@@ -302,7 +328,40 @@ public class TownySettings {
 			loadSwitchAndItemUseMaterialsLists();
 			loadProtectedMobsList();
 			ChunkNotification.loadFormatStrings();
+			refreshSnapshot();
+		}
+	}
+
+	/**
+	 * Rebuilds the pre-parsed settings from the config, after the config has
+	 * been changed without going through {@link #loadConfig(String, String)},
+	 * such as by the config migrator.
+	 */
+	public static void refreshSnapshot() {
+
+		snapshot = new TownySettingsSnapshot();
+	}
+
+	/**
+	 * @return the pre-parsed settings used on hot paths, rebuilt whenever the config changes.
+	 */
+	public static TownySettingsSnapshot getSnapshot() {
+
+		return snapshot();
+	}
+
+	/*
+	 * Settings read while the config is first being loaded, before loadConfig() has built
+	 * the snapshot, build it from the config as it is so far.
+	 */
+	private static TownySettingsSnapshot snapshot() {
+
+		TownySettingsSnapshot current = snapshot;
+		if (current == null) {
+			current = new TownySettingsSnapshot();
+			snapshot = current;
 		}
+		return current;
 	}
 	
 	private static void loadProtectedMobsList() {
@@ -312,38 +371,12 @@ public class TownySettings {
 
 	private static void loadSwitchAndItemUseMaterialsLists() {
 
-		SwitchUseMaterials.clear();
-		ItemUseMaterials.clear();
-		
-		/*
-		 * Load switches from config value.
-		 * Scan over them and replace any grouping with the contents of the group.
-		 * Add single item or grouping to SwitchUseMaterials.
-		 */
-		List<String> switches = getStrArr(ConfigNodes.PROT_SWITCH_MAT);
-		for (String matName : switches) {
-			if (ItemLists.GROUPS.contains(matName)) {
-				List<String> group = ItemLists.getGrouping(matName);
-				SwitchUseMaterials.addAll(group);
-			} else {
-				SwitchUseMaterials.add(matName);
-			}
-		}
-
 		/*
-		 * Load items from config value.
-		 * Scan over them and replace any grouping with the contents of the group.
-		 * Add single item or grouping to ItemUseMaterials.
+		 * Load switches and items from config values.
+		 * Any grouping is replaced with the contents of the group.
 		 */
-		List<String> items = getStrArr(ConfigNodes.PROT_ITEM_USE_MAT);
-		for (String matName : items) {
-			if (ItemLists.GROUPS.contains(matName)) {
-				List<String> group = ItemLists.getGrouping(matName);
-				ItemUseMaterials.addAll(group);
-			} else {
-				ItemUseMaterials.add(matName);
-			}
-		}
+		switchUseMaterials = MaterialSet.ofGroups(getStrArr(ConfigNodes.PROT_SWITCH_MAT));
+		itemUseMaterials = MaterialSet.ofGroups(getStrArr(ConfigNodes.PROT_ITEM_USE_MAT));
 	}
 
 	public static void loadPlayerMap(String filepath) {
@@ -769,7 +802,7 @@ public class TownySettings {
 	public static String getKingPrefix(Resident resident) {
 
 		try {
-			return (String) getNationLevel(resident.getTown().getNation()).get(TownySettings.NationLevel.KING_PREFIX);
+			return resident.getTown().getNation().getNationLevel().getKingPrefix();
 		} catch (NotRegisteredException e) {
 			sendError("getKingPrefix.");
 			return "";
@@ -779,7 +812,7 @@ public class TownySettings {
 	public static String getMayorPrefix(Resident resident) {
 
 		try {
-			return (String) getTownLevel(resident.getTown()).get(TownySettings.TownLevel.MAYOR_PREFIX);
+			return resident.getTown().getTownLevel().getMayorPrefix();
 		} catch (NotRegisteredException e) {
 			sendError("getMayorPrefix.");
 			return "";
@@ -789,7 +822,7 @@ public class TownySettings {
 	public static String getCapitalPostfix(Town town) {
 
 		try {
-			return ChatColor.translateAlternateColorCodes('&',(String) getNationLevel(town.getNation()).get(TownySettings.NationLevel.CAPITAL_POSTFIX));
+			return ChatColor.translateAlternateColorCodes('&',town.getNation().getNationLevel().getCapitalPostfix());
 		} catch (NotRegisteredException e) {
 			sendError("getCapitalPostfix.");
 			return "";
@@ -799,7 +832,7 @@ public class TownySettings {
 	public static String getTownPostfix(Town town) {
 
 		try {
-			return ChatColor.translateAlternateColorCodes('&',(String) getTownLevel(town).get(TownySettings.TownLevel.NAME_POSTFIX));
+			return ChatColor.translateAlternateColorCodes('&',town.getTownLevel().getNamePostfix());
 		} catch (Exception e) {
 			sendError("getTownPostfix.");
 			return "";
@@ -809,7 +842,7 @@ public class TownySettings {
 	public static String getNationPostfix(Nation nation) {
 
 		try {
-			return ChatColor.translateAlternateColorCodes('&',(String) getNationLevel(nation).get(TownySettings.NationLevel.NAME_POSTFIX));
+			return ChatColor.translateAlternateColorCodes('&',nation.getNationLevel().getNamePostfix());
 		} catch (Exception e) {
 			sendError("getNationPostfix.");
 			return "";
@@ -819,7 +852,7 @@ public class TownySettings {
 	public static String getNationPrefix(Nation nation) {
 
 		try {
-			return ChatColor.translateAlternateColorCodes('&',(String) getNationLevel(nation).get(TownySettings.NationLevel.NAME_PREFIX));
+			return ChatColor.translateAlternateColorCodes('&',nation.getNationLevel().getNamePrefix());
 		} catch (Exception e) {
 			sendError("getNationPrefix.");
 			return "";
@@ -829,7 +862,7 @@ public class TownySettings {
 	public static String getTownPrefix(Town town) {
 
 		try {
-			return ChatColor.translateAlternateColorCodes('&',(String) getTownLevel(town).get(TownySettings.TownLevel.NAME_PREFIX));
+			return ChatColor.translateAlternateColorCodes('&',town.getTownLevel().getNamePrefix());
 		} catch (Exception e) {
 			sendError("getTownPrefix.");
 			return "";
@@ -839,7 +872,7 @@ public class TownySettings {
 	public static String getCapitalPrefix(Town town) {
 
 		try {
-			return ChatColor.translateAlternateColorCodes('&',(String) getNationLevel(town.getNation()).get(TownySettings.NationLevel.CAPITAL_PREFIX));
+			return ChatColor.translateAlternateColorCodes('&',town.getNation().getNationLevel().getCapitalPrefix());
 		} catch (NotRegisteredException e) {
 			sendError("getCapitalPrefix.");
 			return "";
@@ -849,7 +882,7 @@ public class TownySettings {
 	public static String getKingPostfix(Resident resident) {
 
 		try {
-			return (String) getNationLevel(resident.getTown().getNation()).get(TownySettings.NationLevel.KING_POSTFIX);
+			return resident.getTown().getNation().getNationLevel().getKingPostfix();
 		} catch (NotRegisteredException e) {
 			sendError("getKingPostfix.");
 			return "";
@@ -859,7 +892,7 @@ public class TownySettings {
 	public static String getMayorPostfix(Resident resident) {
 
 		try {
-			return (String) getTownLevel(resident.getTown()).get(TownySettings.TownLevel.MAYOR_POSTFIX);
+			return resident.getTown().getTownLevel().getMayorPostfix();
 		} catch (NotRegisteredException e) {
 			sendError("getMayorPostfix.");
 			return "";
@@ -878,7 +911,7 @@ public class TownySettings {
 
 	public static boolean getBedUse() {
 
-		return getBoolean(ConfigNodes.RES_SETTING_DENY_BED_USE);
+		return snapshot().getBedUse();
 	}
 
 	public static String getLoadDatabase() {
@@ -891,6 +924,11 @@ public class TownySettings {
 		return getString(ConfigNodes.PLUGIN_DATABASE_SAVE);
 	}
 
+	public static boolean isSaveJournalEnabled() {
+
+		return getBoolean(ConfigNodes.PLUGIN_DATABASE_SAVE_JOURNAL);
+	}
+
 	public static boolean isGatheringResidentUUIDS() {
 		
 		return getBoolean(ConfigNodes.PLUGIN_DATABASE_GATHER_RESIDENT_UUIDS);
@@ -932,6 +970,10 @@ public class TownySettings {
 		return getString(ConfigNodes.PLUGIN_DATABASE_FLAGS);
 	}
 
+	public static boolean isSQLStreamingLoad() {
+		return getBoolean(ConfigNodes.PLUGIN_DATABASE_LOADING_STREAMING);
+	}
+
 	public static int getMaxPoolSize() {
 		return getInt(ConfigNodes.PLUGIN_DATABASE_POOLING_MAX_POOL_SIZE);
 	}
@@ -950,7 +992,7 @@ public class TownySettings {
 		int n = town.getBonusBlocks() + town.getPurchasedBlocks();
 
 		if (ratio == 0) {
-			n += (Integer) getTownLevel(town).get(TownySettings.TownLevel.TOWN_BLOCK_LIMIT);
+			n += town.getTownLevel().getTownBlockLimit();
 
 		} else
 			n += town.getNumResidents() * ratio;
@@ -965,7 +1007,7 @@ public class TownySettings {
 		int amount = town.getBonusBlocks() + town.getPurchasedBlocks();
 
 		if (ratio == 0)
-			amount += (int) getTownLevel(town, residents).get(TownySettings.TownLevel.TOWN_BLOCK_LIMIT);
+			amount += getTownLevelData(town, residents).getTownBlockLimit();
 		else
 			amount += residents * ratio;
 
@@ -975,11 +1017,11 @@ public class TownySettings {
 	
 	public static int getMaxOutposts(Town town) {
 		
-		int townOutposts = (Integer) getTownLevel(town).get(TownySettings.TownLevel.OUTPOST_LIMIT);
+		int townOutposts = town.getTownLevel().getTownOutpostLimit();
 		int nationOutposts = 0;
 		if (town.hasNation())
 			try {
-				nationOutposts = (Integer) getNationLevel(town.getNation()).get(TownySettings.NationLevel.NATION_BONUS_OUTPOST_LIMIT);
+				nationOutposts = town.getNation().getNationLevel().getNationBonusOutpostLimit();
 			} catch (NotRegisteredException e) {
 			}
 		int n = townOutposts + nationOutposts;
@@ -988,11 +1030,11 @@ public class TownySettings {
 	
 	public static int getMaxBonusBlocks(Town town) {
 		
-		return (Integer) getTownLevel(town).get(TownySettings.TownLevel.TOWN_BLOCK_BUY_BONUS_LIMIT);
+		return town.getTownLevel().getTownBlockBuyBonusLimit();
 	}
 
 	public static int getNationBonusBlocks(Nation nation) {
-		int bonusBlocks = (Integer) getNationLevel(nation).get(TownySettings.NationLevel.TOWN_BLOCK_LIMIT_BONUS);
+		int bonusBlocks = nation.getNationLevel().getTownBlockLimitBonus();
 		NationBonusCalculationEvent calculationEvent = new NationBonusCalculationEvent(nation, bonusBlocks);
 		Bukkit.getPluginManager().callEvent(calculationEvent);
 		return calculationEvent.getBonusBlocks();
@@ -1016,7 +1058,7 @@ public class TownySettings {
 
 	public static int getTownBlockSize() {
 
-		return getInt(ConfigNodes.TOWN_TOWN_BLOCK_SIZE);
+		return snapshot().getTownBlockSize();
 	}
 
 	public static boolean isFriendlyFireEnabled() {
@@ -1071,12 +1113,20 @@ public class TownySettings {
 
 	public static boolean getDebug() {
 
-		return getBoolean(ConfigNodes.PLUGIN_DEBUG_MODE);
+		return snapshot().isDebug();
 	}
 	
 	public static String getTool() {
 
-		return getString(ConfigNodes.PLUGIN_INFO_TOOL);
+		return snapshot().getTool();
+	}
+
+	/**
+	 * @return the info tool Material, or null if the configured tool is not a Material.
+	 */
+	public static Material getToolMaterial() {
+
+		return snapshot().getToolMaterial();
 	}
 
 	public static void setDebug(boolean b) {
@@ -1150,12 +1200,12 @@ public class TownySettings {
 
 	public static boolean isWarTimeTownsNeutral() {
 
-		return getBoolean(ConfigNodes.WAR_EVENT_TOWNS_NEUTRAL);
+		return snapshot().isWarTimeTownsNeutral();
 	}
 
 	public static boolean isAllowWarBlockGriefing() {
 
-		return getBoolean(ConfigNodes.WAR_EVENT_BLOCK_GRIEFING);
+		return snapshot().isAllowWarBlockGriefing();
 	}
 
 	public static int getWarzoneTownBlockHealth() {
@@ -1235,7 +1285,7 @@ public class TownySettings {
 
 	public static boolean isCreatureTriggeringPressurePlateDisabled() {
 
-		return getBoolean(ConfigNodes.PROT_MOB_DISABLE_TRIGGER_PRESSURE_PLATE_STONE);
+		return snapshot().isCreatureTriggeringPressurePlateDisabled();
 	}
 
 	public static boolean isRemovingVillagerBabiesTown() {
@@ -1435,37 +1485,57 @@ public class TownySettings {
 
 	public static List<String> getSwitchMaterials() {
 
-		return SwitchUseMaterials;
+		return switchUseMaterials.getNames();
 	}
 	
 	public static List<String> getItemUseMaterials() {
 
-		return ItemUseMaterials;
+		return itemUseMaterials.getNames();
 	}
 	
 	public static boolean isSwitchMaterial(String mat) {
 
-		return SwitchUseMaterials.contains(mat);
+		return switchUseMaterials.contains(mat);
+	}
+
+	public static boolean isSwitchMaterial(Material material) {
+
+		return switchUseMaterials.contains(material);
 	}
 
 	public static boolean isItemUseMaterial(String mat) {
 
-		return ItemUseMaterials.contains(mat);
+		return itemUseMaterials.contains(mat);
+	}
+
+	public static boolean isItemUseMaterial(Material material) {
+
+		return itemUseMaterials.contains(material);
 	}
 	
 	public static List<String> getFireSpreadBypassMaterials() {
 		
-		return getStrArr(ConfigNodes.PROT_FIRE_SPREAD_BYPASS);
+		return snapshot().getFireSpreadBypassNames();
 	}
 	
 	public static boolean isFireSpreadBypassMaterial(String mat) {
 		
-		return getFireSpreadBypassMaterials().contains(mat);
+		return snapshot().isFireSpreadBypassName(mat);
+	}
+
+	public static boolean isFireSpreadBypassMaterial(Material material) {
+
+		return snapshot().isFireSpreadBypassMaterial(material);
 	}
 	
 	public static List<String> getUnclaimedZoneIgnoreMaterials() {
 
-		return getStrArr(ConfigNodes.UNCLAIMED_ZONE_IGNORE);
+		return snapshot().getUnclaimedZoneIgnoreSet().getNames();
+	}
+
+	public static MaterialSet getUnclaimedZoneIgnoreSet() {
+
+		return snapshot().getUnclaimedZoneIgnoreSet();
 	}
 	
 	public static List<Class<?>> getProtectedEntityTypes() {
@@ -1474,12 +1544,13 @@ public class TownySettings {
 	
 	public static List<String> getPotionTypes() {
 
-		return getStrArr(ConfigNodes.PROT_POTION_TYPES);
+		return snapshot().getPotionTypes();
 	}
 
 	private static void setProperty(String root, Object value) {
 
 		config.set(root.toLowerCase(), value.toString());
+		refreshSnapshot();
 	}
 
 	private static void setNewProperty(String root, Object value) {
@@ -1781,7 +1852,7 @@ public class TownySettings {
 
 	public static boolean isDevMode() {
 
-		return getBoolean(ConfigNodes.PLUGIN_DEV_MODE_ENABLE);
+		return snapshot().isDevMode();
 	}
 
 	public static void setDevMode(boolean choice) {
@@ -1791,7 +1862,7 @@ public class TownySettings {
 
 	public static String getDevName() {
 
-		return getString(ConfigNodes.PLUGIN_DEV_MODE_DEV_NAME);
+		return snapshot().getDevName();
 	}
 
 	public static boolean isDeclaringNeutral() {
@@ -1822,21 +1893,21 @@ public class TownySettings {
 			if (isUpkeepByPlot()) {
 				multiplier = town.getTownBlocks().size();
 			} else {
-				multiplier = Double.parseDouble(getTownLevel(town).get(TownySettings.TownLevel.UPKEEP_MULTIPLIER).toString());
+				multiplier = town.getTownLevel().getUpkeepModifier();
 			}
 		}
 		
 		if (town.hasNation()) {
 			double nationMultiplier = 1.0;
 			try {
-				nationMultiplier = Double.parseDouble(getNationLevel(town.getNation()).get(TownySettings.NationLevel.NATION_TOWN_UPKEEP_MULTIPLIER).toString());
-			} catch (NumberFormatException|NotRegisteredException e) {
+				nationMultiplier = town.getNation().getNationLevel().getNationTownUpkeepModifier();
+			} catch (NotRegisteredException e) {
 				e.printStackTrace();
 			}
 			if (isUpkeepByPlot()) {
 				double amount;
 				if (isTownLevelModifiersAffectingPlotBasedUpkeep())
-					amount = (((getTownUpkeep() * multiplier) * Double.parseDouble(getTownLevel(town).get(TownySettings.TownLevel.UPKEEP_MULTIPLIER).toString())) * nationMultiplier);
+					amount = (((getTownUpkeep() * multiplier) * town.getTownLevel().getUpkeepModifier()) * nationMultiplier);
 				else
 					amount = (getTownUpkeep() * multiplier) * nationMultiplier;
 				if (TownySettings.getPlotBasedUpkeepMinimumAmount() > 0.0 && amount < TownySettings.getPlotBasedUpkeepMinimumAmount())
@@ -1848,7 +1919,7 @@ public class TownySettings {
 			if (isUpkeepByPlot()) {
 				double amount;
 				if (isTownLevelModifiersAffectingPlotBasedUpkeep())
-					amount = (getTownUpkeep() * multiplier) * Double.parseDouble(getTownLevel(town).get(TownySettings.TownLevel.UPKEEP_MULTIPLIER).toString());
+					amount = (getTownUpkeep() * multiplier) * town.getTownLevel().getUpkeepModifier();
 				else
 					amount = getTownUpkeep() * multiplier;
 				if (TownySettings.getPlotBasedUpkeepMinimumAmount() > 0.0 && amount < TownySettings.getPlotBasedUpkeepMinimumAmount())
@@ -1933,11 +2004,11 @@ public class TownySettings {
 		if (nation != null) {
 			if (isNationUpkeepPerTown()) {
 				if (isNationLevelModifierAffectingNationUpkeepPerTown())
-					return (getNationUpkeep() * nation.getTowns().size()) * Double.parseDouble(getNationLevel(nation).get(TownySettings.NationLevel.UPKEEP_MULTIPLIER).toString());
+					return (getNationUpkeep() * nation.getTowns().size()) * nation.getNationLevel().getUpkeepModifier();
 				else
 					return (getNationUpkeep() * nation.getTowns().size());
 			} else {
-				multiplier = Double.parseDouble(getNationLevel(nation).get(TownySettings.NationLevel.UPKEEP_MULTIPLIER).toString());
+				multiplier = nation.getNationLevel().getUpkeepModifier();
 			}
 		}
 		return getNationUpkeep() * multiplier;
@@ -2066,6 +2137,30 @@ public class TownySettings {
 		return getSeconds(ConfigNodes.NWS_PLOT_MANAGEMENT_REVERT_TIME);
 	}
 
+	/**
+	 * @return milliseconds each revert on unclaim pass may spend restoring blocks.
+	 */
+	public static long getPlotManagementRevertBudget() {
+
+		return Math.max(1, getInt(ConfigNodes.NWS_PLOT_MANAGEMENT_REVERT_BUDGET));
+	}
+
+	/**
+	 * @return milliseconds every 5 ticks which may be spent reading queued saves on the main thread.
+	 */
+	public static long getSaveSnapshotBudget() {
+
+		return Math.max(1, getInt(ConfigNodes.PLUGIN_SAVE_SNAPSHOT_BUDGET));
+	}
+
+	/**
+	 * @return milliseconds per second which may be spent capturing plot snapshots.
+	 */
+	public static long getPlotManagementSnapshotBudget() {
+
+		return Math.max(1, getInt(ConfigNodes.PLUGIN_PLOT_SNAPSHOT_BUDGET));
+	}
+
 	public static boolean isUsingPlotManagementWildEntityRegen() {
 
 		return getBoolean(ConfigNodes.NWS_PLOT_MANAGEMENT_WILD_MOB_REVERT_ENABLE);
@@ -2083,7 +2178,12 @@ public class TownySettings {
 
 	public static List<String> getPlotManagementIgnoreIds() {
 
-		return getStrArr(ConfigNodes.NWS_PLOT_MANAGEMENT_REVERT_IGNORE);
+		return snapshot().getPlotManagementIgnoreSet().getNames();
+	}
+
+	public static MaterialSet getPlotManagementIgnoreSet() {
+
+		return snapshot().getPlotManagementIgnoreSet();
 	}
 
 	public static boolean isTownRespawning() {
@@ -2627,7 +2727,7 @@ public class TownySettings {
 	
 	public static int getPVPCoolDownTime() {
 
-		return getInt(ConfigNodes.GTOWN_SETTINGS_PVP_COOLDOWN_TIMER);
+		return snapshot().getPVPCoolDownTime();
 	}
 	
 	public static String getTownAccountPrefix() {
@@ -2706,11 +2806,19 @@ public class TownySettings {
 	}
 	
 	public static List<String> getFarmPlotBlocks() {
-		return getStrArr(ConfigNodes.GTOWN_FARM_PLOT_ALLOW_BLOCKS);
+		return snapshot().getFarmPlotBlockNames();
+	}
+
+	public static boolean isFarmPlotBlock(Material material) {
+		return snapshot().isFarmPlotBlock(material);
 	}
 	
 	public static List<String> getFarmAnimals() {
-		return getStrArr(ConfigNodes.GTOWN_FARM_ANIMALS);
+		return snapshot().getFarmAnimalNames();
+	}
+
+	public static boolean isFarmAnimal(EntityType type) {
+		return snapshot().isFarmAnimal(type);
 	}
 
 	public static boolean getKeepInventoryInTowns() {
@@ -2762,15 +2870,15 @@ public class TownySettings {
 	}
 	
 	public static boolean getNationZonesEnabled() {
-		return getBoolean(ConfigNodes.GNATION_SETTINGS_NATIONZONE_ENABLE);
+		return snapshot().isNationZonesEnabled();
 	}
 	
 	public static boolean getNationZonesCapitalsOnly() {
-		return getBoolean(ConfigNodes.GNATION_SETTINGS_NATIONZONE_ONLY_CAPITALS);
+		return snapshot().isNationZonesCapitalsOnly();
 	}
 	
 	public static boolean getNationZonesWarDisables() {
-		return getBoolean(ConfigNodes.GNATION_SETTINGS_NATIONZONE_WAR_DISABLES);
+		return snapshot().isNationZonesWarDisables();
 	}
 	
 	public static boolean getNationZonesShowNotifications() {
@@ -2781,6 +2889,16 @@ public class TownySettings {
 		return getInt(ConfigNodes.GNATION_SETTINGS_NATIONZONE_CAPITAL_BONUS_SIZE);
 	}
 	
+	/**
+	 * @return the largest nation zone any town could have, including the capital bonus.
+	 */
+	public static int getMaxNationZoneSize() {
+		int max = 0;
+		for (NationLevelData level : nationLevels.getLevels())
+			max = Math.max(max, level.getNationZonesSize());
+		return max + getNationZonesCapitalBonusSize();
+	}
+	
 	public static boolean isNationSpawnOnlyAllowedInCapital() { 
 		return getBoolean(ConfigNodes.GNATION_SETTINGS_CAPITAL_SPAWN);
 	}
@@ -3070,7 +3188,7 @@ public class TownySettings {
 	}
 
 	public static boolean getPreventFluidGriefingEnabled() {
-		return getBoolean(ConfigNodes.GTOWN_SETTINGS_PREVENT_FLUID_GRIEFING);
+		return snapshot().isPreventingFluidGriefing();
 	}
 
 	public static int getMaxTagLength() {
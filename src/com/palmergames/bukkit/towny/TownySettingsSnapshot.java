@@ -0,0 +1,248 @@
+package com.palmergames.bukkit.towny;
+
+import com.palmergames.bukkit.config.ConfigNodes;
+import com.palmergames.bukkit.util.MaterialSet;
+import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable, pre-parsed copy of the settings which are read on the
+ * protection hot paths.
+ *
+ * {@link TownySettings} builds a new snapshot every time the config is loaded
+ * or changed, so reading a setting from it never looks up or parses a string.
+ */
+public final class TownySettingsSnapshot {
+
+	private final boolean debug;
+	private final boolean devMode;
+	private final String devName;
+	private final Set<TownyMessaging.DebugCategory> debugCategories;
+	private final int townBlockSize;
+	private final int pvpCoolDownTime;
+	private final boolean bedUse;
+	private final boolean preventFluidGriefing;
+	private final boolean creatureTriggeringPressurePlateDisabled;
+	private final boolean warTimeTownsNeutral;
+	private final boolean allowWarBlockGriefing;
+	private final boolean nationZonesEnabled;
+	private final boolean nationZonesCapitalsOnly;
+	private final boolean nationZonesWarDisables;
+
+	private final String tool;
+	private final Material toolMaterial;
+
+	private final List<String> fireSpreadBypassNames;
+	private final Set<String> fireSpreadBypassNameSet;
+	private final Set<Material> fireSpreadBypassMaterials;
+	private final List<String> farmPlotBlockNames;
+	private final Set<Material> farmPlotBlocks;
+	private final List<String> farmAnimalNames;
+	private final Set<EntityType> farmAnimals;
+	private final List<String> potionTypes;
+	private final MaterialSet plotManagementIgnoreSet;
+	private final MaterialSet unclaimedZoneIgnoreSet;
+
+	TownySettingsSnapshot() {
+
+		debug = TownySettings.getBoolean(ConfigNodes.PLUGIN_DEBUG_MODE);
+		devMode = TownySettings.getBoolean(ConfigNodes.PLUGIN_DEV_MODE_ENABLE);
+		devName = TownySettings.getString(ConfigNodes.PLUGIN_DEV_MODE_DEV_NAME);
+		EnumSet<TownyMessaging.DebugCategory> categories = EnumSet.noneOf(TownyMessaging.DebugCategory.class);
+		for (TownyMessaging.DebugCategory category : TownyMessaging.DebugCategory.values())
+			if (TownySettings.getBoolean(category.getNode()))
+				categories.add(category);
+		debugCategories = Collections.unmodifiableSet(categories);
+		townBlockSize = TownySettings.getInt(ConfigNodes.TOWN_TOWN_BLOCK_SIZE);
+		pvpCoolDownTime = TownySettings.getInt(ConfigNodes.GTOWN_SETTINGS_PVP_COOLDOWN_TIMER);
+		bedUse = TownySettings.getBoolean(ConfigNodes.RES_SETTING_DENY_BED_USE);
+		preventFluidGriefing = TownySettings.getBoolean(ConfigNodes.GTOWN_SETTINGS_PREVENT_FLUID_GRIEFING);
+		creatureTriggeringPressurePlateDisabled = TownySettings.getBoolean(ConfigNodes.PROT_MOB_DISABLE_TRIGGER_PRESSURE_PLATE_STONE);
+		warTimeTownsNeutral = TownySettings.getBoolean(ConfigNodes.WAR_EVENT_TOWNS_NEUTRAL);
+		allowWarBlockGriefing = TownySettings.getBoolean(ConfigNodes.WAR_EVENT_BLOCK_GRIEFING);
+		nationZonesEnabled = TownySettings.getBoolean(ConfigNodes.GNATION_SETTINGS_NATIONZONE_ENABLE);
+		nationZonesCapitalsOnly = TownySettings.getBoolean(ConfigNodes.GNATION_SETTINGS_NATIONZONE_ONLY_CAPITALS);
+		nationZonesWarDisables = TownySettings.getBoolean(ConfigNodes.GNATION_SETTINGS_NATIONZONE_WAR_DISABLES);
+
+		tool = TownySettings.getString(ConfigNodes.PLUGIN_INFO_TOOL);
+		toolMaterial = Material.getMaterial(tool);
+
+		fireSpreadBypassNames = Collections.unmodifiableList(TownySettings.getStrArr(ConfigNodes.PROT_FIRE_SPREAD_BYPASS));
+		fireSpreadBypassNameSet = Collections.unmodifiableSet(new HashSet<>(fireSpreadBypassNames));
+		fireSpreadBypassMaterials = toMaterials(fireSpreadBypassNames);
+		farmPlotBlockNames = Collections.unmodifiableList(TownySettings.getStrArr(ConfigNodes.GTOWN_FARM_PLOT_ALLOW_BLOCKS));
+		farmPlotBlocks = toMaterials(farmPlotBlockNames);
+		farmAnimalNames = Collections.unmodifiableList(TownySettings.getStrArr(ConfigNodes.GTOWN_FARM_ANIMALS));
+		farmAnimals = toEntityTypes(farmAnimalNames);
+		potionTypes = Collections.unmodifiableList(TownySettings.getStrArr(ConfigNodes.PROT_POTION_TYPES));
+		plotManagementIgnoreSet = MaterialSet.of(TownySettings.getStrArr(ConfigNodes.NWS_PLOT_MANAGEMENT_REVERT_IGNORE));
+		unclaimedZoneIgnoreSet = MaterialSet.of(TownySettings.getStrArr(ConfigNodes.UNCLAIMED_ZONE_IGNORE));
+	}
+
+	private static Set<Material> toMaterials(List<String> names) {
+
+		EnumSet<Material> materials = EnumSet.noneOf(Material.class);
+		for (String name : names) {
+			Material material = Material.matchMaterial(name);
+			if (material != null)
+				materials.add(material);
+		}
+		return Collections.unmodifiableSet(materials);
+	}
+
+	private static Set<EntityType> toEntityTypes(List<String> names) {
+
+		EnumSet<EntityType> types = EnumSet.noneOf(EntityType.class);
+		for (String name : names) {
+			try {
+				types.add(EntityType.valueOf(name.toUpperCase()));
+			} catch (IllegalArgumentException ignored) {}
+		}
+		return Collections.unmodifiableSet(types);
+	}
+
+	public boolean isDebug() {
+
+		return debug;
+	}
+
+	public boolean isDevMode() {
+
+		return devMode;
+	}
+
+	public String getDevName() {
+
+		return devName;
+	}
+
+	public boolean isDebugCategoryEnabled(TownyMessaging.DebugCategory category) {
+
+		return debugCategories.contains(category);
+	}
+
+	public int getTownBlockSize() {
+
+		return townBlockSize;
+	}
+
+	public int getPVPCoolDownTime() {
+
+		return pvpCoolDownTime;
+	}
+
+	public boolean getBedUse() {
+
+		return bedUse;
+	}
+
+	public boolean isPreventingFluidGriefing() {
+
+		return preventFluidGriefing;
+	}
+
+	public boolean isCreatureTriggeringPressurePlateDisabled() {
+
+		return creatureTriggeringPressurePlateDisabled;
+	}
+
+	public boolean isWarTimeTownsNeutral() {
+
+		return warTimeTownsNeutral;
+	}
+
+	public boolean isAllowWarBlockGriefing() {
+
+		return allowWarBlockGriefing;
+	}
+
+	public boolean isNationZonesEnabled() {
+
+		return nationZonesEnabled;
+	}
+
+	public boolean isNationZonesCapitalsOnly() {
+
+		return nationZonesCapitalsOnly;
+	}
+
+	public boolean isNationZonesWarDisables() {
+
+		return nationZonesWarDisables;
+	}
+
+	public String getTool() {
+
+		return tool;
+	}
+
+	/**
+	 * @return the info tool Material, or null if the configured tool is not a Material.
+	 */
+	public Material getToolMaterial() {
+
+		return toolMaterial;
+	}
+
+	public List<String> getFireSpreadBypassNames() {
+
+		return fireSpreadBypassNames;
+	}
+
+	public boolean isFireSpreadBypassName(String mat) {
+
+		return fireSpreadBypassNameSet.contains(mat);
+	}
+
+	public boolean isFireSpreadBypassMaterial(Material material) {
+
+		return fireSpreadBypassMaterials.contains(material);
+	}
+
+	public List<String> getFarmPlotBlockNames() {
+
+		return farmPlotBlockNames;
+	}
+
+	public boolean isFarmPlotBlock(Material material) {
+
+		return farmPlotBlocks.contains(material);
+	}
+
+	public List<String> getFarmAnimalNames() {
+
+		return farmAnimalNames;
+	}
+
+	public boolean isFarmAnimal(EntityType type) {
+
+		return farmAnimals.contains(type);
+	}
+
+	public List<String> getPotionTypes() {
+
+		return potionTypes;
+	}
+
+	/**
+	 * @return the default revert on unclaim block_ignore materials for worlds.
+	 */
+	public MaterialSet getPlotManagementIgnoreSet() {
+
+		return plotManagementIgnoreSet;
+	}
+
+	/**
+	 * @return the default unclaimed zone ignore materials for worlds.
+	 */
+	public MaterialSet getUnclaimedZoneIgnoreSet() {
+
+		return unclaimedZoneIgnoreSet;
+	}
+}
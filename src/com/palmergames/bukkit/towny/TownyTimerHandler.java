@@ -8,6 +8,7 @@ import com.palmergames.bukkit.towny.tasks.GatherResidentUUIDTask;
 import com.palmergames.bukkit.towny.tasks.HealthRegenTimerTask;
 import com.palmergames.bukkit.towny.tasks.MobRemovalTimerTask;
 import com.palmergames.bukkit.towny.tasks.RepeatingTimerTask;
+import com.palmergames.bukkit.towny.tasks.RevertOnUnclaimTimerTask;
 import com.palmergames.bukkit.towny.tasks.TeleportWarmupTimerTask;
 import com.palmergames.bukkit.towny.tasks.HourlyTimerTask;
 import com.palmergames.bukkit.towny.tasks.ShortTimerTask;
@@ -35,13 +36,15 @@ public class TownyTimerHandler{
 	}
 	
 	private static int townyRepeatingTask = -1;
+	private static int revertOnUnclaimTask = -1;
 	private static int dailyTask = -1;
 	private static int hourlyTask = -1;
 	private static int shortTask = -1;
 	private static int mobRemoveTask = -1;
 	private static int healthRegenTask = -1;
-	private static int teleportWarmupTask = -1;
-	private static int cooldownTimerTask = -1;
+	// Warmups and cooldowns are timers on the timing wheel, these only say whether they are in use.
+	private static boolean teleportWarmupRunning = false;
+	private static boolean cooldownTimerRunning = false;
 	private static int drawSmokeTask = -1;
 	private static int gatherResidentUUIDTask = -1;
 	private static int drawSpawnPointsTask = -1;
@@ -80,6 +83,18 @@ public class TownyTimerHandler{
 		}
 	}
 
+	public static void toggleRevertOnUnclaimTimer(boolean on) {
+
+		if (on && !isRevertOnUnclaimTimerRunning()) {
+			revertOnUnclaimTask = BukkitTools.scheduleSyncRepeatingTask(new RevertOnUnclaimTimerTask(plugin), 0, 1);
+			if (revertOnUnclaimTask == -1)
+				TownyMessaging.sendErrorMsg("Could not schedule revert on unclaim loop.");
+		} else if (!on && isRevertOnUnclaimTimerRunning()) {
+			BukkitTools.getScheduler().cancelTask(revertOnUnclaimTask);
+			revertOnUnclaimTask = -1;
+		}
+	}
+
 	public static void toggleMobRemoval(boolean on) {
 
 		if (on && !isMobRemovalRunning()) {
@@ -154,26 +169,16 @@ public class TownyTimerHandler{
 
 	public static void toggleTeleportWarmup(boolean on) {
 
-		if (on && !isTeleportWarmupRunning()) {
-			teleportWarmupTask = BukkitTools.scheduleSyncRepeatingTask(new TeleportWarmupTimerTask(plugin), 0, 20);
-			if (teleportWarmupTask == -1)
-				TownyMessaging.sendErrorMsg("Could not schedule teleport warmup loop.");
-		} else if (!on && isTeleportWarmupRunning()) {
-			BukkitTools.getScheduler().cancelTask(teleportWarmupTask);
-			teleportWarmupTask = -1;
-		}
+		if (!on && isTeleportWarmupRunning())
+			TeleportWarmupTimerTask.clearTeleportRequests();
+		teleportWarmupRunning = on;
 	}
 	
 	public static void toggleCooldownTimer(boolean on) {
 		
-		if (on && !isCooldownTimerRunning()) {
-			cooldownTimerTask = BukkitTools.scheduleAsyncRepeatingTask(new CooldownTimerTask(plugin), 0, 20);
-			if (cooldownTimerTask == -1)
-				TownyMessaging.sendErrorMsg("Could not schedule cooldown timer loop.");			
-		} else if (!on && isCooldownTimerRunning()) {
-			BukkitTools.getScheduler().cancelTask(cooldownTimerTask);
-			cooldownTimerTask = -1;
-		}
+		if (!on && isCooldownTimerRunning())
+			CooldownTimerTask.clearCooldowns();
+		cooldownTimerRunning = on;
 	}
 	
 	public static void toggleDrawSmokeTask(boolean on) {
@@ -217,6 +222,11 @@ public class TownyTimerHandler{
 
 	}
 
+	public static boolean isRevertOnUnclaimTimerRunning() {
+
+		return revertOnUnclaimTask != -1;
+	}
+
 	public static boolean isMobRemovalRunning() {
 
 		return mobRemoveTask != -1;
@@ -244,12 +254,12 @@ public class TownyTimerHandler{
 
 	public static boolean isTeleportWarmupRunning() {
 
-		return teleportWarmupTask != -1;
+		return teleportWarmupRunning;
 	}
 	
 	public static boolean isCooldownTimerRunning() {
 
-		return cooldownTimerTask != -1;
+		return cooldownTimerRunning;
 	}
 	
 	public static boolean isDrawSmokeTaskRunning() {
@@ -6,6 +6,7 @@ import com.palmergames.bukkit.towny.db.TownyDataSource;
 import com.palmergames.bukkit.towny.db.TownyDatabaseHandler;
 import com.palmergames.bukkit.towny.db.TownyFlatFileSource;
 import com.palmergames.bukkit.towny.db.TownySQLSource;
+import com.palmergames.bukkit.towny.db.TownySegmentFileSource;
 import com.palmergames.bukkit.towny.event.TownyLoadedDatabaseEvent;
 import com.palmergames.bukkit.towny.exceptions.AlreadyRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.InvalidNameException;
@@ -137,11 +138,14 @@ public class TownyUniverse {
         if (!TownySettings.getLastRunVersion().equals(towny.getVersion())) {
 			ConfigMigrator migrator = new ConfigMigrator(TownySettings.getConfig(), "config-migration.json");
 			migrator.migrate();
+			// The migrator changes the config directly, the settings read on hot paths have to be read again.
+			TownySettings.refreshSnapshot();
 		}
         
         // Loads Town and Nation Levels after migration has occured.
         if (!loadTownAndNationLevels())
         	return false;
+        TownySettings.refreshSnapshot();
 
         File f = new File(rootFolder, "outpostschecked.txt");                                        // Old towny didn't keep as good track of outpost spawn points,
         if (!f.exists()) {                                                                           // some of them ending up outside of claimed plots. If the file 
@@ -245,6 +249,10 @@ public class TownyUniverse {
                 this.dataSource = new TownyFlatFileSource(towny, this);
                 break;
             }
+            case "segmentfile": {
+                this.dataSource = new TownySegmentFileSource(towny, this);
+                break;
+            }
             case "mysql": {
                 this.dataSource = new TownySQLSource(towny, this);
                 break;
@@ -272,6 +280,10 @@ public class TownyUniverse {
                     this.dataSource = new TownyFlatFileSource(towny, this);
                     break;
                 }
+                case "segmentfile": {
+                    this.dataSource = new TownySegmentFileSource(towny, this);
+                    break;
+                }
                 case "mysql": {
                     this.dataSource = new TownySQLSource(towny, this);
                     break;
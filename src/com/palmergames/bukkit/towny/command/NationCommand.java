@@ -53,6 +53,7 @@ import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.comparators.ComparatorType;
+import com.palmergames.bukkit.towny.object.comparators.GovernmentRankings;
 import com.palmergames.bukkit.towny.object.inviteobjects.NationAllyNationInvite;
 import com.palmergames.bukkit.towny.object.inviteobjects.TownJoinNationInvite;
 import com.palmergames.bukkit.towny.permissions.PermissionNodes;
@@ -79,7 +80,6 @@ import java.io.InvalidObjectException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -1055,14 +1055,12 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 	        return;
 	    }
 
-	    final List<Nation> nations = nationsToSort;
-		final Comparator comparator = type.getComparator();
 	    final ComparatorType finalType = type;
 	    final int pageNumber = page;
 		try {
 			Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-				nations.sort(comparator);
-				TownyMessaging.sendNationList(sender, nations, finalType, pageNumber, total);
+				// Served from the ranking, which is only sorted again when a sort key has changed.
+				TownyMessaging.sendNationList(sender, GovernmentRankings.getInstance().getSortedNations(finalType), finalType, pageNumber, total);
 			});
 		} catch (RuntimeException e) {
 			TownyMessaging.sendErrorMsg(sender, Translation.of("msg_error_comparator_failed"));
@@ -23,9 +23,7 @@ import com.palmergames.bukkit.towny.event.TownPreAddResidentEvent;
 import com.palmergames.bukkit.towny.event.town.TownKickEvent;
 import com.palmergames.bukkit.towny.event.town.TownLeaveEvent;
 import com.palmergames.bukkit.towny.event.town.TownMayorChangeEvent;
-import com.palmergames.bukkit.towny.event.town.TownMergeEvent;
 import com.palmergames.bukkit.towny.event.town.TownPreInvitePlayerEvent;
-import com.palmergames.bukkit.towny.event.town.TownPreMergeEvent;
 import com.palmergames.bukkit.towny.event.town.TownPreSetHomeBlockEvent;
 import com.palmergames.bukkit.towny.event.town.TownPreUnclaimCmdEvent;
 import com.palmergames.bukkit.towny.event.town.toggle.TownToggleNeutralEvent;
@@ -48,6 +46,7 @@ import com.palmergames.bukkit.towny.invites.InviteSender;
 import com.palmergames.bukkit.towny.invites.exceptions.TooManyInvitesException;
 import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.comparators.ComparatorType;
+import com.palmergames.bukkit.towny.object.comparators.GovernmentRankings;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.SpawnType;
@@ -69,6 +68,7 @@ import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.tasks.CooldownTimerTask;
 import com.palmergames.bukkit.towny.tasks.CooldownTimerTask.CooldownType;
 import com.palmergames.bukkit.towny.tasks.TownClaim;
+import com.palmergames.bukkit.towny.tasks.TownMerge;
 import com.palmergames.bukkit.towny.utils.AreaSelectionUtil;
 import com.palmergames.bukkit.towny.utils.CombatUtil;
 import com.palmergames.bukkit.towny.utils.MoneyUtil;
@@ -96,7 +96,6 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -1245,15 +1244,14 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 		}
 		
 		final List<Town> towns = townsToSort;
-		final Comparator comparator = type.getComparator();
 		final int pageNumber = page;
 		final int totalNumber = total; 
 		final ComparatorType finalType = type;
 		try {
 			if (!TownySettings.isTownListRandom()) {
 				Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-					towns.sort(comparator);
-					TownyMessaging.sendTownList(sender, towns, finalType, pageNumber, totalNumber);
+					// Served from the ranking, which is only sorted again when a sort key has changed.
+					TownyMessaging.sendTownList(sender, GovernmentRankings.getInstance().getSortedTowns(finalType), finalType, pageNumber, totalNumber);
 				});
 			} else { 
 				Collections.shuffle(towns);
@@ -2427,7 +2425,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 			if (!TownyAPI.getInstance().isWilderness(player.getLocation()))
 				throw new TownyException(Translation.of("msg_already_claimed_1", key));
 			
-			if ((world.getMinDistanceFromOtherTownsPlots(key) < TownySettings.getMinDistanceFromTownPlotblocks()))
+			if ((world.getMinDistanceFromOtherTownsPlots(key, null, TownySettings.getMinDistanceFromTownPlotblocks()) < TownySettings.getMinDistanceFromTownPlotblocks()))
 				throw new TownyException(Translation.of("msg_too_close2", Translation.of("townblock")));
 
 			final int minDistFromOtherTowns = world.getMinDistanceFromOtherTowns(key);
@@ -3207,8 +3205,11 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 					else
 						TownyMessaging.sendMsg(player, Translation.of("msg_set_perms_reset", "your"));
 
-					// Reset all caches as this can affect everyone.
-					plugin.resetCache();
+					// A town's permissions only apply in its own townblocks, a resident's plots can be in any town.
+					if (townBlockOwner instanceof Town)
+						plugin.resetCache((Town) townBlockOwner);
+					else
+						plugin.resetCache();
 					return;
 
 				} else {
@@ -3313,8 +3314,11 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 			TownyMessaging.sendMessage(player, (Colors.Green + " Perm: " + ((townBlockOwner instanceof Resident) ? perm.getColourString2().replace("n", "t") : perm.getColourString2().replace("f", "r"))));
 			TownyMessaging.sendMessage(player, Colors.Green + "PvP: " + ((perm.pvp) ? Colors.Red + "ON" : Colors.LightGreen + "OFF") + Colors.Green + "  Explosions: " + ((perm.explosion) ? Colors.Red + "ON" : Colors.LightGreen + "OFF") + Colors.Green + "  Firespread: " + ((perm.fire) ? Colors.Red + "ON" : Colors.LightGreen + "OFF") + Colors.Green + "  Mob Spawns: " + ((perm.mobs) ? Colors.Red + "ON" : Colors.LightGreen + "OFF"));
 
-			// Reset all caches as this can affect everyone.
-			plugin.resetCache();
+			// A town's permissions only apply in its own townblocks, a resident's plots can be in any town.
+			if (townBlockOwner instanceof Town)
+				plugin.resetCache((Town) townBlockOwner);
+			else
+				plugin.resetCache();
 		}
 	}
 
@@ -3463,7 +3467,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 				/*
 				 * Actually start the claiming process.
 				 */
-				new TownClaim(plugin, player, town, selection, outpost, true, false).start();
+				plugin.getJobExecutor().submit(new TownClaim(plugin, player, town, selection, outpost, true, false));
 
 			} catch (TownyException x) {
 				TownyMessaging.sendErrorMsg(player, x.getMessage());
@@ -3496,7 +3500,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 				if (split.length == 1 && split[0].equalsIgnoreCase("all")) {
 					if (!permSource.testPermission(player, PermissionNodes.TOWNY_COMMAND_TOWN_UNCLAIM_ALL.getNode()))
 						throw new TownyException(Translation.of("msg_err_command_disable"));
-					new TownClaim(plugin, player, town, null, false, false, false).start();
+					plugin.getJobExecutor().submit(new TownClaim(plugin, player, town, null, false, false, false));
 					// townUnclaimAll(town);
 					// If the unclaim code knows its an outpost or not, doesnt matter its only used once the world deletes the townblock, where it takes the value from the townblock.
 					// Which is why in AreaSelectionUtil, since outpost is not parsed in the main claiming of a section, it is parsed in the unclaiming with the circle, rect & all options.
@@ -3519,7 +3523,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 					}
 					
 					// Set the area to unclaim
-					new TownClaim(plugin, player, town, selection, false, false, false).start();
+					plugin.getJobExecutor().submit(new TownClaim(plugin, player, town, selection, false, false, false));
 
 					TownyMessaging.sendMsg(player, Translation.of("msg_abandoned_area", Arrays.toString(selection.toArray(new WorldCoord[0]))));
 				}
@@ -3626,29 +3630,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 		final Town finalRemainingTown = remainingTown;
 		final double finalCost = cost;
 		Confirmation.runOnAccept(() -> {
-			if (TownyEconomyHandler.isActive() && !finalRemainingTown.getAccount().canPayFromHoldings(finalCost))
-					TownyMessaging.sendErrorMsg(sender, Translation.of("msg_town_merge_err_not_enough_money", (int) finalRemainingTown.getAccount().getHoldingBalance(), (int) finalCost));
-
-
-			TownPreMergeEvent townPreMergeEvent = new TownPreMergeEvent(finalRemainingTown, finalSuccumbingTown);
-			Bukkit.getPluginManager().callEvent(townPreMergeEvent);
-			if (townPreMergeEvent.isCancelled()) {
-				TownyMessaging.sendErrorMsg(finalSuccumbingTown.getMayor().getPlayer(), townPreMergeEvent.getCancelMessage());
-				TownyMessaging.sendErrorMsg(sender, townPreMergeEvent.getCancelMessage());
-				return;
-			}
-
-			UUID succumbingTownUUID = finalSuccumbingTown.getUUID();
-			String succumbingTownName = finalSuccumbingTown.getName();
-
-			// Start merge
-			if (finalCost > 0) {
-				finalRemainingTown.getAccount().withdraw(finalCost, Translation.of("msg_town_merge_cost_withdraw"));
-			}
-			TownyUniverse.getInstance().getDataSource().mergeTown(finalRemainingTown, finalSuccumbingTown);
-
-			TownMergeEvent townMergeEvent = new TownMergeEvent(finalRemainingTown, succumbingTownName, succumbingTownUUID);
-			Bukkit.getPluginManager().callEvent(townMergeEvent);
+			plugin.getJobExecutor().submit(new TownMerge(sender, finalRemainingTown, finalSuccumbingTown, finalCost));
 		}).runOnCancel(() -> {
 			TownyMessaging.sendMsg(sender, Translation.of("msg_town_merge_request_denied"));
 			TownyMessaging.sendMsg(succumbingTown.getMayor(), Translation.of("msg_town_merge_cancelled"));
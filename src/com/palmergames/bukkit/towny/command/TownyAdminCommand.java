@@ -823,7 +823,7 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 				selection = AreaSelectionUtil.selectWorldCoordArea(null, new WorldCoord(player.getWorld().getName(), Coord.parseCoord(player)), split);
 				selection = AreaSelectionUtil.filterOutWildernessBlocks(selection);
 
-				new TownClaim(plugin, player, null, selection, false, false, true).start();
+				plugin.getJobExecutor().submit(new TownClaim(plugin, player, null, selection, false, false, true));
 
 			} catch (TownyException x) {
 				TownyMessaging.sendErrorMsg(player, x.getMessage());
@@ -1761,7 +1761,7 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 				selection = AreaSelectionUtil.filterOutTownOwnedBlocks(selection);
 				TownyMessaging.sendDebugMsg("Admin Initiated townClaim: Post-Filter Selection ["+selection.size()+"] " + Arrays.toString(selection.toArray(new WorldCoord[0])));
 				
-				new TownClaim(plugin, player, town, selection, false, true, false).start();
+				plugin.getJobExecutor().submit(new TownClaim(plugin, player, town, selection, false, true, false));
 
 			}
 		} else {
@@ -1907,7 +1907,7 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 					numDays = Integer.parseInt(finalDays);
 				}
 
-				new ResidentPurge(plugin, player, TimeTools.getMillis(numDays + "d"), townless).start();
+				plugin.getJobExecutor().submit(new ResidentPurge(plugin, player, TimeTools.getMillis(numDays + "d"), townless));
 			};
 			
 			if (sender != null) {
@@ -1926,7 +1926,7 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 					numDays = Integer.parseInt(finalDays);
 				}
 
-				new ResidentPurge(plugin, null, TimeTools.getMillis(numDays + "d"), townless).start();
+				plugin.getJobExecutor().submit(new ResidentPurge(plugin, null, TimeTools.getMillis(numDays + "d"), townless));
 			})
 			.sendTo(sender);
 		}
@@ -338,8 +338,8 @@ public class TownyCommand extends BaseCommand implements CommandExecutor {
 		Resident resident = TownyAPI.getInstance().getResident(player.getUniqueId());
 		if (resident == null)
 			return;
-		List<Town> townsToSort = War.warringTowns;
-		List<Nation> nationsToSort = War.warringNations;
+		List<Town> townsToSort = new ArrayList<>(War.warringTowns);
+		List<Nation> nationsToSort = new ArrayList<>(War.warringNations);
 		int page = 1;
 		List<String> output = new ArrayList<>();
 		String nationLine;
@@ -349,7 +349,7 @@ public class TownyWorldCommand extends BaseCommand implements CommandExecutor {
 			} else if (split[0].equalsIgnoreCase("usingtowny")) {
 
 				Globalworld.setUsingTowny(choice.orElse(!Globalworld.isUsingTowny()));
-				plugin.resetCache();
+				plugin.resetCache(Globalworld);
 				msg = String.format(Globalworld.isUsingTowny() ? Translation.of("msg_set_use_towny_on") : Translation.of("msg_set_use_towny_off"));
 				if (player != null)
 					TownyMessaging.sendMsg(player, msg);
@@ -359,7 +359,7 @@ public class TownyWorldCommand extends BaseCommand implements CommandExecutor {
 			} else if (split[0].equalsIgnoreCase("warallowed")) {
 
 				Globalworld.setWarAllowed(choice.orElse(!Globalworld.isWarAllowed()));
-				plugin.resetCache();
+				plugin.resetCache(Globalworld);
 				msg = String.format(Globalworld.isWarAllowed() ? Translation.of("msg_set_war_allowed_on") : Translation.of("msg_set_war_allowed_off"));
 				if (player != null)
 					TownyMessaging.sendMsg(player, msg);
@@ -526,7 +526,7 @@ public class TownyWorldCommand extends BaseCommand implements CommandExecutor {
 			if (split[0].equalsIgnoreCase("usedefault")) {
 
 				Globalworld.setUsingDefault();
-				plugin.resetCache();
+				plugin.resetCache(Globalworld);
 				if (player != null)
 					TownyMessaging.sendMsg(player, Translation.of("msg_usedefault", Globalworld.getName()));
 				else
@@ -549,7 +549,7 @@ public class TownyWorldCommand extends BaseCommand implements CommandExecutor {
 						Globalworld.setUnclaimedZoneSwitch(perms.contains("switch"));
 						Globalworld.setUnclaimedZoneItemUse(perms.contains("itemuse"));
 
-						plugin.resetCache();
+						plugin.resetCache(Globalworld);
 						if (player != null)
 							TownyMessaging.sendMsg(player, Translation.of("msg_set_wild_perms", Globalworld.getName(), perms.toString()));
 						else
@@ -576,7 +576,7 @@ public class TownyWorldCommand extends BaseCommand implements CommandExecutor {
 
 						Globalworld.setUnclaimedZoneIgnore(mats);
 
-						plugin.resetCache();
+						plugin.resetCache(Globalworld);
 						if (player != null)
 							TownyMessaging.sendMsg(player, Translation.of("msg_set_wild_ignore", Globalworld.getName(), Globalworld.getUnclaimedZoneIgnoreMaterials()));
 						else
@@ -3,6 +3,7 @@ package com.palmergames.bukkit.towny.confirmations;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.object.Translation;
+import com.palmergames.bukkit.towny.tasks.TownyTimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 
@@ -22,11 +23,11 @@ public class ConfirmationHandler {
 	
 	private static final class ConfirmationContext {
 		final Confirmation confirmation;
-		final int taskID;
+		final TownyTimingWheel.Timer timer;
 		
-		ConfirmationContext(Confirmation confirmation, int taskID) {
+		ConfirmationContext(Confirmation confirmation, TownyTimingWheel.Timer timer) {
 			this.confirmation = confirmation;
-			this.taskID = taskID;
+			this.timer = timer;
 		}
 	}
 
@@ -38,7 +39,7 @@ public class ConfirmationHandler {
 	public static void revokeConfirmation(CommandSender sender) {
 		ConfirmationContext context = confirmations.get(sender);
 		
-		Bukkit.getScheduler().cancelTask(context.taskID);
+		context.timer.cancel();
 		Confirmation confirmation = context.confirmation;
 		confirmations.remove(sender);
 		
@@ -78,12 +79,10 @@ public class ConfirmationHandler {
 			}
 		};
 		
-		int taskID;
-		long ticks = 20L * duration;
-		taskID = Bukkit.getScheduler().runTaskLater(plugin, handler, ticks).getTaskId();
+		TownyTimingWheel.Timer timer = plugin.getTimingWheel().schedule(duration * 1000L, handler);
 
-		// Cache the task.
-		confirmations.put(sender, new ConfirmationContext(confirmation, taskID));
+		// Cache the timer.
+		confirmations.put(sender, new ConfirmationContext(confirmation, timer));
 	}
 
 	/**
@@ -99,7 +98,7 @@ public class ConfirmationHandler {
 		Runnable handler = context.confirmation.getAcceptHandler();
 
 		// Cancel task.
-		Bukkit.getScheduler().cancelTask(context.taskID);
+		context.timer.cancel();
 
 		// Remove confirmation as it's been handled.
 		confirmations.remove(sender);
@@ -0,0 +1,76 @@
+package com.palmergames.bukkit.towny.db;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A queue of database tasks where a task added under a key replaces any task
+ * still waiting under the same key.
+ * 
+ * Saves and deletes are keyed by the file they write, so an object saved many
+ * times between two drains of the queue is only written once. Tasks added
+ * without a key are never replaced. Tasks are polled in the order they were
+ * last added.
+ */
+public class CoalescingTaskQueue {
+
+	private final LinkedHashMap<Object, Runnable> tasks = new LinkedHashMap<>();
+	private long coalesced = 0;
+
+	/**
+	 * Add a task which can not be replaced.
+	 * 
+	 * @param task - Runnable to queue.
+	 */
+	public synchronized void add(Runnable task) {
+
+		tasks.put(new Object(), task);
+	}
+
+	/**
+	 * Add a task, replacing any task already queued under the same key.
+	 * 
+	 * @param key - Key of the task, usually the path of the file it writes.
+	 * @param task - Runnable to queue.
+	 */
+	public synchronized void add(String key, Runnable task) {
+
+		// Remove first so the replacement runs after everything queued before it.
+		if (tasks.remove(key) != null)
+			coalesced++;
+		tasks.put(key, task);
+	}
+
+	/**
+	 * @return the next task, or null if the queue is empty.
+	 */
+	public synchronized Runnable poll() {
+
+		Iterator<Map.Entry<Object, Runnable>> it = tasks.entrySet().iterator();
+		if (!it.hasNext())
+			return null;
+
+		Runnable task = it.next().getValue();
+		it.remove();
+		return task;
+	}
+
+	public synchronized boolean isEmpty() {
+
+		return tasks.isEmpty();
+	}
+
+	public synchronized int size() {
+
+		return tasks.size();
+	}
+
+	/**
+	 * @return how many queued tasks have been replaced by a newer task with the same key.
+	 */
+	public synchronized long getCoalescedCount() {
+
+		return coalesced;
+	}
+}
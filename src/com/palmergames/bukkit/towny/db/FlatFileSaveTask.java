@@ -1,13 +1,27 @@
 package com.palmergames.bukkit.towny.db;
 
 import com.palmergames.bukkit.towny.TownyMessaging;
-import com.palmergames.util.FileMgmt;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
-public class FlatFileSaveTask implements Runnable {
+public class FlatFileSaveTask implements JournaledTask {
 
 	private final List<String> list;
+	private final Supplier<List<String>> serializer;
 	private final String path;
 	
 	/**
@@ -17,15 +31,106 @@ public class FlatFileSaveTask implements Runnable {
 	 */
 	public FlatFileSaveTask(List<String> list, String path) {
 		this.list = list;
+		this.serializer = null;
 		this.path = path;	
 	}
 
+	/**
+	 * Constructor to save an object, which is only serialized when the task is prepared.
+	 * @param serializer - Supplier of the lines to save.
+	 * @param path - path on filesystem.
+	 */
+	public FlatFileSaveTask(Supplier<List<String>> serializer, String path) {
+		this.list = null;
+		this.serializer = serializer;
+		this.path = path;
+	}
+
 	@Override
 	public void run() {
+		SaveJournal.Record record = prepare();
+		if (record != null)
+			apply(record);
+	}
+
+	@Override
+	public SaveJournal.Record prepare() {
 		try {
-			FileMgmt.listToFile(list, path);
+			List<String> lines = list != null ? list : snapshot();
+			if (lines != null)
+				return new SaveJournal.Record(SaveJournal.WRITE_FILE, path, lines);
 		} catch (NullPointerException ex) {
 			TownyMessaging.sendErrorMsg("Null Error saving to file - " + path);
 		}
+		return null;
+	}
+
+	/**
+	 * Writes a {@link SaveJournal#WRITE_FILE} record to its file. The lines are
+	 * written to a temporary file which then replaces the file, so a reader never
+	 * sees a half written file. The file is not forced to disk, see {@link #force(Collection)}.
+	 * @param record - Record made by {@link #prepare()}, or replayed from the journal.
+	 * @return true if the file is saved.
+	 */
+	public static boolean apply(SaveJournal.Record record) {
+		File file = new File(record.getKey());
+		File parent = file.getParentFile();
+		if (parent != null && !parent.exists())
+			parent.mkdirs();
+		
+		File temp = new File(record.getKey() + ".tmp");
+		try {
+			try (FileOutputStream fos = new FileOutputStream(temp);
+				BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(fos, StandardCharsets.UTF_8))) {
+				for (String line : record.getValues())
+					bufferedWriter.write(line + System.getProperty("line.separator"));
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Error saving to file - " + record.getKey() + ": " + e.getMessage());
+			temp.delete();
+			return false;
+		}
+	}
+
+	/**
+	 * Forces files written by {@link #apply(SaveJournal.Record)} to disk, along with
+	 * the folders holding them, so the saves in them survive a crash.
+	 * @param paths - Paths of the files written.
+	 * @return true if every file is on disk.
+	 */
+	public static boolean force(Collection<String> paths) {
+		boolean forced = true;
+		Set<File> folders = new HashSet<>();
+		for (String path : paths) {
+			File file = new File(path);
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				channel.force(true);
+			} catch (IOException e) {
+				TownyMessaging.sendErrorMsg("Could not force " + path + " to disk: " + e.getMessage());
+				forced = false;
+			}
+			if (file.getParentFile() != null)
+				folders.add(file.getParentFile());
+		}
+		// The file replaced by each save is only gone for good once its folder is on disk.
+		// Not every platform can force a folder, there the files being on disk is all we can do.
+		for (File folder : folders) {
+			try (FileChannel channel = FileChannel.open(folder.toPath(), StandardOpenOption.READ)) {
+				channel.force(true);
+			} catch (IOException ignored) {
+			}
+		}
+		return forced;
+	}
+
+	/**
+	 * Serialize the object. Only called on the main thread, so nothing changes it while it is read.
+	 * 
+	 * @return the lines to write.
+	 */
+	private List<String> snapshot() {
+		return serializer.get();
 	}
 }
\ No newline at end of file
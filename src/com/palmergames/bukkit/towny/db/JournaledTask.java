@@ -0,0 +1,18 @@
+package com.palmergames.bukkit.towny.db;
+
+/**
+ * A queued save which can be recorded in the {@link SaveJournal} before it is applied.
+ *
+ * The save queue prepares every journaled task on the main thread, so the
+ * object being saved can not change while it is read, and then writes the
+ * prepared records asynchronously.
+ */
+public interface JournaledTask extends Runnable {
+
+	/**
+	 * Serializes the save, without applying it. Called on the main thread.
+	 * 
+	 * @return the record to journal and apply, or null if there is nothing to save.
+	 */
+	SaveJournal.Record prepare();
+}
@@ -0,0 +1,110 @@
+package com.palmergames.bukkit.towny.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A row copied out of a {@link ResultSet}, so it can be parsed after the
+ * ResultSet has moved on, and on another thread.
+ *
+ * The getters convert values the same way the MySQL driver does, returning
+ * 0 or false for NULL, and throw an SQLException for unknown columns or
+ * values which can not be converted.
+ */
+public class SQL_Row {
+
+	private final Map<String, Integer> columnIndexes;
+	private final String[] values;
+
+	private SQL_Row(Map<String, Integer> columnIndexes, String[] values) {
+
+		this.columnIndexes = columnIndexes;
+		this.values = values;
+	}
+
+	/**
+	 * @param columns - Names of the columns selected, in order.
+	 * @return a lookup of column name to index, ignoring case as MySQL does.
+	 */
+	public static Map<String, Integer> indexColumns(String[] columns) {
+
+		Map<String, Integer> indexes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (int i = 0; i < columns.length; i++)
+			indexes.put(columns[i], i);
+		return indexes;
+	}
+
+	/**
+	 * Copies the current row of the ResultSet.
+	 *
+	 * @param rs - ResultSet positioned on a row.
+	 * @param columnIndexes - Lookup from {@link #indexColumns(String[])}.
+	 * @return SQL_Row holding the row's values.
+	 * @throws SQLException if the row can not be read.
+	 */
+	public static SQL_Row copyOf(ResultSet rs, Map<String, Integer> columnIndexes) throws SQLException {
+
+		String[] values = new String[columnIndexes.size()];
+		for (int i = 0; i < values.length; i++)
+			values[i] = rs.getString(i + 1);
+		return new SQL_Row(columnIndexes, values);
+	}
+
+	public String getString(String column) throws SQLException {
+
+		Integer index = columnIndexes.get(column);
+		if (index == null)
+			throw new SQLException("Column '" + column + "' not found.");
+		return values[index];
+	}
+
+	public boolean getBoolean(String column) throws SQLException {
+
+		String value = getString(column);
+		if (value == null)
+			return false;
+		value = value.trim();
+		if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("y") || value.equalsIgnoreCase("yes"))
+			return true;
+		try {
+			return Double.parseDouble(value) != 0;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	public int getInt(String column) throws SQLException {
+
+		return (int) getLong(column);
+	}
+
+	public long getLong(String column) throws SQLException {
+
+		String value = getString(column);
+		if (value == null)
+			return 0;
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			try {
+				return (long) Double.parseDouble(value.trim());
+			} catch (NumberFormatException e1) {
+				throw new SQLException("Value '" + value + "' in column '" + column + "' is not a number.");
+			}
+		}
+	}
+
+	public float getFloat(String column) throws SQLException {
+
+		String value = getString(column);
+		if (value == null)
+			return 0;
+		try {
+			return Float.parseFloat(value.trim());
+		} catch (NumberFormatException e) {
+			throw new SQLException("Value '" + value + "' in column '" + column + "' is not a number.");
+		}
+	}
+}
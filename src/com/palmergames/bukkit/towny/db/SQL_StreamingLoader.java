@@ -0,0 +1,219 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.sql.DataSource;
+
+/**
+ * Loads a table row by row, without holding the whole table in memory.
+ *
+ * When streaming, the rows are read on a reader thread from a forward-only
+ * ResultSet which the driver streams from the database row by row. Each
+ * chunk of rows is parsed on a pool of worker threads, and the parsed rows
+ * are handed to a single linker on the calling thread in the order they were
+ * read. Reading, parsing and linking overlap, so loading is bound by how fast
+ * the rows arrive rather than by the work done on each row.
+ *
+ * When not streaming, every row is read, parsed and linked on the calling thread.
+ *
+ * @param <R> - Type of the parsed rows.
+ */
+public class SQL_StreamingLoader<R> {
+
+	private static final int CHUNK_SIZE = 256;
+	// Parsed chunks waiting for the linker, the reader waits once this many are queued.
+	private static final int QUEUE_DEPTH = 64;
+
+	@FunctionalInterface
+	public interface RowParser<R> {
+		/**
+		 * Runs on a worker thread, so must not touch the TownyUniverse.
+		 * @param row - Row read from the table.
+		 * @return the parsed row, or null to skip the row.
+		 * @throws Exception if the row can not be parsed, the row is then skipped.
+		 */
+		R parse(SQL_Row row) throws Exception;
+	}
+
+	@FunctionalInterface
+	public interface RowLinker<R> {
+		/**
+		 * Runs on the calling thread, one row at a time.
+		 * @param row - Parsed row.
+		 * @return false to stop loading.
+		 */
+		boolean link(R row);
+	}
+
+	private final DataSource dataSource;
+	private final String query;
+	private final String[] columns;
+	private final Map<String, Integer> columnIndexes;
+	private final RowParser<R> parser;
+
+	private volatile boolean cancelled = false;
+
+	/**
+	 * @param dataSource - DataSource to take a connection from.
+	 * @param table - Full name of the table, including the prefix.
+	 * @param columns - Columns to select, the rest of the table is never sent.
+	 * @param parser - Parses each row.
+	 */
+	public SQL_StreamingLoader(DataSource dataSource, String table, String[] columns, RowParser<R> parser) {
+
+		this.dataSource = dataSource;
+		this.columns = columns;
+		this.columnIndexes = SQL_Row.indexColumns(columns);
+		this.parser = parser;
+
+		StringBuilder select = new StringBuilder("SELECT ");
+		for (int i = 0; i < columns.length; i++)
+			select.append(i == 0 ? "" : ",").append("`").append(columns[i]).append("`");
+		this.query = select.append(" FROM ").append(table).toString();
+	}
+
+	/**
+	 * @param linker - Links each parsed row, in table order.
+	 * @param streaming - Whether to read and parse the rows off the calling thread.
+	 * @return true if every row was linked, false if the table could not be read or the linker stopped.
+	 */
+	public boolean load(RowLinker<R> linker, boolean streaming) {
+
+		return streaming ? loadStreaming(linker) : loadDirect(linker);
+	}
+
+	private boolean loadDirect(RowLinker<R> linker) {
+
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement ps = connection.prepareStatement(query);
+				ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				R row = parse(SQL_Row.copyOf(rs, columnIndexes));
+				if (row != null && !linker.link(row))
+					return false;
+			}
+			return true;
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Error loading '" + query + "': " + e.getMessage());
+			return false;
+		}
+	}
+
+	private boolean loadStreaming(RowLinker<R> linker) {
+
+		BlockingQueue<CompletableFuture<List<R>>> parsed = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+		ExecutorService parsePool = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+		Thread reader = new Thread(() -> read(parsed, parsePool), "Towny SQL Loader");
+		reader.setDaemon(true);
+		reader.start();
+
+		try {
+			while (true) {
+				List<R> rows = parsed.take().get();
+				// A null chunk marks the end of the table.
+				if (rows == null)
+					return true;
+				for (R row : rows)
+					if (!linker.link(row))
+						return false;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			TownyMessaging.sendErrorMsg("SQL: Error loading '" + query + "': " + e.getCause().getMessage());
+			return false;
+		} finally {
+			cancelled = true;
+			// Unblock the reader if it is waiting on a full queue.
+			parsed.clear();
+			parsePool.shutdown();
+		}
+	}
+
+	private void read(BlockingQueue<CompletableFuture<List<R>>> parsed, ExecutorService parsePool) {
+
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement ps = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+			// Has the MySQL driver stream rows as they are read, rather than buffer the whole table.
+			// Only this statement's connection is affected, which is taken for the load alone.
+			ps.setFetchSize(Integer.MIN_VALUE);
+			try (ResultSet rs = ps.executeQuery()) {
+				List<SQL_Row> chunk = new ArrayList<>(CHUNK_SIZE);
+				while (!cancelled && rs.next()) {
+					chunk.add(SQL_Row.copyOf(rs, columnIndexes));
+					if (chunk.size() == CHUNK_SIZE) {
+						submit(parsed, parsePool, chunk);
+						chunk = new ArrayList<>(CHUNK_SIZE);
+					}
+				}
+				if (!chunk.isEmpty())
+					submit(parsed, parsePool, chunk);
+			}
+			offer(parsed, CompletableFuture.completedFuture(null));
+		} catch (SQLException | RuntimeException e) {
+			CompletableFuture<List<R>> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			offer(parsed, failed);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void submit(BlockingQueue<CompletableFuture<List<R>>> parsed, ExecutorService parsePool, List<SQL_Row> chunk) throws InterruptedException {
+
+		if (!cancelled)
+			parsed.put(CompletableFuture.supplyAsync(() -> parseChunk(chunk), parsePool));
+	}
+
+	private void offer(BlockingQueue<CompletableFuture<List<R>>> parsed, CompletableFuture<List<R>> future) {
+
+		try {
+			if (!cancelled)
+				parsed.put(future);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private List<R> parseChunk(List<SQL_Row> chunk) {
+
+		List<R> rows = new ArrayList<>(chunk.size());
+		for (SQL_Row sqlRow : chunk) {
+			R row = parse(sqlRow);
+			if (row != null)
+				rows.add(row);
+		}
+		return rows;
+	}
+
+	private R parse(SQL_Row row) {
+
+		try {
+			return parser.parse(row);
+		} catch (Exception e) {
+			String name;
+			try {
+				name = row.getString(columns[0]);
+			} catch (SQLException ignored) {
+				name = "?";
+			}
+			TownyMessaging.sendErrorMsg("SQL: Skipping row '" + name + "' which could not be parsed: " + e.getMessage());
+			return null;
+		}
+	}
+}
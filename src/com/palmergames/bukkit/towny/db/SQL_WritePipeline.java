@@ -0,0 +1,463 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownyMessaging.DebugCategory;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+/**
+ * Coalesces queued {@link SQL_Task}s and writes them to the database in JDBC batches.
+ *
+ * Pending writes are keyed by table and row key, so only the latest write
+ * for any one object survives until the next flush. An update's row key is
+ * the keys it was queued with, a delete's is every column it matches on. A flush groups the
+ * surviving tasks by table and column set, and runs each group as a single
+ * batch of {@code INSERT ... ON DUPLICATE KEY UPDATE} or {@code DELETE}
+ * statements. Every batch of a flush is written in one transaction on a
+ * pooled connection. The MySQL driver's prepared statement cache is enabled
+ * on the pool, so each statement is only prepared once per connection.
+ *
+ * Each flush is committed to a {@link SaveJournal} before it is written, and
+ * the journal is cleared once a flush has reached the database. A flush which
+ * fails, whether it could not get a connection or a statement failed, is
+ * rolled back and queued again behind nothing newer. It stays in the journal
+ * until a later flush writes it or Towny next starts.
+ */
+public class SQL_WritePipeline {
+
+	private final DataSource dataSource;
+	private final String tb_prefix;
+	private final SaveJournal journal;
+	private final boolean journaling;
+	// Tasks already in the journal from a flush which could not reach the database, guarded by flushLock.
+	private final Set<SQL_Task> journaled = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	// Pending tasks in the order they were last written.
+	private LinkedHashMap<Object, SQL_Task> pending = new LinkedHashMap<>();
+	private final Object pendingLock = new Object();
+	private final Object flushLock = new Object();
+
+	// Statement strings are built once per table, operation and column set.
+	private final Map<String, String> statementCache = new ConcurrentHashMap<>();
+
+	private final AtomicLong queuedWrites = new AtomicLong();
+	private final AtomicLong coalescedWrites = new AtomicLong();
+	private final AtomicLong flushedWrites = new AtomicLong();
+	private volatile long lastFlushMillis = 0;
+	private volatile long maxFlushMillis = 0;
+	private volatile int lastFlushSize = 0;
+
+	/**
+	 * @param dataSource - DataSource to write to.
+	 * @param tb_prefix - Table prefix.
+	 * @param journal - SaveJournal to commit flushes to, and replay writes from.
+	 * @param journaling - Whether flushes are committed to the journal.
+	 */
+	public SQL_WritePipeline(DataSource dataSource, String tb_prefix, SaveJournal journal, boolean journaling) {
+
+		this.dataSource = dataSource;
+		this.tb_prefix = tb_prefix;
+		this.journal = journal;
+		this.journaling = journaling;
+	}
+
+	/**
+	 * Writes any saves a crash left in the journal.
+	 *
+	 * @return the number of writes replayed.
+	 */
+	public int replayJournal() {
+
+		List<SaveJournal.Record> records = journal.read();
+		for (SaveJournal.Record record : records)
+			add(fromRecord(record));
+		flush();
+		return records.size();
+	}
+
+	/**
+	 * Queue a task, replacing any pending write for the same object.
+	 *
+	 * @param task - SQL_Task to queue.
+	 */
+	public void add(SQL_Task task) {
+
+		Object key = coalesceKey(task);
+		queuedWrites.incrementAndGet();
+		synchronized (pendingLock) {
+			// Remove first so the replacement moves to the back of the queue.
+			if (pending.remove(key) != null)
+				coalescedWrites.incrementAndGet();
+			pending.put(key, task);
+		}
+	}
+
+	/**
+	 * @return whether flushes are committed to the journal.
+	 */
+	public boolean isJournaling() {
+
+		return journaling;
+	}
+
+	/**
+	 * @return the number of writes waiting for the next flush.
+	 */
+	public int getQueueDepth() {
+
+		synchronized (pendingLock) {
+			return pending.size();
+		}
+	}
+
+	public boolean isEmpty() {
+
+		return getQueueDepth() == 0;
+	}
+
+	/**
+	 * Write every pending task to the database.
+	 *
+	 * Only one flush runs at a time, so writes reach the database in the order they were flushed.
+	 *
+	 * @return false if the writes failed and were queued again.
+	 */
+	public boolean flush() {
+
+		synchronized (flushLock) {
+			List<SQL_Task> tasks;
+			synchronized (pendingLock) {
+				if (pending.isEmpty())
+					return true;
+				tasks = new ArrayList<>(pending.values());
+				pending = new LinkedHashMap<>();
+			}
+
+			long start = System.currentTimeMillis();
+
+			if (journaling) {
+				List<SaveJournal.Record> records = new ArrayList<>(tasks.size());
+				for (SQL_Task task : tasks)
+					if (!journaled.contains(task))
+						records.add(toRecord(task));
+				try {
+					if (!records.isEmpty())
+						journal.commit(records);
+				} catch (IOException e) {
+					TownyMessaging.sendErrorMsg("SQL: Could not write to the save journal: " + e.getMessage());
+				}
+			}
+
+			try (Connection connection = dataSource.getConnection()) {
+				boolean autoCommit = connection.getAutoCommit();
+				connection.setAutoCommit(false);
+				try {
+					write(connection, tasks);
+					connection.commit();
+				} catch (SQLException e) {
+					try {
+						connection.rollback();
+					} catch (SQLException ignored) {}
+					throw e;
+				} finally {
+					connection.setAutoCommit(autoCommit);
+				}
+			} catch (SQLException e) {
+				TownyMessaging.sendErrorMsg("SQL: Could not flush " + tasks.size() + " writes, they will be tried again: " + e.getMessage());
+				requeue(tasks);
+				return false;
+			}
+
+			// Everything in the journal has now been written, including writes queued again after an earlier failure.
+			journaled.clear();
+			if (journaling) {
+				try {
+					journal.clear();
+				} catch (IOException e) {
+					TownyMessaging.sendErrorMsg("SQL: Could not clear the save journal: " + e.getMessage());
+				}
+			}
+
+			long elapsed = System.currentTimeMillis() - start;
+			lastFlushMillis = elapsed;
+			lastFlushSize = tasks.size();
+			if (elapsed > maxFlushMillis)
+				maxFlushMillis = elapsed;
+			flushedWrites.addAndGet(tasks.size());
+
+			TownyMessaging.sendDebugMsg(DebugCategory.DATABASE, "SQL: Flushed %s writes in %sms, %s still queued.", tasks.size(), elapsed, getQueueDepth());
+			return true;
+		}
+	}
+
+	/*
+	 * Puts the tasks of a failed flush back in front of the pending tasks,
+	 * unless a newer write for the same object has been queued since.
+	 */
+	private void requeue(List<SQL_Task> tasks) {
+
+		if (journaling)
+			journaled.addAll(tasks);
+
+		synchronized (pendingLock) {
+			LinkedHashMap<Object, SQL_Task> requeued = new LinkedHashMap<>();
+			for (SQL_Task task : tasks) {
+				Object key = coalesceKey(task);
+				if (!(key instanceof List) || !pending.containsKey(key))
+					requeued.put(key, task);
+			}
+			requeued.putAll(pending);
+			pending = requeued;
+		}
+	}
+
+	private void write(Connection connection, List<SQL_Task> tasks) throws SQLException {
+
+		Map<String, List<SQL_Task>> batches = new LinkedHashMap<>();
+
+		for (SQL_Task task : tasks) {
+			/*
+			 * Tasks without a row key can't be coalesced and may depend on
+			 * the writes queued before them, so they are run on their own.
+			 */
+			if (!hasRowKey(task)) {
+				executeBatches(connection, batches);
+				batches.clear();
+				executeBatch(connection, Collections.singletonList(task));
+				continue;
+			}
+			batches.computeIfAbsent(signature(task), k -> new ArrayList<>()).add(task);
+		}
+
+		executeBatches(connection, batches);
+	}
+
+	private void executeBatches(Connection connection, Map<String, List<SQL_Task>> batches) throws SQLException {
+
+		for (List<SQL_Task> batch : batches.values())
+			executeBatch(connection, batch);
+	}
+
+	private void executeBatch(Connection connection, List<SQL_Task> batch) throws SQLException {
+
+		SQL_Task first = batch.get(0);
+		List<String> columns = sortedColumns(first);
+		String code = statementCache.computeIfAbsent(signature(first), k -> buildStatement(first, columns));
+
+		try (PreparedStatement stmt = connection.prepareStatement(code)) {
+			for (SQL_Task task : batch) {
+				for (int count = 0; count < columns.size(); count++)
+					setParameter(stmt, count + 1, task.args.get(columns.get(count)));
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+		} catch (SQLException e) {
+			throw new SQLException(e.getMessage() + " --> " + code + " (" + batch.size() + " rows)", e.getSQLState(), e.getErrorCode(), e);
+		}
+	}
+
+	private String buildStatement(SQL_Task task, List<String> columns) {
+
+		String table = tb_prefix + task.tb_name.toUpperCase();
+
+		if (!task.update) {
+			StringBuilder code = new StringBuilder("DELETE FROM " + table + " WHERE ");
+			for (Iterator<String> it = columns.iterator(); it.hasNext();)
+				code.append("`").append(it.next()).append("` = ?").append(it.hasNext() ? " AND " : "");
+			return code.toString();
+		}
+
+		// Without keys it is a plain insert, as it always was.
+		if (task.keys == null || task.keys.isEmpty()) {
+			StringBuilder code = new StringBuilder("INSERT INTO " + table + " (");
+			StringBuilder valuecode = new StringBuilder(" VALUES (");
+			for (Iterator<String> it = columns.iterator(); it.hasNext();) {
+				code.append("`").append(it.next()).append("`").append(it.hasNext() ? ", " : ")");
+				valuecode.append("?").append(it.hasNext() ? "," : ")");
+			}
+			return code.append(valuecode).toString();
+		}
+
+		StringBuilder keycode = new StringBuilder("(");
+		StringBuilder valuecode = new StringBuilder(" VALUES (");
+		StringBuilder updatecode = new StringBuilder(" ON DUPLICATE KEY UPDATE ");
+		boolean hasUpdate = false;
+
+		for (Iterator<String> it = columns.iterator(); it.hasNext();) {
+			String column = it.next();
+			keycode.append("`").append(column).append("`").append(it.hasNext() ? ", " : ")");
+			valuecode.append("?").append(it.hasNext() ? "," : ")");
+
+			if (task.keys.contains(column))
+				continue;
+
+			updatecode.append(hasUpdate ? ", " : "").append("`").append(column).append("` = VALUES(`").append(column).append("`)");
+			hasUpdate = true;
+		}
+
+		// A row which is nothing but its key has nothing to update.
+		if (!hasUpdate)
+			updatecode.append("`").append(columns.get(0)).append("` = `").append(columns.get(0)).append("`");
+
+		return "INSERT INTO " + table + " " + keycode + valuecode + updatecode;
+	}
+
+	private static void setParameter(PreparedStatement stmt, int index, Object element) throws SQLException {
+
+		if (element instanceof String) {
+			stmt.setString(index, (String) element);
+		} else if (element instanceof Boolean) {
+			stmt.setString(index, ((Boolean) element) ? "1" : "0");
+		} else if (element == null) {
+			stmt.setString(index, null);
+		} else {
+			stmt.setObject(index, element.toString());
+		}
+	}
+
+	private static List<String> sortedColumns(SQL_Task task) {
+
+		List<String> columns = new ArrayList<>(task.args.keySet());
+		Collections.sort(columns);
+		return columns;
+	}
+
+	private static String signature(SQL_Task task) {
+
+		// Updates with different keys update different columns.
+		String keys = task.update && task.keys != null ? ":" + String.join(",", task.keys) : "";
+		return (task.update ? "U:" : "D:") + task.tb_name.toUpperCase() + ":" + String.join(",", sortedColumns(task)) + keys;
+	}
+
+	/*
+	 * The columns which pick out the row a task writes, sorted so an update
+	 * and a delete of the same row have the same key.
+	 */
+	private static List<String> rowKeyColumns(SQL_Task task) {
+
+		List<String> columns = new ArrayList<>(task.update ? (task.keys == null ? Collections.emptyList() : task.keys) : task.args.keySet());
+		Collections.sort(columns);
+		return columns;
+	}
+
+	private static boolean hasRowKey(SQL_Task task) {
+
+		List<String> columns = rowKeyColumns(task);
+		if (columns.isEmpty())
+			return false;
+
+		for (String column : columns)
+			if (task.args.get(column) == null)
+				return false;
+
+		return true;
+	}
+
+	/*
+	 * Writes to the same row share a key, anything else gets a key of its own.
+	 */
+	private static Object coalesceKey(SQL_Task task) {
+
+		if (!hasRowKey(task))
+			return new Object();
+
+		List<String> columns = rowKeyColumns(task);
+		List<String> key = new ArrayList<>(columns.size() * 2 + 1);
+		key.add(task.tb_name.toUpperCase());
+		for (String column : columns) {
+			key.add(column);
+			key.add(String.valueOf(task.args.get(column)));
+		}
+
+		return key;
+	}
+
+	/*
+	 * Journal records hold the table as their key, and as their values the
+	 * number of keys, the keys, then each column followed by its value.
+	 */
+	private static SaveJournal.Record toRecord(SQL_Task task) {
+
+		List<String> values = new ArrayList<>();
+		values.add(String.valueOf(task.keys == null ? -1 : task.keys.size()));
+		if (task.keys != null)
+			values.addAll(task.keys);
+		for (Map.Entry<String, Object> arg : task.args.entrySet()) {
+			values.add(arg.getKey());
+			Object element = arg.getValue();
+			// Stored as the same strings setParameter() would send.
+			if (element instanceof Boolean)
+				values.add(((Boolean) element) ? "1" : "0");
+			else
+				values.add(element == null ? null : element.toString());
+		}
+		return new SaveJournal.Record(task.update ? SaveJournal.SQL_UPDATE : SaveJournal.SQL_DELETE, task.tb_name, values);
+	}
+
+	private static SQL_Task fromRecord(SaveJournal.Record record) {
+
+		List<String> values = record.getValues();
+		int keyCount = Integer.parseInt(values.get(0));
+		int index = 1;
+		List<String> keys = null;
+		if (keyCount >= 0) {
+			keys = new ArrayList<>(values.subList(index, index + keyCount));
+			index += keyCount;
+		}
+		HashMap<String, Object> args = new HashMap<>();
+		for (; index + 1 < values.size(); index += 2)
+			args.put(values.get(index), values.get(index + 1));
+
+		return record.getType() == SaveJournal.SQL_UPDATE ? new SQL_Task(record.getKey(), args, keys) : new SQL_Task(record.getKey(), args);
+	}
+
+	/*
+	 * Metrics
+	 */
+
+	public long getQueuedWrites() {
+
+		return queuedWrites.get();
+	}
+
+	public long getCoalescedWrites() {
+
+		return coalescedWrites.get();
+	}
+
+	public long getFlushedWrites() {
+
+		return flushedWrites.get();
+	}
+
+	public long getLastFlushMillis() {
+
+		return lastFlushMillis;
+	}
+
+	public long getMaxFlushMillis() {
+
+		return maxFlushMillis;
+	}
+
+	public int getLastFlushSize() {
+
+		return lastFlushSize;
+	}
+}
@@ -0,0 +1,225 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of the saves waiting to be written to the database.
+ *
+ * Saves are committed in groups: each group is appended with a checksum and
+ * forced to disk in one write, before any of its saves are applied to the
+ * database. Once they have all been applied and are on disk the journal is
+ * cleared, a save which could not be written keeps it from being cleared. If the
+ * server stops before that, the groups left in the journal are replayed the
+ * next time Towny starts, so an interrupted write can never leave an object
+ * half saved.
+ *
+ * A save only reaches the journal when its group is committed, not when it
+ * is queued. Saves still waiting in the queue, usually those made in the last
+ * few ticks, are lost if the server crashes. That can be longer if the queue
+ * is behind, after a saveAll or while a large group is being written.
+ *
+ * A group which was only partly written when the server stopped fails its
+ * checksum, and it and anything after it are ignored.
+ */
+public class SaveJournal {
+
+	/** Writes the lines in {@link Record#getValues()} to the file at {@link Record#getKey()}. */
+	public static final byte WRITE_FILE = 1;
+	/** An insert or update of an SQL row, see {@link SQL_WritePipeline}. */
+	public static final byte SQL_UPDATE = 2;
+	/** A delete of an SQL row, see {@link SQL_WritePipeline}. */
+	public static final byte SQL_DELETE = 3;
+	/** Writes a townblock record to the segment file at {@link Record#getKey()}, see {@link SegmentSaveTask}. */
+	public static final byte WRITE_SEGMENT = 4;
+	/** Removes a townblock record from the segment file at {@link Record#getKey()}, see {@link SegmentSaveTask}. */
+	public static final byte DELETE_SEGMENT = 5;
+
+	private static final int GROUP_MAGIC = 0x544A524E; // "TJRN"
+
+	private final File file;
+
+	public SaveJournal(File file) {
+
+		this.file = file;
+	}
+
+	/**
+	 * A single save, as it will be applied to the database.
+	 */
+	public static final class Record {
+
+		private final byte type;
+		private final String key;
+		private final List<String> values;
+
+		public Record(byte type, String key, List<String> values) {
+
+			this.type = type;
+			this.key = key;
+			this.values = values;
+		}
+
+		public byte getType() {
+
+			return type;
+		}
+
+		/**
+		 * @return the path of the file or segment file, or the table of the row, being saved.
+		 */
+		public String getKey() {
+
+			return key;
+		}
+
+		/**
+		 * @return the lines of the file, or the values of the row, being saved. Values may be null.
+		 */
+		public List<String> getValues() {
+
+			return values;
+		}
+	}
+
+	/**
+	 * Appends a group of saves and forces them to disk.
+	 *
+	 * @param records - Saves to commit.
+	 * @throws IOException if the journal can not be written.
+	 */
+	public synchronized void commit(Collection<Record> records) throws IOException {
+
+		if (records.isEmpty())
+			return;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(records.size());
+		for (Record record : records) {
+			out.writeByte(record.type);
+			writeString(out, record.key);
+			out.writeInt(record.values.size());
+			for (String value : record.values) {
+				out.writeBoolean(value != null);
+				if (value != null)
+					writeString(out, value);
+			}
+		}
+		byte[] body = bytes.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(body);
+
+		ByteBuffer group = ByteBuffer.allocate(Integer.BYTES * 2 + body.length + Long.BYTES);
+		group.putInt(GROUP_MAGIC).putInt(body.length).put(body).putLong(crc.getValue());
+		group.flip();
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+			channel.position(channel.size());
+			while (group.hasRemaining())
+				channel.write(group);
+			channel.force(false);
+		}
+	}
+
+	/**
+	 * Empties the journal, once every save in it has been applied.
+	 *
+	 * The truncation is not forced to disk. The next {@link #commit(Collection)}
+	 * forces it along with the group it appends, and until then a crash only
+	 * replays saves which have already been applied, which writes them again
+	 * with the same values.
+	 *
+	 * @throws IOException if the journal can not be truncated.
+	 */
+	public synchronized void clear() throws IOException {
+
+		if (!file.exists() || file.length() == 0)
+			return;
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+			channel.truncate(0);
+		}
+	}
+
+	public synchronized boolean isEmpty() {
+
+		return !file.exists() || file.length() == 0;
+	}
+
+	/**
+	 * Reads every complete group of saves in the journal, in the order they were committed.
+	 *
+	 * @return the saves to replay.
+	 */
+	public synchronized List<Record> read() {
+
+		if (isEmpty())
+			return Collections.emptyList();
+
+		List<Record> records = new ArrayList<>();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			while (raf.getFilePointer() < raf.length()) {
+				if (raf.readInt() != GROUP_MAGIC)
+					throw new IOException("bad group header");
+				int length = raf.readInt();
+				if (length < 0 || raf.getFilePointer() + length + Long.BYTES > raf.length())
+					throw new IOException("truncated group");
+				byte[] body = new byte[length];
+				raf.readFully(body);
+				CRC32 crc = new CRC32();
+				crc.update(body);
+				if (crc.getValue() != raf.readLong())
+					throw new IOException("bad group checksum");
+
+				DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+				int count = in.readInt();
+				for (int i = 0; i < count; i++) {
+					byte type = in.readByte();
+					String key = readString(in);
+					int size = in.readInt();
+					List<String> values = new ArrayList<>(size);
+					for (int v = 0; v < size; v++)
+						values.add(in.readBoolean() ? readString(in) : null);
+					records.add(new Record(type, key, values));
+				}
+			}
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Ignoring the incomplete end of the save journal " + file.getName() + " (" + (e instanceof EOFException ? "truncated group" : e.getMessage()) + "), " + records.size() + " saves will be replayed.");
+		}
+		return records;
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+
+		int length = in.readInt();
+		if (length < 0 || length > in.available())
+			throw new IOException("bad string length " + length);
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,106 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.object.TownBlock;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * A queued save or delete of a townblock's record in a {@link TownBlockSegmentFile}.
+ */
+public class SegmentSaveTask implements JournaledTask {
+
+	private final TownySegmentFileSource source;
+	private final String path;
+	private final int x;
+	private final int z;
+	private final TownBlock townBlock;
+	private final Encoder encoder;
+
+	interface Encoder {
+
+		byte[] encode() throws IOException;
+	}
+
+	/**
+	 * Constructor to save a townblock, which is only encoded when the task is prepared.
+	 * @param source - Database the task is queued on.
+	 * @param path - path of the segment file.
+	 * @param townBlock - TownBlock being saved.
+	 * @param encoder - Supplier of the townblock's record.
+	 */
+	SegmentSaveTask(TownySegmentFileSource source, String path, TownBlock townBlock, Encoder encoder) {
+		this(source, path, townBlock.getX(), townBlock.getZ(), townBlock, encoder);
+	}
+
+	/**
+	 * Constructor to delete a townblock.
+	 * @param source - Database the task is queued on.
+	 * @param path - path of the segment file.
+	 * @param x - Townblock x.
+	 * @param z - Townblock z.
+	 */
+	SegmentSaveTask(TownySegmentFileSource source, String path, int x, int z) {
+		this(source, path, x, z, null, null);
+	}
+
+	private SegmentSaveTask(TownySegmentFileSource source, String path, int x, int z, TownBlock townBlock, Encoder encoder) {
+		this.source = source;
+		this.path = path;
+		this.x = x;
+		this.z = z;
+		this.townBlock = townBlock;
+		this.encoder = encoder;
+	}
+
+	@Override
+	public void run() {
+		SaveJournal.Record prepared = prepare();
+		if (prepared != null)
+			source.apply(prepared);
+	}
+
+	@Override
+	public SaveJournal.Record prepare() {
+		if (townBlock == null)
+			return new SaveJournal.Record(SaveJournal.DELETE_SEGMENT, path, Arrays.asList(String.valueOf(x), String.valueOf(z)));
+
+		byte[] encoded;
+		try {
+			encoded = encoder.encode();
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Error encoding townblock " + townBlock + ": " + e.getMessage());
+			return null;
+		}
+		return new SaveJournal.Record(SaveJournal.WRITE_SEGMENT, path, Arrays.asList(String.valueOf(x), String.valueOf(z), Base64.getEncoder().encodeToString(encoded)));
+	}
+
+	/**
+	 * Applies a {@link SaveJournal#WRITE_SEGMENT} or {@link SaveJournal#DELETE_SEGMENT} record to its segment.
+	 * The segment is not forced to disk, see {@link TownBlockSegmentFile#force()}.
+	 * @param record - Record made by {@link #prepare()}, or replayed from the journal.
+	 * @param segment - Segment file at {@link SaveJournal.Record#getKey()}.
+	 * @return true if the record was applied.
+	 */
+	public static boolean apply(SaveJournal.Record record, TownBlockSegmentFile segment) {
+		int x = Integer.parseInt(record.getValues().get(0));
+		int z = Integer.parseInt(record.getValues().get(1));
+		try {
+			if (record.getType() == SaveJournal.DELETE_SEGMENT) {
+				segment.delete(x, z);
+				return true;
+			}
+			File parent = segment.getFile().getParentFile();
+			if (parent != null && !parent.exists())
+				parent.mkdirs();
+			segment.write(x, z, Base64.getDecoder().decode(record.getValues().get(2)));
+			return true;
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Error saving townblock " + x + "," + z + " to " + segment.getFile().getPath() + ": " + e.getMessage());
+			return false;
+		}
+	}
+}
@@ -0,0 +1,335 @@
+package com.palmergames.bukkit.towny.db;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A region-style file holding the townblock records of one
+ * {@value #SEGMENT_SIZE}x{@value #SEGMENT_SIZE} area of townblocks in a world.
+ *
+ * The file starts with a header and a fixed size index holding the offset and
+ * length of the record for every cell in the segment. Saving a townblock
+ * appends its new record to the end of the file and then points the index at
+ * it, so a save never rewrites any other record. Writes are not forced to disk
+ * one at a time: the save queue calls {@link #force()} once for each group of
+ * saves, before clearing the save journal which would replay any write a crash
+ * cut short. The space left behind by replaced and deleted records is
+ * reclaimed by compacting the file once it outweighs the records which are
+ * still in use.
+ *
+ * Records are opaque to this class, see {@link TownySegmentFileSource} for
+ * the record layout.
+ */
+public class TownBlockSegmentFile {
+
+	public static final int SEGMENT_SIZE = 32;
+
+	private static final int MAGIC = 0x54425347; // "TBSG"
+	private static final int VERSION = 1;
+	private static final int CELLS = SEGMENT_SIZE * SEGMENT_SIZE;
+	// magic, version, townblock size, segment x, segment z.
+	private static final int HEADER_SIZE = 5 * Integer.BYTES;
+	// offset and length of each cell.
+	private static final int INDEX_SIZE = CELLS * 2 * Integer.BYTES;
+	private static final int DATA_START = HEADER_SIZE + INDEX_SIZE;
+	private static final long MIN_COMPACT_GARBAGE = 16 * 1024;
+
+	private final File file;
+	private final int segmentX;
+	private final int segmentZ;
+	private final int townBlockSize;
+
+	private int[] offsets = null;
+	private int[] lengths = null;
+	private long liveBytes = 0;
+	private long garbageBytes = 0;
+
+	public TownBlockSegmentFile(File file, int segmentX, int segmentZ, int townBlockSize) {
+
+		this.file = file;
+		this.segmentX = segmentX;
+		this.segmentZ = segmentZ;
+		this.townBlockSize = townBlockSize;
+	}
+
+	/**
+	 * @param file - Segment file, named by {@link #getFileName(int, int, int)}.
+	 * @return the segment saved in the file.
+	 * @throws IllegalArgumentException if the file is not named as a segment file.
+	 */
+	public static TownBlockSegmentFile fromFile(File file) {
+
+		String[] name = file.getName().split("\\.");
+		if (name.length != 5 || !name[0].equals("r") || !name[4].equals("tbs"))
+			throw new IllegalArgumentException("Not a townblock segment file name: " + file.getName());
+		try {
+			return new TownBlockSegmentFile(file, Integer.parseInt(name[1]), Integer.parseInt(name[2]), Integer.parseInt(name[3]));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Not a townblock segment file name: " + file.getName());
+		}
+	}
+
+	/**
+	 * @param coord - Townblock x or z coordinate.
+	 * @return the x or z of the segment holding that coordinate.
+	 */
+	public static int toSegment(int coord) {
+
+		return Math.floorDiv(coord, SEGMENT_SIZE);
+	}
+
+	/**
+	 * Segment files carry the townblock size in their name, as townblock files
+	 * do, so files saved with another town_block_size are never overwritten.
+	 *
+	 * @param segmentX - Segment x.
+	 * @param segmentZ - Segment z.
+	 * @param townBlockSize - Townblock size the segment is saved with.
+	 * @return the name of the segment file.
+	 */
+	public static String getFileName(int segmentX, int segmentZ, int townBlockSize) {
+
+		return "r." + segmentX + "." + segmentZ + "." + townBlockSize + ".tbs";
+	}
+
+	public File getFile() {
+
+		return file;
+	}
+
+	public int getSegmentX() {
+
+		return segmentX;
+	}
+
+	public int getSegmentZ() {
+
+		return segmentZ;
+	}
+
+	/**
+	 * Reads every record in the segment.
+	 *
+	 * @return Map of cell index to record, in cell order.
+	 * @throws IOException if the file can not be read.
+	 */
+	public synchronized Map<Integer, byte[]> readAll() throws IOException {
+
+		Map<Integer, byte[]> records = new LinkedHashMap<>();
+		if (!file.isFile())
+			return records;
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			loadIndex(raf);
+			for (int cell = 0; cell < CELLS; cell++) {
+				if (lengths[cell] == 0)
+					continue;
+				byte[] record = new byte[lengths[cell]];
+				raf.seek(offsets[cell]);
+				raf.readFully(record);
+				records.put(cell, record);
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Appends the record for a townblock and points the index at it.
+	 *
+	 * @param x - Townblock x.
+	 * @param z - Townblock z.
+	 * @param record - Encoded townblock.
+	 * @throws IOException if the file can not be written.
+	 */
+	public synchronized void write(int x, int z, byte[] record) throws IOException {
+
+		int cell = cellOf(x, z);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			if (raf.length() < DATA_START)
+				createHeader(raf);
+			else if (offsets == null)
+				loadIndex(raf);
+
+			long offset = raf.length();
+			if (offset + record.length > Integer.MAX_VALUE)
+				throw new IOException("Segment file is too large: " + file.getPath());
+
+			raf.seek(offset);
+			raf.write(record);
+			writeIndexEntry(raf, cell, (int) offset, record.length);
+		}
+
+		compactIfWasteful();
+	}
+
+	/**
+	 * Removes the record for a townblock, deleting the file once it holds no records.
+	 *
+	 * @param x - Townblock x.
+	 * @param z - Townblock z.
+	 * @throws IOException if the file can not be written.
+	 */
+	public synchronized void delete(int x, int z) throws IOException {
+
+		if (!file.isFile())
+			return;
+
+		int cell = cellOf(x, z);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			if (offsets == null)
+				loadIndex(raf);
+			if (lengths[cell] == 0)
+				return;
+			writeIndexEntry(raf, cell, 0, 0);
+		}
+
+		if (liveBytes == 0) {
+			Files.deleteIfExists(file.toPath());
+			offsets = null;
+			lengths = null;
+			garbageBytes = 0;
+			return;
+		}
+
+		compactIfWasteful();
+	}
+
+	/**
+	 * Forces everything written to the segment to disk.
+	 *
+	 * @throws IOException if the file can not be forced.
+	 */
+	public synchronized void force() throws IOException {
+
+		if (!file.isFile())
+			return;
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.getChannel().force(true);
+		}
+	}
+
+	private void compactIfWasteful() throws IOException {
+
+		if (garbageBytes > MIN_COMPACT_GARBAGE && garbageBytes > liveBytes)
+			compact();
+	}
+
+	/**
+	 * Rewrites the file with only the records in use, replacing the old file once the new one is complete.
+	 *
+	 * @throws IOException if the file can not be rewritten.
+	 */
+	public synchronized void compact() throws IOException {
+
+		Map<Integer, byte[]> records = readAll();
+		File temp = new File(file.getPath() + ".tmp");
+		// The index is only replaced once the new file has replaced the old one.
+		int[] newOffsets = new int[CELLS];
+		int[] newLengths = new int[CELLS];
+		int offset = DATA_START;
+
+		try {
+			try (RandomAccessFile raf = new RandomAccessFile(temp, "rw")) {
+				raf.setLength(0);
+				writeHeader(raf);
+				raf.seek(DATA_START);
+				for (Map.Entry<Integer, byte[]> entry : records.entrySet()) {
+					raf.write(entry.getValue());
+					newOffsets[entry.getKey()] = offset;
+					newLengths[entry.getKey()] = entry.getValue().length;
+					offset += entry.getValue().length;
+				}
+				raf.seek(HEADER_SIZE);
+				for (int cell = 0; cell < CELLS; cell++) {
+					raf.writeInt(newOffsets[cell]);
+					raf.writeInt(newLengths[cell]);
+				}
+				// The new file must be complete on disk before it replaces the old one.
+				raf.getFD().sync();
+			}
+
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.deleteIfExists(temp.toPath());
+			throw e;
+		}
+
+		offsets = newOffsets;
+		lengths = newLengths;
+		liveBytes = offset - DATA_START;
+		garbageBytes = 0;
+	}
+
+	private int cellOf(int x, int z) {
+
+		int cellX = x - segmentX * SEGMENT_SIZE;
+		int cellZ = z - segmentZ * SEGMENT_SIZE;
+		if (cellX < 0 || cellX >= SEGMENT_SIZE || cellZ < 0 || cellZ >= SEGMENT_SIZE)
+			throw new IllegalArgumentException("Townblock " + x + "," + z + " is not in segment " + segmentX + "," + segmentZ);
+		return cellZ * SEGMENT_SIZE + cellX;
+	}
+
+	private void createHeader(RandomAccessFile raf) throws IOException {
+
+		writeHeader(raf);
+
+		offsets = new int[CELLS];
+		lengths = new int[CELLS];
+		liveBytes = 0;
+		garbageBytes = 0;
+	}
+
+	private void writeHeader(RandomAccessFile raf) throws IOException {
+
+		raf.seek(0);
+		raf.writeInt(MAGIC);
+		raf.writeInt(VERSION);
+		raf.writeInt(townBlockSize);
+		raf.writeInt(segmentX);
+		raf.writeInt(segmentZ);
+		raf.write(new byte[INDEX_SIZE]);
+	}
+
+	private void loadIndex(RandomAccessFile raf) throws IOException {
+
+		raf.seek(0);
+		if (raf.length() < DATA_START || raf.readInt() != MAGIC)
+			throw new IOException("Not a townblock segment file: " + file.getPath());
+		int version = raf.readInt();
+		if (version != VERSION)
+			throw new IOException("Unknown townblock segment version " + version + ": " + file.getPath());
+		if (raf.readInt() != townBlockSize || raf.readInt() != segmentX || raf.readInt() != segmentZ)
+			throw new IOException("Townblock segment header does not match its file name: " + file.getPath());
+
+		raf.seek(HEADER_SIZE);
+		offsets = new int[CELLS];
+		lengths = new int[CELLS];
+		liveBytes = 0;
+		for (int cell = 0; cell < CELLS; cell++) {
+			offsets[cell] = raf.readInt();
+			lengths[cell] = raf.readInt();
+			if (lengths[cell] != 0 && (offsets[cell] < DATA_START || (long) offsets[cell] + lengths[cell] > raf.length()))
+				throw new IOException("Corrupt townblock segment index at cell " + cell + ": " + file.getPath());
+			liveBytes += lengths[cell];
+		}
+		garbageBytes = raf.length() - DATA_START - liveBytes;
+	}
+
+	private void writeIndexEntry(RandomAccessFile raf, int cell, int offset, int length) throws IOException {
+
+		raf.seek(HEADER_SIZE + (long) cell * 2 * Integer.BYTES);
+		raf.writeInt(offset);
+		raf.writeInt(length);
+
+		garbageBytes += lengths[cell];
+		liveBytes += length - lengths[cell];
+		offsets[cell] = offset;
+		lengths[cell] = length;
+	}
+}
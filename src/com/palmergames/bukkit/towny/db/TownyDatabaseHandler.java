@@ -34,6 +34,7 @@ import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.object.metadata.DataFieldIO;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
+import com.palmergames.bukkit.towny.regen.PlotBlockPalette;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.tasks.DeleteFileTask;
 import com.palmergames.bukkit.towny.war.common.townruin.TownRuinSettings;
@@ -61,14 +62,16 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.zip.ZipFile;
 
@@ -83,8 +86,22 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 	final String backupFolderPath;
 
 	Logger logger = LogManager.getLogger(TownyDatabaseHandler.class);
-	protected final Queue<Runnable> queryQueue = new ConcurrentLinkedQueue<>();
+	protected final CoalescingTaskQueue queryQueue = new CoalescingTaskQueue();
+	// Saves read on the main thread as journal records, and the other tasks, in the order they were queued.
+	private final ArrayDeque<Object> prepared = new ArrayDeque<>();
+	private final Object writeLock = new Object();
+	private final BukkitTask snapshotTask;
 	private final BukkitTask task;
+
+	// Journals are shared by every database handler, as the load and save handlers write the same files.
+	private static final Map<String, SaveJournal> journals = new ConcurrentHashMap<>();
+	// Most saves committed to the journal as one group, so a full save never holds every object in memory at once.
+	private static final int MAX_JOURNAL_GROUP = 1000;
+	private final SaveJournal fileJournal;
+	// Saves already in the journal which could not be written, guarded by fileJournal.
+	private final List<SaveJournal.Record> unwritten = new ArrayList<>();
+	// Files written since they were last forced to disk, guarded by fileJournal.
+	private final Set<String> unforcedFiles = new LinkedHashSet<>();
 	
 	protected TownyDatabaseHandler(Towny plugin, TownyUniverse universe) {
 		super(plugin, universe);
@@ -107,33 +124,214 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 			}
 		
 		/*
-		 * Start our Async queue for pushing data to the flatfile database.
+		 * Write any saves a crash left in the journal before anything is loaded.
 		 */
-		task = BukkitTools.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-			while (!this.queryQueue.isEmpty()) {
-				Runnable operation = this.queryQueue.poll();
-				operation.run();
+		fileJournal = getJournal("save-journal.dat");
+		replayFileJournal();
+		
+		/*
+		 * Saves are read on the main thread, where nothing can change the objects while they are read,
+		 * then our Async queue pushes them to the flatfile database.
+		 */
+		snapshotTask = BukkitTools.getScheduler().runTaskTimer(plugin, () -> snapshotQueue(TownySettings.getSaveSnapshotBudget() * 1000000L), 5L, 5L);
+		task = BukkitTools.getScheduler().runTaskTimerAsynchronously(plugin, this::drainQueue, 5L, 5L);
+	}
+	
+	/**
+	 * @param name - File name of the journal in the data folder.
+	 * @return the journal, shared with every other handler using the same file.
+	 */
+	protected SaveJournal getJournal(String name) {
+		return journals.computeIfAbsent(dataFolderPath + File.separator + name, path -> new SaveJournal(new File(path)));
+	}
+	
+	/**
+	 * Read queued saves into journal records, on the main thread. Other tasks
+	 * are passed on as they are, keeping their place among the saves.
+	 * 
+	 * @param budgetNanos - How long may be spent, or -1 to read everything queued.
+	 */
+	private void snapshotQueue(long budgetNanos) {
+		long start = System.nanoTime();
+		List<Object> batch = new ArrayList<>();
+		Runnable operation;
+		while ((budgetNanos < 0 || System.nanoTime() - start < budgetNanos) && (operation = this.queryQueue.poll()) != null) {
+			if (operation instanceof JournaledTask) {
+				SaveJournal.Record record = ((JournaledTask) operation).prepare();
+				if (record != null)
+					batch.add(record);
+			} else {
+				batch.add(operation);
+			}
+		}
+		
+		if (!batch.isEmpty())
+			synchronized (prepared) {
+				prepared.addAll(batch);
+			}
+	}
+	
+	private Object pollPrepared() {
+		synchronized (prepared) {
+			return prepared.poll();
+		}
+	}
+	
+	/**
+	 * Write everything read by {@link #snapshotQueue(long)}. Saves are committed
+	 * to the journal in groups and then written, other tasks are run in the
+	 * order they were queued. Saves are only journaled here, anything still in
+	 * the queue or not yet written by this is lost if the server crashes.
+	 */
+	private void drainQueue() {
+		synchronized (writeLock) {
+			boolean journaling = TownySettings.isSaveJournalEnabled();
+			List<SaveJournal.Record> group = new ArrayList<>();
+			Object operation;
+			while ((operation = pollPrepared()) != null) {
+				if (operation instanceof SaveJournal.Record) {
+					group.add((SaveJournal.Record) operation);
+					if (group.size() >= MAX_JOURNAL_GROUP)
+						checkpoint(group, journaling);
+				} else {
+					// Anything which isn't journaled may depend on the saves queued before it.
+					checkpoint(group, journaling);
+					((Runnable) operation).run();
+				}
 			}
-		}, 5L, 5L);
+			checkpoint(group, journaling);
+		}
+	}
+	
+	/*
+	 * Commit a group of saves to the journal, write them, then clear the journal once every
+	 * save in it is on disk. Saves which could not be written stay in the journal, and are
+	 * written again before the next group.
+	 */
+	private void checkpoint(List<SaveJournal.Record> group, boolean journaling) {
+		if (group.isEmpty())
+			return;
+		
+		synchronized (fileJournal) {
+			boolean committed = false;
+			if (journaling) {
+				try {
+					fileJournal.commit(group);
+					committed = true;
+				} catch (IOException e) {
+					TownyMessaging.sendErrorMsg("Could not write to the save journal: " + e.getMessage());
+				}
+			}
+			
+			List<SaveJournal.Record> failed = new ArrayList<>();
+			for (SaveJournal.Record record : unwritten)
+				if (!apply(record))
+					failed.add(record);
+			for (SaveJournal.Record record : group)
+				if (!apply(record) && committed)
+					failed.add(record);
+			
+			// Until everything written is on disk, all of it has to stay in the journal.
+			if (!forceWrites()) {
+				if (committed)
+					unwritten.addAll(group);
+			} else {
+				unwritten.clear();
+				unwritten.addAll(failed);
+			}
+			if (!unwritten.isEmpty()) {
+				TownyMessaging.sendErrorMsg(unwritten.size() + " saves could not be written, they are kept in the save journal and will be written again.");
+			} else if (journaling) {
+				try {
+					fileJournal.clear();
+				} catch (IOException e) {
+					TownyMessaging.sendErrorMsg("Could not clear the save journal: " + e.getMessage());
+				}
+			}
+		}
+		group.clear();
+	}
+	
+	private void replayFileJournal() {
+		synchronized (fileJournal) {
+			List<SaveJournal.Record> records = fileJournal.read();
+			if (records.isEmpty())
+				return;
+			
+			System.out.println("[Towny] Writing " + records.size() + " saves left in the save journal.");
+			Map<String, TownBlockSegmentFile> segments = new HashMap<>();
+			Set<String> files = new LinkedHashSet<>();
+			boolean written = true;
+			for (SaveJournal.Record record : records) {
+				if (record.getType() == SaveJournal.WRITE_FILE) {
+					written &= FlatFileSaveTask.apply(record);
+					files.add(record.getKey());
+				} else if (record.getType() == SaveJournal.WRITE_SEGMENT || record.getType() == SaveJournal.DELETE_SEGMENT)
+					written &= SegmentSaveTask.apply(record, segments.computeIfAbsent(record.getKey(), path -> TownBlockSegmentFile.fromFile(new File(path))));
+			}
+			written &= FlatFileSaveTask.force(files);
+			for (TownBlockSegmentFile segment : segments.values()) {
+				try {
+					segment.force();
+				} catch (IOException e) {
+					TownyMessaging.sendErrorMsg("Could not force " + segment.getFile().getPath() + " to disk: " + e.getMessage());
+					written = false;
+				}
+			}
+			if (!written) {
+				TownyMessaging.sendErrorMsg("Some saves in the save journal could not be written, the journal is kept and will be replayed the next time Towny starts.");
+				return;
+			}
+			try {
+				fileJournal.clear();
+			} catch (IOException e) {
+				TownyMessaging.sendErrorMsg("Could not clear the save journal: " + e.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Writes a save which has been committed to the journal.
+	 * 
+	 * @param record - Save to write.
+	 * @return true if the save was written, false if it failed and must stay in the journal.
+	 */
+	protected boolean apply(SaveJournal.Record record) {
+		if (record.getType() == SaveJournal.WRITE_FILE) {
+			unforcedFiles.add(record.getKey());
+			return FlatFileSaveTask.apply(record);
+		}
+		return true;
+	}
+	
+	/**
+	 * Forces everything written by {@link #apply(SaveJournal.Record)} to disk, once for
+	 * each group of saves, before the journal is cleared.
+	 * 
+	 * @return true if every write is on disk.
+	 */
+	protected boolean forceWrites() {
+		boolean forced = FlatFileSaveTask.force(unforcedFiles);
+		unforcedFiles.clear();
+		return forced;
 	}
 	
 	@Override
 	public void finishTasks() {
 		
-		// Cancel the repeating task as its not needed anymore.
+		// Cancel the repeating tasks as they are not needed anymore.
+		snapshotTask.cancel();
 		task.cancel();
 		
-		// Make sure that *all* tasks are saved before shutting down.
-		while (!queryQueue.isEmpty()) {
-			Runnable operation = this.queryQueue.poll();
-			operation.run();
-		}
+		// Make sure that *all* tasks are saved before shutting down, after any write already running.
+		snapshotQueue(-1);
+		drainQueue();
 	}
 	
 	@Override
 	public boolean backup() throws IOException {
 
-		if (!TownySettings.getSaveDatabase().equalsIgnoreCase("flatfile")) {
+		if (TownySettings.getSaveDatabase().equalsIgnoreCase("mysql")) {
 			System.out.println("***** Warning *****");
 			System.out.println("***** Only Snapshots & Regen files in towny\\data\\ will be backed up!");
 			System.out.println("***** This does not include your residents/towns/nations.");
@@ -701,7 +899,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 		// Move the plot to be restored
 		if (townBlock.getWorld().isUsingPlotManagementRevert()) {
 			PlotBlockData plotData = TownyRegenAPI.getPlotChunkSnapshot(townBlock);
-			if (plotData != null && !plotData.getBlockList().isEmpty()) {
+			if (plotData != null && !plotData.getBlocks().isEmpty()) {
 				TownyRegenAPI.addPlotChunk(plotData, true);
 			}
 		}
@@ -742,6 +940,9 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 		if (preEvent.isCancelled())
 			return;
 		
+		// Stop any claims or other jobs still waiting to change the town.
+		plugin.getJobExecutor().cancel(town.getUUID());
+		
 		Resident mayor = town.getMayor();
 		TownyWorld townyWorld = town.getHomeblockWorld();
 		
@@ -1223,7 +1424,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 	public boolean savePlotData(PlotBlockData plotChunk) {
         String path = getPlotFilename(plotChunk);
         
-        queryQueue.add(() -> {
+        queryQueue.add(path, () -> {
 			File file = new File(dataFolderPath + File.separator + "plot-block-data" + File.separator + plotChunk.getWorldName());
 			FileMgmt.savePlotData(plotChunk, file, path);
 		});
@@ -1351,6 +1552,13 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
              */
             switch (version) {
                 
+                case 5:
+                    
+                    // palette and packed block indexes
+                    plotBlockData.setBlocks(PlotBlockPalette.read(fin, plotBlockData.getHeight()));
+                    plotBlockData.resetBlockListRestored();
+                    return plotBlockData;
+                
                 default:
                 case 4:
                 case 3:
@@ -1381,15 +1589,18 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
             e.printStackTrace();
         }
         
+        // Convert snapshots from older versions, and write them back in the current version.
         plotBlockData.setBlockList(blockArr);
         plotBlockData.resetBlockListRestored();
+        if (!blockArr.isEmpty())
+        	savePlotData(plotBlockData);
         return plotBlockData;
     }
     
     @Override
 	public void deletePlotData(PlotBlockData plotChunk) {
 		File file = new File(getPlotFilename(plotChunk));
-		queryQueue.add(new DeleteFileTask(file, true));
+		queryQueue.add(getPlotFilename(plotChunk), new DeleteFileTask(file, true));
 	}
 
 	private String getPlotFilename(PlotBlockData plotChunk) {
@@ -1480,7 +1691,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 	
 	@Override
 	public boolean saveRegenList() {
-        queryQueue.add(() -> {
+        queryQueue.add(dataFolderPath + File.separator + "regen.txt", () -> {
         	File file = new File(dataFolderPath + File.separator + "regen.txt");
         	
 			Collection<String> lines = TownyRegenAPI.getPlotChunks().values().stream()
@@ -1501,6 +1712,9 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 			   	WorldCoord worldCoord = TownyRegenAPI.getWorldCoord();
 			   	coords.add(worldCoord.getWorldName() + "," + worldCoord.getX() + "," + worldCoord.getZ());
 		    }
+       		// Snapshots still being encoded are taken again on the next start.
+       		for (WorldCoord worldCoord : TownyRegenAPI.getSnapshotsInProgress())
+       			coords.add(worldCoord.getWorldName() + "," + worldCoord.getX() + "," + worldCoord.getZ());
        		
        		FileMgmt.listToFile(coords, dataFolderPath + File.separator + "snapshot_queue.txt");
 	   });
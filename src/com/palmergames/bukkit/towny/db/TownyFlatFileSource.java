@@ -31,14 +31,31 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 
-public final class TownyFlatFileSource extends TownyDatabaseHandler {
+public class TownyFlatFileSource extends TownyDatabaseHandler {
 
 	private final String newLine = System.getProperty("line.separator");
 	
+	/*
+	 * While loadAll() runs, each kind of object file is read and parsed on
+	 * loadPool before the objects are loaded, then the keys are handed out to
+	 * the single threaded load methods which link the objects together.
+	 */
+	private ForkJoinPool loadPool = null;
+	private final Map<String, HashMap<String, String>> prefetchedKeys = new ConcurrentHashMap<>();
+	// Phase name -> {files read, read nanos, link nanos}
+	private final Map<String, long[]> loadTimings = new LinkedHashMap<>();
+	
 	public TownyFlatFileSource(Towny plugin, TownyUniverse universe) {
 		super(plugin, universe);
 		// Create files and folders if non-existent
@@ -105,6 +122,143 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		return dataFolderPath + File.separator + "plotgroups" + File.separator + group.getID() + ".data";
 	}
 
+	/*
+	 * Parallel loading
+	 */
+	
+	@Override
+	public boolean loadAll() {
+		
+		loadPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+		loadTimings.clear();
+		try {
+			return super.loadAll();
+		} finally {
+			loadPool.shutdown();
+			loadPool = null;
+			prefetchedKeys.clear();
+			reportLoadTimings();
+		}
+	}
+	
+	/**
+	 * Reads and parses the given files on the load pool, ahead of the objects being loaded from them.
+	 * 
+	 * @param phase - Name of the objects being loaded, used for timings.
+	 * @param paths - Paths of the files to read.
+	 */
+	protected void prefetch(String phase, Collection<String> paths) {
+		
+		prefetchedKeys.clear();
+		if (loadPool == null)
+			return;
+		
+		long start = System.nanoTime();
+		List<File> files = paths.stream().map(File::new).collect(Collectors.toList());
+		FileMgmt.loadFilesIntoHashMaps(files, loadPool, prefetchedKeys);
+		
+		recordReadTiming(phase, prefetchedKeys.size(), System.nanoTime() - start);
+	}
+	
+	/**
+	 * @param phase - Name of the objects being loaded.
+	 * @param files - Number of files read.
+	 * @param nanos - Time taken to read and parse them.
+	 */
+	protected void recordReadTiming(String phase, int files, long nanos) {
+		
+		if (loadPool == null)
+			return;
+		
+		long[] timing = loadTimings.computeIfAbsent(phase, k -> new long[3]);
+		timing[0] += files;
+		timing[1] += nanos;
+	}
+	
+	/**
+	 * Runs the single threaded part of loading, which parses the keys into objects and links them together.
+	 * 
+	 * @param phase - Name of the objects being loaded, used for timings.
+	 * @param loader - Loads the objects, returning false on failure.
+	 * @return the result of the loader.
+	 */
+	protected boolean link(String phase, BooleanSupplier loader) {
+		
+		long start = System.nanoTime();
+		try {
+			return loader.getAsBoolean();
+		} finally {
+			prefetchedKeys.clear();
+			if (loadPool != null)
+				loadTimings.computeIfAbsent(phase, k -> new long[3])[2] += System.nanoTime() - start;
+		}
+	}
+	
+	/**
+	 * @param file - Object file.
+	 * @return the keys read from the file, using the prefetched keys when there are some.
+	 *         Prefetched keys are taken out of the cache, so each map is freed once its object is loaded.
+	 */
+	private HashMap<String, String> loadKeys(File file) {
+		
+		HashMap<String, String> keys = prefetchedKeys.remove(file.getPath());
+		return keys != null ? keys : FileMgmt.loadFileIntoHashMap(file);
+	}
+	
+	private void reportLoadTimings() {
+		
+		long readTotal = 0, linkTotal = 0;
+		for (Map.Entry<String, long[]> entry : loadTimings.entrySet()) {
+			long[] timing = entry.getValue();
+			readTotal += timing[1];
+			linkTotal += timing[2];
+			System.out.println(String.format("[Towny] Loaded %d %s: read %dms, linked %dms.", timing[0], entry.getKey(), timing[1] / 1000000L, timing[2] / 1000000L));
+		}
+		System.out.println(String.format("[Towny] Flatfile database loaded: read %dms, linked %dms.", readTotal / 1000000L, linkTotal / 1000000L));
+	}
+	
+	@Override
+	public boolean loadWorlds() {
+		
+		prefetch("worlds", getWorlds().stream().map(this::getWorldFilename).collect(Collectors.toList()));
+		return link("worlds", super::loadWorlds);
+	}
+	
+	@Override
+	public boolean loadResidents() {
+		
+		prefetch("residents", universe.getResidents().stream().map(this::getResidentFilename).collect(Collectors.toList()));
+		return link("residents", super::loadResidents);
+	}
+	
+	@Override
+	public boolean loadTowns() {
+		
+		prefetch("towns", universe.getTowns().stream().map(this::getTownFilename).collect(Collectors.toList()));
+		return link("towns", super::loadTowns);
+	}
+	
+	@Override
+	public boolean loadNations() {
+		
+		prefetch("nations", universe.getNations().stream().map(this::getNationFilename).collect(Collectors.toList()));
+		return link("nations", super::loadNations);
+	}
+	
+	@Override
+	public boolean loadTownBlocks() {
+		
+		prefetch("townblocks", getAllTownBlocks().stream().map(this::getTownBlockFilename).collect(Collectors.toList()));
+		return link("townblocks", this::loadTownBlockFiles);
+	}
+	
+	@Override
+	public boolean loadPlotGroups() {
+		
+		prefetch("plotgroups", getAllPlotGroups().stream().map(this::getPlotGroupFilename).collect(Collectors.toList()));
+		return link("plotgroups", this::loadPlotGroupFiles);
+	}
+
 	/*
 	 * Load keys
 	 */
@@ -380,7 +534,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		if (fileResident.exists() && fileResident.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_resident", resident.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileResident);
+				HashMap<String, String> keys = loadKeys(fileResident);
 				
 				line = keys.get("lastOnline");
 				if (line != null)
@@ -518,7 +672,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		if (fileTown.exists() && fileTown.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_town", town.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileTown);
+				HashMap<String, String> keys = loadKeys(fileTown);
 
 				line = keys.get("mayor");
 				if (line != null)
@@ -887,7 +1041,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		if (fileNation.exists() && fileNation.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_nation", nation.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileNation);
+				HashMap<String, String> keys = loadKeys(fileNation);
 				
 				line = keys.get("capital");
 				String cantLoadCapital = Translation.of("flatfile_err_nation_could_not_load_capital_disband", nation.getName());
@@ -1060,7 +1214,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		if (fileWorld.exists() && fileWorld.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_world", world.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileWorld);
+				HashMap<String, String> keys = loadKeys(fileWorld);
 				
 				line = keys.get("claimable");
 				if (line != null)
@@ -1340,8 +1494,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		}
 	}
 	
-	@Override
-	public boolean loadPlotGroups() {
+	private boolean loadPlotGroupFiles() {
 		String line = "";
 		String path;
 		
@@ -1351,7 +1504,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 			File groupFile = new File(path);
 			if (groupFile.exists() && groupFile.isFile()) {
 				try {
-					HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(groupFile);
+					HashMap<String, String> keys = loadKeys(groupFile);
 
 					line = keys.get("groupName");
 					if (line != null)
@@ -1397,8 +1550,17 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		return true;
 	}
 	
-	@Override
-	public boolean loadTownBlocks() {
+	/**
+	 * @param townBlock - TownBlock to load.
+	 * @return the keys saved for the townblock, or null if it has not been saved.
+	 */
+	protected HashMap<String, String> loadTownBlockKeys(TownBlock townBlock) {
+		
+		File fileTownBlock = new File(getTownBlockFilename(townBlock));
+		return fileTownBlock.isFile() ? loadKeys(fileTownBlock) : null;
+	}
+	
+	protected boolean loadTownBlockFiles() {
 		
 		String line = "";
 		String path;
@@ -1407,11 +1569,10 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		for (TownBlock townBlock : getAllTownBlocks()) {
 			path = getTownBlockFilename(townBlock);
 			
-			File fileTownBlock = new File(path);
-			if (fileTownBlock.exists() && fileTownBlock.isFile()) {
+			HashMap<String, String> keys = loadTownBlockKeys(townBlock);
+			if (keys != null) {
 
 				try {
-					HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileTownBlock);			
 
 					line = keys.get("town");
 					if (line != null) {
@@ -1554,7 +1715,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 			list.add(group.getTown().getName() + "," + group.getID() + "," + group.getName());
 		}
 		
-		this.queryQueue.add(new FlatFileSaveTask(list, dataFolderPath + File.separator + "plotgroups.txt"));
+		this.queryQueue.add(dataFolderPath + File.separator + "plotgroups.txt", new FlatFileSaveTask(list, dataFolderPath + File.separator + "plotgroups.txt"));
 		
 		return true;
 	}
@@ -1573,7 +1734,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		/*
 		 *  Make sure we only save in async
 		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, dataFolderPath + File.separator + "worlds.txt"));
+		this.queryQueue.add(dataFolderPath + File.separator + "worlds.txt", new FlatFileSaveTask(list, dataFolderPath + File.separator + "worlds.txt"));
 
 		return true;
 
@@ -1586,6 +1747,18 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	@Override
 	public boolean saveResident(Resident resident) {
 
+		String path = getResidentFilename(resident);
+		/*
+		 *  Make sure we only save in async, the resident is serialized on the main thread when the save is read from the queue
+		 *  and any save already queued for the same file is replaced.
+		 */
+		this.queryQueue.add(path, new FlatFileSaveTask(() -> serializeResident(resident), path));
+
+		return true;
+	}
+
+	private List<String> serializeResident(Resident resident) {
+
 		List<String> list = new ArrayList<>();
 
 		if (resident.hasUUID()) {
@@ -1631,17 +1804,24 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 
 		// Metadata
 		list.add("metadata=" + serializeMetadata(resident));
+
+		return list;
+	}
+
+	@Override
+	public boolean saveTown(Town town) {
+
+		String path = getTownFilename(town);
 		/*
-		 *  Make sure we only save in async
+		 *  Make sure we only save in async, the town is serialized on the main thread when the save is read from the queue
+		 *  and any save already queued for the same file is replaced.
 		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, getResidentFilename(resident)));
+		this.queryQueue.add(path, new FlatFileSaveTask(() -> serializeTown(town), path));
 
 		return true;
-
 	}
 
-	@Override
-	public boolean saveTown(Town town) {
+	private List<String> serializeTown(Town town) {
 
 		List<String> list = new ArrayList<>();
 
@@ -1755,17 +1935,23 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		// Debt balance
 		list.add("debtBalance=" + town.getDebtBalance());
 
+		return list;
+	}
+	
+	@Override
+	public boolean savePlotGroup(PlotGroup group) {
+
+		String path = getPlotGroupFilename(group);
 		/*
-		 *  Make sure we only save in async
+		 *  Make sure we only save in async, the plot group is serialized on the main thread when the save is read from the queue
+		 *  and any save already queued for the same file is replaced.
 		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, getTownFilename(town)));
+		this.queryQueue.add(path, new FlatFileSaveTask(() -> serializePlotGroup(group), path));
 
 		return true;
-
 	}
-	
-	@Override
-	public boolean savePlotGroup(PlotGroup group) {
+
+	private List<String> serializePlotGroup(PlotGroup group) {
 		
 		List<String> list = new ArrayList<>();
 		
@@ -1780,16 +1966,25 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		
 		// Town
 		list.add("town=" + group.getTown().toString());
-		
-		// Save file
-		this.queryQueue.add(new FlatFileSaveTask(list, getPlotGroupFilename(group)));
-		
-		return true;
+
+		return list;
 	}
 
 	@Override
 	public boolean saveNation(Nation nation) {
 
+		String path = getNationFilename(nation);
+		/*
+		 *  Make sure we only save in async, the nation is serialized on the main thread when the save is read from the queue
+		 *  and any save already queued for the same file is replaced.
+		 */
+		this.queryQueue.add(path, new FlatFileSaveTask(() -> serializeNation(nation), path));
+
+		return true;
+	}
+
+	private List<String> serializeNation(Nation nation) {
+
 		List<String> list = new ArrayList<>();
 
 		if (nation.hasCapital())
@@ -1832,18 +2027,24 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 
 		// Metadata
 		list.add("metadata=" + serializeMetadata(nation));
-		
+
+		return list;
+	}
+
+	@Override
+	public boolean saveWorld(TownyWorld world) {
+
+		String path = getWorldFilename(world);
 		/*
-		 *  Make sure we only save in async
+		 *  Make sure we only save in async, the world is serialized on the main thread when the save is read from the queue
+		 *  and any save already queued for the same file is replaced.
 		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, getNationFilename(nation)));
+		this.queryQueue.add(path, new FlatFileSaveTask(() -> serializeWorld(world), path));
 
 		return true;
-
 	}
 
-	@Override
-	public boolean saveWorld(TownyWorld world) {
+	private List<String> serializeWorld(TownyWorld world) {
 
 		List<String> list = new ArrayList<>();
 
@@ -1972,20 +2173,24 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		// Metadata
 		list.add("");
 		list.add("metadata=" + serializeMetadata(world));
-		
-		/*
-		 *  Make sure we only save in async
-		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, getWorldFilename(world)));
-
-		return true;
 
+		return list;
 	}
 
 	@Override
 	public boolean saveTownBlock(TownBlock townBlock) {
 
-		FileMgmt.checkOrCreateFolder(dataFolderPath + File.separator + "townblocks" + File.separator + townBlock.getWorld().getName());
+		String path = getTownBlockFilename(townBlock);
+		/*
+		 *  Make sure we only save in async, the townblock is serialized on the main thread when the save is read from the queue
+		 *  and any save already queued for the same file is replaced.
+		 */
+		this.queryQueue.add(path, new FlatFileSaveTask(() -> serializeTownBlock(townBlock), path));
+
+		return true;
+	}
+
+	private List<String> serializeTownBlock(TownBlock townBlock) {
 
 		List<String> list = new ArrayList<>();
 
@@ -2036,15 +2241,8 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		}
 		
 		list.add("groupID=" + groupID.toString());
-		
-		
-		/*
-		 *  Make sure we only save in async
-		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, getTownBlockFilename(townBlock)));
-
-		return true;
 
+		return list;
 	}
 
 	/*
@@ -2054,25 +2252,25 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	@Override
 	public void deleteResident(Resident resident) {
 		File file = new File(getResidentFilename(resident));
-		queryQueue.add(new DeleteFileTask(file, false));
+		queryQueue.add(getResidentFilename(resident), new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteTown(Town town) {
 		File file = new File(getTownFilename(town));
-		queryQueue.add(new DeleteFileTask(file, false));
+		queryQueue.add(getTownFilename(town), new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteNation(Nation nation) {
 		File file = new File(getNationFilename(nation));
-		queryQueue.add(new DeleteFileTask(file, false));
+		queryQueue.add(getNationFilename(nation), new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteWorld(TownyWorld world) {
 		File file = new File(getWorldFilename(world));
-		queryQueue.add(new DeleteFileTask(file, false));
+		queryQueue.add(getWorldFilename(world), new DeleteFileTask(file, false));
 	}
 
 	@Override
@@ -2080,7 +2278,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 
 		File file = new File(getTownBlockFilename(townBlock));
 		
-		queryQueue.add(() -> {
+		queryQueue.add(getTownBlockFilename(townBlock), () -> {
 			if (file.exists()) {
 				// TownBlocks can end up being deleted because they do not contain valid towns.
 				// This will move a deleted townblock to either: 
@@ -2102,6 +2300,6 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	@Override
 	public void deletePlotGroup(PlotGroup group) {
     	File file = new File(getPlotGroupFilename(group));
-    	queryQueue.add(new DeleteFileTask(file, false));
+    	queryQueue.add(getPlotGroupFilename(group), new DeleteFileTask(file, false));
 	}
 }
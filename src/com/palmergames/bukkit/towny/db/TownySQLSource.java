@@ -20,6 +20,7 @@ import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
 import com.palmergames.bukkit.towny.object.metadata.MetadataLoader;
 import com.palmergames.bukkit.towny.tasks.GatherResidentUUIDTask;
 import com.palmergames.bukkit.towny.utils.MapUtil;
@@ -33,6 +34,7 @@ import org.bukkit.World;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
@@ -42,19 +44,33 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 public final class TownySQLSource extends TownyDatabaseHandler {
 
-	private final Queue<SQL_Task> queryQueue = new ConcurrentLinkedQueue<>();
+	/*
+	 * The columns read when loading each table, so nothing else is sent from the database.
+	 */
+	private static final String[] RESIDENT_COLUMNS = {"name", "uuid", "lastOnline", "registered", "joinedTownAt", "isNPC",
+			"isJailed", "JailSpawn", "JailDays", "JailTown", "friends", "protectionStatus", "metadata", "town", "title",
+			"surname", "town-ranks", "nation-ranks"};
+	private static final String[] TOWN_COLUMNS = {"name", "mayor", "nation", "townBoard", "tag", "protectionStatus", "bonus",
+			"purchased", "plotPrice", "hasUpkeep", "taxpercent", "maxPercentTaxAmount", "taxes", "plotTax",
+			"commercialPlotPrice", "commercialPlotTax", "embassyPlotPrice", "embassyPlotTax", "spawnCost", "open", "public",
+			"admindisabledpvp", "adminenabledpvp", "homeBlock", "spawn", "outpostSpawns", "jailSpawns", "outlaws", "uuid",
+			"conqueredDays", "conquered", "registered", "metadata", "ruined", "ruinedTime", "neutral", "debtBalance",
+			"joinedNationAt"};
+	private static final String[] TOWNBLOCK_COLUMNS = {"world", "x", "z", "name", "price", "town", "resident", "type",
+			"outpost", "permissions", "changed", "locked", "claimedAt", "metadata", "groupID"};
+	// Failed flushes allowed on shutdown before the remaining writes are left in the journal.
+	private static final int SHUTDOWN_FLUSH_ATTEMPTS = 3;
+
+	private SQL_WritePipeline writePipeline = null;
 	private BukkitTask task = null;
 
 	private final String dsn;
@@ -144,43 +160,44 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		/*
 		 * Start our Async queue for pushing data to the database.
+		 * Writes are coalesced per object and flushed in batches.
 		 */
-		task = BukkitTools.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-
-			while (!TownySQLSource.this.queryQueue.isEmpty()) {
-
-				SQL_Task query = TownySQLSource.this.queryQueue.poll();
-
-				if (query.update) {
-					TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys);
-				} else {
-					TownySQLSource.this.QueueDeleteDB(query.tb_name, query.args);
-				}
-
-			}
-
-		}, 5L, 5L);
+		writePipeline = new SQL_WritePipeline(hikariDataSource, tb_prefix, getJournal("sql-journal.dat"), TownySettings.isSaveJournalEnabled());
+		int replayed = writePipeline.replayJournal();
+		if (replayed > 0)
+			System.out.println("[Towny] Wrote " + replayed + " saves left in the SQL save journal.");
+		task = BukkitTools.getScheduler().runTaskTimerAsynchronously(plugin, () -> writePipeline.flush(), 5L, 5L);
 	}
 
 	@Override
 	public void finishTasks() {
 		// Cancel the repeating task as its not needed anymore.
-		task.cancel();
-
-		// Make sure that *all* tasks are saved before shutting down.
-		while (!queryQueue.isEmpty()) {
-			SQL_Task query = TownySQLSource.this.queryQueue.poll();
-
-			if (query.update) {
-				TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys);
-			} else {
-				TownySQLSource.this.QueueDeleteDB(query.tb_name, query.args);
-			}
+		if (task != null)
+			task.cancel();
+
+		// Make sure that *all* tasks are saved before shutting down, unless the database can't be reached.
+		if (writePipeline != null) {
+			int failures = 0;
+			while (!writePipeline.isEmpty() && failures < SHUTDOWN_FLUSH_ATTEMPTS)
+				if (!writePipeline.flush())
+					failures++;
+
+			if (!writePipeline.isEmpty())
+				TownyMessaging.sendErrorMsg("SQL: Could not write " + writePipeline.getQueueDepth() + " saves before shutting down, "
+					+ (writePipeline.isJournaling() ? "they are kept in the save journal and will be written when Towny next starts." : "they have been lost."));
 		}
+
 		// Close the database sources on shutdown to get GC
 		hikariDataSource.close();
 	}
 
+	/**
+	 * @return the pipeline batching writes to the database, used to read its queue depth and flush timings.
+	 */
+	public SQL_WritePipeline getWritePipeline() {
+		return writePipeline;
+	}
+
 	/**
 	 * open a connection to the SQL server.
 	 *
@@ -234,160 +251,12 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		 * Make sure we only execute queries in async
 		 */
 
-		this.queryQueue.add(new SQL_Task(tb_name, args, keys));
+		this.writePipeline.add(new SQL_Task(tb_name, args, keys));
 
 		return true;
 
 	}
 
-	public boolean QueueUpdateDB(String tb_name, HashMap<String, Object> args, List<String> keys) {
-
-		/*
-		 * Attempt to get a database connection.
-		 */
-		if (!getContext())
-			return false;
-
-		StringBuilder code;
-		PreparedStatement stmt = null;
-		List<Object> parameters = new ArrayList<>();
-		int rs = 0;
-
-		try {
-
-			if (keys == null) {
-
-				/*
-				 * No keys so this is an INSERT not an UPDATE.
-				 */
-
-				// Push all values to a parameter list.
-
-				parameters.addAll(args.values());
-
-				String[] aKeys = args.keySet().toArray(new String[0]);
-
-				// Build the prepared statement string appropriate for
-				// the number of keys/values we are inserting.
-
-				code = new StringBuilder("REPLACE INTO " + tb_prefix + (tb_name.toUpperCase()) + " ");
-				StringBuilder keycode = new StringBuilder("(");
-				StringBuilder valuecode = new StringBuilder(" VALUES (");
-
-				for (int count = 0; count < args.size(); count++) {
-
-					keycode.append("`").append(aKeys[count]).append("`");
-					valuecode.append("?");
-
-					if ((count < (args.size() - 1))) {
-						keycode.append(", ");
-						valuecode.append(",");
-					} else {
-						keycode.append(")");
-						valuecode.append(")");
-					}
-				}
-
-				code.append(keycode);
-				code.append(valuecode);
-
-			} else {
-
-				/*
-				 * We have keys so this is a conditional UPDATE.
-				 */
-
-				String[] aKeys = args.keySet().toArray(new String[0]);
-
-				// Build the prepared statement string appropriate for
-				// the number of keys/values we are inserting.
-
-				code = new StringBuilder("UPDATE " + tb_prefix + (tb_name.toUpperCase()) + " SET ");
-
-				for (int count = 0; count < args.size(); count++) {
-
-					code.append("`").append(aKeys[count]).append("` = ?");
-
-					// Push value for each entry.
-
-					parameters.add(args.get(aKeys[count]));
-
-					if ((count < (args.size() - 1))) {
-						code.append(",");
-					}
-				}
-
-				code.append(" WHERE ");
-
-				for (int count = 0; count < keys.size(); count++) {
-
-					code.append("`").append(keys.get(count)).append("` = ?");
-
-					// Add extra values for the WHERE conditionals.
-
-					parameters.add(args.get(keys.get(count)));
-
-					if ((count < (keys.size() - 1))) {
-						code.append(" AND ");
-					}
-				}
-
-			}
-
-			// Populate the prepared statement parameters.
-
-			stmt = cntx.prepareStatement(code.toString());
-
-			for (int count = 0; count < parameters.size(); count++) {
-
-				Object element = parameters.get(count);
-
-				if (element instanceof String) {
-
-					stmt.setString(count + 1, (String) element);
-
-				} else if (element instanceof Boolean) {
-
-					stmt.setString(count + 1, ((Boolean) element) ? "1" : "0");
-
-				} else {
-
-					stmt.setObject(count + 1, element.toString());
-
-				}
-
-			}
-
-			rs = stmt.executeUpdate();
-
-		} catch (SQLException e) {
-
-			TownyMessaging.sendErrorMsg("SQL: " + e.getMessage() + " --> " + stmt.toString());
-
-		} finally {
-
-			try {
-
-				if (stmt != null) {
-					stmt.close();
-				}
-
-				if (rs == 0) // if entry doesn't exist then try to insert
-					return UpdateDB(tb_name, args, null);
-
-			} catch (SQLException e) {
-				TownyMessaging.sendErrorMsg("SQL closing: " + e.getMessage() + " --> " + stmt.toString());
-			}
-
-		}
-
-		// Failed?
-		return rs != 0;
-
-		// Success!
-
-	}
-
 	/**
 	 * Build the SQL string and execute to DELETE
 	 *
@@ -399,46 +268,12 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		// Make sure we only execute queries in async
 
-		this.queryQueue.add(new SQL_Task(tb_name, args));
+		this.writePipeline.add(new SQL_Task(tb_name, args));
 
 		return true;
 
 	}
 
-	public boolean QueueDeleteDB(String tb_name, HashMap<String, Object> args) {
-
-		if (!getContext())
-			return false;
-		try {
-			StringBuilder wherecode = new StringBuilder(
-					"DELETE FROM " + tb_prefix + (tb_name.toUpperCase()) + " WHERE ");
-			Set<Map.Entry<String, Object>> set = args.entrySet();
-			Iterator<Map.Entry<String, Object>> i = set.iterator();
-			while (i.hasNext()) {
-				Map.Entry<String, Object> me = i.next();
-				wherecode.append("`").append(me.getKey()).append("` = ");
-				if (me.getValue() instanceof String)
-					wherecode.append("'").append(((String) me.getValue()).replace("'", "''")).append("'");
-				else if (me.getValue() instanceof Boolean)
-					wherecode.append("'").append(((Boolean) me.getValue()) ? "1" : "0").append("'");
-				else
-					wherecode.append("'").append(me.getValue()).append("'");
-
-				wherecode.append(i.hasNext() ? " AND " : "");
-			}
-			int rs;
-			try (Statement statement = cntx.createStatement()) {
-				rs = statement.executeUpdate(wherecode.toString());
-			}
-			if (rs == 0) {
-				TownyMessaging.sendDebugMsg("SQL: delete returned 0: " + wherecode);
-			}
-		} catch (SQLException e) {
-			TownyMessaging.sendErrorMsg("SQL: Error delete : " + e.getMessage());
-		}
-		return false;
-	}
-
 	@Override
 	public boolean cleanup() {
 
@@ -648,42 +483,37 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		TownySettings.setUUIDCount(0);
 
-		if (!getContext())
-			return false;
-		try (Statement s = cntx.createStatement();
-				ResultSet rs = s.executeQuery("SELECT * FROM " + tb_prefix + "RESIDENTS")) {
+		return new SQL_StreamingLoader<>(hikariDataSource, tb_prefix + "RESIDENTS", RESIDENT_COLUMNS, LoadedRow::new)
+			.load(this::linkResident, TownySettings.isSQLStreamingLoad());
+	}
 
-			while (rs.next()) {
-				String residentName;
-				try {
-					residentName = rs.getString("name");
-				} catch (SQLException ex) {
-					System.out.println("[Towny] Loading Error: Error fetching a resident name from SQL Database. Skipping loading resident..");
-					ex.printStackTrace();
-					continue;
-				}
-				
-				Resident resident = universe.getResident(residentName);
-				
-				if (resident == null) {
-					System.out.println(String.format("[Towny] Loading Error: Could not fetch resident '%s' from Towny universe while loading from SQL DB.", residentName));
-					continue;
-				}
+	private boolean linkResident(LoadedRow row) {
 
-				if (!loadResident(resident, rs)) {
-					System.out.println("[Towny] Loading Error: Could not read resident data '" + resident.getName() + "'.");
-					return false;
-				}
-				
-				if (resident.hasUUID())
-					TownySettings.incrementUUIDCount();
-				else
-					GatherResidentUUIDTask.addResident(resident);
-			}
-		} catch (SQLException e) {
-			TownyMessaging.sendErrorMsg("SQL: Load resident sql error : " + e.getMessage());
+		String residentName;
+		try {
+			residentName = row.sql.getString("name");
+		} catch (SQLException ex) {
+			System.out.println("[Towny] Loading Error: Error fetching a resident name from SQL Database. Skipping loading resident..");
+			ex.printStackTrace();
+			return true;
+		}
+		
+		Resident resident = universe.getResident(residentName);
+		
+		if (resident == null) {
+			System.out.println(String.format("[Towny] Loading Error: Could not fetch resident '%s' from Towny universe while loading from SQL DB.", residentName));
+			return true;
 		}
 
+		if (!loadResident(resident, row.sql, row.metadata)) {
+			System.out.println("[Towny] Loading Error: Could not read resident data '" + resident.getName() + "'.");
+			return false;
+		}
+		
+		if (resident.hasUUID())
+			TownySettings.incrementUUIDCount();
+		else
+			GatherResidentUUIDTask.addResident(resident);
 		return true;
 	}
 
@@ -697,7 +527,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	}
 
-	private boolean loadResident(Resident resident, ResultSet rs) {
+	private boolean loadResident(Resident resident, SQL_Row rs, Collection<CustomDataField<?>> metadata) {
 		try {
 			String search;
 
@@ -796,13 +626,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 				e.printStackTrace();
 			}
 
-			try {
-				line = rs.getString("metadata");
-				if (line != null && !line.isEmpty()) {
-					MetadataLoader.getInstance().deserializeMetadata(resident, line);
-				}
-			} catch (SQLException ignored) {
-			}
+			MetadataLoader.getInstance().applyMetadata(resident, metadata);
 
 			line = rs.getString("town");
 			if ((line != null) && (!line.isEmpty())) {
@@ -857,23 +681,15 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 	@Override
 	public boolean loadTowns() {
 		TownyMessaging.sendDebugMsg("Loading Towns");
-		if (!getContext())
-			return false;
 
-		try (Statement s = cntx.createStatement();
-				ResultSet rs = s.executeQuery("SELECT * FROM " + tb_prefix + "TOWNS ")) {
-			while (rs.next()) {
-				if (!loadTown(rs)) {
+		return new SQL_StreamingLoader<>(hikariDataSource, tb_prefix + "TOWNS", TOWN_COLUMNS, LoadedRow::new)
+			.load(row -> {
+				if (!loadTown(row.sql, row.metadata)) {
 					System.out.println("[Towny] Loading Error: Could not read town data properly.");
 					return false;
 				}
-			}
-		} catch (SQLException e) {
-			TownyMessaging.sendErrorMsg("SQL: Load Town sql Error - " + e.getMessage());
-			return false;
-		}
-
-		return true;
+				return true;
+			}, TownySettings.isSQLStreamingLoad());
 	}
 
 	@Override
@@ -886,7 +702,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	}
 
-	private boolean loadTown(ResultSet rs) {
+	private boolean loadTown(SQL_Row rs, Collection<CustomDataField<?>> metadata) {
 		String line;
 		String[] tokens;
 		String search;
@@ -1086,13 +902,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 				town.setRegistered(0);
 			}
 
-			try {
-				line = rs.getString("metadata");
-				if (line != null && !line.isEmpty()) {
-					MetadataLoader.getInstance().deserializeMetadata(town, line);
-				}
-			} catch (SQLException ignored) {
-			}
+			MetadataLoader.getInstance().applyMetadata(town, metadata);
 
 			try {
 				line = rs.getString("nation");
@@ -1604,147 +1414,207 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 	@Override
 	public boolean loadTownBlocks() {
 
-		String line = "";
-		boolean result;
 		TownyMessaging.sendDebugMsg("Loading Town Blocks.");
 
-		// Load town blocks
-		if (!getContext())
+		// Most townblocks belong to a town or resident which owns many others, so each name is only looked up once.
+		Map<String, Town> towns = new HashMap<>();
+		Map<String, Resident> residents = new HashMap<>();
+
+		return new SQL_StreamingLoader<>(hikariDataSource, tb_prefix + "TOWNBLOCKS", TOWNBLOCK_COLUMNS, TownBlockRow::new)
+			.load(row -> linkTownBlock(row, towns, residents), TownySettings.isSQLStreamingLoad());
+	}
+
+	private boolean linkTownBlock(TownBlockRow row, Map<String, Town> towns, Map<String, Resident> residents) {
+
+		TownBlock townBlock = TownyUniverse.getInstance().getTownBlockOrNull(row.worldCoord);
+		if (townBlock == null) {
+			TownyMessaging.sendErrorMsg("Loading Error: Exception while fetching townblock: " + row.worldCoord.getWorldName() + " "
+					+ row.worldCoord.getX() + " " + row.worldCoord.getZ() + " from memory!");
 			return false;
+		}
 
-		TownBlock townBlock = null;
-		try (Statement s = cntx.createStatement();
-				ResultSet rs = s.executeQuery("SELECT * FROM " + tb_prefix + "TOWNBLOCKS")) {
+		if (row.name != null)
+			try {
+				townBlock.setName(row.name);
+			} catch (Exception ignored) {
+			}
 
-			while (rs.next()) {
-				String worldName = rs.getString("world");
-				int x = rs.getInt("x");
-				int z = rs.getInt("z");
+		if (row.price != null)
+			townBlock.setPlotPrice(row.price);
 
-				try {
-					townBlock = TownyUniverse.getInstance().getTownBlock(new WorldCoord(worldName, x, z));
-				} catch (NotRegisteredException ex) {
-					TownyMessaging.sendErrorMsg("Loading Error: Exception while fetching townblock: " + worldName + " "
-							+ x + " " + z + " from memory!");
-					return false;
-				}
+		if (row.town != null) {
+			Town town = towns.computeIfAbsent(row.town, universe::getTown);
+			
+			if (town == null) {
+				TownyMessaging.sendErrorMsg("TownBlock file contains unregistered Town: " + row.town
+					+ " , deleting " + townBlock.getWorld().getName() + "," + townBlock.getX() + ","
+					+ townBlock.getZ());
+				TownyUniverse.getInstance().removeTownBlock(townBlock);
+				deleteTownBlock(townBlock);
+				return true;
+			}
+			
+			townBlock.setTown(town, false);
+			try {
+				town.addTownBlock(townBlock);
+				TownyWorld townyWorld = townBlock.getWorld();
+				if (townyWorld != null && !townyWorld.hasTown(town))
+					townyWorld.addTown(town);
+			} catch (AlreadyRegisteredException ignored) {
+			}
+		}
 
-				line = rs.getString("name");
-				if (line != null)
-					try {
-						townBlock.setName(line.trim());
-					} catch (Exception ignored) {
-					}
+		if (row.resident != null) {
+			Resident res = residents.computeIfAbsent(row.resident, universe::getResident);
+			if (res != null)
+				townBlock.setResident(res);
+			else {
+				TownyMessaging.sendErrorMsg(String.format(
+					"Error fetching resident '%s' for townblock '%s'!",
+					row.resident, townBlock.toString()
+				));
+			}
+		}
 
-				line = rs.getString("price");
-				if (line != null)
-					try {
-						townBlock.setPlotPrice(Float.parseFloat(line.trim()));
-					} catch (Exception ignored) {
-					}
+		if (row.type != null)
+			try {
+				townBlock.setType(row.type);
+			} catch (Exception ignored) {
+			}
 
-				line = rs.getString("town");
-				if (line != null) {
-					Town town = universe.getTown(line.trim());
-					
-					if (town == null) {
-						TownyMessaging.sendErrorMsg("TownBlock file contains unregistered Town: " + line
-							+ " , deleting " + townBlock.getWorld().getName() + "," + townBlock.getX() + ","
-							+ townBlock.getZ());
-						TownyUniverse.getInstance().removeTownBlock(townBlock);
-						deleteTownBlock(townBlock);
-						continue;
-					}
-					
-					townBlock.setTown(town, false);
-					try {
-						town.addTownBlock(townBlock);
-						TownyWorld townyWorld = townBlock.getWorld();
-						if (townyWorld != null && !townyWorld.hasTown(town))
-							townyWorld.addTown(town);
-					} catch (AlreadyRegisteredException ignored) {
-					}
-				}
-				line = rs.getString("resident");
-				if (line != null && !line.isEmpty()) {
-					Resident res = universe.getResident(line.trim());
-					if (res != null)
-						townBlock.setResident(res);
-					else {
-						TownyMessaging.sendErrorMsg(String.format(
-							"Error fetching resident '%s' for townblock '%s'!",
-							line.trim(), townBlock.toString()
-						));
-					}
-				}
+		if (row.hasType)
+			try {
+				townBlock.setOutpost(row.outpost);
+			} catch (Exception ignored) {
+			}
 
-				line = rs.getString("type");
-				if (line != null)
-					try {
-						townBlock.setType(Integer.parseInt(line));
-					} catch (Exception ignored) {
-					}
+		if (row.permissions != null)
+			try {
+				townBlock.setPermissions(row.permissions);
+			} catch (Exception ignored) {
+			}
 
-				boolean outpost = rs.getBoolean("outpost");
-				if (line != null && !line.isEmpty())
-					try {
-						townBlock.setOutpost(outpost);
-					} catch (Exception ignored) {
-					}
+		try {
+			townBlock.setChanged(row.changed);
+		} catch (Exception ignored) {
+		}
 
-				line = rs.getString("permissions");
-				if ((line != null) && !line.isEmpty())
-					try {
-						townBlock.setPermissions(line.trim().replaceAll("#", ","));
-						// set = true;
-					} catch (Exception ignored) {
-					}
+		try {
+			townBlock.setLocked(row.locked);
+		} catch (Exception ignored) {
+		}
 
-				result = rs.getBoolean("changed");
-				try {
-					townBlock.setChanged(result);
-				} catch (Exception ignored) {
-				}
+		townBlock.setClaimedAt(row.claimedAt);
+
+		MetadataLoader.getInstance().applyMetadata(townBlock, row.metadata);
+
+		if (row.groupID != null) {
+			try {
+				PlotGroup group = getPlotObjectGroup(townBlock.getTown().toString(), row.groupID);
+				townBlock.setPlotObjectGroup(group);
+			} catch (Exception ignored) {
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * A row of the residents or towns table, with its metadata parsed.
+	 */
+	private static final class LoadedRow {
+
+		private final SQL_Row sql;
+		private final Collection<CustomDataField<?>> metadata;
+
+		private LoadedRow(SQL_Row sql) throws SQLException {
+
+			this.sql = sql;
+			this.metadata = parseMetadata(sql);
+		}
+	}
 
-				result = rs.getBoolean("locked");
+	/**
+	 * A row of the townblocks table, parsed off the main thread so that linking it is only a matter of lookups.
+	 */
+	private static final class TownBlockRow {
+
+		private final WorldCoord worldCoord;
+		private final String name;
+		private final Float price;
+		private final String town;
+		private final String resident;
+		private final Integer type;
+		private final boolean hasType;
+		private final boolean outpost;
+		private final String permissions;
+		private final boolean changed;
+		private final boolean locked;
+		private final long claimedAt;
+		private final Collection<CustomDataField<?>> metadata;
+		private final UUID groupID;
+
+		private TownBlockRow(SQL_Row sql) throws SQLException {
+
+			worldCoord = new WorldCoord(sql.getString("world"), sql.getInt("x"), sql.getInt("z"));
+
+			String line = sql.getString("name");
+			name = line != null ? line.trim() : null;
+
+			Float parsedPrice = null;
+			line = sql.getString("price");
+			if (line != null)
 				try {
-					townBlock.setLocked(result);
-				} catch (Exception ignored) {
+					parsedPrice = Float.parseFloat(line.trim());
+				} catch (NumberFormatException ignored) {
 				}
+			price = parsedPrice;
 
-				townBlock.setClaimedAt(rs.getLong("claimedAt"));
+			line = sql.getString("town");
+			town = line != null ? line.trim() : null;
 
+			line = sql.getString("resident");
+			resident = line != null && !line.isEmpty() ? line.trim() : null;
+
+			Integer parsedType = null;
+			line = sql.getString("type");
+			if (line != null)
 				try {
-					line = rs.getString("metadata");
-					if (line != null && !line.isEmpty()) {
-						MetadataLoader.getInstance().deserializeMetadata(townBlock, line);
-					}
-				} catch (SQLException ignored) {
+					parsedType = Integer.parseInt(line);
+				} catch (NumberFormatException ignored) {
 				}
+			type = parsedType;
+			hasType = line != null && !line.isEmpty();
+			outpost = sql.getBoolean("outpost");
 
-				try {
-					line = rs.getString("groupID");
-					if (line != null && !line.isEmpty()) {
-						try {
-							UUID groupID = UUID.fromString(line.trim());
-							PlotGroup group = getPlotObjectGroup(townBlock.getTown().toString(), groupID);
-							townBlock.setPlotObjectGroup(group);
-						} catch (Exception ignored) {
-						}
+			line = sql.getString("permissions");
+			permissions = line != null && !line.isEmpty() ? line.trim().replaceAll("#", ",") : null;
 
-					}
-				} catch (SQLException ignored) {
-				}
-			}
+			changed = sql.getBoolean("changed");
+			locked = sql.getBoolean("locked");
+			claimedAt = sql.getLong("claimedAt");
+			metadata = parseMetadata(sql);
 
-		} catch (SQLException ex) {
-			TownyMessaging.sendErrorMsg("Loading Error: Exception while reading TownBlock: "
-					+ (townBlock != null ? townBlock : "NULL") + " at line: " + line + " in the sql database");
-			ex.printStackTrace();
-			return false;
+			UUID parsedGroupID = null;
+			line = sql.getString("groupID");
+			if (line != null && !line.isEmpty())
+				try {
+					parsedGroupID = UUID.fromString(line.trim());
+				} catch (IllegalArgumentException ignored) {
+				}
+			groupID = parsedGroupID;
 		}
+	}
 
-		return true;
+	private static Collection<CustomDataField<?>> parseMetadata(SQL_Row sql) throws SQLException {
+
+		try {
+			return MetadataLoader.getInstance().parseMetadata(sql.getString("metadata"));
+		} catch (IOException e) {
+			System.out.println("[Towny] Error loading metadata for " + sql.getString("name") + "!");
+			e.printStackTrace();
+			return Collections.emptyList();
+		}
 	}
 	
 	@Override
@@ -1950,7 +1820,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 			pltgrp_hm.put("groupPrice", group.getPrice());
 			pltgrp_hm.put("town", group.getTown().toString());
 
-			UpdateDB("PLOTGROUPS", pltgrp_hm, Collections.singletonList("name"));
+			UpdateDB("PLOTGROUPS", pltgrp_hm, Collections.singletonList("groupID"));
 
 		} catch (Exception e) {
 			TownyMessaging.sendErrorMsg("SQL: Save Plot groups unknown error");
@@ -2200,7 +2070,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 	public void deletePlotGroup(PlotGroup group) {
 
 		HashMap<String, Object> pltgrp_hm = new HashMap<>();
-		pltgrp_hm.put("name", group.getName());
+		pltgrp_hm.put("groupID", group.getID());
 		DeleteDB("PLOTGROUPS", pltgrp_hm);
 	}
 
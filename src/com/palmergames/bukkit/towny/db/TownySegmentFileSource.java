@@ -0,0 +1,292 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.TownyWorld;
+import com.palmergames.bukkit.towny.object.Translation;
+import com.palmergames.util.FileMgmt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A flatfile database which keeps townblocks in {@link TownBlockSegmentFile}s,
+ * one for each {@value TownBlockSegmentFile#SEGMENT_SIZE}x{@value TownBlockSegmentFile#SEGMENT_SIZE}
+ * area of townblocks in a world, instead of one file per townblock.
+ * Everything else is stored the same way as {@link TownyFlatFileSource}.
+ *
+ * Selected with the segmentfile database type. Loading from flatfile and
+ * saving to segmentfile (or the other way around) converts the townblocks
+ * between the two layouts.
+ *
+ * Every townblock record has the same layout:
+ * x, z, name, price, town, resident, type, flags (outpost, changed, locked),
+ * permissions, claimedAt, metadata and groupID, with every string written as
+ * its UTF-8 length followed by its bytes.
+ */
+public class TownySegmentFileSource extends TownyFlatFileSource {
+
+	private static final int FLAG_OUTPOST = 1;
+	private static final int FLAG_CHANGED = 2;
+	private static final int FLAG_LOCKED = 4;
+
+	private final String segmentFolderPath;
+	private final Map<String, TownBlockSegmentFile> segments = new ConcurrentHashMap<>();
+	// Segments written since they were last forced to disk.
+	private final Set<TownBlockSegmentFile> unforced = ConcurrentHashMap.newKeySet();
+	// Keys read from the segments by loadTownBlockList(), waiting to be loaded by loadTownBlocks().
+	private final Map<String, HashMap<String, String>> loadedTownBlockKeys = new HashMap<>();
+
+	public TownySegmentFileSource(Towny plugin, TownyUniverse universe) {
+		super(plugin, universe);
+		this.segmentFolderPath = dataFolderPath + File.separator + "townblock-segments";
+		if (!FileMgmt.checkOrCreateFolder(segmentFolderPath))
+			TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_cannot_create_defaults"));
+	}
+
+	private TownBlockSegmentFile getSegment(String worldName, int x, int z) {
+
+		int segmentX = TownBlockSegmentFile.toSegment(x);
+		int segmentZ = TownBlockSegmentFile.toSegment(z);
+		int townBlockSize = TownySettings.getTownBlockSize();
+		String path = segmentFolderPath + File.separator + worldName + File.separator + TownBlockSegmentFile.getFileName(segmentX, segmentZ, townBlockSize);
+		return segments.computeIfAbsent(path, k -> new TownBlockSegmentFile(new File(k), segmentX, segmentZ, townBlockSize));
+	}
+
+	@Override
+	protected boolean apply(SaveJournal.Record record) {
+
+		if (record.getType() == SaveJournal.WRITE_SEGMENT || record.getType() == SaveJournal.DELETE_SEGMENT) {
+			TownBlockSegmentFile segment = segments.computeIfAbsent(record.getKey(), path -> TownBlockSegmentFile.fromFile(new File(path)));
+			unforced.add(segment);
+			return SegmentSaveTask.apply(record, segment);
+		}
+		return super.apply(record);
+	}
+
+	@Override
+	protected boolean forceWrites() {
+
+		boolean forced = true;
+		for (TownBlockSegmentFile segment : unforced) {
+			try {
+				segment.force();
+				unforced.remove(segment);
+			} catch (IOException e) {
+				TownyMessaging.sendErrorMsg("Could not force " + segment.getFile().getPath() + " to disk: " + e.getMessage());
+				forced = false;
+			}
+		}
+		return forced && super.forceWrites();
+	}
+
+	private static String townBlockKey(String worldName, int x, int z) {
+
+		return worldName + ";" + x + ";" + z;
+	}
+
+	/*
+	 * Load keys
+	 */
+
+	@Override
+	public boolean loadTownBlockList() {
+
+		TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_townblock_list"));
+
+		long start = System.nanoTime();
+		File[] worldFolders = new File(segmentFolderPath).listFiles(File::isDirectory);
+		if (worldFolders == null)
+			worldFolders = new File[0];
+		TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_folders_found", worldFolders.length));
+		String suffix = "." + TownySettings.getTownBlockSize() + ".tbs";
+		int mismatchedCount = 0;
+		int segmentCount = 0;
+		loadedTownBlockKeys.clear();
+		try {
+			for (File worldFolder : worldFolders) {
+				String worldName = worldFolder.getName();
+				TownyWorld world;
+				try {
+					world = getWorld(worldName);
+				} catch (NotRegisteredException e) {
+					newWorld(worldName);
+					world = getWorld(worldName);
+				}
+				File[] segmentFiles = worldFolder.listFiles(file -> file.getName().endsWith(".tbs"));
+				int total = 0;
+				for (File segmentFile : segmentFiles) {
+					// Do not load a segment if it does not use the currently set town_block_size.
+					if (!segmentFile.getName().endsWith(suffix)) {
+						mismatchedCount++;
+						continue;
+					}
+					// A bad segment, or a bad record in one, is skipped rather than failing the whole load.
+					Map<Integer, byte[]> records;
+					try {
+						TownBlockSegmentFile named = TownBlockSegmentFile.fromFile(segmentFile);
+						TownBlockSegmentFile segment = getSegment(worldName, named.getSegmentX() * TownBlockSegmentFile.SEGMENT_SIZE, named.getSegmentZ() * TownBlockSegmentFile.SEGMENT_SIZE);
+						records = segment.readAll();
+					} catch (IllegalArgumentException | IOException e) {
+						TownyMessaging.sendErrorMsg("Could not read townblock segment " + segmentFile.getPath() + ", skipping it: " + e.getMessage());
+						continue;
+					}
+
+					for (byte[] record : records.values()) {
+						try {
+							DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+							int x = in.readInt();
+							int z = in.readInt();
+							HashMap<String, String> keys = readRecordKeys(in);
+							loadedTownBlockKeys.put(townBlockKey(worldName, x, z), keys);
+							TownBlock townBlock = new TownBlock(x, z, world);
+							TownyUniverse.getInstance().addTownBlock(townBlock);
+							total++;
+						} catch (IOException e) {
+							TownyMessaging.sendErrorMsg("Could not read a townblock in segment " + segmentFile.getPath() + ", skipping it: " + e.getMessage());
+						}
+					}
+					segmentCount++;
+				}
+				TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_world_loaded_townblocks", worldName, total));
+			}
+			if (mismatchedCount > 0)
+				TownyMessaging.sendDebugMsg("Did not load " + mismatchedCount + " townblock segments which do not use the current town_block_size.");
+
+			recordReadTiming("townblock segments", segmentCount, System.nanoTime() - start);
+			return true;
+		} catch (Exception e1) {
+			e1.printStackTrace();
+			return false;
+		}
+	}
+
+	/*
+	 * Load individual towny objects
+	 */
+
+	@Override
+	public boolean loadTownBlocks() {
+
+		try {
+			return link("townblocks", this::loadTownBlockFiles);
+		} finally {
+			loadedTownBlockKeys.clear();
+		}
+	}
+
+	@Override
+	protected HashMap<String, String> loadTownBlockKeys(TownBlock townBlock) {
+
+		return loadedTownBlockKeys.remove(townBlockKey(townBlock.getWorld().getName(), townBlock.getX(), townBlock.getZ()));
+	}
+
+	/*
+	 * Save individual towny objects
+	 */
+
+	@Override
+	public boolean saveTownBlock(TownBlock townBlock) {
+
+		/*
+		 *  Make sure we only save in async, the townblock is encoded on the main thread when the save is read from the queue
+		 *  and any save already queued for the same townblock is replaced.
+		 */
+		String key = getTownBlockFilename(townBlock);
+		String path = getSegment(townBlock.getWorld().getName(), townBlock.getX(), townBlock.getZ()).getFile().getPath();
+		this.queryQueue.add(key, new SegmentSaveTask(this, path, townBlock, () -> encodeRecord(townBlock)));
+
+		return true;
+	}
+
+	/*
+	 * Delete objects
+	 */
+
+	@Override
+	public void deleteTownBlock(TownBlock townBlock) {
+
+		String key = getTownBlockFilename(townBlock);
+		String path = getSegment(townBlock.getWorld().getName(), townBlock.getX(), townBlock.getZ()).getFile().getPath();
+		queryQueue.add(key, new SegmentSaveTask(this, path, townBlock.getX(), townBlock.getZ()));
+	}
+
+	/*
+	 * Record layout
+	 */
+
+	private byte[] encodeRecord(TownBlock townBlock) throws IOException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		out.writeInt(townBlock.getX());
+		out.writeInt(townBlock.getZ());
+		writeString(out, townBlock.getName());
+		out.writeDouble(townBlock.getPlotPrice());
+		writeString(out, townBlock.hasTown() ? townBlock.getTownOrNull().getName() : "");
+		writeString(out, townBlock.hasResident() ? townBlock.getResidentOrNull().getName() : "");
+		out.writeInt(townBlock.getType().getId());
+		out.writeByte((townBlock.isOutpost() ? FLAG_OUTPOST : 0) | (townBlock.isChanged() ? FLAG_CHANGED : 0) | (townBlock.isLocked() ? FLAG_LOCKED : 0));
+		// Only keep the permissions IF the plot perms are custom.
+		writeString(out, townBlock.isChanged() ? townBlock.getPermissions().toString() : "");
+		out.writeLong(townBlock.getClaimedAt());
+		writeString(out, serializeMetadata(townBlock));
+		writeString(out, townBlock.hasPlotObjectGroup() ? townBlock.getPlotObjectGroup().getID().toString() : "");
+
+		return bytes.toByteArray();
+	}
+
+	/*
+	 * Reads the rest of a record into the keys a townblock file would hold, so
+	 * both layouts are loaded by the same code.
+	 */
+	private static HashMap<String, String> readRecordKeys(DataInputStream in) throws IOException {
+
+		HashMap<String, String> keys = new HashMap<>();
+		keys.put("name", readString(in));
+		keys.put("price", String.valueOf(in.readDouble()));
+		keys.put("town", readString(in));
+		keys.put("resident", readString(in));
+		keys.put("type", String.valueOf(in.readInt()));
+		int flags = in.readByte();
+		keys.put("outpost", String.valueOf((flags & FLAG_OUTPOST) != 0));
+		keys.put("changed", String.valueOf((flags & FLAG_CHANGED) != 0));
+		keys.put("locked", String.valueOf((flags & FLAG_LOCKED) != 0));
+		keys.put("permissions", readString(in));
+		keys.put("claimedAt", String.valueOf(in.readLong()));
+		keys.put("metadata", readString(in));
+		keys.put("groupID", readString(in));
+		return keys;
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+
+		byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+
+		int length = in.readInt();
+		if (length < 0 || length > in.available())
+			throw new IOException("Malformed townblock record string of length " + length);
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -1,7 +1,9 @@
 package com.palmergames.bukkit.towny.event.executors;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -24,8 +26,11 @@ import com.palmergames.bukkit.towny.event.actions.TownyExplodingBlocksEvent;
 import com.palmergames.bukkit.towny.event.actions.TownyItemuseEvent;
 import com.palmergames.bukkit.towny.event.actions.TownySwitchEvent;
 import com.palmergames.bukkit.towny.event.damage.TownyExplosionDamagesEntityEvent;
+import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.PlayerCache;
+import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
+import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
 import com.palmergames.bukkit.util.ArraySort;
@@ -90,37 +95,66 @@ public class TownyActionEventExecutor {
 	 * @return true if the explosion is allowed.
 	 */
 	private static boolean isAllowedExplosion(Location loc) {
-		boolean canExplode = false;
 		TownyWorld world = TownyAPI.getInstance().getTownyWorld(loc.getWorld().getName());
+		return isAllowedExplosion(world, WorldCoord.parseWorldCoord(loc));
+	}
+
+	/**
+	 * Towny's explosion test for a single townblock.
+	 * 
+	 * @param world - TownyWorld the worldCoord is in, or null if it is not a TownyWorld.
+	 * @param worldCoord - WorldCoord being tested.
+	 * @return true if the explosion is allowed.
+	 */
+	private static boolean isAllowedExplosion(TownyWorld world, WorldCoord worldCoord) {
 		if (world == null)
-			canExplode = false;
-		else {
-		
-			if (TownyAPI.getInstance().isWilderness(loc)) {
-				/*
-				 * Handle occasions in the wilderness first.
-				 */
-				if (world.isForceExpl() || world.isExpl())
-					canExplode = true;
-				else if (!world.isExpl())
-					canExplode = false;			
-			} else {
-				/*
-				 * Must be inside of a town.
-				 */
-				canExplode = TownyAPI.getInstance().getTownBlock(loc).getPermissions().explosion;			
-			}
+			return false;
+
+		TownBlock townBlock = worldCoord.getTownBlockOrNull();
+		if (townBlock == null || !townBlock.hasTown()) {
+			/*
+			 * Handle occasions in the wilderness first.
+			 */
+			return world.isForceExpl() || world.isExpl();
 		}
 
-		return canExplode;
+		/*
+		 * Must be inside of a town.
+		 */
+		return townBlock.getPermissions().explosion;
 	}
 	
+	/**
+	 * Filters the blocks in a single pass. An explosion only ever covers a
+	 * handful of townblocks, so the explosion permission is resolved once
+	 * for each townblock and reused for every other block inside it.
+	 * 
+	 * @param blocks - Blocks which might be exploded, all in the same world.
+	 * @return the blocks which Towny allows to explode.
+	 */
 	private static List<Block> filterExplodingBlockList(List<Block> blocks) {
 
-		List<Block> approvedBlocks = new ArrayList<Block>();
-		
+		List<Block> approvedBlocks = new ArrayList<Block>(blocks.size());
+		if (blocks.isEmpty())
+			return approvedBlocks;
+
+		String worldName = blocks.get(0).getWorld().getName();
+		TownyWorld world = TownyAPI.getInstance().getTownyWorld(worldName);
+		int cellSize = Coord.getCellSize();
+		Map<Long, Boolean> allowedCells = new HashMap<>();
+
 		for (Block block : blocks) {
-			if (isAllowedExplosion(block.getLocation()))
+			int cellX = Math.floorDiv(block.getX(), cellSize);
+			int cellZ = Math.floorDiv(block.getZ(), cellSize);
+			long key = ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+
+			Boolean allowed = allowedCells.get(key);
+			if (allowed == null) {
+				allowed = isAllowedExplosion(world, new WorldCoord(worldName, cellX, cellZ));
+				allowedCells.put(key, allowed);
+			}
+
+			if (allowed)
 				approvedBlocks.add(block);
 		}
 		return approvedBlocks;
@@ -173,7 +207,7 @@ public class TownyActionEventExecutor {
 			default:
 				block = block.getRelative(BlockFace.DOWN);
 		}
-		return !TownySettings.isFireSpreadBypassMaterial(block.getType().name());
+		return !TownySettings.isFireSpreadBypassMaterial(block.getType());
 	}
 	
 	/**
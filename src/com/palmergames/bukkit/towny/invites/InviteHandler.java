@@ -6,6 +6,7 @@ import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.tasks.TownyTimingWheel;
 
 import java.io.InvalidObjectException;
 import java.util.Collection;
@@ -23,7 +24,8 @@ public class InviteHandler {
 	private static Towny plugin;
 	
 	private static final Set<Invite> activeInvites = new HashSet<>();
-	private static final Map<Invite, Long> invitesTimes = new HashMap<>();
+	// Expiry timers, for invites which expire.
+	private static final Map<Invite, TownyTimingWheel.Timer> inviteExpiries = new HashMap<>();
 
 	public static void initialize(Towny plugin) {
 
@@ -52,27 +54,34 @@ public class InviteHandler {
 	
 	public static void addInvite(Invite invite) {
 		activeInvites.add(invite);
-		invitesTimes.put(invite, System.currentTimeMillis());
+		if (TownySettings.getInviteExpirationTime() > 0) {
+			TownyTimingWheel.Timer previous = inviteExpiries.put(invite, Towny.getPlugin().getTimingWheel().schedule(TownySettings.getInviteExpirationTime() * 1000L, () -> expireInvite(invite)));
+			if (previous != null)
+				previous.cancel();
+		}
 	}
 	
 	public static void removeInvite(Invite invite) {
 		activeInvites.remove(invite);
-		invitesTimes.remove(invite);
+		TownyTimingWheel.Timer timer = inviteExpiries.remove(invite);
+		if (timer != null)
+			timer.cancel();
 	}
 	
-	private static long getInviteTime(Invite invite) {
-		return invitesTimes.get(invite);
+	private static void expireInvite(Invite invite) {
+		inviteExpiries.remove(invite);
+		if (!activeInvites.contains(invite))
+			return;
+		invite.getReceiver().deleteReceivedInvite(invite);
+		invite.getSender().deleteSentInvite(invite);
+		removeInvite(invite);
 	}
 	
+	/**
+	 * Invites now expire by themselves, as their expiry timer runs out.
+	 */
+	@Deprecated
 	public static void searchForExpiredInvites() {
-		final long time = TownySettings.getInviteExpirationTime() * 1000;
-		for (Invite activeInvite : getActiveInvites()) {
-			if (getInviteTime(activeInvite) + time < System.currentTimeMillis()) {
-				activeInvite.getReceiver().deleteReceivedInvite(activeInvite);
-				activeInvite.getSender().deleteSentInvite(activeInvite);
-				removeInvite(activeInvite);
-			}
-		}
 	}
 	
 	public static Collection<Invite> getActiveInvites() {
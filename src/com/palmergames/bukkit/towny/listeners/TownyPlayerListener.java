@@ -273,7 +273,7 @@ public class TownyPlayerListener implements Listener {
 			/*
 			 * Test item_use. 
 			 */
-			if (TownySettings.isItemUseMaterial(item.name()))
+			if (TownySettings.isItemUseMaterial(item))
 				event.setCancelled(!TownyActionEventExecutor.canItemuse(player, loc, item));
 
 			/*
@@ -323,7 +323,7 @@ public class TownyPlayerListener implements Listener {
 			/*
 			 * Test switch use.
 			 */
-			if (TownySettings.isSwitchMaterial(clickedMat.name()) || event.getAction() == Action.PHYSICAL) {
+			if (TownySettings.isSwitchMaterial(clickedMat) || event.getAction() == Action.PHYSICAL) {
 				//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 				event.setCancelled(!TownyActionEventExecutor.canSwitch(player, clickedBlock.getLocation(), clickedMat));
 				return;
@@ -523,7 +523,7 @@ public class TownyPlayerListener implements Listener {
 					return;
 				}
 				// Material has been supplied in place of an entity, run Switch Tests.
-				if (TownySettings.isSwitchMaterial(mat.name()) && actionType == ActionType.SWITCH) {
+				if (TownySettings.isSwitchMaterial(mat) && actionType == ActionType.SWITCH) {
 					//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 					event.setCancelled(!TownyActionEventExecutor.canSwitch(player, event.getRightClicked().getLocation(), mat));
 					return;
@@ -557,7 +557,7 @@ public class TownyPlayerListener implements Listener {
 				/*
 				 * Item_use protection.
 				 */
-				if (TownySettings.isItemUseMaterial(item.name())) {
+				if (TownySettings.isItemUseMaterial(item)) {
 					//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 					event.setCancelled(!TownyActionEventExecutor.canItemuse(player, event.getRightClicked().getLocation(), item));
 					return;
@@ -654,7 +654,7 @@ public class TownyPlayerListener implements Listener {
 		/*
 		 * Test to see if CHORUS_FRUIT is in the item_use list.
 		 */
-		if (event.getCause() == TeleportCause.CHORUS_FRUIT && TownySettings.isItemUseMaterial(Material.CHORUS_FRUIT.name())) {
+		if (event.getCause() == TeleportCause.CHORUS_FRUIT && TownySettings.isItemUseMaterial(Material.CHORUS_FRUIT)) {
 			//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 			if (!TownyActionEventExecutor.canItemuse(event.getPlayer(), event.getTo(), Material.CHORUS_FRUIT)) {
 				event.setCancelled(true);
@@ -665,7 +665,7 @@ public class TownyPlayerListener implements Listener {
 		/*
 		 * Test to see if Ender pearls are disabled.
 		 */		
-		if (event.getCause() == TeleportCause.ENDER_PEARL && TownySettings.isItemUseMaterial(Material.ENDER_PEARL.name())) {
+		if (event.getCause() == TeleportCause.ENDER_PEARL && TownySettings.isItemUseMaterial(Material.ENDER_PEARL)) {
 			//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 			if (!TownyActionEventExecutor.canItemuse(event.getPlayer(), event.getTo(), Material.ENDER_PEARL)) {
 				event.setCancelled(true);
@@ -1087,7 +1087,7 @@ public class TownyPlayerListener implements Listener {
 			return;
 		
 		if (event.hasItem()
-				&& event.getPlayer().getInventory().getItemInMainHand().getType() == Material.getMaterial(TownySettings.getTool()) 
+				&& event.getPlayer().getInventory().getItemInMainHand().getType() == TownySettings.getToolMaterial() 
 				&& TownyUniverse.getInstance().getPermissionSource().isTownyAdmin(event.getPlayer())
 				&& event.getClickedBlock() != null) {
 					Player player = event.getPlayer();
@@ -1144,7 +1144,7 @@ public class TownyPlayerListener implements Listener {
 
 		if (event.getRightClicked() != null
 				&& event.getPlayer().getInventory().getItemInMainHand() != null
-				&& event.getPlayer().getInventory().getItemInMainHand().getType() == Material.getMaterial(TownySettings.getTool())
+				&& event.getPlayer().getInventory().getItemInMainHand().getType() == TownySettings.getToolMaterial()
 				&& TownyUniverse.getInstance().getPermissionSource().isTownyAdmin(event.getPlayer())) {
 				if (event.getHand().equals(EquipmentSlot.OFF_HAND))
 					return;
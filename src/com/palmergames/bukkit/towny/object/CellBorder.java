@@ -75,42 +75,46 @@ public class CellBorder extends WorldCoord {
 		return getZ() * getCellSize();
 	}
 
-	public void runBorderedOnSurface(int wallHeight, int cornerHeight, LocationRunnable runnable) {
+	/**
+	 * @param section - Section of the border.
+	 * @return the block columns the section runs along, as { x1, z1, x2, z2 }.
+	 */
+	public int[] getSectionBounds(Section section) {
 
 		int x = getBlockX(); // positive x is east, negative x is west
 		int z = getBlockZ(); // positive z is south, negative z is north
 		int w = Coord.getCellSize() - 1;
+
+		switch (section) {
+		case N:
+			return new int[] { x, z, x, z + w };
+		case NE:
+			return new int[] { x, z, x, z };
+		case E:
+			return new int[] { x, z, x + w, z };
+		case SE:
+			return new int[] { x + w, z, x + w, z };
+		case S:
+			return new int[] { x + w, z, x + w, z + w };
+		case SW:
+			return new int[] { x + w, z + w, x + w, z + w };
+		case W:
+			return new int[] { x, z + w, x + w, z + w };
+		default: // NW
+			return new int[] { x, z + w, x, z + w };
+		}
+	}
+
+	public void runBorderedOnSurface(int wallHeight, int cornerHeight, LocationRunnable runnable) {
+
 		World world = getBukkitWorld();
 
 		for (Section section : Section.values()) {
 			if (border[section.ordinal()]) {
-				if ((section.getType() == Section.Type.WALL && wallHeight > 0) || section.getType() == Section.Type.CORNER && cornerHeight > 0) {
-					switch (section) {
-					case N:
-						DrawUtil.runOnSurface(world, x, z, x, z + w, wallHeight, runnable);
-						break;
-					case NE:
-						DrawUtil.runOnSurface(world, x, z, x, z, cornerHeight, runnable);
-						break;
-					case E:
-						DrawUtil.runOnSurface(world, x, z, x + w, z, wallHeight, runnable);
-						break;
-					case SE:
-						DrawUtil.runOnSurface(world, x + w, z, x + w, z, cornerHeight, runnable);
-						break;
-					case S:
-						DrawUtil.runOnSurface(world, x + w, z, x + w, z + w, wallHeight, runnable);
-						break;
-					case SW:
-						DrawUtil.runOnSurface(world, x + w, z + w, x + w, z + w, cornerHeight, runnable);
-						break;
-					case W:
-						DrawUtil.runOnSurface(world, x, z + w, x + w, z + w, wallHeight, runnable);
-						break;
-					case NW:
-						DrawUtil.runOnSurface(world, x, z + w, x, z + w, cornerHeight, runnable);
-						break;
-					}
+				int height = section.getType() == Section.Type.WALL ? wallHeight : cornerHeight;
+				if (height > 0) {
+					int[] bounds = getSectionBounds(section);
+					DrawUtil.runOnSurface(world, bounds[0], bounds[1], bounds[2], bounds[3], height, runnable);
 				}
 			}
 		}
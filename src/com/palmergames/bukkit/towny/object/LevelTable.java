@@ -0,0 +1,122 @@
+package com.palmergames.bukkit.towny.object;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The town or nation levels from the config, sorted by the number of
+ * residents needed to reach each one. Levels are found by a binary search.
+ *
+ * A table is never changed once made, reloading the levels replaces it.
+ *
+ * @param <L> {@link TownLevelData} or {@link NationLevelData}
+ */
+public final class LevelTable<L> {
+
+	// Ascending, numResidents[i] is the number of residents needed for levels.get(i).
+	private final int[] numResidents;
+	private final List<L> levels;
+
+	/**
+	 * @param levels - Levels by the number of residents needed to reach them, in any order.
+	 */
+	public LevelTable(Map<Integer, L> levels) {
+
+		TreeMap<Integer, L> sorted = new TreeMap<>(levels);
+		this.numResidents = new int[sorted.size()];
+		int i = 0;
+		for (int residents : sorted.keySet())
+			this.numResidents[i++] = residents;
+		this.levels = Collections.unmodifiableList(new ArrayList<>(sorted.values()));
+	}
+
+	/**
+	 * A level looked up for a number of residents, kept by a town or nation
+	 * so it is only looked up again when its residents or the levels change.
+	 */
+	public static final class Lookup<L> {
+
+		private final LevelTable<L> table;
+		private final int numResidents;
+		private final L level;
+
+		private Lookup(LevelTable<L> table, int numResidents, L level) {
+
+			this.table = table;
+			this.numResidents = numResidents;
+			this.level = level;
+		}
+
+		public L getLevel() {
+
+			return level;
+		}
+	}
+
+	/**
+	 * @param previous - The last lookup, may be null.
+	 * @param residents - Number of residents.
+	 * @return the previous lookup if it is still correct, otherwise a new one.
+	 */
+	public Lookup<L> lookup(Lookup<L> previous, int residents) {
+
+		if (previous != null && previous.table == this && previous.numResidents == residents)
+			return previous;
+		return new Lookup<>(this, residents, getLevel(residents));
+	}
+
+	/**
+	 * @param residents - Number of residents.
+	 * @return the position of the highest level reached, or -1 if none is reached.
+	 */
+	public int indexOf(int residents) {
+
+		int low = 0;
+		int high = numResidents.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (numResidents[mid] <= residents)
+				low = mid + 1;
+			else
+				high = mid - 1;
+		}
+		return high;
+	}
+
+	/**
+	 * @param residents - Number of residents.
+	 * @return the highest level reached, or the lowest level if none is, null only if there are no levels.
+	 */
+	public L getLevel(int residents) {
+
+		if (levels.isEmpty())
+			return null;
+		return levels.get(Math.max(0, indexOf(residents)));
+	}
+
+	/**
+	 * @param residents - Number of residents.
+	 * @return the level needing exactly this number of residents, or null.
+	 */
+	public L getExactLevel(int residents) {
+
+		int index = indexOf(residents);
+		return index >= 0 && numResidents[index] == residents ? levels.get(index) : null;
+	}
+
+	/**
+	 * @return every level, lowest first.
+	 */
+	public List<L> getLevels() {
+
+		return levels;
+	}
+
+	public int size() {
+
+		return levels.size();
+	}
+}
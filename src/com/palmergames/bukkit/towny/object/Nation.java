@@ -39,6 +39,7 @@ public class Nation extends Government {
 	private String mapColorHexCode = "";
 	private Location nationSpawn;
 	private final transient List<Invite> sentAllyInvites = new ArrayList<>();
+	private transient LevelTable.Lookup<NationLevelData> levelLookup = null;
 
 	public Nation(String name) {
 		super(name);
@@ -194,7 +195,7 @@ public class Nation extends Government {
 	
 	public void setCapital(Town capital) {
 
-		TownyMessaging.sendDebugMsg("Nation " + this.getName() + " has set a capital city of " + capital.getName());
+		TownyMessaging.sendDebugMsg("Nation %s has set a capital city of %s", getName(), capital.getName());
 		this.capital = capital;
 		try {
 			TownyPerms.assignPermissions(capital.getMayor(), null);
@@ -293,6 +294,16 @@ public class Nation extends Government {
 		return towns.size();
 	}
 
+	/**
+	 * @return the nation's level, only looked up again when the number of residents or the nation levels change.
+	 */
+	public NationLevelData getNationLevel() {
+
+		LevelTable.Lookup<NationLevelData> lookup = TownySettings.getNationLevels().lookup(levelLookup, getNumResidents());
+		levelLookup = lookup;
+		return lookup.getLevel();
+	}
+
 	public int getNumResidents() {
 
 		int numResidents = 0;
@@ -0,0 +1,128 @@
+package com.palmergames.bukkit.towny.object;
+
+import com.palmergames.bukkit.towny.TownySettings;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A nation level from the config.
+ */
+public final class NationLevelData {
+
+	private final int numResidents;
+	private final String namePrefix;
+	private final String namePostfix;
+	private final String capitalPrefix;
+	private final String capitalPostfix;
+	private final String kingPrefix;
+	private final String kingPostfix;
+	private final int townBlockLimitBonus;
+	private final double upkeepModifier;
+	private final double nationTownUpkeepModifier;
+	private final int nationZonesSize;
+	private final int nationBonusOutpostLimit;
+	private final Map<TownySettings.NationLevel, Object> map;
+
+	public NationLevelData(int numResidents, String namePrefix, String namePostfix, String capitalPrefix, String capitalPostfix, String kingPrefix, String kingPostfix, int townBlockLimitBonus, double upkeepModifier, double nationTownUpkeepModifier, int nationZonesSize, int nationBonusOutpostLimit) {
+
+		this.numResidents = numResidents;
+		this.namePrefix = namePrefix;
+		this.namePostfix = namePostfix;
+		this.capitalPrefix = capitalPrefix;
+		this.capitalPostfix = capitalPostfix;
+		this.kingPrefix = kingPrefix;
+		this.kingPostfix = kingPostfix;
+		this.townBlockLimitBonus = townBlockLimitBonus;
+		this.upkeepModifier = upkeepModifier;
+		this.nationTownUpkeepModifier = nationTownUpkeepModifier;
+		this.nationZonesSize = nationZonesSize;
+		this.nationBonusOutpostLimit = nationBonusOutpostLimit;
+
+		Map<TownySettings.NationLevel, Object> m = new EnumMap<>(TownySettings.NationLevel.class);
+		m.put(TownySettings.NationLevel.NAME_PREFIX, namePrefix);
+		m.put(TownySettings.NationLevel.NAME_POSTFIX, namePostfix);
+		m.put(TownySettings.NationLevel.CAPITAL_PREFIX, capitalPrefix);
+		m.put(TownySettings.NationLevel.CAPITAL_POSTFIX, capitalPostfix);
+		m.put(TownySettings.NationLevel.KING_PREFIX, kingPrefix);
+		m.put(TownySettings.NationLevel.KING_POSTFIX, kingPostfix);
+		m.put(TownySettings.NationLevel.TOWN_BLOCK_LIMIT_BONUS, townBlockLimitBonus);
+		m.put(TownySettings.NationLevel.UPKEEP_MULTIPLIER, upkeepModifier);
+		m.put(TownySettings.NationLevel.NATION_TOWN_UPKEEP_MULTIPLIER, nationTownUpkeepModifier);
+		m.put(TownySettings.NationLevel.NATIONZONES_SIZE, nationZonesSize);
+		m.put(TownySettings.NationLevel.NATION_BONUS_OUTPOST_LIMIT, nationBonusOutpostLimit);
+		this.map = Collections.unmodifiableMap(m);
+	}
+
+	/**
+	 * @return the number of residents a nation needs to reach this level.
+	 */
+	public int getNumResidents() {
+
+		return numResidents;
+	}
+
+	public String getNamePrefix() {
+
+		return namePrefix;
+	}
+
+	public String getNamePostfix() {
+
+		return namePostfix;
+	}
+
+	public String getCapitalPrefix() {
+
+		return capitalPrefix;
+	}
+
+	public String getCapitalPostfix() {
+
+		return capitalPostfix;
+	}
+
+	public String getKingPrefix() {
+
+		return kingPrefix;
+	}
+
+	public String getKingPostfix() {
+
+		return kingPostfix;
+	}
+
+	public int getTownBlockLimitBonus() {
+
+		return townBlockLimitBonus;
+	}
+
+	public double getUpkeepModifier() {
+
+		return upkeepModifier;
+	}
+
+	public double getNationTownUpkeepModifier() {
+
+		return nationTownUpkeepModifier;
+	}
+
+	public int getNationZonesSize() {
+
+		return nationZonesSize;
+	}
+
+	public int getNationBonusOutpostLimit() {
+
+		return nationBonusOutpostLimit;
+	}
+
+	/**
+	 * @return the level as the map {@link TownySettings#getNationLevel(Nation)} used to return.
+	 */
+	public Map<TownySettings.NationLevel, Object> asMap() {
+
+		return map;
+	}
+}
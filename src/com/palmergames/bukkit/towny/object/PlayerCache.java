@@ -6,14 +6,51 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class PlayerCache {
 
-	private final HashMap<Material, Boolean> buildMatPermission = new HashMap<>();
-	private final HashMap<Material, Boolean> destroyMatPermission = new HashMap<>();
-	private final HashMap<Material, Boolean> switchMatPermission = new HashMap<>();
-	private final HashMap<Material, Boolean> itemUseMatPermission = new HashMap<>();
+	/*
+	 * Cached permissions are held in a single tri-state table, indexed by
+	 * Material ordinal and ActionType index, so a lookup never boxes, hashes
+	 * or throws.
+	 */
+	private static final byte UNKNOWN = 0;
+	private static final byte ALLOWED = 1;
+	private static final byte DENIED = 2;
+	private static final int ACTION_COUNT = ActionType.values().length;
+	private static final int MATERIAL_COUNT = Material.values().length;
+
+	private final byte[] permissions = new byte[MATERIAL_COUNT * ACTION_COUNT];
+	private int cachedPermissions = 0;
+
+	/*
+	 * Rather than walking every online player's cache when something changes,
+	 * a change moves on a version counter for the townblock, town, world or
+	 * whole server it affects. Each cache remembers the counters it was filled
+	 * under, and is reset the next time it is fetched if any have moved on.
+	 *
+	 * Townblocks share a fixed table of counters, so a change may now and then
+	 * reset the cache of a player on another townblock, but never misses one.
+	 */
+	private static final int COORD_EPOCH_BITS = 12;
+	private static final AtomicLong globalEpoch = new AtomicLong();
+	private static final AtomicLongArray coordEpochs = new AtomicLongArray(1 << COORD_EPOCH_BITS);
+	private static final Map<String, AtomicLong> worldEpochs = new ConcurrentHashMap<>();
+	private static final Map<UUID, AtomicLong> townEpochs = new ConcurrentHashMap<>();
+
+	private long seenGlobalEpoch;
+	private int coordSlot;
+	private long seenCoordEpoch;
+	private AtomicLong worldEpoch;
+	private long seenWorldEpoch;
+	private AtomicLong townEpoch;
+	private long seenTownEpoch;
 
 	private WorldCoord lastWorldCoord;
 	private String blockErrMsg;
@@ -30,6 +67,98 @@ public class PlayerCache {
 	public PlayerCache(WorldCoord worldCoord) {
 
 		this.setLastTownBlock(worldCoord);
+		snapshotEpochs(worldCoord);
+	}
+
+	/**
+	 * Marks every player cache out of date.
+	 */
+	public static void invalidateAll() {
+
+		globalEpoch.incrementAndGet();
+	}
+
+	/**
+	 * Marks the caches of players on this townblock out of date.
+	 * 
+	 * @param worldCoord - WorldCoord which has changed.
+	 */
+	public static void invalidate(WorldCoord worldCoord) {
+
+		coordEpochs.incrementAndGet(coordSlot(worldCoord));
+	}
+
+	/**
+	 * Marks the caches of players anywhere in this world out of date.
+	 * 
+	 * @param world - TownyWorld which has changed.
+	 */
+	public static void invalidate(TownyWorld world) {
+
+		worldEpoch(world.getName()).incrementAndGet();
+	}
+
+	/**
+	 * Marks the caches of players on any of this town's townblocks out of date.
+	 * 
+	 * @param town - Town which has changed.
+	 */
+	public static void invalidate(Town town) {
+
+		if (town.getUUID() != null)
+			townEpoch(town.getUUID()).incrementAndGet();
+	}
+
+	/**
+	 * @return true if something this cache was filled from has changed since, and it must be reset.
+	 */
+	public boolean isStale() {
+
+		return globalEpoch.get() != seenGlobalEpoch
+			|| coordEpochs.get(coordSlot) != seenCoordEpoch
+			|| (worldEpoch != null && worldEpoch.get() != seenWorldEpoch)
+			|| (townEpoch != null && townEpoch.get() != seenTownEpoch);
+	}
+
+	/*
+	 * Taken whenever the cache is emptied, before anything is cached again.
+	 */
+	private void snapshotEpochs(WorldCoord worldCoord) {
+
+		seenGlobalEpoch = globalEpoch.get();
+		worldEpoch = null;
+		townEpoch = null;
+		if (worldCoord == null) {
+			coordSlot = 0;
+			seenCoordEpoch = coordEpochs.get(0);
+			return;
+		}
+
+		coordSlot = coordSlot(worldCoord);
+		seenCoordEpoch = coordEpochs.get(coordSlot);
+		worldEpoch = worldEpoch(worldCoord.getWorldName());
+		seenWorldEpoch = worldEpoch.get();
+		TownBlock townBlock = worldCoord.getTownBlockOrNull();
+		Town town = townBlock == null ? null : townBlock.getTownOrNull();
+		if (town != null && town.getUUID() != null) {
+			townEpoch = townEpoch(town.getUUID());
+			seenTownEpoch = townEpoch.get();
+		}
+	}
+
+	private static int coordSlot(WorldCoord worldCoord) {
+
+		return (worldCoord.hashCode() * 0x9E3779B9) >>> (Integer.SIZE - COORD_EPOCH_BITS);
+	}
+
+	private static AtomicLong worldEpoch(String worldName) {
+
+		return worldEpochs.computeIfAbsent(worldName == null ? "" : worldName, k -> new AtomicLong());
+	}
+
+	private static AtomicLong townEpoch(UUID townUUID) {
+
+		return townEpochs.computeIfAbsent(townUUID, k -> new AtomicLong());
 	}
 
 	/**
@@ -51,6 +180,7 @@ public class PlayerCache {
 		
 		reset();
 		setLastTownBlock(worldCoord);
+		snapshotEpochs(worldCoord);
 	}
 
 	/**
@@ -74,105 +204,104 @@ public class PlayerCache {
 		if (!getLastTownBlock().equals(pos)) {
 			reset();
 			setLastTownBlock(pos);
+			snapshotEpochs(pos);
 			return true;
 		} else
 			return false;
 	}
 
+	/**
+	 * Checks whether a permission has been cached for this ActionType and Material.
+	 * 
+	 * @param material - Material to check
+	 * @param action - ActionType to check
+	 * @return true if {@link #getCachePermission(Material, ActionType)} can answer without a miss.
+	 */
+	public boolean hasCachedPermission(Material material, ActionType action) {
+
+		return permissions[index(material, action)] != UNKNOWN;
+	}
+
 	/**
 	 * Checks from cache if a certain ActionType can be performed on a given Material
 	 * 
+	 * Callers should test {@link #hasCachedPermission(Material, ActionType)} first,
+	 * a miss is only signalled by an exception to keep older API users working.
+	 * 
 	 * @param material - Material to check
 	 * @param action - ActionType to check
 	 * @return true if permission to perform an ActionType based on the material is granted
-	 * @throws NullPointerException if passed an invalid or NULL ActionType
+	 * @throws NullPointerException if nothing is cached for this Material and ActionType
 	 */
 	public boolean getCachePermission(Material material, ActionType action) throws NullPointerException {
 
-		switch (action) {
-
-		case BUILD: // BUILD
-			return getBuildPermission(material);
-
-		case DESTROY: // DESTROY
-			return getDestroyPermission(material);
-
-		case SWITCH: // SWITCH
-			return getSwitchPermission(material);
+		byte value = permissions[index(material, action)];
+		if (value == UNKNOWN)
+			throw new NullPointerException();
 
-		case ITEM_USE: // ITEM_USE
-			return getItemUsePermission(material);
+		return value == ALLOWED;
+	}
 
-		default:
-			throw new NullPointerException();
+	/**
+	 * Caches the permission for an ActionType on a given Material.
+	 * 
+	 * @param material - Material to cache
+	 * @param action - ActionType to cache
+	 * @param value - true if the action is allowed.
+	 */
+	public void setCachePermission(Material material, ActionType action, boolean value) {
 
-		}
+		int index = index(material, action);
+		if (permissions[index] == UNKNOWN)
+			cachedPermissions++;
 
+		permissions[index] = value ? ALLOWED : DENIED;
 	}
 
 	public void setBuildPermission(Material material, Boolean value) {
 
-		updateMaps(buildMatPermission, material, value);
+		setCachePermission(material, ActionType.BUILD, value);
 
 	}
 	public void setDestroyPermission(Material material, Boolean value) {
 
-		updateMaps(destroyMatPermission, material, value);
+		setCachePermission(material, ActionType.DESTROY, value);
 	}
 	public void setSwitchPermission(Material material, Boolean value) {
 
-		updateMaps(switchMatPermission, material, value);
+		setCachePermission(material, ActionType.SWITCH, value);
 
 	}
 	public void setItemUsePermission(Material material, Boolean value) {
 
-		updateMaps(itemUseMatPermission, material, value);
+		setCachePermission(material, ActionType.ITEM_USE, value);
 		
 	}
 	
 	public boolean getBuildPermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(buildMatPermission, material);
+		return getCachePermission(material, ActionType.BUILD);
 
 	}
 	public boolean getDestroyPermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(destroyMatPermission, material);
+		return getCachePermission(material, ActionType.DESTROY);
 		
 	}
 	public boolean getSwitchPermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(switchMatPermission, material);
+		return getCachePermission(material, ActionType.SWITCH);
 		
 	}
 	public Boolean getItemUsePermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(itemUseMatPermission, material);
+		return getCachePermission(material, ActionType.ITEM_USE);
 		
 	}
 	
-	private void updateMaps(HashMap<Material, Boolean> blockMap, Material material, Boolean value) {
-		
-		if (!blockMap.containsKey(material)) {
-			/*
-			 * We have no permissions cached for this block.
-			 */			
-			blockMap.put(material, value);
-		} else {
-			/*
-			 * We have cached permissions for this block type so just push updated data.
-			 */
-			blockMap.get(material);
-		}
-	}
-	
-	private boolean getBlockPermission(HashMap<Material, Boolean> blockMap, Material material) throws NullPointerException {
-		
-		if (!blockMap.containsKey(material))
-			throw new NullPointerException();
-		
-		return blockMap.get(material);
+	private static int index(Material material, ActionType action) {
 		
+		return material.ordinal() * ACTION_COUNT + action.getIndex();
 	}
 
 	private void reset() {
@@ -181,11 +310,11 @@ public class PlayerCache {
 		townBlockStatus = null;
 		blockErrMsg = null;
 		
-		// Clear all maps
-		buildMatPermission.clear();
-		destroyMatPermission.clear();
-		switchMatPermission.clear();
-		itemUseMatPermission.clear();
+		// Clear the permission table, skipping the fill when nothing was cached.
+		if (cachedPermissions > 0) {
+			Arrays.fill(permissions, UNKNOWN);
+			cachedPermissions = 0;
+		}
 	}
 
 	public enum TownBlockStatus {
@@ -68,6 +68,7 @@ public class Town extends Government implements TownBlockOwner {
 	private final ConcurrentHashMap<WorldCoord, TownBlock> townBlocks = new ConcurrentHashMap<>();
 	private final TownyPermission permissions = new TownyPermission();
 	private boolean ruined = false;
+	private LevelTable.Lookup<TownLevelData> levelLookup = null;
 	private long ruinedTime;
 	private long joinedNationAt;
 
@@ -108,6 +109,8 @@ public class Town extends Government implements TownBlockOwner {
 			throw new AlreadyRegisteredException();
 		else {
 			townBlocks.put(townBlock.getWorldCoord(), townBlock);
+			if (townBlock.getWorld() != null)
+				townBlock.getWorld().getTownBlockIndex().add(townBlock);
 			if (townBlocks.size() < 2 && !hasHomeBlock())
 				setHomeBlock(townBlock);
 		}
@@ -797,6 +800,8 @@ public class Town extends Government implements TownBlockOwner {
 				}
 			} catch (TownyException ignored) {}
 			townBlocks.remove(townBlock.getWorldCoord());
+			if (townBlock.getWorld() != null)
+				townBlock.getWorld().getTownBlockIndex().remove(townBlock);
 			this.save();
 		}
 	}
@@ -1336,6 +1341,15 @@ public class Town extends Government implements TownBlockOwner {
 		this.debtBalance = balance;
 	}
 
+	/**
+	 * @return the town's level, only looked up again when the number of residents or the town levels change.
+	 */
+	public TownLevelData getTownLevel() {
+		LevelTable.Lookup<TownLevelData> lookup = TownySettings.getTownLevels().lookup(levelLookup, isRuined() ? 0 : getNumResidents());
+		levelLookup = lookup;
+		return lookup.getLevel();
+	}
+
 	public boolean isRuined() {
 		if(!ruined && residents.size() == 0) {
 			ruined = true;  //If all residents have been deleted, flag town as ruined.
@@ -0,0 +1,237 @@
+package com.palmergames.bukkit.towny.object;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * A grid-bucketed spatial index of the claimed TownBlocks in a single TownyWorld.
+ *
+ * TownBlocks are grouped into square buckets of {@link #BUCKET_SIZE} townblocks
+ * per side. Nearest-neighbour queries search outwards one ring of buckets at a
+ * time and stop as soon as no unsearched bucket can hold a closer match, so a
+ * query only touches the townblocks around the given coord instead of every
+ * townblock in the world.
+ *
+ * The index is kept up to date by {@link Town#addTownBlock(TownBlock)} and
+ * {@link Town#removeTownBlock(TownBlock)}.
+ */
+public class TownBlockIndex {
+
+	private static final int BUCKET_SHIFT = 3;
+	public static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+
+	private final Map<Long, Set<TownBlock>> buckets = new ConcurrentHashMap<>();
+
+	// The bounds of every bucket used since the index was last cleared, a search never needs to go past these.
+	// Changed under the index's lock, and always widened before a bucket is added, so a search never misses one.
+	private volatile int minBucketX = Integer.MAX_VALUE, maxBucketX = Integer.MIN_VALUE;
+	private volatile int minBucketZ = Integer.MAX_VALUE, maxBucketZ = Integer.MIN_VALUE;
+
+	public synchronized void add(TownBlock townBlock) {
+
+		int bx = townBlock.getX() >> BUCKET_SHIFT;
+		int bz = townBlock.getZ() >> BUCKET_SHIFT;
+		expandBounds(bx, bz);
+		buckets.computeIfAbsent(key(bx, bz), k -> ConcurrentHashMap.newKeySet()).add(townBlock);
+	}
+
+	public void remove(TownBlock townBlock) {
+
+		long key = key(townBlock.getX() >> BUCKET_SHIFT, townBlock.getZ() >> BUCKET_SHIFT);
+		buckets.computeIfPresent(key, (k, bucket) -> {
+			bucket.remove(townBlock);
+			return bucket.isEmpty() ? null : bucket;
+		});
+	}
+
+	public synchronized void clear() {
+
+		buckets.clear();
+		minBucketX = Integer.MAX_VALUE;
+		maxBucketX = Integer.MIN_VALUE;
+		minBucketZ = Integer.MAX_VALUE;
+		maxBucketZ = Integer.MIN_VALUE;
+	}
+
+	public boolean isEmpty() {
+
+		return buckets.isEmpty();
+	}
+
+	/**
+	 * Finds the TownBlock closest to the given coord which passes the filter.
+	 *
+	 * @param key - Coord to search from.
+	 * @param maxRadius - Maximum distance in townblocks to search, or a negative number for no limit.
+	 * @param filter - Predicate a TownBlock must pass to be considered.
+	 * @return the closest matching TownBlock or null if none lies within maxRadius.
+	 */
+	public TownBlock getNearest(Coord key, int maxRadius, Predicate<TownBlock> filter) {
+
+		if (buckets.isEmpty())
+			return null;
+
+		final int keyX = key.getX();
+		final int keyZ = key.getZ();
+		final int keyBucketX = keyX >> BUCKET_SHIFT;
+		final int keyBucketZ = keyZ >> BUCKET_SHIFT;
+		final long maxRadiusSqr = maxRadius < 0 ? Long.MAX_VALUE : (long) maxRadius * maxRadius;
+
+		// The bounds are still empty if the index was cleared since the check above.
+		final int fromBucketX = minBucketX, toBucketX = maxBucketX;
+		final int fromBucketZ = minBucketZ, toBucketZ = maxBucketZ;
+		if (fromBucketX > toBucketX || fromBucketZ > toBucketZ)
+			return null;
+
+		// The furthest ring which still overlaps a used bucket.
+		int lastRing = Math.max(
+				Math.max(Math.abs(keyBucketX - fromBucketX), Math.abs(toBucketX - keyBucketX)),
+				Math.max(Math.abs(keyBucketZ - fromBucketZ), Math.abs(toBucketZ - keyBucketZ)));
+		if (maxRadius >= 0)
+			lastRing = Math.min(lastRing, (maxRadius >> BUCKET_SHIFT) + 1);
+
+		Nearest nearest = new Nearest(keyX, keyZ, maxRadiusSqr, filter);
+
+		for (int ring = 0; ring <= lastRing; ring++) {
+			/*
+			 * Every townblock outside of the rings searched so far is more than
+			 * (ring - 1) * BUCKET_SIZE townblocks away from the key.
+			 */
+			if (nearest.found != null) {
+				long ringDistance = (long) (ring - 1) * BUCKET_SIZE;
+				if (ring > 0 && nearest.bestSqr <= ringDistance * ringDistance)
+					break;
+			}
+
+			/*
+			 * When a ring holds more buckets than the index does it is cheaper
+			 * to walk the remaining buckets directly.
+			 */
+			if (ring > 0 && (long) ring * 8 > buckets.size()) {
+				for (Map.Entry<Long, Set<TownBlock>> entry : buckets.entrySet()) {
+					long bucketKey = entry.getKey();
+					int bx = (int) (bucketKey >> 32);
+					int bz = (int) bucketKey;
+					if (Math.max(Math.abs(bx - keyBucketX), Math.abs(bz - keyBucketZ)) >= ring)
+						nearest.test(entry.getValue());
+				}
+				break;
+			}
+
+			if (ring == 0) {
+				nearest.test(buckets.get(key(keyBucketX, keyBucketZ)));
+				continue;
+			}
+
+			for (int i = -ring; i <= ring; i++) {
+				nearest.test(buckets.get(key(keyBucketX + i, keyBucketZ - ring)));
+				nearest.test(buckets.get(key(keyBucketX + i, keyBucketZ + ring)));
+			}
+			for (int i = -ring + 1; i <= ring - 1; i++) {
+				nearest.test(buckets.get(key(keyBucketX - ring, keyBucketZ + i)));
+				nearest.test(buckets.get(key(keyBucketX + ring, keyBucketZ + i)));
+			}
+		}
+
+		return nearest.found;
+	}
+
+	/**
+	 * Collects every TownBlock inside a rectangle of townblock coords which passes the filter.
+	 *
+	 * @param minX - Lowest x, inclusive.
+	 * @param minZ - Lowest z, inclusive.
+	 * @param maxX - Highest x, inclusive.
+	 * @param maxZ - Highest z, inclusive.
+	 * @param filter - Predicate a TownBlock must pass to be collected.
+	 * @return the matching TownBlocks, in no particular order.
+	 */
+	public List<TownBlock> getWithin(int minX, int minZ, int maxX, int maxZ, Predicate<TownBlock> filter) {
+
+		List<TownBlock> out = new ArrayList<>();
+		if (buckets.isEmpty())
+			return out;
+
+		// Only the buckets which have ever been used can hold anything.
+		int fromBucketX = Math.max(minX >> BUCKET_SHIFT, minBucketX);
+		int toBucketX = Math.min(maxX >> BUCKET_SHIFT, maxBucketX);
+		int fromBucketZ = Math.max(minZ >> BUCKET_SHIFT, minBucketZ);
+		int toBucketZ = Math.min(maxZ >> BUCKET_SHIFT, maxBucketZ);
+		if (fromBucketX > toBucketX || fromBucketZ > toBucketZ)
+			return out;
+
+		if ((long) (toBucketX - fromBucketX + 1) * (toBucketZ - fromBucketZ + 1) > buckets.size()) {
+			// The rectangle covers more buckets than the index holds, walk the index instead.
+			for (Set<TownBlock> bucket : buckets.values())
+				collectWithin(bucket, minX, minZ, maxX, maxZ, filter, out);
+		} else {
+			for (int bx = fromBucketX; bx <= toBucketX; bx++)
+				for (int bz = fromBucketZ; bz <= toBucketZ; bz++)
+					collectWithin(buckets.get(key(bx, bz)), minX, minZ, maxX, maxZ, filter, out);
+		}
+		return out;
+	}
+
+	private static void collectWithin(Set<TownBlock> bucket, int minX, int minZ, int maxX, int maxZ, Predicate<TownBlock> filter, List<TownBlock> out) {
+
+		if (bucket == null)
+			return;
+
+		for (TownBlock townBlock : bucket) {
+			int x = townBlock.getX();
+			int z = townBlock.getZ();
+			if (x >= minX && x <= maxX && z >= minZ && z <= maxZ && filter.test(townBlock))
+				out.add(townBlock);
+		}
+	}
+
+	private void expandBounds(int bx, int bz) {
+
+		if (bx < minBucketX) minBucketX = bx;
+		if (bx > maxBucketX) maxBucketX = bx;
+		if (bz < minBucketZ) minBucketZ = bz;
+		if (bz > maxBucketZ) maxBucketZ = bz;
+	}
+
+	private static long key(int bx, int bz) {
+
+		return ((long) bx << 32) | (bz & 0xFFFFFFFFL);
+	}
+
+	private static class Nearest {
+
+		private final int keyX, keyZ;
+		private final Predicate<TownBlock> filter;
+		private long bestSqr;
+		private TownBlock found = null;
+
+		Nearest(int keyX, int keyZ, long maxRadiusSqr, Predicate<TownBlock> filter) {
+
+			this.keyX = keyX;
+			this.keyZ = keyZ;
+			this.filter = filter;
+			// Anything at exactly maxRadius is still a match.
+			this.bestSqr = maxRadiusSqr == Long.MAX_VALUE ? Long.MAX_VALUE : maxRadiusSqr + 1;
+		}
+
+		void test(Set<TownBlock> bucket) {
+
+			if (bucket == null)
+				return;
+
+			for (TownBlock townBlock : bucket) {
+				long dx = townBlock.getX() - keyX;
+				long dz = townBlock.getZ() - keyZ;
+				long distSqr = dx * dx + dz * dz;
+				if (distSqr < bestSqr && filter.test(townBlock)) {
+					bestSqr = distSqr;
+					found = townBlock;
+				}
+			}
+		}
+	}
+}
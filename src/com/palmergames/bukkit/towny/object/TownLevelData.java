@@ -0,0 +1,112 @@
+package com.palmergames.bukkit.towny.object;
+
+import com.palmergames.bukkit.towny.TownySettings;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A town level from the config.
+ */
+public final class TownLevelData {
+
+	private final int numResidents;
+	private final String namePrefix;
+	private final String namePostfix;
+	private final String mayorPrefix;
+	private final String mayorPostfix;
+	private final int townBlockLimit;
+	private final double upkeepModifier;
+	private final int townOutpostLimit;
+	private final int townBlockBuyBonusLimit;
+	private final double debtCapModifier;
+	private final Map<TownySettings.TownLevel, Object> map;
+
+	public TownLevelData(int numResidents, String namePrefix, String namePostfix, String mayorPrefix, String mayorPostfix, int townBlockLimit, double upkeepModifier, int townOutpostLimit, int townBlockBuyBonusLimit, double debtCapModifier) {
+
+		this.numResidents = numResidents;
+		this.namePrefix = namePrefix;
+		this.namePostfix = namePostfix;
+		this.mayorPrefix = mayorPrefix;
+		this.mayorPostfix = mayorPostfix;
+		this.townBlockLimit = townBlockLimit;
+		this.upkeepModifier = upkeepModifier;
+		this.townOutpostLimit = townOutpostLimit;
+		this.townBlockBuyBonusLimit = townBlockBuyBonusLimit;
+		this.debtCapModifier = debtCapModifier;
+
+		Map<TownySettings.TownLevel, Object> m = new EnumMap<>(TownySettings.TownLevel.class);
+		m.put(TownySettings.TownLevel.NAME_PREFIX, namePrefix);
+		m.put(TownySettings.TownLevel.NAME_POSTFIX, namePostfix);
+		m.put(TownySettings.TownLevel.MAYOR_PREFIX, mayorPrefix);
+		m.put(TownySettings.TownLevel.MAYOR_POSTFIX, mayorPostfix);
+		m.put(TownySettings.TownLevel.TOWN_BLOCK_LIMIT, townBlockLimit);
+		m.put(TownySettings.TownLevel.UPKEEP_MULTIPLIER, upkeepModifier);
+		m.put(TownySettings.TownLevel.OUTPOST_LIMIT, townOutpostLimit);
+		m.put(TownySettings.TownLevel.TOWN_BLOCK_BUY_BONUS_LIMIT, townBlockBuyBonusLimit);
+		m.put(TownySettings.TownLevel.DEBT_CAP_MODIFIER, debtCapModifier);
+		this.map = Collections.unmodifiableMap(m);
+	}
+
+	/**
+	 * @return the number of residents a town needs to reach this level.
+	 */
+	public int getNumResidents() {
+
+		return numResidents;
+	}
+
+	public String getNamePrefix() {
+
+		return namePrefix;
+	}
+
+	public String getNamePostfix() {
+
+		return namePostfix;
+	}
+
+	public String getMayorPrefix() {
+
+		return mayorPrefix;
+	}
+
+	public String getMayorPostfix() {
+
+		return mayorPostfix;
+	}
+
+	public int getTownBlockLimit() {
+
+		return townBlockLimit;
+	}
+
+	public double getUpkeepModifier() {
+
+		return upkeepModifier;
+	}
+
+	public int getTownOutpostLimit() {
+
+		return townOutpostLimit;
+	}
+
+	public int getTownBlockBuyBonusLimit() {
+
+		return townBlockBuyBonusLimit;
+	}
+
+	public double getDebtCapModifier() {
+
+		return debtCapModifier;
+	}
+
+	/**
+	 * @return the level as the map {@link TownySettings#getTownLevel(Town)} used to return.
+	 */
+	public Map<TownySettings.TownLevel, Object> asMap() {
+
+		return map;
+	}
+}
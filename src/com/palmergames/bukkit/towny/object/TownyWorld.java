@@ -6,6 +6,7 @@ import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
+import com.palmergames.bukkit.util.MaterialSet;
 import com.palmergames.util.MathUtil;
 
 import org.bukkit.Location;
@@ -23,6 +24,7 @@ import java.util.Map;
 public class TownyWorld extends TownyObject {
 
 	private HashMap<String, Town> towns = new HashMap<>();
+	private final TownBlockIndex townBlockIndex = new TownBlockIndex();
 
 	private boolean isUsingPlotManagementDelete = TownySettings.isUsingPlotManagementDelete();
 	private List<String> plotManagementDeleteIds = null;
@@ -32,6 +34,7 @@ public class TownyWorld extends TownyObject {
 	
 	private boolean isUsingPlotManagementRevert = TownySettings.isUsingPlotManagementRevert();
 	private List<String> plotManagementIgnoreIds = null;
+	private MaterialSet plotManagementIgnoreSet = null;
 
 	private boolean isUsingPlotManagementWildEntityRevert = TownySettings.isUsingPlotManagementWildEntityRegen();	
 	private long plotManagementWildRevertDelay = TownySettings.getPlotManagementWildRegenDelay();
@@ -39,8 +42,10 @@ public class TownyWorld extends TownyObject {
 	
 	private boolean isUsingPlotManagementWildBlockRevert = TownySettings.isUsingPlotManagementWildBlockRegen();
 	private List<String> blockExplosionProtection = null;
+	private MaterialSet blockExplosionProtectionSet = null;
 	
 	private List<String> unclaimedZoneIgnoreBlockMaterials = null;
+	private MaterialSet unclaimedZoneIgnoreSet = null;
 	private Boolean unclaimedZoneBuild = null, unclaimedZoneDestroy = null,
 			unclaimedZoneSwitch = null, unclaimedZoneItemUse = null;
 
@@ -123,6 +128,16 @@ public class TownyWorld extends TownyObject {
 		return out;
 	}
 
+	/**
+	 * Get the spatial index of the claimed townblocks in this world.
+	 * 
+	 * @return TownBlockIndex kept up to date as towns claim and unclaim.
+	 */
+	public TownBlockIndex getTownBlockIndex() {
+
+		return townBlockIndex;
+	}
+
 	/*
 	 * Used only in the getTreeString() method.
 	 */
@@ -392,12 +407,17 @@ public class TownyWorld extends TownyObject {
 	}
 
 	public boolean isPlotManagementIgnoreIds(Material mat) {
-		return getPlotManagementIgnoreIds().contains(mat.toString());
+		
+		if (plotManagementIgnoreSet == null)
+			return TownySettings.getPlotManagementIgnoreSet().contains(mat);
+		else
+			return plotManagementIgnoreSet.contains(mat);
 	}
 
 	public void setPlotManagementIgnoreIds(List<String> plotManagementIgnoreIds) {
 
 		this.plotManagementIgnoreIds = plotManagementIgnoreIds;
+		this.plotManagementIgnoreSet = plotManagementIgnoreIds == null ? null : MaterialSet.of(plotManagementIgnoreIds);
 	}
 
 	/**
@@ -487,6 +507,7 @@ public class TownyWorld extends TownyObject {
 			if (!mat.equals(""))
 				blockExplosionProtection.add(mat);
 
+		blockExplosionProtectionSet = MaterialSet.of(blockExplosionProtection);
 	}
 
 	public List<String> getPlotManagementWildRevertBlocks() {
@@ -502,13 +523,14 @@ public class TownyWorld extends TownyObject {
 		if (blockExplosionProtection == null)
 			setPlotManagementWildRevertMaterials(TownySettings.getWildExplosionProtectionBlocks());
 
-		return (blockExplosionProtection.contains(material.toString()));
+		return blockExplosionProtectionSet.contains(material);
 
 	}
 
 	public void setUnclaimedZoneIgnore(List<String> unclaimedZoneIgnoreIds) {
 
 		this.unclaimedZoneIgnoreBlockMaterials = unclaimedZoneIgnoreIds;
+		this.unclaimedZoneIgnoreSet = unclaimedZoneIgnoreIds == null ? null : MaterialSet.of(unclaimedZoneIgnoreIds);
 	}
 	
 	public List<String> getUnclaimedZoneIgnoreMaterials() {
@@ -521,7 +543,10 @@ public class TownyWorld extends TownyObject {
 
 	public boolean isUnclaimedZoneIgnoreMaterial(Material mat) {
 
-		return getUnclaimedZoneIgnoreMaterials().contains(mat.name());
+		if (unclaimedZoneIgnoreSet == null)
+			return TownySettings.getUnclaimedZoneIgnoreSet().contains(mat);
+		else
+			return unclaimedZoneIgnoreSet.contains(mat);
 	}
 
 
@@ -681,36 +706,163 @@ public class TownyWorld extends TownyObject {
 	 * @return the closest distance to another towns nearest plot.
 	 */
 	public int getMinDistanceFromOtherTownsPlots(Coord key, Town homeTown) {
+
+		return getMinDistanceFromOtherTownsPlots(key, homeTown, -1);
+	}
+
+	/**
+	 * Checks the distance from a another town's plots, searching no further than maxRadius.
+	 * 
+	 * @param key - Coord to check from.
+	 * @param homeTown Players town
+	 * @param maxRadius - Furthest distance to search, or a negative number for no limit.
+	 * @return the closest distance to another towns nearest plot, or Integer.MAX_VALUE if none lies within maxRadius.
+	 */
+	public int getMinDistanceFromOtherTownsPlots(Coord key, Town homeTown, int maxRadius) {
 		final int keyX = key.getX();
 		final int keyZ = key.getZ();
-		
-		double minSqr = -1;
+
+		TownBlock nearest = townBlockIndex.getNearest(key, maxRadius, b -> {
+			if (keyX == b.getX() && keyZ == b.getZ())
+				return false;
+
+			Town town = b.getTownOrNull();
+			if (town == null)
+				return false;
+
+			// If the townblock either: the town is the same as homeTown OR 
+			// both towns are in the same nation (and this is set to ignore distance in the config,) skip over the proximity filter.
+			return homeTown == null || !isIgnoredForMinDistance(homeTown, town);
+		});
+
+		if (nearest == null)
+			return Integer.MAX_VALUE;
+
+		return (int) Math.ceil(Math.sqrt(MathUtil.distanceSquared((double) nearest.getX() - keyX, (double) nearest.getZ() - keyZ)));
+	}
+
+	/**
+	 * Checks the distance from another town's homeblock for every coord in a selection at once.
+	 * The homeblocks are gathered a single time and every coord is measured against only those
+	 * within maxRadius of the selection.
+	 * 
+	 * @param keys - Coords to check from.
+	 * @param homeTown Players town
+	 * @param maxRadius - Furthest distance to search.
+	 * @return the closest distance to another towns homeblock for each key, in the order of keys,
+	 *         or Integer.MAX_VALUE where none lies within maxRadius.
+	 */
+	public int[] getMinDistancesFromOtherTowns(List<? extends Coord> keys, Town homeTown, int maxRadius) {
+
+		if (keys.isEmpty())
+			return new int[0];
+
+		int[] bounds = getBounds(keys, maxRadius);
+		List<Coord> homeBlocks = new ArrayList<>();
 		for (Town town : getTowns().values()) {
+			if (!town.hasHomeBlock() || !town.getHomeblockWorld().equals(this))
+				continue;
+			if (homeTown != null && isIgnoredForMinDistance(homeTown, town))
+				continue;
 			try {
-				if (homeTown != null)
-					// If the townblock either: the town is the same as homeTown OR 
-					// both towns are in the same nation (and this is set to ignore distance in the config,) skip over the proximity filter.
-					if (homeTown.getUUID().equals(town.getUUID())
-						|| (TownySettings.isMinDistanceIgnoringTownsInSameNation() && homeTown.hasNation() && town.hasNation() && town.getNation().equals(homeTown.getNation()))
-						|| (TownySettings.isMinDistanceIgnoringTownsInAlliedNation() && homeTown.isAlliedWith(town)))
-						continue;
-				for (TownBlock b : town.getTownBlocks()) {
-					if (!b.getWorld().equals(this)) continue;
+				Coord townCoord = town.getHomeBlock().getCoord();
+				if (townCoord.getX() >= bounds[0] && townCoord.getZ() >= bounds[1] && townCoord.getX() <= bounds[2] && townCoord.getZ() <= bounds[3])
+					homeBlocks.add(townCoord);
+			} catch (TownyException ignored) {
+			}
+		}
 
-					final int tbX = b.getX();
-					final int tbZ = b.getZ();
-					
-					if (keyX == tbX && keyZ == tbZ)
-						continue;
-					
-					final double distSqr = MathUtil.distanceSquared((double) tbX - keyX, (double) tbZ - keyZ);
-					if (minSqr == -1 || distSqr < minSqr)
-						minSqr = distSqr;
-				}
-			} catch (TownyException e) {
+		int[] xs = new int[homeBlocks.size()];
+		int[] zs = new int[homeBlocks.size()];
+		for (int i = 0; i < xs.length; i++) {
+			xs[i] = homeBlocks.get(i).getX();
+			zs[i] = homeBlocks.get(i).getZ();
+		}
+		return getMinDistances(keys, xs, zs, maxRadius, false);
+	}
+
+	/**
+	 * Checks the distance from another town's plots for every coord in a selection at once.
+	 * The townblocks within maxRadius of the selection are taken from the index a single time
+	 * and every coord is measured against only those.
+	 * 
+	 * @param keys - Coords to check from.
+	 * @param homeTown Players town
+	 * @param maxRadius - Furthest distance to search.
+	 * @return the closest distance to another towns nearest plot for each key, in the order of keys,
+	 *         or Integer.MAX_VALUE where none lies within maxRadius.
+	 */
+	public int[] getMinDistancesFromOtherTownsPlots(List<? extends Coord> keys, Town homeTown, int maxRadius) {
+
+		if (keys.isEmpty())
+			return new int[0];
+
+		int[] bounds = getBounds(keys, maxRadius);
+		List<TownBlock> townBlocks = townBlockIndex.getWithin(bounds[0], bounds[1], bounds[2], bounds[3], b -> {
+			Town town = b.getTownOrNull();
+			return town != null && (homeTown == null || !isIgnoredForMinDistance(homeTown, town));
+		});
+
+		int[] xs = new int[townBlocks.size()];
+		int[] zs = new int[townBlocks.size()];
+		for (int i = 0; i < xs.length; i++) {
+			xs[i] = townBlocks.get(i).getX();
+			zs[i] = townBlocks.get(i).getZ();
+		}
+		// A townblock is never too close to itself.
+		return getMinDistances(keys, xs, zs, maxRadius, true);
+	}
+
+	/*
+	 * The rectangle holding every coord within maxRadius of any of the keys, as minX, minZ, maxX, maxZ.
+	 */
+	private static int[] getBounds(List<? extends Coord> keys, int maxRadius) {
+
+		int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+		for (Coord key : keys) {
+			minX = Math.min(minX, key.getX());
+			minZ = Math.min(minZ, key.getZ());
+			maxX = Math.max(maxX, key.getX());
+			maxZ = Math.max(maxZ, key.getZ());
+		}
+		int radius = Math.max(0, maxRadius);
+		return new int[] {
+			(int) Math.max(Integer.MIN_VALUE, (long) minX - radius),
+			(int) Math.max(Integer.MIN_VALUE, (long) minZ - radius),
+			(int) Math.min(Integer.MAX_VALUE, (long) maxX + radius),
+			(int) Math.min(Integer.MAX_VALUE, (long) maxZ + radius)
+		};
+	}
+
+	private static int[] getMinDistances(List<? extends Coord> keys, int[] xs, int[] zs, int maxRadius, boolean skipSameCoord) {
+
+		final long maxRadiusSqr = (long) Math.max(0, maxRadius) * Math.max(0, maxRadius);
+		int[] out = new int[keys.size()];
+		for (int i = 0; i < out.length; i++) {
+			final int keyX = keys.get(i).getX();
+			final int keyZ = keys.get(i).getZ();
+			long minSqr = Long.MAX_VALUE;
+			for (int c = 0; c < xs.length; c++) {
+				long dx = xs[c] - keyX;
+				long dz = zs[c] - keyZ;
+				long distSqr = dx * dx + dz * dz;
+				if (distSqr < minSqr && (distSqr != 0 || !skipSameCoord))
+					minSqr = distSqr;
 			}
+			out[i] = minSqr > maxRadiusSqr ? Integer.MAX_VALUE : (int) Math.ceil(Math.sqrt(minSqr));
+		}
+		return out;
+	}
+
+	private static boolean isIgnoredForMinDistance(Town homeTown, Town town) {
+		try {
+			return homeTown.getUUID().equals(town.getUUID())
+				|| (TownySettings.isMinDistanceIgnoringTownsInSameNation() && homeTown.hasNation() && town.hasNation() && town.getNation().equals(homeTown.getNation()))
+				|| (TownySettings.isMinDistanceIgnoringTownsInAlliedNation() && homeTown.isAlliedWith(town));
+		} catch (TownyException e) {
+			return true;
 		}
-		return minSqr == -1 ? Integer.MAX_VALUE : (int) Math.ceil(Math.sqrt(minSqr));
 	}
 	
 	/**
@@ -721,26 +873,9 @@ public class TownyWorld extends TownyObject {
 	 * @return the nearest town belonging to a nation.   
 	 */
 	public Town getClosestTownWithNationFromCoord(Coord key, Town nearestTown) {
-		final int keyX = key.getX();
-		final int keyZ = key.getZ();
 		
-		double minSqr = -1;
-		for (Town town : getTowns().values()) {
-			if (!town.hasNation()) continue;
-			for (TownBlock b : town.getTownBlocks()) {
-				if (!b.getWorld().equals(this)) continue;
-				
-				final int tbX = b.getX();
-				final int tbZ = b.getZ();
-				
-				double distSqr = MathUtil.distanceSquared((double) tbX - keyX, (double) tbZ - keyZ);
-				if (minSqr == -1 || distSqr < minSqr) {
-					minSqr = distSqr;
-					nearestTown = town;
-				}						
-			}		
-		}		
-		return (nearestTown);		
+		TownBlock tb = getClosestTownblockWithNationFromCoord(key);
+		return tb == null ? nearestTown : tb.getTownOrNull();
 	}
 
 	/**
@@ -753,31 +888,26 @@ public class TownyWorld extends TownyObject {
 	 */
 	@Nullable
 	public TownBlock getClosestTownblockWithNationFromCoord(Coord key) {
-		final int keyX = key.getX();
-		final int keyZ = key.getZ();
-		
-		double minSqr = -1;
-		TownBlock tb = null;
-		
-		for (Town town : getTowns().values()) {
-			if (!town.hasNation())
-				continue;
-			for (TownBlock b : town.getTownBlocks()) {
-				if (!b.getWorld().equals(this))
-					continue;
 
-				final int tbX = b.getX();
-				final int tbZ = b.getZ();
-				
-				double distSqr = MathUtil.distanceSquared((double) tbX - keyX, (double) tbZ - keyZ);
-				if (minSqr == -1 || distSqr < minSqr) {
-					minSqr = distSqr;
-					tb = b;
-				}
-			}
-		}
-		
-		return tb;
+		return getClosestTownblockWithNationFromCoord(key, -1);
+	}
+
+	/**
+	 * Get the town block that belongs to the closest town with a nation
+	 * from the specified coord, searching no further than maxRadius.
+	 * 
+	 * @param key - Coordinate to compare distance to
+	 * @param maxRadius - Furthest distance to search, or a negative number for no limit.
+	 * @return The nearest townblock that belongs to a town with a nation or
+	 * null if there is none within maxRadius.
+	 */
+	@Nullable
+	public TownBlock getClosestTownblockWithNationFromCoord(Coord key, int maxRadius) {
+
+		return townBlockIndex.getNearest(key, maxRadius, b -> {
+			Town town = b.getTownOrNull();
+			return town != null && town.hasNation();
+		});
 	}
 
 	public void addWarZone(Coord coord) {
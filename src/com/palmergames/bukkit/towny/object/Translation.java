@@ -12,13 +12,26 @@ import org.bukkit.configuration.InvalidConfigurationException;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Formattable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * A convenience object to facilitate translation. 
+ * 
+ * The language file is compiled into {@link Template}s when it is loaded, so
+ * colours are only translated once and arguments are filled in without parsing
+ * a format string on every message.
  */
 public final class Translation {
 	
 	public static CommentedConfiguration language;
+	// Replaced as a whole when the language is (re)loaded, read from any thread.
+	private static volatile Map<String, Template> templates = Collections.emptyMap();
 
 	// This will read the language entry in the config.yml to attempt to load
 	// custom languages
@@ -32,6 +45,7 @@ public final class Translation {
 		// read the (language).yml into memory
 		language = new CommentedConfiguration(file);
 		language.load();
+		compile();
 		HelpMenu.loadMenus();
 		CommentedConfiguration newLanguage = new CommentedConfiguration(file);
 		
@@ -50,6 +64,7 @@ public final class Translation {
 
 		if (!langVersion.equalsIgnoreCase(resVersion)) {
 			language = newLanguage;
+			compile();
 			System.out.println("[Towny] Lang: Language file replaced with updated version.");
 			FileMgmt.stringToFile(FileMgmt.convertStreamToString("/" + res), file);
 		}
@@ -59,6 +74,33 @@ public final class Translation {
 	private static String parseSingleLineString(String str) {
 		return Colors.translateColorCodes(str);
 	}
+
+	/*
+	 * Compiles every entry of the language file into a template.
+	 */
+	private static void compile() {
+		Map<String, Template> compiled = new HashMap<>();
+		for (String key : language.getKeys(true)) {
+			if (language.isConfigurationSection(key))
+				continue;
+			String data = language.getString(key);
+			if (data != null)
+				compiled.put(key, new Template(StringMgmt.translateHexColors(parseSingleLineString(data))));
+		}
+		templates = compiled;
+	}
+
+	private static Template getTemplate(String key) {
+		Map<String, Template> templates = Translation.templates;
+		Template template = templates.get(key);
+		if (template == null) {
+			// toLowerCase only copies the key if it has upper case letters.
+			template = templates.get(key.toLowerCase());
+			if (template == null)
+				TownySettings.sendError(key.toLowerCase() + " from " + TownySettings.getString(ConfigNodes.LANGUAGE));
+		}
+		return template;
+	}
 	
 	/**
 	 * Translates give key into its respective language. 
@@ -67,13 +109,8 @@ public final class Translation {
 	 * @return The localized string.
 	 */
 	public static String of(String key) {
-		String data = language.getString(key.toLowerCase());
-
-		if (data == null) {
-			TownySettings.sendError(key.toLowerCase() + " from " + TownySettings.getString(ConfigNodes.LANGUAGE));
-			return "";
-		}
-		return StringMgmt.translateHexColors(parseSingleLineString(data));
+		Template template = getTemplate(key);
+		return template == null ? "" : template.text;
 	}
 
 	/**
@@ -84,7 +121,114 @@ public final class Translation {
 	 * @return The localized string.
 	 */
 	public static String of(String key, Object... args) {
-		return String.format(of(key), args);
+		Template template = getTemplate(key);
+		return template == null ? "" : template.format(args);
+	}
+
+	/**
+	 * A translated string with its colours already translated, split around
+	 * its %s and %d arguments. Strings using any other format specifier are
+	 * formatted with {@link String#format(String, Object...)} as before.
+	 */
+	private static final class Template {
+
+		private final String text;
+		// The text before each argument and, last, after the final argument. Null if the string can not be pre-split.
+		private final String[] literals;
+		// The index into the arguments of each slot.
+		private final int[] slots;
+		private final boolean[] integral;
+		private final int minArgs;
+
+		Template(String text) {
+			this.text = text;
+
+			List<String> literals = new ArrayList<>();
+			List<Integer> slots = new ArrayList<>();
+			List<Boolean> integral = new ArrayList<>();
+			StringBuilder literal = new StringBuilder();
+			int ordinary = 0;
+			int minArgs = 0;
+			boolean splittable = true;
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if (c != '%') {
+					literal.append(c);
+					continue;
+				}
+
+				// An optional argument index, as in %2$s.
+				int j = i + 1;
+				int index = -1;
+				while (j < text.length() && Character.isDigit(text.charAt(j)))
+					j++;
+				if (j > i + 1 && j < text.length() && text.charAt(j) == '$') {
+					index = Integer.parseInt(text.substring(i + 1, j)) - 1;
+					j++;
+				} else {
+					j = i + 1;
+				}
+
+				char conversion = j < text.length() ? text.charAt(j) : 0;
+				if (conversion == '%' && index == -1) {
+					literal.append('%');
+				} else if (conversion == 's' || conversion == 'd') {
+					if (index == -1)
+						index = ordinary++;
+					// %0$s is not a valid index.
+					if (index < 0) {
+						splittable = false;
+						break;
+					}
+					literals.add(literal.toString());
+					literal.setLength(0);
+					slots.add(index);
+					integral.add(conversion == 'd');
+					minArgs = Math.max(minArgs, index + 1);
+				} else {
+					// Widths, precisions, flags and other conversions are left to String.format.
+					splittable = false;
+					break;
+				}
+				i = j;
+			}
+			literals.add(literal.toString());
+
+			if (splittable) {
+				this.literals = literals.toArray(new String[0]);
+				this.slots = new int[slots.size()];
+				this.integral = new boolean[slots.size()];
+				for (int i = 0; i < slots.size(); i++) {
+					this.slots[i] = slots.get(i);
+					this.integral[i] = integral.get(i);
+				}
+				this.minArgs = minArgs;
+			} else {
+				this.literals = null;
+				this.slots = null;
+				this.integral = null;
+				this.minArgs = 0;
+			}
+		}
+
+		String format(Object... args) {
+			// Anything String.format would fail on, or format differently, is left to it.
+			if (literals == null || args == null || args.length < minArgs)
+				return String.format(text, args);
+
+			StringBuilder sb = new StringBuilder(text.length() + slots.length * 16);
+			for (int i = 0; i < slots.length; i++) {
+				Object arg = args[slots[i]];
+				if (integral[i] ? !isIntegral(arg) : arg instanceof Formattable)
+					return String.format(text, args);
+				sb.append(literals[i]).append(arg);
+			}
+			return sb.append(literals[literals.length - 1]).toString();
+		}
+
+		private static boolean isIntegral(Object arg) {
+			return arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte || arg instanceof BigInteger;
+		}
 	}
 
 	private Translation() {}
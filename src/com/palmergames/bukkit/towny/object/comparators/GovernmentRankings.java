@@ -0,0 +1,394 @@
+package com.palmergames.bukkit.towny.object.comparators;
+
+import com.palmergames.bukkit.towny.TownyEconomyHandler;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.event.NationAddTownEvent;
+import com.palmergames.bukkit.towny.event.NationRemoveTownEvent;
+import com.palmergames.bukkit.towny.event.NationTransactionEvent;
+import com.palmergames.bukkit.towny.event.RenameNationEvent;
+import com.palmergames.bukkit.towny.event.RenameTownEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.TownTransactionEvent;
+import com.palmergames.bukkit.towny.event.TownUnclaimEvent;
+import com.palmergames.bukkit.towny.object.Government;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.util.BukkitTools;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the towns and nations sorted by each {@link ComparatorType}, so the
+ * list commands can serve a page without sorting every town and working out
+ * its sort keys on every comparison.
+ *
+ * The sort keys of a town or nation are worked out once and kept until an
+ * event marks them out of date: joins and quits update the online counts,
+ * claims and unclaims the townblocks, transactions the balance and residents
+ * or towns joining and leaving the rest. Keys which can change without an
+ * event, such as toggles, ruins and taxes, are refreshed once a minute. A
+ * sorted list is only sorted again once a key it is sorted by has changed.
+ */
+public class GovernmentRankings implements Listener {
+
+	private static final long REFRESH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+	private static final GovernmentRankings instance = new GovernmentRankings();
+
+	private final Ranking<Town> towns = new Ranking<>();
+	private final Ranking<Nation> nations = new Ranking<>();
+	private boolean onlineDirty = true;
+	private long lastRefresh = 0;
+
+	public static GovernmentRankings getInstance() {
+
+		return instance;
+	}
+
+	/**
+	 * @param type - What to sort by.
+	 * @return a sorted copy of every town.
+	 */
+	public synchronized List<Town> getSortedTowns(ComparatorType type) {
+
+		update();
+		return towns.getSorted(type);
+	}
+
+	/**
+	 * @param type - What to sort by.
+	 * @return a sorted copy of every nation.
+	 */
+	public synchronized List<Nation> getSortedNations(ComparatorType type) {
+
+		update();
+		return nations.getSorted(type);
+	}
+
+	/**
+	 * Marks the sort keys of a town, and its nation, as out of date.
+	 *
+	 * @param town - Town which has changed.
+	 */
+	public synchronized void markDirty(Town town) {
+
+		if (town == null)
+			return;
+		towns.markDirty(town);
+		if (town.hasNation())
+			nations.markDirty(town.getNationOrNull());
+	}
+
+	public synchronized void markDirty(Nation nation) {
+
+		if (nation != null)
+			nations.markDirty(nation);
+	}
+
+	private synchronized void markOnlineDirty() {
+
+		onlineDirty = true;
+	}
+
+	private void update() {
+
+		long now = System.currentTimeMillis();
+		if (now - lastRefresh > REFRESH_INTERVAL_MILLIS) {
+			towns.markAllDirty();
+			nations.markAllDirty();
+			onlineDirty = true;
+			lastRefresh = now;
+		}
+
+		TownyUniverse universe = TownyUniverse.getInstance();
+		// New towns and nations have no online count yet.
+		if (towns.syncMembers(universe.getTowns()) | nations.syncMembers(universe.getNations()))
+			onlineDirty = true;
+
+		Map<Government, Integer> online = onlineDirty ? countOnline() : null;
+		towns.refresh(online);
+		nations.refresh(online);
+		onlineDirty = false;
+	}
+
+	/*
+	 * Counts the online residents of every town and nation in a single pass over the online players.
+	 */
+	private static Map<Government, Integer> countOnline() {
+
+		Map<Government, Integer> counts = new HashMap<>();
+		for (Player player : BukkitTools.getOnlinePlayers()) {
+			if (player == null)
+				continue;
+			Resident resident = TownyUniverse.getInstance().getResident(player.getUniqueId());
+			Town town = resident == null ? null : resident.getTownOrNull();
+			if (town == null)
+				continue;
+			counts.merge(town, 1, Integer::sum);
+			if (town.hasNation())
+				counts.merge(town.getNationOrNull(), 1, Integer::sum);
+		}
+		return counts;
+	}
+
+	/*
+	 * Events which change sort keys.
+	 */
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerJoin(PlayerJoinEvent event) {
+
+		markOnlineDirty();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+
+		markOnlineDirty();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownAddResident(TownAddResidentEvent event) {
+
+		markDirty(event.getTown());
+		markOnlineDirty();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRemoveResident(TownRemoveResidentEvent event) {
+
+		markDirty(event.getTown());
+		markOnlineDirty();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationAddTown(NationAddTownEvent event) {
+
+		markDirty(event.getTown());
+		markDirty(event.getNation());
+		markOnlineDirty();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationRemoveTown(NationRemoveTownEvent event) {
+
+		markDirty(event.getTown());
+		markDirty(event.getNation());
+		markOnlineDirty();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownClaim(TownClaimEvent event) {
+
+		markDirty(event.getTownBlock().getTownOrNull());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownUnclaim(TownUnclaimEvent event) {
+
+		markDirty(event.getTown());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownTransaction(TownTransactionEvent event) {
+
+		markDirty(event.getTown());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationTransaction(NationTransactionEvent event) {
+
+		markDirty(event.getNation());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRename(RenameTownEvent event) {
+
+		markDirty(event.getTown());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationRename(RenameNationEvent event) {
+
+		markDirty(event.getNation());
+	}
+
+	/**
+	 * The sort keys of a town or nation, as they were when last worked out.
+	 */
+	private static class SortKeys {
+
+		private final String name;
+		private final int residents;
+		private final int townBlocks;
+		private final double balance;
+		private final int towns;
+		private final boolean open;
+		private final boolean isPublic;
+		private final boolean ruined;
+		private final boolean bankrupt;
+		private int online;
+
+		SortKeys(Government government, int online) {
+
+			this.name = government.getName();
+			this.residents = government.getResidents().size();
+			this.townBlocks = government.getTownBlocks().size();
+			// Read once here rather than on every comparison, this may refresh the cached balance.
+			this.balance = TownyEconomyHandler.isActive() ? government.getAccount().getCachedBalance() : 0;
+			this.open = government.isOpen();
+			this.isPublic = government.isPublic();
+			if (government instanceof Town) {
+				Town town = (Town) government;
+				this.towns = 0;
+				this.ruined = town.isRuined();
+				this.bankrupt = town.isBankrupt();
+			} else {
+				this.towns = government instanceof Nation ? ((Nation) government).getTowns().size() : 0;
+				this.ruined = false;
+				this.bankrupt = false;
+			}
+			this.online = online;
+		}
+
+		/**
+		 * Orders the same way as the comparator of the given type, falling back to the name so the order is stable.
+		 */
+		static Comparator<SortKeys> comparator(ComparatorType type) {
+
+			Comparator<SortKeys> byResidents = Comparator.comparingInt((SortKeys k) -> k.residents).reversed();
+			Comparator<SortKeys> comparator;
+			switch (type) {
+			case TOWNBLOCKS:
+				comparator = Comparator.comparingInt((SortKeys k) -> k.townBlocks).reversed();
+				break;
+			case BALANCE:
+				comparator = Comparator.comparingDouble((SortKeys k) -> k.balance).reversed();
+				break;
+			case ONLINE:
+				comparator = Comparator.comparingInt((SortKeys k) -> k.online).reversed();
+				break;
+			case TOWNS:
+				comparator = Comparator.comparingInt((SortKeys k) -> k.towns).reversed();
+				break;
+			case NAME:
+				comparator = (k1, k2) -> 0;
+				break;
+			case OPEN:
+				comparator = Comparator.comparing((SortKeys k) -> !k.open).thenComparing(byResidents);
+				break;
+			case PUBLIC:
+				comparator = Comparator.comparing((SortKeys k) -> !k.isPublic).thenComparing(byResidents);
+				break;
+			case RUINED:
+				comparator = Comparator.comparing((SortKeys k) -> !k.ruined).thenComparing(byResidents);
+				break;
+			case BANKRUPT:
+				comparator = Comparator.comparing((SortKeys k) -> !k.bankrupt).thenComparing(byResidents);
+				break;
+			case RESIDENTS:
+			default:
+				comparator = byResidents;
+			}
+			return comparator.thenComparing(k -> k.name);
+		}
+	}
+
+	/**
+	 * The sort keys and sorted lists of either the towns or the nations.
+	 */
+	private static class Ranking<G extends Government> {
+
+		private final Map<G, SortKeys> keys = new HashMap<>();
+		private final Set<G> dirty = new HashSet<>();
+		private final Map<ComparatorType, List<G>> sorted = new EnumMap<>(ComparatorType.class);
+
+		void markDirty(G government) {
+
+			dirty.add(government);
+		}
+
+		void markAllDirty() {
+
+			dirty.addAll(keys.keySet());
+		}
+
+		/**
+		 * Adds new members and drops deleted ones.
+		 * @return true if the members changed.
+		 */
+		boolean syncMembers(Collection<G> members) {
+
+			if (members.size() == keys.size() && keys.keySet().containsAll(members))
+				return false;
+
+			Set<G> current = new HashSet<>(members);
+			keys.keySet().retainAll(current);
+			dirty.retainAll(current);
+			for (G government : current)
+				if (!keys.containsKey(government)) {
+					keys.put(government, null);
+					dirty.add(government);
+				}
+			sorted.clear();
+			return true;
+		}
+
+		void refresh(Map<Government, Integer> online) {
+
+			if (online != null)
+				for (Map.Entry<G, SortKeys> entry : keys.entrySet()) {
+					SortKeys old = entry.getValue();
+					int count = online.getOrDefault(entry.getKey(), 0);
+					if (old != null && old.online != count) {
+						old.online = count;
+						sorted.remove(ComparatorType.ONLINE);
+					}
+				}
+
+			for (G government : dirty) {
+				// Marked by an event after it was deleted.
+				if (!keys.containsKey(government))
+					continue;
+				SortKeys old = keys.get(government);
+				SortKeys now = new SortKeys(government, old != null ? old.online : online == null ? 0 : online.getOrDefault(government, 0));
+				keys.put(government, now);
+				// Only lists whose order could have changed are sorted again.
+				sorted.keySet().removeIf(type -> old == null || SortKeys.comparator(type).compare(old, now) != 0);
+			}
+			dirty.clear();
+		}
+
+		List<G> getSorted(ComparatorType type) {
+
+			List<G> list = sorted.get(type);
+			if (list == null) {
+				Comparator<SortKeys> comparator = SortKeys.comparator(type);
+				List<Map.Entry<G, SortKeys>> entries = new ArrayList<>(keys.entrySet());
+				entries.sort((e1, e2) -> comparator.compare(e1.getValue(), e2.getValue()));
+				list = new ArrayList<>(entries.size());
+				for (Map.Entry<G, SortKeys> entry : entries)
+					list.add(entry.getKey());
+				sorted.put(type, list);
+			}
+			return new ArrayList<>(list);
+		}
+	}
+}
@@ -64,7 +64,7 @@ public class MetadataLoader {
 
 		Collection<CustomDataField<?>> fields = Collections.emptyList();
 		try {
-			fields = DataFieldIO.deserializeMeta(serializedMetadata);
+			fields = parseMetadata(serializedMetadata);
 		} catch (IOException e) {
 			// Unsure if logger is loaded at this point
 			System.out.println("[Towny] Error loading metadata for towny object " + object.getClass().getName()
@@ -72,6 +72,31 @@ public class MetadataLoader {
 			e.printStackTrace();
 		}
 		
+		applyMetadata(object, fields);
+	}
+
+	/**
+	 * Parses serialized metadata without adding it to an object.
+	 * Safe to call from any thread, so metadata can be parsed while a database is loaded.
+	 * 
+	 * @param serializedMetadata - Metadata as it was saved.
+	 * @return the parsed fields, to be added with {@link #applyMetadata(TownyObject, Collection)}.
+	 * @throws IOException if the metadata is malformed.
+	 */
+	public Collection<CustomDataField<?>> parseMetadata(String serializedMetadata) throws IOException {
+		if (serializedMetadata == null || serializedMetadata.isEmpty())
+			return Collections.emptyList();
+		
+		return DataFieldIO.deserializeMeta(serializedMetadata);
+	}
+
+	/**
+	 * Adds metadata parsed by {@link #parseMetadata(String)} to an object.
+	 * 
+	 * @param object - TownyObject to add the metadata to.
+	 * @param fields - Parsed fields.
+	 */
+	public void applyMetadata(TownyObject object, Collection<CustomDataField<?>> fields) {
 		if (!fields.isEmpty()) {
 			boolean hasCustomTypes = false;
 			for (CustomDataField<?> cdf : fields) {
@@ -21,6 +21,7 @@ import org.jetbrains.annotations.Nullable;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -28,7 +29,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author ElgarL
@@ -40,6 +43,8 @@ public class TownyPerms {
 	protected static HashMap<String, PermissionAttachment> attachments = new HashMap<>();
 	private static CommentedConfiguration perms;
 	private static Towny plugin;
+	// Sorted permission nodes for each combination of ranks, emptied whenever the permissions are reloaded.
+	private static final Map<RankKey, CompiledPerms> compiledPerms = new ConcurrentHashMap<>();
 	
 	public static void initialize(Towny plugin) {
 		TownyPerms.plugin = plugin;
@@ -156,7 +161,7 @@ public class TownyPerms {
 					/*
 					 * Fill with the fresh perm nodes
 					 */
-					orig.putAll(TownyPerms.getResidentPerms(resident));
+					getCompiledPerms(resident).resolve(resident, orig);
 
 					// System.out.print("Perms set for: " + resident.getName());
 				}
@@ -246,63 +251,186 @@ public class TownyPerms {
 	 * @return a sorted Map of permission nodes
 	 */
 	public static LinkedHashMap<String, Boolean> getResidentPerms(Resident resident) {
+
+		CompiledPerms compiled = getCompiledPerms(resident);
+		LinkedHashMap<String, Boolean> newPerms = new LinkedHashMap<>(compiled.nodes.size() * 4 / 3 + 1);
+		compiled.resolve(resident, newPerms);
+		return newPerms;
+	}
+
+	/**
+	 * Checks whether a resident's town and nation ranks grant them a permission node,
+	 * without building the resident's full permission map.
+	 * 
+	 * @param resident - Resident to check
+	 * @param node - Permission node to look for
+	 * @return true if the node is granted by townyperms.yml
+	 */
+	public static boolean hasNode(Resident resident, String node) {
+
+		CompiledPerms compiled = getCompiledPerms(resident);
+		Town town = resident.getTownOrNull();
+		for (String permission : compiled.townNodes)
+			if (town != null && node.equals(permission.replace("{townname}", town.getName().toLowerCase())))
+				return true;
+		Nation nation = town != null ? town.getNationOrNull() : null;
+		for (String permission : compiled.nationNodes)
+			if (nation != null && node.equals(permission.replace("{nationname}", nation.getName().toLowerCase())))
+				return true;
+		return Boolean.TRUE.equals(compiled.fixedNodes.get(node));
+	}
+
+	private static CompiledPerms getCompiledPerms(Resident resident) {
+
+		return compiledPerms.computeIfAbsent(new RankKey(resident), TownyPerms::compile);
+	}
+
+	/*
+	 * Gathers and sorts the nodes for a combination of ranks, leaving the town
+	 * and nation names to be filled in for each resident.
+	 */
+	private static CompiledPerms compile(RankKey key) {
+
 		// Start by adding the default perms everyone gets
 		Set<String> permList = new HashSet<>(getDefault());
-		
+
 		//Check for town membership
-		if (resident.hasTown()) {
-			try {
-				permList.addAll(getTownDefault(resident.getTown()));
-			} catch (NotRegisteredException e) {
-				// Not Possible!
-			}
+		if (key.town) {
+			List<String> townDefault = getList("towns.default");
+			if (townDefault != null)
+				permList.addAll(townDefault);
+			permList.add("towny.town.{townname}");
 			// Is Mayor?
-			if (resident.isMayor()) permList.addAll(getTownMayor());
-				
+			if (key.mayor) permList.addAll(getTownMayor());
+
 			//Add town ranks here
-			for (String rank: resident.getTownRanks()) {
+			for (String rank: key.townRanks) {
 				permList.addAll(getTownRank(rank));
 			}
-			
+
 			//Check for nation membership
-			if (resident.hasNation()) {
+			if (key.nation) {
 				permList.addAll(getNationDefault());
 				// Is King?
-				if (resident.isKing()) permList.addAll(getNationKing());
-							
+				if (key.king) permList.addAll(getNationKing());
+
 				//Add nation ranks here
-				for (String rank: resident.getNationRanks()) {
+				for (String rank: key.nationRanks) {
 					permList.addAll(getNationRank(rank));
 				}
 			}
 		}
-		
-		List<String> playerPermArray = sort(new ArrayList<String>(permList));
-		LinkedHashMap<String, Boolean> newPerms = new LinkedHashMap<String, Boolean>();
-
-		Boolean value = false;
-		for (String permission : playerPermArray) {			
-			if (permission.contains("{townname}")) {
-				if (resident.hasTown())
-					try {
-						String placeholderPerm = permission.replace("{townname}", resident.getTown().getName().toLowerCase());
-						newPerms.put(placeholderPerm, true);
-					} catch (NotRegisteredException e) {
-					}
-			} else if (permission.contains("{nationname}")) {
-				if (resident.hasNation())
-					try {
-						String placeholderPerm = permission.replace("{nationname}", resident.getTown().getNation().getName().toLowerCase());
-						newPerms.put(placeholderPerm, true);
-					} catch (NotRegisteredException e) {
-					}
-			} else {
-				value = (!permission.startsWith("-"));
-				newPerms.put((value ? permission : permission.substring(1)), value);
+
+		return new CompiledPerms(sort(new ArrayList<>(permList)));
+	}
+
+	/*
+	 * The ranks which decide a resident's permissions.
+	 */
+	private static final class RankKey {
+
+		private final boolean town;
+		private final boolean mayor;
+		private final List<String> townRanks;
+		private final boolean nation;
+		private final boolean king;
+		private final List<String> nationRanks;
+		private final int hash;
+
+		RankKey(Resident resident) {
+
+			town = resident.hasTown();
+			nation = town && resident.hasNation();
+			mayor = town && resident.isMayor();
+			king = nation && resident.isKing();
+			townRanks = town ? sorted(resident.getTownRanks()) : Collections.emptyList();
+			nationRanks = nation ? sorted(resident.getNationRanks()) : Collections.emptyList();
+			hash = Objects.hash(town, mayor, townRanks, nation, king, nationRanks);
+		}
+
+		private static List<String> sorted(List<String> ranks) {
+
+			if (ranks.isEmpty())
+				return Collections.emptyList();
+			List<String> sorted = new ArrayList<>(ranks);
+			Collections.sort(sorted);
+			return sorted;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+
+			if (this == obj)
+				return true;
+			if (!(obj instanceof RankKey))
+				return false;
+			RankKey other = (RankKey) obj;
+			return town == other.town && mayor == other.mayor && nation == other.nation && king == other.king
+				&& townRanks.equals(other.townRanks) && nationRanks.equals(other.nationRanks);
+		}
+
+		@Override
+		public int hashCode() {
+
+			return hash;
+		}
+	}
+
+	/*
+	 * The sorted nodes for a combination of ranks. Nodes without a placeholder
+	 * are shared by every resident with those ranks.
+	 */
+	private static final class CompiledPerms {
+
+		private final List<String> nodes;
+		private final Map<String, Boolean> fixedNodes;
+		private final List<String> townNodes = new ArrayList<>();
+		private final List<String> nationNodes = new ArrayList<>();
+
+		CompiledPerms(List<String> sortedNodes) {
+
+			nodes = Collections.unmodifiableList(sortedNodes);
+			Map<String, Boolean> fixed = new LinkedHashMap<>();
+			for (String permission : sortedNodes) {
+				if (permission.contains("{townname}"))
+					townNodes.add(permission);
+				else if (permission.contains("{nationname}"))
+					nationNodes.add(permission);
+				else {
+					boolean value = !permission.startsWith("-");
+					fixed.put(value ? permission : permission.substring(1), value);
+				}
+			}
+			fixedNodes = Collections.unmodifiableMap(fixed);
+		}
+
+		/*
+		 * Puts the resident's nodes into the map in priority order, filling in their town and nation names.
+		 */
+		void resolve(Resident resident, Map<String, Boolean> into) {
+
+			if (townNodes.isEmpty() && nationNodes.isEmpty()) {
+				into.putAll(fixedNodes);
+				return;
+			}
+
+			Town town = resident.getTownOrNull();
+			String townName = town != null ? town.getName().toLowerCase() : null;
+			Nation nation = town != null ? town.getNationOrNull() : null;
+			String nationName = nation != null ? nation.getName().toLowerCase() : null;
+			for (String permission : nodes) {
+				if (permission.contains("{townname}")) {
+					if (townName != null)
+						into.put(permission.replace("{townname}", townName), true);
+				} else if (permission.contains("{nationname}")) {
+					if (nationName != null)
+						into.put(permission.replace("{nationname}", nationName), true);
+				} else {
+					boolean value = !permission.startsWith("-");
+					into.put(value ? permission : permission.substring(1), value);
+				}
 			}
 		}
-		return newPerms;
-		
 	}
 	
 	public static void registerPermissionNodes() {
@@ -499,6 +627,8 @@ public class TownyPerms {
 	public static void collectPermissions() {
 
 		registeredPermissions.clear();
+		// The nodes are sorted using the registered permissions.
+		compiledPerms.clear();
 
 		for (Permission perm : BukkitTools.getPluginManager().getPermissions()) {
 			registeredPermissions.put(perm.getName().toLowerCase(), perm);
@@ -6,23 +6,42 @@ import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.regen.block.BlockObject;
 import com.palmergames.bukkit.util.BukkitTools;
 
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PlotBlockData {
 
-	private int defaultVersion = 4;
+	/*
+	 * Version 5 stores a palette of block data strings and a packed index per block.
+	 * Versions 1-4 stored a String per block and are converted when they are loaded.
+	 */
+	private int defaultVersion = 5;
 
 	private String worldName;
 	private TownBlock townBlock;
 	private int x, z, size, height, version;
 
-	private List<String> blockList = new ArrayList<>(); // Stores the original plot blocks
+	private PlotBlockPalette blocks = new PlotBlockPalette(0, 1); // Stores the original plot blocks
+	private BlockObject[] parsedPalette; // BlockObjects parsed from the palette, built as they are needed
 	private int blockListRestored; // counter for the next block to test
 
+	private ChunkSnapshot[] chunkSnapshots; // Chunks captured on the main thread, waiting to be encoded
+	private int minChunkX, minChunkZ, chunksWide;
+
+	private int[] restoreQueue; // Indexes of the blocks which differ from the snapshot, in restore order
+	private int restoreQueueIndex; // Next entry of the restoreQueue to restore
+	private Material[] paletteMaterials; // Material of each palette entry, null if it will not load on this version of MC
+	private boolean[] paletteIgnored; // Palette entries in the world's block_ignore list
+	private volatile boolean restoreDiffPending; // Set while the restoreQueue is computed off the main thread
+
 	public PlotBlockData(TownBlock townBlock) {
 
 		this.townBlock = townBlock;
@@ -37,21 +56,235 @@ public class PlotBlockData {
 
 	public void initialize() {
 
-		List<String> blocks = getBlockArr();
+		PlotBlockPalette blocks = getBlockArr();
 		if (blocks != null) {
-			setBlockList(blocks); //fill array
+			setBlocks(blocks); //fill array
 			resetBlockListRestored();
 		}
 	}
 
+	/**
+	 * Captures a ChunkSnapshot of every chunk this plot covers, so the blocks
+	 * can be encoded by {@link #initializeFromSnapshots()} off the main thread.
+	 * 
+	 * Must be called on the main thread.
+	 */
+	public void captureChunkSnapshots() {
+
+		World world = this.townBlock.getWorldCoord().getBukkitWorld();
+		int minX = getX() * size, minZ = getZ() * size;
+		minChunkX = minX >> 4;
+		minChunkZ = minZ >> 4;
+		chunksWide = ((minX + size - 1) >> 4) - minChunkX + 1;
+		int chunksLong = ((minZ + size - 1) >> 4) - minChunkZ + 1;
+
+		ChunkSnapshot[] snapshots = new ChunkSnapshot[chunksWide * chunksLong];
+		for (int cz = 0; cz < chunksLong; cz++)
+			for (int cx = 0; cx < chunksWide; cx++)
+				snapshots[cz * chunksWide + cx] = world.getChunkAt(minChunkX + cx, minChunkZ + cz).getChunkSnapshot(false, false, false);
+
+		this.chunkSnapshots = snapshots;
+	}
+
+	/**
+	 * Fills the block palette from the chunks taken by {@link #captureChunkSnapshots()}.
+	 * 
+	 * Safe to call from any thread.
+	 */
+	public void initializeFromSnapshots() {
+
+		if (chunkSnapshots == null)
+			return;
+
+		PlotBlockPalette palette = new PlotBlockPalette(size * size * height, height);
+		// Most of a plot is a handful of block states, only build each string once.
+		Map<BlockData, String> blockStrings = new HashMap<>();
+		int index = 0;
+		int worldx = getX() * size, worldz = getZ() * size;
+
+		for (int z = 0; z < size; z++)
+			for (int x = 0; x < size; x++) {
+				int blockX = worldx + x, blockZ = worldz + z;
+				ChunkSnapshot chunk = getChunkSnapshot(blockX, blockZ);
+				for (int y = height; y > 0; y--) { // Top down to account for falling blocks.
+					BlockData data = chunk.getBlockData(blockX & 15, y, blockZ & 15);
+					palette.set(index++, blockStrings.computeIfAbsent(data, d -> d.getAsString(true)));
+				}
+			}
+
+		chunkSnapshots = null;
+		setBlocks(palette);
+		resetBlockListRestored();
+	}
+
+	private ChunkSnapshot getChunkSnapshot(int blockX, int blockZ) {
+
+		return chunkSnapshots[((blockZ >> 4) - minChunkZ) * chunksWide + ((blockX >> 4) - minChunkX)];
+	}
+
+	/**
+	 * @return true if every chunk this plot covers is loaded.
+	 */
+	public boolean isLoaded() {
+
+		World world = this.townBlock.getWorldCoord().getBukkitWorld();
+		int minX = getX() * size, minZ = getZ() * size;
+		for (int cx = minX >> 4; cx <= (minX + size - 1) >> 4; cx++)
+			for (int cz = minZ >> 4; cz <= (minZ + size - 1) >> 4; cz++)
+				if (!world.isChunkLoaded(cx, cz))
+					return false;
+		return true;
+	}
+
+	/**
+	 * Captures the plot's chunks and resolves the stored palette, ready for
+	 * {@link #computeRestoreDiff()} to find the blocks which need restoring.
+	 * 
+	 * Must be called on the main thread, with the plot's chunks loaded.
+	 */
+	public void prepareRestoreDiff() {
+
+		paletteMaterials = new Material[blocks.getPaletteSize()];
+		paletteIgnored = new boolean[blocks.getPaletteSize()];
+		for (int id = 0; id < paletteMaterials.length; id++) {
+			BlockObject stored = getParsedPaletteEntry(id);
+			if (stored == null)
+				continue;
+			paletteMaterials[id] = stored.getMaterial();
+			paletteIgnored[id] = this.townBlock.getWorld().isPlotManagementIgnoreIds(stored.getMaterial());
+		}
+
+		captureChunkSnapshots();
+		restoreDiffPending = true;
+	}
+
+	/**
+	 * Compares the captured chunks with the stored snapshot and queues every
+	 * block whose material differs, bottom up to stand a better chance of
+	 * restoring tree's and plants.
+	 * 
+	 * Safe to call from any thread.
+	 */
+	public void computeRestoreDiff() {
+
+		try {
+			int[] queue = new int[blocks.size()];
+			int count = 0;
+			int worldx = getX() * size, worldz = getZ() * size;
+
+			for (int index = blocks.size() - 1; index >= 0; index--) {
+				Material stored = paletteMaterials[blocks.getId(index)];
+				if (stored == null)
+					continue;
+
+				int y = height - (index % height);
+				int blockX = worldx + (index / height) % size;
+				int blockZ = worldz + (index / height / size) % size;
+				if (getChunkSnapshot(blockX, blockZ).getBlockType(blockX & 15, y, blockZ & 15) != stored)
+					queue[count++] = index;
+			}
+
+			restoreQueue = Arrays.copyOf(queue, count);
+			restoreQueueIndex = 0;
+		} finally {
+			chunkSnapshots = null;
+			restoreDiffPending = false;
+		}
+	}
+
+	/**
+	 * @return true while the blocks to restore are being computed.
+	 */
+	public boolean isRestoreDiffPending() {
+
+		return restoreDiffPending;
+	}
+
+	/**
+	 * @return true once the blocks to restore have been computed.
+	 */
+	public boolean hasRestoreDiff() {
+
+		return !restoreDiffPending && restoreQueue != null;
+	}
+
+	/**
+	 * Restores queued blocks until every block is restored or the deadline passes.
+	 * 
+	 * Must be called on the main thread, after {@link #computeRestoreDiff()} has completed.
+	 * 
+	 * @param deadline - {@link System#nanoTime()} at which to stop.
+	 * @return the number of blocks which were changed.
+	 */
+	public int restoreBlocks(long deadline) {
+
+		World world = this.townBlock.getWorldCoord().getBukkitWorld();
+		int worldx = getX() * size, worldz = getZ() * size;
+		int changed = 0;
+
+		while (restoreQueueIndex < restoreQueue.length) {
+			int index = restoreQueue[restoreQueueIndex++];
+			int id = blocks.getId(index);
+			int y = height - (index % height);
+			Block block = world.getBlockAt(worldx + (index / height) % size, y, worldz + (index / height / size) % size);
+			Material mat = paletteMaterials[id];
+
+			// The block may have changed since the diff was computed.
+			if (block.getType() != mat) {
+				if (!paletteIgnored[id]) {
+					try {
+						block.setType(mat, false);
+						block.setBlockData(getParsedPaletteEntry(id).getBlockData());
+						changed++;
+					} catch (Exception e) {
+						TownyMessaging.sendErrorMsg("Exception in PlotBlockData.java");
+					}
+				} else {
+					block.setType(Material.AIR);
+					changed++;
+				}
+			}
+
+			if (System.nanoTime() >= deadline)
+				break;
+		}
+
+		return changed;
+	}
+
+	/**
+	 * @return true once every queued block has been restored.
+	 */
+	public boolean isRestoreComplete() {
+
+		return hasRestoreDiff() && restoreQueueIndex >= restoreQueue.length;
+	}
+
+	/**
+	 * @return the number of queued blocks which have been restored so far.
+	 */
+	public int getRestoreProgress() {
+
+		return restoreQueueIndex;
+	}
+
+	/**
+	 * @return the number of blocks which differed from the snapshot, or 0 before they are computed.
+	 */
+	public int getRestoreTotal() {
+
+		return hasRestoreDiff() ? restoreQueue.length : 0;
+	}
+
 	/**
 	 * Fills an array with the current Block types from the plot.
 	 * 
 	 * @return
 	 */
-	private List<String> getBlockArr() {
+	private PlotBlockPalette getBlockArr() {
 
-		List<String> list = new ArrayList<>();
+		PlotBlockPalette palette = new PlotBlockPalette(size * size * height, height);
+		int index = 0;
 		Block block = null;
 
 		World world = this.townBlock.getWorldCoord().getBukkitWorld();
@@ -65,20 +298,9 @@ public class PlotBlockData {
 			for (int x = 0; x < size; x++)
 				for (int y = height; y > 0; y--) { // Top down to account for falling blocks.
 					block = world.getBlockAt((getX() * size) + x, y, (getZ() * size) + z);
-					switch (defaultVersion) {
-
-					case 1:
-					case 2:
-					case 3:
-					case 4:
-						list.add(block.getBlockData().getAsString(true));
-						break;
-					default:
-						list.add(block.getType().getKey().toString());
-
-					}					
+					palette.set(index++, block.getBlockData().getAsString(true));
 				}
-		return list;
+		return palette;
 	}
 
 	/**
@@ -89,7 +311,7 @@ public class PlotBlockData {
 	public boolean restoreNextBlock() {
 
 		Block block = null;
-		int x, y, z, reverse, scale;
+		int x, y, z, reverse;
 		int worldx = getX() * size, worldz = getZ() * size;
 		Material blockMat, mat;
 		BlockObject storedData;
@@ -98,23 +320,7 @@ public class PlotBlockData {
 		if (!world.isChunkLoaded(BukkitTools.calcChunk(getX()), BukkitTools.calcChunk(getZ())))
 			return true;
 
-
-		//Scale for the number of elements
-		switch (version) {
-
-			case 1:
-			case 2:
-			case 3:
-				scale = 2;
-				break;	
-			case 4:
-				scale = 1;
-				break;	
-			default:
-				scale = 1;
-		}
-
-		reverse = (blockList.size() - blockListRestored) / scale;
+		reverse = blocks.size() - blockListRestored;
 		
 		while (reverse > 0) {
 			reverse--; //regen bottom up to stand a better chance of restoring tree's and plants.
@@ -124,69 +330,64 @@ public class PlotBlockData {
 	
 			block = world.getBlockAt(worldx + x, y, worldz + z);
 			blockMat = block.getType();
-			try {
-				storedData = getStoredBlockData((blockList.size() - 1) - blockListRestored);
-			} catch (IllegalArgumentException e1) {
-				TownyMessaging.sendDebugMsg("Towny's revert-on-unclaim feature encountered a block which will not load on the current version of MC. Ignoring and skipping to next block.");
+			storedData = getStoredBlockData(reverse);
+			blockListRestored++;
+
+			if (storedData == null)
 				continue;
-			}
-			
-			switch (version) {
-		
-				case 1:
-				case 2:				
-				case 3:
-				case 4:
-					blockListRestored += scale;
-					
-					mat = storedData.getMaterial();
-					if (mat == null) {
-						TownyMessaging.sendErrorMsg("PlotBlockData:restoreNextBlock() - Material Null, skipping block.");
-					} else if (blockMat != mat) {
-						if (!this.townBlock.getWorld().isPlotManagementIgnoreIds(mat)) {
-							try {								
-								block.setType(mat, false);
-								block.setBlockData(storedData.getBlockData());
-								return true;
-							} catch (Exception e) {
-								TownyMessaging.sendErrorMsg("Exception in PlotBlockData.java");
-								break;
-							}
-			
-						} else {					
-							block.setType(Material.AIR);
-							return true;
-						}
-			
+
+			mat = storedData.getMaterial();
+			if (mat == null) {
+				TownyMessaging.sendErrorMsg("PlotBlockData:restoreNextBlock() - Material Null, skipping block.");
+			} else if (blockMat != mat) {
+				if (!this.townBlock.getWorld().isPlotManagementIgnoreIds(mat)) {
+					try {								
+						block.setType(mat, false);
+						block.setBlockData(storedData.getBlockData());
+						return true;
+					} catch (Exception e) {
+						TownyMessaging.sendErrorMsg("Exception in PlotBlockData.java");
+						continue;
 					}
-					//TownyMessaging.sendDebugMsg("PlotBlockData:restoreNextBlock() - Blocks match, no replacing needed.");
-					break;
-					
-				default:
-					TownyMessaging.sendErrorMsg("PlotBlockData:restoreNextBlock() - You should not be seeing this message.");					
-					
+	
+				} else {					
+					block.setType(Material.AIR);
+					return true;
+				}
 			}
-			
+			//TownyMessaging.sendDebugMsg("PlotBlockData:restoreNextBlock() - Blocks match, no replacing needed.");
 		}
 		// reset as we are finished with the regeneration
 		resetBlockListRestored();
 		return false;
 	}
 
+	/**
+	 * Get the stored block at an index, each palette entry is only parsed once.
+	 * 
+	 * @param index - index of the block.
+	 * @return BlockObject or null if the stored block will not load on this version of MC.
+	 */
 	private BlockObject getStoredBlockData(int index) {
 
-		//return based upon version
-		switch (version) {
+		return getParsedPaletteEntry(blocks.getId(index));
+	}
+
+	private BlockObject getParsedPaletteEntry(int id) {
+
+		if (parsedPalette == null)
+			parsedPalette = new BlockObject[blocks.getPaletteSize()];
 
-		case 1:
-		case 2:
-		case 3:
-		case 4:
-			return new BlockObject(blockList.get(index));
-		default:
-			return new BlockObject(blockList.get(index));
+		if (parsedPalette[id] == null) {
+			try {
+				parsedPalette[id] = new BlockObject(blocks.getPaletteEntry(id));
+			} catch (IllegalArgumentException e1) {
+				TownyMessaging.sendDebugMsg("Towny's revert-on-unclaim feature encountered a block which will not load on the current version of MC. Ignoring and skipping to next block.");
+				return null;
+			}
 		}
 
+		return parsedPalette[id];
 	}
 
 	public int getX() {
@@ -251,21 +452,52 @@ public class PlotBlockData {
 	}
 
 	/**
+	 * @return the palette encoded blocks of this snapshot.
+	 */
+	public PlotBlockPalette getBlocks() {
+
+		return blocks;
+	}
+
+	/**
+	 * Sets the palette encoded blocks of this snapshot.
+	 * 
+	 * @param blocks - PlotBlockPalette
+	 */
+	public void setBlocks(PlotBlockPalette blocks) {
+
+		this.blocks = blocks;
+		this.parsedPalette = null;
+		this.restoreQueue = null;
+	}
+
+	/**
+	 * @deprecated as of 0.97.0.2, builds a String for every block, use {@link #getBlocks()} instead.
 	 * @return the blockList
 	 */
+	@Deprecated
 	public List<String> getBlockList() {
 
-		return blockList;
+		return blocks.toList();
 	}
 
 	/**
-	 * fills the BlockList
+	 * fills the BlockList, converting snapshots stored by versions 1-4 to the current version.
 	 * 
-	 * @param blockList - BlockList (List&lt;String&gt;)
+	 * @param blockList - BlockList (List&lt;String&gt;) in the format of {@link #getVersion()}
 	 */
 	public void setBlockList(List<String> blockList) {
 
-		this.blockList = blockList;
+		// Versions 1-3 stored two entries per block, of which the second is restored.
+		if (version >= 1 && version <= 3) {
+			List<String> converted = new ArrayList<>(blockList.size() / 2);
+			for (int i = 1; i < blockList.size(); i += 2)
+				converted.add(blockList.get(i));
+			blockList = converted;
+		}
+
+		setBlocks(PlotBlockPalette.of(blockList, height));
+		setVersion(defaultVersion);
 	}
 
 	/**
@@ -0,0 +1,281 @@
+package com.palmergames.bukkit.towny.regen;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Palette encoded block storage for a plot snapshot.
+ *
+ * Each distinct block data string is stored once in the palette, and every
+ * block position holds an index into the palette, bit-packed into a long
+ * array. On disk the indexes are either written packed, or run-length encoded
+ * one column at a time, whichever is smaller.
+ *
+ * Positions use the same ordering as {@link PlotBlockData}, one column of
+ * {@code height} blocks after another.
+ */
+public class PlotBlockPalette {
+
+	private static final byte ENCODING_PACKED = 0;
+	private static final byte ENCODING_COLUMN_RLE = 1;
+
+	private final List<String> palette = new ArrayList<>();
+	private final Map<String, Integer> paletteIds = new HashMap<>();
+	private final int length;
+	private final int height;
+
+	private int bits = 1;
+	private int entriesPerLong = 64;
+	private long[] data;
+
+	/**
+	 * @param length - Number of block positions.
+	 * @param height - Number of positions in each column.
+	 */
+	public PlotBlockPalette(int length, int height) {
+
+		this.length = length;
+		this.height = Math.max(1, height);
+		this.data = new long[longsFor(length, entriesPerLong)];
+	}
+
+	/**
+	 * Builds a palette from one block data string per position.
+	 *
+	 * @param blocks - List of block data strings.
+	 * @param height - Number of positions in each column.
+	 * @return PlotBlockPalette holding the same blocks.
+	 */
+	public static PlotBlockPalette of(List<String> blocks, int height) {
+
+		PlotBlockPalette out = new PlotBlockPalette(blocks.size(), height);
+		for (int i = 0; i < blocks.size(); i++)
+			out.set(i, blocks.get(i));
+		return out;
+	}
+
+	public int size() {
+
+		return length;
+	}
+
+	public boolean isEmpty() {
+
+		return length == 0;
+	}
+
+	public int getPaletteSize() {
+
+		return palette.size();
+	}
+
+	public String getPaletteEntry(int id) {
+
+		return palette.get(id);
+	}
+
+	/**
+	 * @param index - Block position.
+	 * @return the palette id stored at this position.
+	 */
+	public int getId(int index) {
+
+		int shift = (index % entriesPerLong) * bits;
+		return (int) ((data[index / entriesPerLong] >>> shift) & mask());
+	}
+
+	/**
+	 * @param index - Block position.
+	 * @return the block data string stored at this position.
+	 */
+	public String get(int index) {
+
+		return palette.get(getId(index));
+	}
+
+	public void set(int index, String blockData) {
+
+		setId(index, idFor(blockData));
+	}
+
+	/**
+	 * @return every position as a block data string, in position order.
+	 */
+	public List<String> toList() {
+
+		List<String> out = new ArrayList<>(length);
+		for (int i = 0; i < length; i++)
+			out.add(get(i));
+		return out;
+	}
+
+	/**
+	 * Writes the palette and the block indexes.
+	 *
+	 * @param out - Stream to write to.
+	 * @throws IOException if the stream can not be written to.
+	 */
+	public void write(DataOutputStream out) throws IOException {
+
+		out.writeInt(length);
+		writeVarInt(out, palette.size());
+		for (String entry : palette)
+			out.writeUTF(entry);
+
+		if (countRuns() * 2 < data.length * 8) {
+			out.writeByte(ENCODING_COLUMN_RLE);
+			for (int column = 0; column < length; column += height) {
+				int end = Math.min(length, column + height);
+				int i = column;
+				while (i < end) {
+					int id = getId(i);
+					int run = 1;
+					while (i + run < end && getId(i + run) == id)
+						run++;
+					writeVarInt(out, run);
+					writeVarInt(out, id);
+					i += run;
+				}
+			}
+		} else {
+			out.writeByte(ENCODING_PACKED);
+			out.writeByte(bits);
+			for (long word : data)
+				out.writeLong(word);
+		}
+	}
+
+	/**
+	 * Reads a palette written by {@link #write(DataOutputStream)}.
+	 *
+	 * @param in - Stream to read from.
+	 * @param height - Number of positions in each column.
+	 * @return PlotBlockPalette read from the stream.
+	 * @throws IOException if the stream is malformed or can not be read.
+	 */
+	public static PlotBlockPalette read(DataInputStream in, int height) throws IOException {
+
+		PlotBlockPalette out = new PlotBlockPalette(in.readInt(), height);
+		int paletteSize = readVarInt(in);
+		for (int id = 0; id < paletteSize; id++)
+			out.idFor(in.readUTF());
+
+		byte encoding = in.readByte();
+		switch (encoding) {
+		case ENCODING_COLUMN_RLE:
+			int i = 0;
+			while (i < out.length) {
+				int run = readVarInt(in);
+				int id = readVarInt(in);
+				if (id >= paletteSize || run <= 0 || i + run > out.length)
+					throw new IOException("Malformed plot snapshot run at block " + i);
+				for (int end = i + run; i < end; i++)
+					out.setId(i, id);
+			}
+			break;
+		case ENCODING_PACKED:
+			// Reading the palette grew the indexes to the least width they can be stored in.
+			int bits = in.readByte();
+			if (bits < out.bits || bits > 32)
+				throw new IOException("Malformed plot snapshot index width " + bits + " for " + paletteSize + " palette entries");
+			out.resize(bits);
+			for (int word = 0; word < out.data.length; word++)
+				out.data[word] = in.readLong();
+			break;
+		default:
+			throw new IOException("Unknown plot snapshot encoding " + encoding);
+		}
+
+		return out;
+	}
+
+	private int idFor(String blockData) {
+
+		Integer id = paletteIds.get(blockData);
+		if (id != null)
+			return id;
+
+		id = palette.size();
+		palette.add(blockData);
+		paletteIds.put(blockData, id);
+		if (id > mask())
+			resize(bits + 1);
+
+		return id;
+	}
+
+	private void setId(int index, int id) {
+
+		int word = index / entriesPerLong;
+		int shift = (index % entriesPerLong) * bits;
+		data[word] = (data[word] & ~(mask() << shift)) | ((long) id << shift);
+	}
+
+	/*
+	 * Repacks the indexes with a new number of bits per entry.
+	 */
+	private void resize(int newBits) {
+
+		if (newBits == bits)
+			return;
+
+		int oldBits = bits;
+		int oldEntriesPerLong = entriesPerLong;
+		long oldMask = mask();
+		long[] oldData = data;
+
+		bits = newBits;
+		entriesPerLong = 64 / newBits;
+		data = new long[longsFor(length, entriesPerLong)];
+
+		for (int i = 0; i < length; i++) {
+			int shift = (i % oldEntriesPerLong) * oldBits;
+			setId(i, (int) ((oldData[i / oldEntriesPerLong] >>> shift) & oldMask));
+		}
+	}
+
+	private long mask() {
+
+		return (1L << bits) - 1;
+	}
+
+	private int countRuns() {
+
+		int runs = 0;
+		for (int i = 0; i < length; i++)
+			if (i % height == 0 || getId(i) != getId(i - 1))
+				runs++;
+		return runs;
+	}
+
+	private static int longsFor(int length, int entriesPerLong) {
+
+		return (length + entriesPerLong - 1) / entriesPerLong;
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed plot snapshot varint");
+	}
+}
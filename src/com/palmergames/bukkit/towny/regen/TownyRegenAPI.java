@@ -22,6 +22,7 @@ import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author ElgarL
@@ -37,6 +38,9 @@ public class TownyRegenAPI {
 
 	// A list of worldCoords which are needing snapshots
 	private static List<WorldCoord> worldCoords = new ArrayList<>();
+
+	// WorldCoords whose snapshots have been captured and are still being encoded and saved.
+	private static Set<WorldCoord> snapshotsInProgress = ConcurrentHashMap.newKeySet();
 	
 	// A holder for each protection regen task
 	private static  Hashtable<BlockLocation, ProtectionRegenTask> protectionRegenTasks = new Hashtable<>();
@@ -107,7 +111,33 @@ public class TownyRegenAPI {
 	 */
 	public static boolean hasWorldCoord(WorldCoord worldCoord) {
 
-		return worldCoords.contains(worldCoord);
+		return worldCoords.contains(worldCoord) || snapshotsInProgress.contains(worldCoord);
+	}
+
+	/**
+	 * Marks a WorldCoord as captured, but not yet saved.
+	 * 
+	 * @param worldCoord - WorldCoord whose snapshot is being encoded.
+	 */
+	public static void addSnapshotInProgress(WorldCoord worldCoord) {
+
+		snapshotsInProgress.add(worldCoord);
+	}
+
+	/**
+	 * @param worldCoord - WorldCoord whose snapshot has been saved.
+	 */
+	public static void removeSnapshotInProgress(WorldCoord worldCoord) {
+
+		snapshotsInProgress.remove(worldCoord);
+	}
+
+	/**
+	 * @return the WorldCoords whose snapshots are still being encoded and saved.
+	 */
+	public static Set<WorldCoord> getSnapshotsInProgress() {
+
+		return snapshotsInProgress;
 	}
 
 	/**
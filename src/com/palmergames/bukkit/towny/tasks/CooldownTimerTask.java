@@ -5,17 +5,21 @@ import java.util.concurrent.ConcurrentHashMap;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownySettings;
 
-public class CooldownTimerTask extends TownyTimerTask {
-	
-	private static ConcurrentHashMap<AbstractMap.SimpleEntry<String, CooldownType>, Long> cooldowns;	
+/**
+ * Keeps the PVP and teleport cooldowns, each one is removed by its own
+ * timer on the {@link TownyTimingWheel} as it runs out.
+ */
+public class CooldownTimerTask {
+
+	private static final ConcurrentHashMap<AbstractMap.SimpleEntry<String, CooldownType>, TownyTimingWheel.Timer> cooldowns = new ConcurrentHashMap<>();
 
 
 	public enum CooldownType{
 		PVP(TownySettings.getPVPCoolDownTime()),
 		TELEPORT(TownySettings.getSpawnCooldownTime());
-		
+
 		private final int seconds;
-		
+
 		private int getSeconds() {
 			return seconds;
 		}
@@ -23,45 +27,38 @@ public class CooldownTimerTask extends TownyTimerTask {
 		CooldownType(int seconds) {
 			this.seconds = seconds;
 		}
-		
-	}
 
-	public CooldownTimerTask(Towny plugin) {
-
-		super(plugin);
-		cooldowns = new ConcurrentHashMap<>();
 	}
 
-	@Override
-	public void run() {
-		long currentTime = System.currentTimeMillis();
-
-		while (!cooldowns.isEmpty()) {
-			for (AbstractMap.SimpleEntry<String, CooldownType> map : cooldowns.keySet()) {
-				long time = cooldowns.get(map);
-				if (time < currentTime)					
-					cooldowns.remove(map);
-			}
-			break;
-		}
-	}
-	
 	public static void addCooldownTimer(String object, CooldownType type) {
-		AbstractMap.SimpleEntry<String, CooldownType> map = new AbstractMap.SimpleEntry<String, CooldownTimerTask.CooldownType>(object, type);		
-		cooldowns.put(map, (System.currentTimeMillis() + (type.getSeconds() * 1000)));
+		AbstractMap.SimpleEntry<String, CooldownType> map = new AbstractMap.SimpleEntry<String, CooldownTimerTask.CooldownType>(object, type);
+		// The timer only removes the cooldown it was made for, not one which has replaced it.
+		TownyTimingWheel.Timer timer = Towny.getPlugin().getTimingWheel().schedule(type.getSeconds() * 1000L, true,
+			() -> cooldowns.computeIfPresent(map, (key, current) -> current.isPending() ? current : null));
+		TownyTimingWheel.Timer previous = cooldowns.put(map, timer);
+		if (previous != null)
+			previous.cancel();
 	}
-	
+
 	public static boolean hasCooldown(String object, CooldownType type) {
 		AbstractMap.SimpleEntry<String, CooldownType> map = new AbstractMap.SimpleEntry<String, CooldownTimerTask.CooldownType>(object, type);
-		if (cooldowns.containsKey(map))			
-			return true;
-		return false;
+		TownyTimingWheel.Timer timer = cooldowns.get(map);
+		return timer != null && timer.isPending();
 	}
-	
+
 	public static int getCooldownRemaining(String object, CooldownType type) {
 		AbstractMap.SimpleEntry<String, CooldownType> map = new AbstractMap.SimpleEntry<String, CooldownTimerTask.CooldownType>(object, type);
-		if (cooldowns.containsKey(map))
-			return (int) ((cooldowns.get(map) - System.currentTimeMillis())/1000);
-		return 0;		
+		TownyTimingWheel.Timer timer = cooldowns.get(map);
+		if (timer != null && timer.isPending())
+			return (int) (timer.getRemainingMillis() / 1000);
+		return 0;
+	}
+
+	/**
+	 * Removes every cooldown, when cooldowns are turned off.
+	 */
+	public static void clearCooldowns() {
+		cooldowns.values().forEach(TownyTimingWheel.Timer::cancel);
+		cooldowns.clear();
 	}
 }
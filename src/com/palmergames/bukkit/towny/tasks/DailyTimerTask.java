@@ -73,8 +73,8 @@ public class DailyTimerTask extends TownyTimerTask {
 		 * If enabled, remove old residents who haven't logged in for the configured number of days.
 		 */	
 		if (TownySettings.isDeletingOldResidents()) {
-			// Run a purge in it's own thread
-			new ResidentPurge(plugin, null, TownySettings.getDeleteTime() * 1000, TownySettings.isDeleteTownlessOnly()).start();
+			// Run the purge as a job, residents are removed on the main thread.
+			plugin.getJobExecutor().submit(new ResidentPurge(plugin, null, TownySettings.getDeleteTime() * 1000, TownySettings.isDeleteTownlessOnly()));
 		}
 
 		/*
@@ -340,7 +340,7 @@ public class DailyTimerTask extends TownyTimerTask {
 				 */
 				if (universe.hasResident(resident.getName())) {
 
-					if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC() || resident.isMayor()) {
+					if (TownyPerms.hasNode(resident, "towny.tax_exempt") || resident.isNPC() || resident.isMayor()) {
 						try {
 							TownyMessaging.sendResidentMessage(resident, Translation.of("MSG_TAX_EXEMPT"));
 						} catch (TownyException e) {
@@ -409,7 +409,7 @@ public class DailyTimerTask extends TownyTimerTask {
 				 */
 				if (universe.hasResident(resident.getName())) {
 					if (resident.hasTown() && resident.getTownOrNull() == town)
-						if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC())
+						if (TownyPerms.hasNode(resident, "towny.tax_exempt") || resident.isNPC())
 							continue;
 					
 					double tax = townBlock.getType().getTax(town);
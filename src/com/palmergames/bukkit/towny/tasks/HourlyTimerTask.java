@@ -3,11 +3,7 @@ package com.palmergames.bukkit.towny.tasks;
 import org.bukkit.Bukkit;
 
 import com.palmergames.bukkit.towny.Towny;
-import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.event.time.NewHourEvent;
-import com.palmergames.bukkit.towny.invites.InviteHandler;
-import com.palmergames.bukkit.towny.war.common.townruin.TownRuinSettings;
-import com.palmergames.bukkit.towny.war.common.townruin.TownRuinUtil;
 
 /**
  * This class represents the hourly timer task
@@ -24,13 +20,6 @@ public class HourlyTimerTask extends TownyTimerTask {
 
 	@Override
 	public void run() {
-		if (TownRuinSettings.getTownRuinsEnabled()) {
-			TownRuinUtil.evaluateRuinedTownRemovals();
-		}
-		
-		if (TownySettings.getInviteExpirationTime() > 0)
-			InviteHandler.searchForExpiredInvites();
-		
 		/*
 		 * Fire an event other plugins can use.
 		 */
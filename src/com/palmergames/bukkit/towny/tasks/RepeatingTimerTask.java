@@ -1,16 +1,16 @@
 package com.palmergames.bukkit.towny.tasks;
 
 import com.palmergames.bukkit.towny.Towny;
-import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-
-import java.util.ArrayList;
+import org.bukkit.Bukkit;
 
 public class RepeatingTimerTask extends TownyTimerTask {
 	private static final Logger LOGGER = LogManager.getLogger(Towny.class);
@@ -20,52 +20,48 @@ public class RepeatingTimerTask extends TownyTimerTask {
 		super(plugin);
 	}
 
-	private Long timerCounter = 0L;
+	// Captured snapshots waiting to be encoded, never more than one per worker.
+	private static final int MAX_SNAPSHOTS_IN_PROGRESS = Math.max(1, Runtime.getRuntime().availableProcessors());
 
 	@Override
 	public void run() {
 
-		// Perform a single block regen in each regen area, if any are left to do.
-		if (TownyRegenAPI.hasPlotChunks()) {
-			// only execute if the correct amount of time has passed.
-			if (Math.max(1L, TownySettings.getPlotManagementSpeed()) <= ++timerCounter) {
-				for (PlotBlockData plotChunk : new ArrayList<PlotBlockData>(TownyRegenAPI.getPlotChunks().values())) {
-					if (plotChunk != null && !plotChunk.restoreNextBlock()) {
-						TownyMessaging.sendDebugMsg("Revert on unclaim complete for " + plotChunk.getWorldName() + " " + plotChunk.getX() +"," + plotChunk.getZ());
-						TownyRegenAPI.deletePlotChunk(plotChunk);
-						TownyRegenAPI.deletePlotChunkSnapshot(plotChunk);
-					}
-				}
-				timerCounter = 0L;
-			}
-		}
-
 		/*
 		  The following actions should be performed every second.
 		 */
-		// Take a snapshot of the next townBlock and save.
+		/*
+		 * Take snapshots of as many townBlocks as fit in the time budget. Only
+		 * the chunks are captured here, encoding and saving is done async.
+		 */
 		if (TownyRegenAPI.hasWorldCoords()) {
-			try {
-				TownBlock townBlock = TownyRegenAPI.getWorldCoord().getTownBlock();
-				PlotBlockData plotChunk = new PlotBlockData(townBlock);
-				plotChunk.initialize(); // Create a new snapshot.
+			long deadline = System.nanoTime() + TownySettings.getPlotManagementSnapshotBudget() * 1000000L;
+			do {
+				if (TownyRegenAPI.getSnapshotsInProgress().size() >= MAX_SNAPSHOTS_IN_PROGRESS)
+					break;
 
-				if (!plotChunk.getBlockList().isEmpty() && !(plotChunk.getBlockList() == null)) {
-					TownyRegenAPI.addPlotChunkSnapshot(plotChunk); // Save the snapshot.
-				}
-				
-				townBlock.setLocked(false);
-				townBlock.save();
-				plugin.updateCache(townBlock.getWorldCoord());
+				WorldCoord worldCoord = TownyRegenAPI.getWorldCoord();
+				try {
+					TownBlock townBlock = worldCoord.getTownBlock();
+					PlotBlockData plotChunk = new PlotBlockData(townBlock);
+					plotChunk.captureChunkSnapshots();
+					TownyRegenAPI.addSnapshotInProgress(worldCoord);
 
-				if (!TownyRegenAPI.hasWorldCoords()) {
-					LOGGER.info("Plot snapshots completed.");
-				}
+					Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+						try {
+							plotChunk.initializeFromSnapshots(); // Create a new snapshot.
 
-			} catch (NotRegisteredException e) {
-				// Not a townblock so ignore.
-			}
+							if (plotChunk.getBlocks() != null && !plotChunk.getBlocks().isEmpty()) {
+								TownyRegenAPI.addPlotChunkSnapshot(plotChunk); // Save the snapshot.
+							}
+						} finally {
+							Bukkit.getScheduler().runTask(plugin, () -> finishSnapshot(townBlock, worldCoord));
+						}
+					});
 
+				} catch (NotRegisteredException e) {
+					// Not a townblock so ignore.
+				}
+			} while (TownyRegenAPI.hasWorldCoords() && System.nanoTime() < deadline);
 		}
 
 		// Perform the next plot_management block_delete
@@ -74,4 +70,24 @@ public class RepeatingTimerTask extends TownyTimerTask {
 		}
 	}
 
+	/*
+	 * Unlocks a townBlock once its snapshot has been taken and queued for saving.
+	 */
+	private void finishSnapshot(TownBlock townBlock, WorldCoord worldCoord) {
+
+		TownyRegenAPI.removeSnapshotInProgress(worldCoord);
+
+		// The plot may have been unclaimed while its snapshot was encoding, saving it would undo its deletion.
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		if (townyUniverse.hasTownBlock(worldCoord) && townyUniverse.getTownBlockOrNull(worldCoord) == townBlock) {
+			townBlock.setLocked(false);
+			townBlock.save();
+			plugin.updateCache(worldCoord);
+		}
+
+		if (!TownyRegenAPI.hasWorldCoords() && TownyRegenAPI.getSnapshotsInProgress().isEmpty()) {
+			LOGGER.info("Plot snapshots completed.");
+		}
+	}
+
 }
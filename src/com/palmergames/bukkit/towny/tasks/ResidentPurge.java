@@ -4,22 +4,29 @@ import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.util.BukkitTools;
 import org.bukkit.command.CommandSender;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
+ * Removes residents who have not logged in for a while, see {@link TownyJobExecutor}.
+ * 
  * @author ElgarL
  * 
  */
-public class ResidentPurge extends Thread {
+public class ResidentPurge extends TownyJob {
 
 	final Towny plugin;
-	private final CommandSender sender;
 	final long deleteTime;
 	final boolean townless;
 
+	private final List<Resident> residents = new ArrayList<>();
+	private int index = 0;
+	private int count = 0;
+
 	/**
 	 * @param plugin reference to Towny
 	 * @param sender reference to CommandSender
@@ -28,42 +35,66 @@ public class ResidentPurge extends Thread {
 	 */
 	public ResidentPurge(Towny plugin, CommandSender sender, long deleteTime, boolean townless) {
 
-		super();
+		// Only one purge runs at a time.
+		super(Translation.of("job_name_resident_purge"), sender, ResidentPurge.class);
 		this.plugin = plugin;
 		this.deleteTime = deleteTime;
-		this.setPriority(NORM_PRIORITY);
 		this.townless = townless;
-		this.sender = sender;
+	}
+
+	/**
+	 * @deprecated Submit the purge to {@link Towny#getJobExecutor()} instead.
+	 */
+	@Deprecated
+	public void start() {
+
+		plugin.getJobExecutor().submit(this);
 	}
 
 	@Override
-	public void run() {
+	protected void prepare() {
 
-		int count = 0;
+		message(Translation.of("msg_purge_scanning"));
+		for (Resident resident : new ArrayList<>(TownyUniverse.getInstance().getResidents())) {
+			if (isCancelled())
+				return;
+			if (isPurgeable(resident))
+				residents.add(resident);
+		}
+		setTotal(residents.size());
+	}
+
+	@Override
+	protected boolean apply(long deadline) {
 
-		message("Scanning for old residents...");
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
-		for (Resident resident : new ArrayList<>(townyUniverse.getResidents())) {
-			if (!resident.isNPC() && (System.currentTimeMillis() - resident.getLastOnline() > (this.deleteTime)) && !BukkitTools.isOnline(resident.getName())) {
-				if (townless && resident.hasTown()) {
-					continue;
-				}
+		while (index < residents.size()) {
+			Resident resident = residents.get(index++);
+			// Check again, the resident may have logged in since the scan.
+			if (townyUniverse.hasResident(resident.getName()) && isPurgeable(resident) && !BukkitTools.isOnline(resident.getName())) {
 				count++;
-				message("Deleting resident: " + resident.getName());
+				message(Translation.of("msg_purge_deleting_resident", resident.getName()));
 				townyUniverse.getDataSource().removeResident(resident);
 			}
+
+			setProgress(index);
+			if (System.nanoTime() > deadline)
+				break;
 		}
+		return index >= residents.size();
+	}
 
-		message("Resident purge complete: " + count + " deleted.");
+	private boolean isPurgeable(Resident resident) {
 
+		return !resident.isNPC() && (System.currentTimeMillis() - resident.getLastOnline() > (this.deleteTime)) && !(townless && resident.hasTown());
 	}
 
-	private void message(String msg) {
+	@Override
+	protected void finish() {
 
-		if (this.sender != null)
-			TownyMessaging.sendMessage(this.sender, msg);
+		if (isCancelled())
+			message(Translation.of("msg_purge_cancelled", count));
 		else
-			TownyMessaging.sendMsg(msg);
-
+			message(Translation.of("msg_purge_complete", count));
 	}
 }
@@ -0,0 +1,74 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownyMessaging.DebugCategory;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.regen.PlotBlockData;
+import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
+import com.palmergames.util.TimeTools;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reverts unclaimed plots to their snapshots.
+ *
+ * For each plot the blocks which differ from the snapshot are worked out off
+ * the main thread from a ChunkSnapshot, then restored on the main thread in
+ * batches. Every pass shares one time budget across all of the plots being
+ * reverted, starting each pass where the last one ran out of time.
+ */
+public class RevertOnUnclaimTimerTask extends TownyTimerTask {
+
+	private long tickCounter = 0L;
+	private int nextPlot = 0;
+
+	public RevertOnUnclaimTimerTask(Towny plugin) {
+
+		super(plugin);
+	}
+
+	@Override
+	public void run() {
+
+		if (!TownyRegenAPI.hasPlotChunks())
+			return;
+
+		// only execute if the correct amount of time has passed.
+		if (Math.max(1L, TimeTools.convertToTicks(TownySettings.getPlotManagementSpeed())) > ++tickCounter)
+			return;
+		tickCounter = 0L;
+
+		long deadline = System.nanoTime() + TownySettings.getPlotManagementRevertBudget() * 1000000L;
+		List<PlotBlockData> plotChunks = new ArrayList<>(TownyRegenAPI.getPlotChunks().values());
+		int start = nextPlot % plotChunks.size();
+		int i = 0;
+
+		for (; i < plotChunks.size() && System.nanoTime() < deadline; i++) {
+			PlotBlockData plotChunk = plotChunks.get((start + i) % plotChunks.size());
+
+			if (plotChunk == null || plotChunk.isRestoreDiffPending() || !plotChunk.isLoaded())
+				continue;
+
+			if (!plotChunk.hasRestoreDiff()) {
+				plotChunk.prepareRestoreDiff();
+				Bukkit.getScheduler().runTaskAsynchronously(plugin, plotChunk::computeRestoreDiff);
+				continue;
+			}
+
+			if (plotChunk.restoreBlocks(deadline) > 0)
+				TownyMessaging.sendDebugMsg(DebugCategory.PLOT_REVERT, () -> "Revert on unclaim " + plotChunk.getWorldName() + " " + plotChunk.getX() + "," + plotChunk.getZ() + ": " + plotChunk.getRestoreProgress() + "/" + plotChunk.getRestoreTotal() + " blocks.");
+
+			if (plotChunk.isRestoreComplete()) {
+				TownyMessaging.sendDebugMsg(DebugCategory.PLOT_REVERT, "Revert on unclaim complete for %s %s,%s", plotChunk.getWorldName(), plotChunk.getX(), plotChunk.getZ());
+				TownyRegenAPI.deletePlotChunk(plotChunk);
+				TownyRegenAPI.deletePlotChunkSnapshot(plotChunk);
+			}
+		}
+
+		// Carry on from the plot which ran out of time, or the next plot along if none did.
+		nextPlot = i < plotChunks.size() ? start + Math.max(0, i - 1) : start + 1;
+	}
+}
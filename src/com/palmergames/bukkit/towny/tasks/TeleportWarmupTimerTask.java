@@ -16,69 +16,56 @@ import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
 
-import java.util.ArrayDeque;
-import java.util.Arrays;
-import java.util.Queue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Teleports residents once their warmup has passed, each request is a timer
+ * on the {@link TownyTimingWheel}.
+ *
  * @author dumptruckman
  */
-public class TeleportWarmupTimerTask extends TownyTimerTask {
+public class TeleportWarmupTimerTask {
 
-	private static Queue<Resident> teleportQueue;
+	private static final Map<Resident, TownyTimingWheel.Timer> warmups = new ConcurrentHashMap<>();
 
-	public TeleportWarmupTimerTask(Towny plugin) {
+	public static void requestTeleport(Resident resident, Location spawnLoc) {
 
-		super(plugin);
-		teleportQueue = new ArrayDeque<>();
+		resident.setTeleportRequestTime();
+		resident.setTeleportDestination(spawnLoc);
+		TownyTimingWheel.Timer timer = Towny.getPlugin().getTimingWheel().schedule(TownySettings.getTeleportWarmupTime() * 1000L, () -> teleport(resident));
+		TownyTimingWheel.Timer previous = warmups.put(resident, timer);
+		if (previous != null)
+			previous.cancel();
 	}
 
-	@Override
-	public void run() {
+	private static void teleport(Resident resident) {
 
-		long currentTime = System.currentTimeMillis();
+		// A newer request has replaced this one.
+		TownyTimingWheel.Timer timer = warmups.get(resident);
+		if (timer != null && timer.isPending())
+			return;
+		warmups.remove(resident);
 
-		while (true) {
-			Resident resident = teleportQueue.peek();
-			if (resident == null)
-				break;
-			if (currentTime > resident.getTeleportRequestTime() + (TownySettings.getTeleportWarmupTime() * 1000)) {
-				resident.clearTeleportRequest();
-				
-				Player p = TownyAPI.getInstance().getPlayer(resident);
-				// Only teleport & add cooldown if player is valid
-				if (p != null) {
-					PaperLib.teleportAsync(p, resident.getTeleportDestination(), TeleportCause.COMMAND);
-					if (TownySettings.getSpawnCooldownTime() > 0)
-						CooldownTimerTask.addCooldownTimer(resident.getName(), CooldownType.TELEPORT);
-				}
-				
-				teleportQueue.poll();
-			} else {
-				break;
-			}
-		}
-	}
+		Location destination = resident.getTeleportDestination();
+		resident.clearTeleportRequest();
 
-	public static void requestTeleport(Resident resident, Location spawnLoc) {
-
-		resident.setTeleportRequestTime();
-		resident.setTeleportDestination(spawnLoc);
-		try {
-			if (teleportQueue.contains(resident))
-				teleportQueue.remove(resident);
-			teleportQueue.add(resident);
-		} catch (NullPointerException e) {
-			System.out.println("[Towny] Error: Null returned from teleport queue.");
-			System.out.println(Arrays.toString(e.getStackTrace()));
+		Player p = TownyAPI.getInstance().getPlayer(resident);
+		// Only teleport & add cooldown if player is valid
+		if (p != null && destination != null) {
+			PaperLib.teleportAsync(p, destination, TeleportCause.COMMAND);
+			if (TownySettings.getSpawnCooldownTime() > 0)
+				CooldownTimerTask.addCooldownTimer(resident.getName(), CooldownType.TELEPORT);
 		}
 	}
 
 	public static void abortTeleportRequest(Resident resident) {
 
-		if (resident != null && teleportQueue.contains(resident)) {
+		if (resident == null)
+			return;
+		TownyTimingWheel.Timer timer = warmups.remove(resident);
+		if (timer != null && timer.cancel()) {
 			resident.clearTeleportRequest();
-			teleportQueue.remove(resident);
 			if (resident.getTeleportCost() != 0 && TownyEconomyHandler.isActive()) {
 				try {
 					resident.getAccount().deposit(resident.getTeleportCost(), Translation.of("msg_cost_spawn_refund"));
@@ -91,4 +78,16 @@ public class TeleportWarmupTimerTask extends TownyTimerTask {
 			}
 		}
 	}
+
+	/**
+	 * Drops every waiting teleport, when teleport warmups are turned off.
+	 */
+	public static void clearTeleportRequests() {
+
+		for (Resident resident : warmups.keySet()) {
+			TownyTimingWheel.Timer timer = warmups.remove(resident);
+			if (timer != null && timer.cancel())
+				resident.clearTeleportRequest();
+		}
+	}
 }
@@ -10,6 +10,7 @@ import com.palmergames.bukkit.towny.event.TownClaimEvent;
 import com.palmergames.bukkit.towny.exceptions.AlreadyRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
+import com.palmergames.bukkit.towny.object.PlayerCache;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
@@ -20,30 +21,43 @@ import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.utils.AreaSelectionUtil;
 import com.palmergames.bukkit.util.BukkitTools;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
+ * Claims or unclaims a selection of townblocks, see {@link TownyJobExecutor}.
+ * 
  * @author ElgarL
  * 
  */
-public class TownClaim extends Thread {
+public class TownClaim extends TownyJob {
 
 	Towny plugin;
 	private final Player player;
 	private Location outpostLocation;
-	private volatile Town town;
+	private Town town;
 	private final List<WorldCoord> selection;
 	private boolean outpost;
 	private final boolean claim;
 	private final boolean forced;
 
+	// Worlds changed for each town modified by the job, to be saved when it finishes.
+	private final Map<Town, Set<TownyWorld>> changed = new LinkedHashMap<>();
+	private final Map<Town, Integer> unclaimed = new LinkedHashMap<>();
+	private TownyWorld world = null;
+	private int index = 0;
+
 	/**
 	 * @param plugin reference to towny
 	 * @param player Doing the claiming, or null
@@ -55,7 +69,7 @@ public class TownClaim extends Thread {
 	 */
 	public TownClaim(Towny plugin, Player player, Town town, List<WorldCoord> selection, boolean isOutpost, boolean claim, boolean forced) {
 
-		super();
+		super(Translation.of(claim ? "job_name_town_claim" : "job_name_town_unclaim"), player, getJobKeys(town, selection, claim));
 		this.plugin = plugin;
 		this.player = player;
 		if (this.player != null)
@@ -65,95 +79,152 @@ public class TownClaim extends Thread {
 		this.outpost = isOutpost;
 		this.claim = claim;
 		this.forced = forced;
-		this.setPriority(MIN_PRIORITY);
+	}
+
+	/*
+	 * A claim is serialised with the other jobs of the claiming town, an
+	 * unclaim with the jobs of every town owning part of the selection.
+	 */
+	private static Set<UUID> getJobKeys(Town town, List<WorldCoord> selection, boolean claim) {
+
+		Set<UUID> keys = new HashSet<>();
+		if (town != null)
+			keys.add(town.getUUID());
+		if (!claim && selection != null)
+			for (WorldCoord worldCoord : selection) {
+				TownBlock townBlock = worldCoord.getTownBlockOrNull();
+				if (townBlock != null && townBlock.hasTown())
+					keys.add(townBlock.getTownOrNull().getUUID());
+			}
+		return keys;
+	}
+
+	/**
+	 * @deprecated Submit the claim to {@link Towny#getJobExecutor()} instead.
+	 */
+	@Deprecated
+	public void start() {
+
+		plugin.getJobExecutor().submit(this);
 	}
 
 	@Override
-	public void run() {
-		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+	protected boolean apply(long deadline) {
 
-		List<TownyWorld> worlds = new ArrayList<>();
-		List<Town> towns = new ArrayList<>();
-		TownyWorld world = null;
-		if (player != null)
-			TownyMessaging.sendMsg(player, "Processing " + ((claim) ? "Town Claim..." : "Town unclaim..."));
+		if (selection == null) {
+			if (!claim)
+				confirmUnclaimAll();
+			return true;
+		}
 
-		if (selection != null) {
+		if (index == 0) {
+			if (player != null)
+				TownyMessaging.sendMsg(player, Translation.of(claim ? "msg_processing_town_claim" : "msg_processing_town_unclaim"));
+			setTotal(selection.size());
+		}
 
-			for (WorldCoord worldCoord : selection) {
+		while (index < selection.size()) {
+			WorldCoord worldCoord = selection.get(index++);
 
-				try {
-					world = worldCoord.getTownyWorld();
-					if (!worlds.contains(world))
-						worlds.add(world);
-
-					if (claim) {
-						// Claim						
-						townClaim(town, worldCoord, outpost, player);
-						// Reset so we only flag the first plot as an outpost.
-						outpost = false;
-					} else {
-						// Unclaim
-						this.town = worldCoord.getTownBlock().getTown();
-						townUnclaim(town, worldCoord, forced);
-					}
-
-					// Mark this town as modified for saving.
-					if (!towns.contains(town))
-						towns.add(town);
-					
-
-				} catch (NotRegisteredException e) {
-					// Invalid world
-					TownyMessaging.sendMsg(player, Translation.of("msg_err_not_configured"));
-				} catch (TownyException x) {
-					TownyMessaging.sendErrorMsg(player, x.getMessage());
+			try {
+				world = worldCoord.getTownyWorld();
+
+				if (claim) {
+					// Claim						
+					townClaim(town, worldCoord, outpost, player);
+					// Reset so we only flag the first plot as an outpost.
+					outpost = false;
+				} else {
+					// Unclaim
+					this.town = worldCoord.getTownBlock().getTown();
+					townUnclaim(town, worldCoord, forced);
+					unclaimed.merge(town, 1, Integer::sum);
 				}
 
+				// Mark this town and world as modified for saving.
+				changed.computeIfAbsent(town, t -> new LinkedHashSet<>()).add(world);
+
+			} catch (NotRegisteredException e) {
+				// Invalid world
+				TownyMessaging.sendMsg(player, Translation.of("msg_err_not_configured"));
+			} catch (TownyException x) {
+				TownyMessaging.sendErrorMsg(player, x.getMessage());
 			}
-		
-			if (!claim && TownySettings.getClaimRefundPrice() > 0.0) {
-				town.getAccount().deposit(TownySettings.getClaimRefundPrice()*selection.size(), "Town Unclaim Refund");
-				TownyMessaging.sendMsg(player, Translation.of("refund_message", TownySettings.getClaimRefundPrice()*selection.size(), selection.size()));
-			}
 
-		} else if (!claim) {
+			setProgress(index);
+			if (System.nanoTime() > deadline)
+				break;
+		}
+		return index >= selection.size();
+	}
+
+	private void confirmUnclaimAll() {
 
-			if (town == null) {
-				TownyMessaging.sendMsg(player, "Nothing to unclaim!");
-				return;
+		if (town == null) {
+			TownyMessaging.sendMsg(player, Translation.of("msg_nothing_to_unclaim"));
+			return;
+		}
+
+		Resident resident = player != null ? TownyUniverse.getInstance().getResident(player.getUniqueId()) : null;
+		if (resident == null) {
+			return;
+		}
+		int townSize = town.getTownBlocks().size() - 1; // size() - 1 because the homeblock will not be unclaimed.
+		double refund = TownySettings.getClaimRefundPrice() * townSize;
+		// Send confirmation message,
+		Confirmation.runOnAccept(() -> { 
+			TownClaim.townUnclaimAll(plugin, town);
+			if (TownyEconomyHandler.isActive() && refund > 0.0) {
+				town.getAccount().deposit(TownySettings.getClaimRefundPrice()*townSize - 1, "Town Unclaim Refund"); 
+				TownyMessaging.sendMsg(player, Translation.of("refund_message", TownySettings.getClaimRefundPrice()*townSize, townSize));
 			}
+		})
+		.sendTo(player);
+	}
+
+	@Override
+	protected void finish() {
+
+		if (selection == null)
+			return;
+
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
 
-			Resident resident = player != null ? townyUniverse.getResident(player.getUniqueId()) : null;
-			if (resident == null) {
-				return;
+		// Each town is refunded for the townblocks actually unclaimed from it, unless it has since been deleted.
+		if (TownySettings.getClaimRefundPrice() > 0.0) {
+			for (Map.Entry<Town, Integer> entry : unclaimed.entrySet()) {
+				if (!townyUniverse.hasTown(entry.getKey().getUUID()))
+					continue;
+				double refund = TownySettings.getClaimRefundPrice() * entry.getValue();
+				entry.getKey().getAccount().deposit(refund, "Town Unclaim Refund");
+				TownyMessaging.sendMsg(player, Translation.of("refund_message", refund, entry.getValue()));
 			}
-			int townSize = town.getTownBlocks().size() - 1; // size() - 1 because the homeblock will not be unclaimed.
-			double refund = TownySettings.getClaimRefundPrice() * townSize;
-			// Send confirmation message,
-			Confirmation.runOnAccept(() -> { 
-				TownClaim.townUnclaimAll(plugin, town);
-				if (TownyEconomyHandler.isActive() && refund > 0.0) {
-					town.getAccount().deposit(TownySettings.getClaimRefundPrice()*townSize - 1, "Town Unclaim Refund"); 
-					TownyMessaging.sendMsg(player, Translation.of("refund_message", TownySettings.getClaimRefundPrice()*townSize, townSize));
-				}
-			})
-			.sendTo(player);
 		}
 
-		if (!towns.isEmpty()) {
-			for (Town test : towns) {
-				test.save();
-			}
+		// A town deleted while the job ran has already had its file removed and its worlds saved.
+		Set<TownyWorld> worlds = new LinkedHashSet<>();
+		for (Map.Entry<Town, Set<TownyWorld>> entry : changed.entrySet()) {
+			if (!townyUniverse.hasTown(entry.getKey().getUUID()))
+				continue;
+			entry.getKey().save();
+			worlds.addAll(entry.getValue());
 		}
 
-		if (!worlds.isEmpty()) {
-			for (TownyWorld test : worlds) {
-				test.save();
-			}
+		for (TownyWorld test : worlds) {
+			test.save();
 		}
 
-		plugin.resetCache();
+		// Only the caches of players in the townblocks which changed hands are reset,
+		// unless the claims moved a nation zone in the wilderness around them.
+		for (WorldCoord worldCoord : selection.subList(0, index))
+			plugin.updateCache(worldCoord);
+		for (Map.Entry<Town, Set<TownyWorld>> entry : changed.entrySet())
+			invalidateNationZone(entry.getKey(), entry.getValue());
+
+		if (isCancelled()) {
+			message(Translation.of("msg_job_cancelled_after", getName(), index, selection.size()));
+			return;
+		}
 
 		if (player != null) {
 			if (claim) {
@@ -168,6 +239,17 @@ public class TownClaim extends Thread {
 		}
 	}
 
+	/*
+	 * A town in a nation has a nation zone around its claims, so claiming or unclaiming
+	 * changes which of the nearby wilderness is in a nation zone.
+	 */
+	private static void invalidateNationZone(Town town, Collection<TownyWorld> worlds) {
+
+		if (TownySettings.getNationZonesEnabled() && town.hasNation())
+			for (TownyWorld world : worlds)
+				PlayerCache.invalidate(world);
+	}
+
 	private void townClaim(Town town, WorldCoord worldCoord, boolean isOutpost, Player player) throws TownyException {
 
 		if (TownyUniverse.getInstance().hasTownBlock(worldCoord))
@@ -217,13 +299,7 @@ public class TownClaim extends Thread {
 				}
 			}
 
-			Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> {
-
-				
-				townyUniverse.getDataSource().removeTownBlock(townBlock);
-				
-			}, 1);
-			
+			townyUniverse.getDataSource().removeTownBlock(townBlock);
 
 		} catch (NotRegisteredException e) {
 			throw new TownyException(Translation.of("msg_not_claimed_1"));
@@ -233,22 +309,59 @@ public class TownClaim extends Thread {
 	// Unclaim event comes later in removeTownBlock().
 	public static void townUnclaimAll(Towny plugin, final Town town) {
 
-		Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> {
+		plugin.getJobExecutor().submit(new TownUnclaimAll(town));
+	}
 
-			// Prevent removing the homeblock
-			Collection<TownBlock> townBlocks = new ArrayList<>(town.getTownBlocks());
-			for (TownBlock townBlock : townBlocks) {
-				try {
-					if (!town.hasHomeBlock() || !townBlock.equals(town.getHomeBlock())) {
-						TownyUniverse.getInstance().getDataSource().removeTownBlock(townBlock);
-					}
-				} catch (TownyException ignore) {
-				}
+	/**
+	 * Unclaims every townblock of a town except its homeblock.
+	 */
+	private static class TownUnclaimAll extends TownyJob {
+
+		private final Town town;
+		private List<TownBlock> townBlocks = null;
+		private int index = 0;
+
+		TownUnclaimAll(Town town) {
+
+			super(Translation.of("job_name_town_unclaim_all"), null, town.getUUID());
+			this.town = town;
+		}
+
+		@Override
+		protected boolean apply(long deadline) {
+
+			if (townBlocks == null) {
+				townBlocks = new ArrayList<>(town.getTownBlocks());
+				setTotal(townBlocks.size());
 			}
-			
-			TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_abandoned_area_1"));
 
-		}, 1);
+			while (index < townBlocks.size()) {
+				TownBlock townBlock = townBlocks.get(index++);
+				// Prevent removing the homeblock
+				if (!townBlock.isHomeBlock() && townBlock.getTownOrNull() == town)
+					TownyUniverse.getInstance().getDataSource().removeTownBlock(townBlock);
 
+				setProgress(index);
+				if (System.nanoTime() > deadline)
+					break;
+			}
+			return index >= townBlocks.size();
+		}
+
+		@Override
+		protected void finish() {
+
+			if (townBlocks != null) {
+				Set<TownyWorld> worlds = new LinkedHashSet<>();
+				for (TownBlock townBlock : townBlocks.subList(0, index)) {
+					Towny.getPlugin().updateCache(townBlock.getWorldCoord());
+					worlds.add(townBlock.getWorld());
+				}
+				invalidateNationZone(town, worlds);
+			}
+
+			if (!isCancelled())
+				TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_abandoned_area_1"));
+		}
 	}
 }
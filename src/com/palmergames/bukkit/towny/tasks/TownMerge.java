@@ -0,0 +1,74 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.TownyEconomyHandler;
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.event.town.TownMergeEvent;
+import com.palmergames.bukkit.towny.event.town.TownPreMergeEvent;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.Translation;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import java.util.UUID;
+
+/**
+ * Merges one town into another once both towns' other jobs have finished, see {@link TownyJobExecutor}.
+ */
+public class TownMerge extends TownyJob {
+
+	private final Town remainingTown;
+	private final Town succumbingTown;
+	private final double cost;
+
+	/**
+	 * @param sender Who asked for the merge
+	 * @param remainingTown The town being merged into
+	 * @param succumbingTown The town which will be deleted
+	 * @param cost Paid by the remaining town
+	 */
+	public TownMerge(CommandSender sender, Town remainingTown, Town succumbingTown, double cost) {
+
+		super(Translation.of("job_name_town_merge"), sender, remainingTown.getUUID(), succumbingTown.getUUID());
+		this.remainingTown = remainingTown;
+		this.succumbingTown = succumbingTown;
+		this.cost = cost;
+	}
+
+	@Override
+	protected boolean apply(long deadline) {
+
+		// Either town may have been deleted while waiting.
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		if (!townyUniverse.hasTown(remainingTown.getUUID()) || !townyUniverse.hasTown(succumbingTown.getUUID())) {
+			TownyMessaging.sendErrorMsg(getSender(), Translation.of("msg_town_merge_failed"));
+			return true;
+		}
+
+		if (TownyEconomyHandler.isActive() && !remainingTown.getAccount().canPayFromHoldings(cost)) {
+			TownyMessaging.sendErrorMsg(getSender(), Translation.of("msg_town_merge_err_not_enough_money", (int) remainingTown.getAccount().getHoldingBalance(), (int) cost));
+			return true;
+		}
+
+		TownPreMergeEvent townPreMergeEvent = new TownPreMergeEvent(remainingTown, succumbingTown);
+		Bukkit.getPluginManager().callEvent(townPreMergeEvent);
+		if (townPreMergeEvent.isCancelled()) {
+			TownyMessaging.sendErrorMsg(succumbingTown.getMayor().getPlayer(), townPreMergeEvent.getCancelMessage());
+			TownyMessaging.sendErrorMsg(getSender(), townPreMergeEvent.getCancelMessage());
+			return true;
+		}
+
+		UUID succumbingTownUUID = succumbingTown.getUUID();
+		String succumbingTownName = succumbingTown.getName();
+
+		// Start merge
+		if (cost > 0) {
+			remainingTown.getAccount().withdraw(cost, Translation.of("msg_town_merge_cost_withdraw"));
+		}
+		townyUniverse.getDataSource().mergeTown(remainingTown, succumbingTown);
+
+		TownMergeEvent townMergeEvent = new TownMergeEvent(remainingTown, succumbingTownName, succumbingTownUUID);
+		Bukkit.getPluginManager().callEvent(townMergeEvent);
+		return true;
+	}
+}
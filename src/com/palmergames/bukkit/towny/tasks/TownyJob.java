@@ -0,0 +1,174 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.object.Translation;
+import org.bukkit.command.CommandSender;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A long running piece of work, such as a claim or a purge, run by the {@link TownyJobExecutor}.
+ *
+ * A job is run in three steps:
+ * {@link #prepare()} on a worker thread, to work out what has to change without changing anything,
+ * then {@link #apply(long)} on the main thread, once a tick, until every change has been made,
+ * and finally {@link #finish()} on the main thread, to save and report the result.
+ * Preparing is optional: a job which can not read what it needs off the main
+ * thread, such as a claim, does all of its work in {@link #apply(long)}.
+ *
+ * Jobs sharing a key (usually the UUID of the town they change) are run one at
+ * a time, in the order they were submitted.
+ */
+public abstract class TownyJob {
+
+	public enum State {
+		WAITING, PREPARING, APPLYING, FINISHED
+	}
+
+	private final String name;
+	private final CommandSender sender;
+	private final Set<Object> keys;
+
+	private volatile State state = State.WAITING;
+	private volatile boolean cancelled = false;
+	private volatile Exception failure = null;
+	private volatile int progress = 0;
+	private volatile int total = 0;
+	long lastReport;
+
+	/**
+	 * @param name - Translated name of the job, shown in progress messages.
+	 * @param sender - Who the progress is reported to, or null for the console.
+	 * @param keys - Keys this job must not run alongside other jobs of.
+	 */
+	protected TownyJob(String name, CommandSender sender, Object... keys) {
+
+		this(name, sender, Arrays.asList(keys));
+	}
+
+	protected TownyJob(String name, CommandSender sender, Collection<?> keys) {
+
+		this.name = name;
+		this.sender = sender;
+		this.keys = Collections.unmodifiableSet(new LinkedHashSet<>(keys));
+		this.lastReport = System.currentTimeMillis();
+	}
+
+	/**
+	 * Runs on a worker thread before the job is applied. Must not change any
+	 * Towny objects, and should check {@link #isCancelled()} while working.
+	 *
+	 * @throws Exception if the job can not be run, it is then finished without being applied.
+	 */
+	protected void prepare() throws Exception {}
+
+	/**
+	 * Runs on the main thread once a tick, making changes until the deadline
+	 * has passed. At least one change should be made on every call, so a job
+	 * always moves forward even when the tick is already over budget.
+	 *
+	 * @param deadline - {@link System#nanoTime()} at which to stop for this tick.
+	 * @return true once every change has been made.
+	 */
+	protected abstract boolean apply(long deadline);
+
+	/**
+	 * Runs on the main thread once the job has been applied, cancelled or has failed.
+	 */
+	protected void finish() {}
+
+	public String getName() {
+
+		return name;
+	}
+
+	public CommandSender getSender() {
+
+		return sender;
+	}
+
+	public Set<Object> getKeys() {
+
+		return keys;
+	}
+
+	public State getState() {
+
+		return state;
+	}
+
+	void setState(State state) {
+
+		this.state = state;
+	}
+
+	/**
+	 * Stops the job at the next opportunity. Changes which have already been applied are kept.
+	 */
+	public void cancel() {
+
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+
+		return cancelled;
+	}
+
+	/**
+	 * @return the exception which stopped the job, or null.
+	 */
+	public Exception getFailure() {
+
+		return failure;
+	}
+
+	void fail(Exception e) {
+
+		failure = e;
+	}
+
+	public int getProgress() {
+
+		return progress;
+	}
+
+	public int getTotal() {
+
+		return total;
+	}
+
+	protected void setProgress(int progress) {
+
+		this.progress = progress;
+	}
+
+	protected void setTotal(int total) {
+
+		this.total = total;
+	}
+
+	void reportProgress() {
+
+		if (total > 0)
+			message(Translation.of("msg_job_progress", name, progress, total));
+	}
+
+	protected void message(String msg) {
+
+		if (sender != null)
+			TownyMessaging.sendMessage(sender, msg);
+		else
+			TownyMessaging.sendMsg(msg);
+	}
+
+	@Override
+	public String toString() {
+
+		return name + " " + keys + " (" + state + ", " + progress + "/" + total + ")";
+	}
+}
@@ -0,0 +1,290 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.object.Translation;
+import com.palmergames.bukkit.towny.tasks.TownyJob.State;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link TownyJob}s, such as claims, unclaims and purges.
+ *
+ * Jobs are prepared on a small, fixed pool of worker threads, such as the
+ * scan for residents to purge, and their changes are applied on the main
+ * thread, a batch per tick within a time budget shared by every running job,
+ * so Towny objects are only ever changed on the main thread and a large job
+ * never stalls the server. Claims, unclaims and merges are not prepared, they
+ * only spread their work on the main thread across ticks.
+ *
+ * Jobs sharing a key are run one at a time in the order they were submitted,
+ * jobs with different keys run alongside each other.
+ */
+public class TownyJobExecutor {
+
+	// Main thread time spent applying jobs each tick.
+	private static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+	private static final long PROGRESS_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+	// How long a shutdown waits for jobs being prepared.
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+	private final Towny plugin;
+	private ThreadPoolExecutor pool = null;
+
+	// Every job which has not finished, may be read from any thread.
+	private final Set<TownyJob> jobs = ConcurrentHashMap.newKeySet();
+	// Jobs handed back by the workers once prepared.
+	private final Queue<TownyJob> prepared = new ConcurrentLinkedQueue<>();
+
+	// Main thread only.
+	private final List<TownyJob> waiting = new ArrayList<>();
+	private final List<TownyJob> applying = new ArrayList<>();
+	private final Set<Object> busyKeys = new HashSet<>();
+	private BukkitTask ticker = null;
+	private boolean shutdown = false;
+
+	public TownyJobExecutor(Towny plugin) {
+
+		this.plugin = plugin;
+	}
+
+	/*
+	 * The pool is created on first use, and again after a shutdown if Towny is re-enabled.
+	 */
+	private ThreadPoolExecutor getPool() {
+
+		if (pool == null) {
+			int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+			AtomicInteger threadCount = new AtomicInteger();
+			pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+				Thread thread = new Thread(runnable, "Towny Job Worker " + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			});
+			pool.allowCoreThreadTimeOut(true);
+		}
+		return pool;
+	}
+
+	/**
+	 * Queues a job, starting it as soon as no earlier job with one of its keys is running.
+	 * May be called from any thread.
+	 *
+	 * @param job - Job to run.
+	 * @return the job, to follow its progress or cancel it.
+	 */
+	public <J extends TownyJob> J submit(J job) {
+
+		if (!Bukkit.isPrimaryThread()) {
+			Bukkit.getScheduler().runTask(plugin, () -> submit(job));
+			return job;
+		}
+
+		if (shutdown) {
+			runNow(job);
+			return job;
+		}
+
+		jobs.add(job);
+		waiting.add(job);
+		dispatch();
+		if (ticker == null)
+			ticker = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+		return job;
+	}
+
+	/**
+	 * Cancels every unfinished job with the given key. May be called from any thread.
+	 *
+	 * @param key - Key of the jobs to cancel, such as a town's UUID.
+	 * @return the number of jobs cancelled.
+	 */
+	public int cancel(Object key) {
+
+		int count = 0;
+		for (TownyJob job : jobs)
+			if (job.getKeys().contains(key) && !job.isCancelled()) {
+				job.cancel();
+				count++;
+			}
+		return count;
+	}
+
+	/**
+	 * @return every job which has not finished yet.
+	 */
+	public List<TownyJob> getJobs() {
+
+		return Collections.unmodifiableList(new ArrayList<>(jobs));
+	}
+
+	/*
+	 * Starts every waiting job whose keys are free. A job which can not start
+	 * holds its keys for the jobs behind it, so jobs sharing a key keep their order.
+	 */
+	private void dispatch() {
+
+		Set<Object> blocked = new HashSet<>(busyKeys);
+		Iterator<TownyJob> iterator = waiting.iterator();
+		while (iterator.hasNext()) {
+			TownyJob job = iterator.next();
+			if (job.isCancelled()) {
+				iterator.remove();
+				finish(job);
+				continue;
+			}
+			if (!Collections.disjoint(blocked, job.getKeys())) {
+				blocked.addAll(job.getKeys());
+				continue;
+			}
+			iterator.remove();
+			blocked.addAll(job.getKeys());
+			busyKeys.addAll(job.getKeys());
+			prepare(job);
+		}
+	}
+
+	private void prepare(TownyJob job) {
+
+		job.setState(State.PREPARING);
+		getPool().execute(() -> {
+			try {
+				if (!job.isCancelled())
+					job.prepare();
+			} catch (Exception e) {
+				job.fail(e);
+			}
+			prepared.add(job);
+		});
+	}
+
+	private void tick() {
+
+		TownyJob job;
+		while ((job = prepared.poll()) != null) {
+			job.setState(State.APPLYING);
+			applying.add(job);
+		}
+
+		long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+		long now = System.currentTimeMillis();
+		boolean finishedAny = false;
+		for (TownyJob next : new ArrayList<>(applying)) {
+			if (applyBatch(next, deadline)) {
+				applying.remove(next);
+				busyKeys.removeAll(next.getKeys());
+				finish(next);
+				finishedAny = true;
+			} else if (now - next.lastReport >= PROGRESS_INTERVAL_MILLIS) {
+				next.lastReport = now;
+				next.reportProgress();
+			}
+		}
+		// Let the job which ran last have the start of the next tick's budget.
+		if (applying.size() > 1)
+			Collections.rotate(applying, 1);
+
+		if (finishedAny)
+			dispatch();
+
+		if (jobs.isEmpty() && ticker != null) {
+			ticker.cancel();
+			ticker = null;
+		}
+	}
+
+	private boolean applyBatch(TownyJob job, long deadline) {
+
+		if (job.isCancelled() || job.getFailure() != null)
+			return true;
+		try {
+			return job.apply(deadline);
+		} catch (Exception e) {
+			job.fail(e);
+			return true;
+		}
+	}
+
+	private void finish(TownyJob job) {
+
+		job.setState(State.FINISHED);
+		jobs.remove(job);
+		if (job.getFailure() != null)
+			TownyMessaging.sendErrorMsg(Translation.of("msg_err_job_failed", job.getName(), job.getFailure().getMessage()));
+		try {
+			job.finish();
+		} catch (Exception e) {
+			TownyMessaging.sendErrorMsg(Translation.of("msg_err_job_could_not_finish", job.getName(), e.getMessage()));
+		}
+	}
+
+	private void runNow(TownyJob job) {
+
+		try {
+			job.prepare();
+		} catch (Exception e) {
+			job.fail(e);
+		}
+		job.setState(State.APPLYING);
+		while (!applyBatch(job, Long.MAX_VALUE));
+		finish(job);
+	}
+
+	/**
+	 * Completes the jobs already started on the calling thread, so no job is
+	 * left half applied when Towny is disabled. Jobs which have not started yet
+	 * are cancelled, and jobs submitted while shutting down are run straight away.
+	 */
+	public void shutdown() {
+
+		shutdown = true;
+		if (ticker != null) {
+			ticker.cancel();
+			ticker = null;
+		}
+
+		for (TownyJob job : waiting) {
+			job.cancel();
+			finish(job);
+		}
+		waiting.clear();
+
+		if (pool != null) {
+			pool.shutdown();
+			try {
+				if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+					TownyMessaging.sendErrorMsg(Translation.of("msg_err_jobs_abandoned", SHUTDOWN_TIMEOUT_SECONDS));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			pool = null;
+		}
+
+		TownyJob job;
+		while ((job = prepared.poll()) != null)
+			applying.add(job);
+		for (TownyJob next : applying) {
+			while (!applyBatch(next, Long.MAX_VALUE));
+			finish(next);
+		}
+		applying.clear();
+		busyKeys.clear();
+		jobs.clear();
+		shutdown = false;
+	}
+}
@@ -0,0 +1,331 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyMessaging;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs Towny's time based expiries, such as cooldowns, teleport warmups,
+ * invites, confirmations and ruined towns, from a single hierarchical timing wheel.
+ *
+ * The wheel turns once a server tick. Timers due within the next 256 ticks
+ * sit in the first level, one slot per tick; later timers sit in coarser
+ * levels and are moved down a level as their time comes closer. Scheduling,
+ * cancelling and expiring a timer are all O(1), however many timers are waiting.
+ *
+ * Expired timers are run on the main thread, or handed to one asynchronous task
+ * per tick if they were scheduled as async. The wheel follows the wall clock,
+ * so timers are not delayed when the server is lagging.
+ */
+public class TownyTimingWheel {
+
+	private static final long TICK_MILLIS = 50;
+	// The first level has 2^8 slots, each further level 2^6 slots.
+	private static final int FIRST_BITS = 8;
+	private static final int LEVEL_BITS = 6;
+	private static final int LEVELS = 5;
+	// The furthest ahead a timer can be placed, about 6 years.
+	private static final long MAX_TICKS = (1L << (FIRST_BITS + LEVEL_BITS * (LEVELS - 1))) - 1;
+
+	private final Towny plugin;
+	private final long startMillis = System.currentTimeMillis();
+	// Slot lists, guarded by this.
+	private final Timer[][] slots = new Timer[LEVELS][];
+	private long currentTick = 0;
+	private int size = 0;
+	private BukkitTask ticker = null;
+
+	public TownyTimingWheel(Towny plugin) {
+
+		this.plugin = plugin;
+		slots[0] = new Timer[1 << FIRST_BITS];
+		for (int level = 1; level < LEVELS; level++)
+			slots[level] = new Timer[1 << LEVEL_BITS];
+	}
+
+	/**
+	 * A scheduled expiry, which can be cancelled until it has run.
+	 */
+	public static final class Timer {
+
+		private final TownyTimingWheel wheel;
+		private final Runnable action;
+		private final boolean async;
+		private final long expiresAt;
+		private final long expiryTick;
+		// Position in the wheel, guarded by the wheel.
+		private Timer prev, next;
+		private int level = -1, slot;
+		private volatile boolean pending = true;
+
+		private Timer(TownyTimingWheel wheel, Runnable action, boolean async, long expiresAt, long expiryTick) {
+
+			this.wheel = wheel;
+			this.action = action;
+			this.async = async;
+			this.expiresAt = expiresAt;
+			this.expiryTick = expiryTick;
+		}
+
+		/**
+		 * Stops the timer from running.
+		 *
+		 * @return true if the timer was cancelled, false if it had already run or been cancelled.
+		 */
+		public boolean cancel() {
+
+			return wheel.cancel(this);
+		}
+
+		/**
+		 * @return true until the timer has run or been cancelled.
+		 */
+		public boolean isPending() {
+
+			return pending;
+		}
+
+		/**
+		 * @return {@link System#currentTimeMillis()} at which the timer runs.
+		 */
+		public long getExpiry() {
+
+			return expiresAt;
+		}
+
+		public long getRemainingMillis() {
+
+			return Math.max(0, expiresAt - System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Runs an action on the main thread once a delay has passed.
+	 * May be called from any thread.
+	 *
+	 * @param delayMillis - Milliseconds to wait.
+	 * @param action - Action to run.
+	 * @return a handle which can cancel the timer.
+	 */
+	public Timer schedule(long delayMillis, Runnable action) {
+
+		return schedule(delayMillis, false, action);
+	}
+
+	/**
+	 * Runs an action once a delay has passed. May be called from any thread.
+	 *
+	 * @param delayMillis - Milliseconds to wait.
+	 * @param async - Run the action off the main thread.
+	 * @param action - Action to run.
+	 * @return a handle which can cancel the timer.
+	 */
+	public Timer schedule(long delayMillis, boolean async, Runnable action) {
+
+		long expiresAt = System.currentTimeMillis() + Math.max(0, delayMillis);
+		boolean startTicker;
+		Timer timer;
+		synchronized (this) {
+			// An empty wheel does not turn, catch it up before placing the timer.
+			if (size == 0)
+				currentTick = Math.max(currentTick, tickAt(System.currentTimeMillis()));
+			long expiryTick = Math.max(currentTick + 1, Math.min(currentTick + MAX_TICKS, ceilTickAt(expiresAt)));
+			timer = new Timer(this, action, async, expiresAt, expiryTick);
+			add(timer);
+			size++;
+			startTicker = ticker == null;
+		}
+		if (startTicker)
+			startTicker();
+		return timer;
+	}
+
+	private synchronized boolean cancel(Timer timer) {
+
+		if (!timer.pending)
+			return false;
+		timer.pending = false;
+		unlink(timer);
+		size--;
+		return true;
+	}
+
+	private void startTicker() {
+
+		if (Bukkit.isPrimaryThread()) {
+			synchronized (this) {
+				if (ticker != null)
+					return;
+				ticker = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+			}
+		} else {
+			Bukkit.getScheduler().runTask(plugin, this::startTicker);
+		}
+	}
+
+	private long tickAt(long millis) {
+
+		return (millis - startMillis) / TICK_MILLIS;
+	}
+
+	private long ceilTickAt(long millis) {
+
+		return (millis - startMillis + TICK_MILLIS - 1) / TICK_MILLIS;
+	}
+
+	/*
+	 * Places a timer in the level whose span covers the time left until it expires.
+	 */
+	private void add(Timer timer) {
+
+		long delta = timer.expiryTick - currentTick;
+		int level = 0;
+		int shift = 0;
+		if (delta >= (1L << FIRST_BITS)) {
+			level = 1;
+			shift = FIRST_BITS;
+			while (level < LEVELS - 1 && delta >= (1L << (shift + LEVEL_BITS))) {
+				level++;
+				shift += LEVEL_BITS;
+			}
+		}
+		int slot = (int) ((timer.expiryTick >>> shift) & (slots[level].length - 1));
+
+		timer.level = level;
+		timer.slot = slot;
+		timer.prev = null;
+		timer.next = slots[level][slot];
+		if (timer.next != null)
+			timer.next.prev = timer;
+		slots[level][slot] = timer;
+	}
+
+	private void unlink(Timer timer) {
+
+		if (timer.prev != null)
+			timer.prev.next = timer.next;
+		else
+			slots[timer.level][timer.slot] = timer.next;
+		if (timer.next != null)
+			timer.next.prev = timer.prev;
+		timer.prev = null;
+		timer.next = null;
+		timer.level = -1;
+	}
+
+	/*
+	 * Takes every timer out of a slot, to be placed again.
+	 */
+	private Timer detach(int level, int slot) {
+
+		Timer head = slots[level][slot];
+		slots[level][slot] = null;
+		return head;
+	}
+
+	private void tick() {
+
+		List<Timer> expired = new ArrayList<>();
+		synchronized (this) {
+			long targetTick = tickAt(System.currentTimeMillis());
+			while (currentTick < targetTick && size > 0) {
+				currentTick++;
+				int index = (int) (currentTick & (slots[0].length - 1));
+
+				// Once the first level has gone round, bring the next slot of each coarser level down.
+				if (index == 0) {
+					int shift = FIRST_BITS;
+					for (int level = 1; level < LEVELS; level++) {
+						int slot = (int) ((currentTick >>> shift) & (slots[level].length - 1));
+						Timer timer = detach(level, slot);
+						while (timer != null) {
+							Timer next = timer.next;
+							add(timer);
+							timer = next;
+						}
+						if (slot != 0)
+							break;
+						shift += LEVEL_BITS;
+					}
+				}
+
+				Timer timer = detach(0, index);
+				while (timer != null) {
+					Timer next = timer.next;
+					timer.prev = null;
+					timer.next = null;
+					timer.level = -1;
+					timer.pending = false;
+					size--;
+					expired.add(timer);
+					timer = next;
+				}
+			}
+			if (size == 0) {
+				currentTick = Math.max(currentTick, targetTick);
+				if (ticker != null) {
+					ticker.cancel();
+					ticker = null;
+				}
+			}
+		}
+
+		List<Timer> async = null;
+		for (Timer timer : expired) {
+			if (timer.async) {
+				if (async == null)
+					async = new ArrayList<>();
+				async.add(timer);
+			} else {
+				run(timer);
+			}
+		}
+		if (async != null) {
+			List<Timer> lane = async;
+			Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> lane.forEach(TownyTimingWheel::run));
+		}
+	}
+
+	private static void run(Timer timer) {
+
+		try {
+			timer.action.run();
+		} catch (Exception e) {
+			TownyMessaging.sendErrorMsg("A Towny timer failed: " + e.getMessage());
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * @return the number of timers waiting to run.
+	 */
+	public synchronized int size() {
+
+		return size;
+	}
+
+	/**
+	 * Stops the wheel and drops every waiting timer, when Towny is disabled.
+	 */
+	public synchronized void shutdown() {
+
+		if (ticker != null) {
+			ticker.cancel();
+			ticker = null;
+		}
+		for (Timer[] level : slots)
+			for (int slot = 0; slot < level.length; slot++) {
+				Timer timer = level[slot];
+				while (timer != null) {
+					timer.pending = false;
+					timer = timer.next;
+				}
+				level[slot] = null;
+			}
+		size = 0;
+	}
+}
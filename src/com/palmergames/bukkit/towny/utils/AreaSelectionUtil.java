@@ -1,6 +1,7 @@
 package com.palmergames.bukkit.towny.utils;
 
 import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownyMessaging.DebugCategory;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
@@ -10,6 +11,7 @@ import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownBlockOwner;
+import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.util.MathUtil;
@@ -17,7 +19,11 @@ import com.palmergames.util.StringMgmt;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 import org.bukkit.Location;
 
@@ -269,17 +275,8 @@ public class AreaSelectionUtil {
 	 */
 	public static List<WorldCoord> filterInvalidProximityTownBlocks(List<WorldCoord> selection, Town town) {
 
-		List<WorldCoord> out = new ArrayList<>();
-		for (WorldCoord worldCoord : selection)
-			try {
-				if (worldCoord.getTownyWorld().getMinDistanceFromOtherTownsPlots(worldCoord, town) >= TownySettings.getMinDistanceFromTownPlotblocks()) {
-					out.add(worldCoord);
-				} else {
-					TownyMessaging.sendDebugMsg("AreaSelectionUtil:filterInvalidProximity - Coord: " + worldCoord + " too close to another town." );					
-				}
-			} catch (NotRegisteredException ignored) {
-			}
-		return out;
+		final int minDistance = TownySettings.getMinDistanceFromTownPlotblocks();
+		return filterByProximity(selection, minDistance, (world, coords) -> world.getMinDistancesFromOtherTownsPlots(coords, town, minDistance), "too close to another town.");
 	}
 	
 	/**
@@ -293,16 +290,39 @@ public class AreaSelectionUtil {
 	 */
 	public static List<WorldCoord> filterInvalidProximityToHomeblock(List<WorldCoord> selection, Town town) {
 
-		List<WorldCoord> out = new ArrayList<>();
+		final int minDistance = TownySettings.getMinDistanceFromTownHomeblocks();
+		return filterByProximity(selection, minDistance, (world, coords) -> world.getMinDistancesFromOtherTowns(coords, town, minDistance), "too close to another town's homeblock.");
+	}
+
+	/*
+	 * Measures the whole selection in one batch per world, keeping the coords at least minDistance away, in their original order.
+	 */
+	private static List<WorldCoord> filterByProximity(List<WorldCoord> selection, int minDistance, BiFunction<TownyWorld, List<WorldCoord>, int[]> distances, String reason) {
+
+		Map<TownyWorld, List<WorldCoord>> byWorld = new LinkedHashMap<>();
 		for (WorldCoord worldCoord : selection)
 			try {
-				if (worldCoord.getTownyWorld().getMinDistanceFromOtherTowns(worldCoord, town) >= TownySettings.getMinDistanceFromTownHomeblocks()) {
-					out.add(worldCoord);
+				byWorld.computeIfAbsent(worldCoord.getTownyWorld(), k -> new ArrayList<>()).add(worldCoord);
+			} catch (NotRegisteredException ignored) {
+			}
+
+		Set<WorldCoord> valid = new HashSet<>();
+		for (Map.Entry<TownyWorld, List<WorldCoord>> entry : byWorld.entrySet()) {
+			List<WorldCoord> coords = entry.getValue();
+			int[] minDistances = distances.apply(entry.getKey(), coords);
+			for (int i = 0; i < coords.size(); i++) {
+				if (minDistances[i] >= minDistance) {
+					valid.add(coords.get(i));
 				} else {
-					TownyMessaging.sendDebugMsg("AreaSelectionUtil:filterInvalidProximity - Coord: " + worldCoord + " too close to another town's homeblock." );					
+					TownyMessaging.sendDebugMsg(DebugCategory.CLAIMS, "AreaSelectionUtil:filterInvalidProximity - Coord: %s %s", coords.get(i), reason);
 				}
-			} catch (NotRegisteredException ignored) {
 			}
+		}
+
+		List<WorldCoord> out = new ArrayList<>();
+		for (WorldCoord worldCoord : selection)
+			if (valid.contains(worldCoord))
+				out.add(worldCoord);
 		return out;
 	}
 	
@@ -0,0 +1,291 @@
+package com.palmergames.bukkit.towny.utils;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownUnclaimEvent;
+import com.palmergames.bukkit.towny.event.town.TownMergeEvent;
+import com.palmergames.bukkit.towny.object.CellBorder;
+import com.palmergames.bukkit.towny.object.Coord;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import org.bukkit.Bukkit;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Caches what it takes to draw plot and town borders: the outline of each
+ * plot and each town, and the surface height along the edges of each plot.
+ *
+ * Outlines are dropped when the plot or town they outline is claimed,
+ * unclaimed, merged or deleted. Surface heights are read from the world on
+ * the main thread and kept for a short while, so the border tasks can build
+ * and send their particles from any thread without touching the world.
+ */
+public class BorderCache implements Listener {
+
+	// Blocks are placed and broken without Towny knowing, so heights are only trusted for a while.
+	private static final long SURFACE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+	private static final int MAX_SURFACES = 4096;
+
+	private final Towny plugin;
+	private final Map<WorldCoord, Surface> surfaces = new ConcurrentHashMap<>();
+	private final Map<WorldCoord, List<CellBorder>> plotBorders = new ConcurrentHashMap<>();
+	private final Map<UUID, List<CellBorder>> townBorders = new ConcurrentHashMap<>();
+
+	public BorderCache(Towny plugin) {
+
+		this.plugin = plugin;
+	}
+
+	/*
+	 * The height of the surface along the edges of a plot, as it was when read.
+	 */
+	private static final class Surface {
+
+		final long readAt = System.currentTimeMillis();
+		final int maxHeight;
+		// Indexed by the column's offset in the plot, x * cell size + z. Only edge columns are read.
+		final int[] heights;
+
+		Surface(int maxHeight, int[] heights) {
+
+			this.maxHeight = maxHeight;
+			this.heights = heights;
+		}
+
+		boolean isFresh() {
+
+			return System.currentTimeMillis() - readAt < SURFACE_MILLIS;
+		}
+	}
+
+	/**
+	 * Particles ready to be sent to a player, built without touching the world.
+	 */
+	public static final class ParticleBatch {
+
+		// x, y, z of each particle.
+		private final double[] points;
+
+		private ParticleBatch(double[] points) {
+
+			this.points = points;
+		}
+
+		public int size() {
+
+			return points.length / 3;
+		}
+
+		/**
+		 * Shows the particles to a player. May be called from any thread.
+		 *
+		 * @param player - Player to see the particles.
+		 */
+		public void sendTo(Player player) {
+
+			for (int i = 0; i < points.length; i += 3)
+				player.spawnParticle(Particle.SMOKE_NORMAL, points[i], points[i + 1], points[i + 2], 5, 0, 0, 0, 0);
+		}
+	}
+
+	/**
+	 * Shows the border of a single plot to a player. May be called from any thread.
+	 *
+	 * @param player - Player to see the border.
+	 * @param worldCoord - Plot to outline.
+	 */
+	public void drawPlotBorder(Player player, WorldCoord worldCoord) {
+
+		drawBorders(player, getPlotBorder(worldCoord), 1, 2);
+	}
+
+	/**
+	 * @param worldCoord - Plot to outline.
+	 * @return the plot's border, worked out once until the plot is claimed or unclaimed.
+	 */
+	public List<CellBorder> getPlotBorder(WorldCoord worldCoord) {
+
+		List<CellBorder> border = plotBorders.get(worldCoord);
+		if (border != null)
+			return border;
+
+		if (plotBorders.size() >= MAX_SURFACES)
+			plotBorders.clear();
+		border = Collections.singletonList(BorderUtil.getPlotBorder(worldCoord));
+		plotBorders.put(new WorldCoord(worldCoord.getWorldName(), worldCoord.getX(), worldCoord.getZ()), border);
+		return border;
+	}
+
+	/**
+	 * @param town - Town to outline.
+	 * @return the town's plots which have a border, worked out once until the town's claims change.
+	 */
+	public List<CellBorder> getTownBorder(Town town) {
+
+		return townBorders.computeIfAbsent(town.getUUID(), uuid -> Collections.unmodifiableList(
+			BorderUtil.getOuterBorder(town.getTownBlocks().stream().map(TownBlock::getWorldCoord).collect(Collectors.toList()))));
+	}
+
+	/**
+	 * Shows borders to a player. May be called from any thread, if any of
+	 * the plots' surfaces has to be read first the particles are sent from
+	 * the main thread once it has been.
+	 *
+	 * @param player - Player to see the borders.
+	 * @param borders - Borders to draw.
+	 * @param wallHeight - Height of the walls, in blocks.
+	 * @param cornerHeight - Height of the corners, in blocks.
+	 */
+	public void drawBorders(Player player, Collection<CellBorder> borders, int wallHeight, int cornerHeight) {
+
+		ParticleBatch batch = getParticles(borders, wallHeight, cornerHeight);
+		if (batch != null) {
+			batch.sendTo(player);
+			return;
+		}
+
+		Runnable draw = () -> {
+			readSurfaces(borders);
+			ParticleBatch read = getParticles(borders, wallHeight, cornerHeight);
+			if (read != null && player.isOnline())
+				read.sendTo(player);
+		};
+		if (Bukkit.isPrimaryThread())
+			draw.run();
+		else
+			Bukkit.getScheduler().runTask(plugin, draw);
+	}
+
+	/**
+	 * Builds the particles for borders from the cached surfaces. May be called from any thread.
+	 *
+	 * @param borders - Borders to draw.
+	 * @param wallHeight - Height of the walls, in blocks.
+	 * @param cornerHeight - Height of the corners, in blocks.
+	 * @return the particles, or null if a plot's surface has not been read lately.
+	 */
+	public ParticleBatch getParticles(Collection<CellBorder> borders, int wallHeight, int cornerHeight) {
+
+		int cellSize = Coord.getCellSize();
+		double[] points = new double[borders.size() * 64];
+		int count = 0;
+
+		for (CellBorder border : borders) {
+			Surface surface = surfaces.get(border);
+			if (surface == null || !surface.isFresh())
+				return null;
+
+			for (CellBorder.Section section : CellBorder.Section.values()) {
+				int height = section.getType() == CellBorder.Section.Type.WALL ? wallHeight : cornerHeight;
+				if (!border.hasBorderAt(section) || height <= 0)
+					continue;
+
+				int[] bounds = border.getSectionBounds(section);
+				for (int z = Math.min(bounds[1], bounds[3]); z <= Math.max(bounds[1], bounds[3]); z++) {
+					for (int x = Math.min(bounds[0], bounds[2]); x <= Math.max(bounds[0], bounds[2]); x++) {
+						int start = surface.heights[(x - border.getBlockX()) * cellSize + (z - border.getBlockZ())];
+						int end = (start + height) < surface.maxHeight ? (start + height - 1) : surface.maxHeight;
+						for (int y = start; y <= end; y++) {
+							if (count + 3 > points.length)
+								points = Arrays.copyOf(points, points.length * 2 + 3);
+							// Centred on the block, above the surface.
+							points[count++] = x + 0.5;
+							points[count++] = y + 1.5;
+							points[count++] = z + 0.5;
+						}
+					}
+				}
+			}
+		}
+		return new ParticleBatch(Arrays.copyOf(points, count));
+	}
+
+	/*
+	 * Reads the surface along the edges of every plot which has not been read lately. Main thread only.
+	 */
+	private void readSurfaces(Collection<? extends WorldCoord> worldCoords) {
+
+		int cellSize = Coord.getCellSize();
+		int w = cellSize - 1;
+
+		for (WorldCoord worldCoord : worldCoords) {
+			Surface cached = surfaces.get(worldCoord);
+			if (cached != null && cached.isFresh())
+				continue;
+			World world = worldCoord.getBukkitWorld();
+			if (world == null)
+				continue;
+
+			int blockX = worldCoord.getX() * cellSize;
+			int blockZ = worldCoord.getZ() * cellSize;
+			int[] heights = new int[cellSize * cellSize];
+			for (int x = 0; x < cellSize; x++)
+				for (int z = 0; z < cellSize; z++)
+					if (x == 0 || x == w || z == 0 || z == w)
+						heights[x * cellSize + z] = world.getHighestBlockYAt(blockX + x, blockZ + z);
+
+			if (surfaces.size() >= MAX_SURFACES)
+				surfaces.values().removeIf(surface -> !surface.isFresh());
+			if (surfaces.size() >= MAX_SURFACES)
+				surfaces.clear();
+			surfaces.put(new WorldCoord(worldCoord.getWorldName(), worldCoord.getX(), worldCoord.getZ()), new Surface(world.getMaxHeight(), heights));
+		}
+	}
+
+	/**
+	 * Forgets every cached outline and surface, when Towny is reloaded.
+	 */
+	public void clear() {
+
+		surfaces.clear();
+		plotBorders.clear();
+		townBorders.clear();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownClaim(TownClaimEvent event) {
+
+		plotBorders.remove(event.getTownBlock().getWorldCoord());
+		Town town = event.getTownBlock().getTownOrNull();
+		if (town != null)
+			townBorders.remove(town.getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownUnclaim(TownUnclaimEvent event) {
+
+		plotBorders.remove(event.getWorldCoord());
+		if (event.getTown() != null)
+			townBorders.remove(event.getTown().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownMerge(TownMergeEvent event) {
+
+		townBorders.remove(event.getRemainingTown().getUUID());
+		townBorders.remove(event.getSuccumbingTownUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownDelete(DeleteTownEvent event) {
+
+		townBorders.remove(event.getTownUUID());
+	}
+}
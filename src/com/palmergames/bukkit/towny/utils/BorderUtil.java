@@ -4,7 +4,9 @@ import com.palmergames.bukkit.towny.object.CellBorder;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Chris H (Zren / Shade)
@@ -14,17 +16,19 @@ public class BorderUtil {
 
 	public static List<CellBorder> getOuterBorder(List<WorldCoord> worldCoords) {
 
+		// Neighbours are looked up in a set, so a large area costs no more per plot than a small one.
+		Set<WorldCoord> area = new HashSet<>(worldCoords);
 		List<CellBorder> borderCoords = new ArrayList<CellBorder>();
 		for (WorldCoord worldCoord : worldCoords) {
 			CellBorder border = new CellBorder(worldCoord, new boolean[] {
-					!worldCoords.contains(worldCoord.add(-1, 0)),
-					!worldCoords.contains(worldCoord.add(-1, -1)),
-					!worldCoords.contains(worldCoord.add(0, -1)),
-					!worldCoords.contains(worldCoord.add(1, -1)),
-					!worldCoords.contains(worldCoord.add(1, 0)),
-					!worldCoords.contains(worldCoord.add(1, 1)),
-					!worldCoords.contains(worldCoord.add(0, 1)),
-					!worldCoords.contains(worldCoord.add(-1, 1)) });
+					!area.contains(worldCoord.add(-1, 0)),
+					!area.contains(worldCoord.add(-1, -1)),
+					!area.contains(worldCoord.add(0, -1)),
+					!area.contains(worldCoord.add(1, -1)),
+					!area.contains(worldCoord.add(1, 0)),
+					!area.contains(worldCoord.add(1, 1)),
+					!area.contains(worldCoord.add(0, 1)),
+					!area.contains(worldCoord.add(-1, 1)) });
 			if (border.hasAnyBorder())
 				borderCoords.add(border);
 		}
@@ -173,7 +173,7 @@ public class CombatUtil {
 					/*
 					 * Farm Animals - based on whether this is allowed using the PlayerCache and then a cancellable event.
 					 */
-					if (defenderTB.getType() == TownBlockType.FARM && TownySettings.getFarmAnimals().contains(defendingEntity.getType().toString()))
+					if (defenderTB.getType() == TownBlockType.FARM && TownySettings.isFarmAnimal(defendingEntity.getType()))
 						return !TownyActionEventExecutor.canDestroy(attackingPlayer, defendingEntity.getLocation(), Material.WHEAT);
 
 					/*
@@ -47,7 +47,7 @@ public class OutpostUtil {
 			throw new TownyException(Translation.of("msg_too_close2", Translation.of("homeblock")));
 
 		// Outposts can have a minimum required distance from other towns' townblocks.
-		int minDistance = world.getMinDistanceFromOtherTownsPlots(key, isPlotSetOutpost ? town : null);
+		int minDistance = world.getMinDistanceFromOtherTownsPlots(key, isPlotSetOutpost ? town : null, Math.max(TownySettings.getMinDistanceFromTownPlotblocks(), TownySettings.getMinDistanceForOutpostsFromPlot()));
 		// Outposts can have a minimum required distance from other outposts.
 		if (minDistance < TownySettings.getMinDistanceFromTownPlotblocks() ||
 			minDistance < TownySettings.getMinDistanceForOutpostsFromPlot())
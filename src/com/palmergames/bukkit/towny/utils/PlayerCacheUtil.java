@@ -3,6 +3,7 @@ package com.palmergames.bukkit.towny.utils;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownyMessaging.DebugCategory;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
@@ -70,38 +71,33 @@ public class PlayerCacheUtil {
 
 		WorldCoord worldCoord;
 
-		try {
-			// Test required for portalCreateEvent in WorldListener, player hasn't changed worlds yet.
-			if (location.getWorld().equals(player.getWorld())) 
-				worldCoord = new WorldCoord(player.getWorld().getName(), Coord.parseCoord(location));
-			else 
-				worldCoord = new WorldCoord(location.getWorld().getName(), Coord.parseCoord(location));
-			PlayerCache cache = plugin.getCache(player);
-			cache.updateCoord(worldCoord);
-
-			TownyMessaging.sendDebugMsg("Cache permissions for " + action.toString() + " : " + cache.getCachePermission(material, action));
-			return cache.getCachePermission(material, action); // Throws NullPointerException if the cache is empty
-
-		} catch (NullPointerException e) {
-			// New or old cache permission was null, update it
-
-			// Test required for portalCreateEvent in WorldListener, player hasn't changed worlds yet.
-			if (location.getWorld().equals(player.getWorld())) 
-				worldCoord = new WorldCoord(player.getWorld().getName(), Coord.parseCoord(location));
-			else 
-				worldCoord = new WorldCoord(location.getWorld().getName(), Coord.parseCoord(location));
-
-			TownBlockStatus status = cacheStatus(player, worldCoord, getTownBlockStatus(player, worldCoord));
-			triggerCacheCreate(player, location, worldCoord, status, material, action);
-
-			PlayerCache cache = plugin.getCache(player);
-			cache.updateCoord(worldCoord);
-			
-			TownyMessaging.sendDebugMsg("New Cache Created and updated!");
+		// Test required for portalCreateEvent in WorldListener, player hasn't changed worlds yet.
+		if (location.getWorld().equals(player.getWorld())) 
+			worldCoord = new WorldCoord(player.getWorld().getName(), Coord.parseCoord(location));
+		else 
+			worldCoord = new WorldCoord(location.getWorld().getName(), Coord.parseCoord(location));
+
+		PlayerCache cache = plugin.getCache(player);
+		cache.updateCoord(worldCoord);
 
-			TownyMessaging.sendDebugMsg("New Cache permissions for " + material + ":" + action.toString() + ":" + status.name() + " = " + cache.getCachePermission(material, action));
-			return cache.getCachePermission(material, action);
+		if (cache.hasCachedPermission(material, action)) {
+			boolean result = cache.getCachePermission(material, action);
+			TownyMessaging.sendDebugMsg(DebugCategory.PERMISSIONS, "Cache permissions for %s : %s", action, result);
+			return result;
 		}
+
+		// New or old cache permission was missing, update it
+		TownBlockStatus status = cacheStatus(player, worldCoord, getTownBlockStatus(player, worldCoord));
+		triggerCacheCreate(player, location, worldCoord, status, material, action);
+
+		cache = plugin.getCache(player);
+		cache.updateCoord(worldCoord);
+		
+		TownyMessaging.sendDebugMsg(DebugCategory.PERMISSIONS, "New Cache Created and updated!");
+
+		boolean result = cache.getCachePermission(material, action);
+		TownyMessaging.sendDebugMsg(DebugCategory.PERMISSIONS, "New Cache permissions for %s:%s:%s = %s", material, action, status, result);
+		return result;
 	}
 
 	/**
@@ -150,7 +146,7 @@ public class PlayerCacheUtil {
 		cache.updateCoord(worldCoord);
 		cache.setStatus(townBlockStatus);
 
-		TownyMessaging.sendDebugMsg(player.getName() + " (" + worldCoord.toString() + ") Cached Status: " + townBlockStatus);
+		TownyMessaging.sendDebugMsg(DebugCategory.PERMISSIONS, "%s (%s) Cached Status: %s", player.getName(), worldCoord, townBlockStatus);
 		return townBlockStatus;
 	}
 
@@ -168,7 +164,7 @@ public class PlayerCacheUtil {
 		cache.updateCoord(worldCoord);
 		cache.setBuildPermission(material, buildRight);
 
-		TownyMessaging.sendDebugMsg(player.getName() + " (" + worldCoord.toString() + ") Cached Build: " + buildRight);
+		TownyMessaging.sendDebugMsg(DebugCategory.PERMISSIONS, "%s (%s) Cached Build: %s", player.getName(), worldCoord, buildRight);
 	}
 
 	/**
@@ -185,7 +181,7 @@ public class PlayerCacheUtil {
 		cache.updateCoord(worldCoord);
 		cache.setDestroyPermission(material, destroyRight);
 
-		TownyMessaging.sendDebugMsg(player.getName() + " (" + worldCoord.toString() + ") Cached Destroy: " + destroyRight);
+		TownyMessaging.sendDebugMsg(DebugCategory.PERMISSIONS, "%s (%s) Cached Destroy: %s", player.getName(), worldCoord, destroyRight);
 	}
 
 	/**
@@ -202,7 +198,7 @@ public class PlayerCacheUtil {
 		cache.updateCoord(worldCoord);
 		cache.setSwitchPermission(material, switchRight);
 
-		TownyMessaging.sendDebugMsg(player.getName() + " (" + worldCoord.toString() + ") Cached Switch: " + switchRight);
+		TownyMessaging.sendDebugMsg(DebugCategory.PERMISSIONS, "%s (%s) Cached Switch: %s", player.getName(), worldCoord, switchRight);
 	}
 
 	/**
@@ -219,7 +215,7 @@ public class PlayerCacheUtil {
 		cache.updateCoord(worldCoord);
 		cache.setItemUsePermission(material, itemUseRight);
 
-		TownyMessaging.sendDebugMsg(player.getName() + " (" + worldCoord.toString() + ") Cached Item Use: " + itemUseRight);
+		TownyMessaging.sendDebugMsg(DebugCategory.PERMISSIONS, "%s (%s) Cached Item Use: %s", player.getName(), worldCoord, itemUseRight);
 	}
 
 	/**
@@ -516,7 +512,7 @@ public class PlayerCacheUtil {
 
 					} else if (townBlock.getType() == TownBlockType.FARM && (action.equals(ActionType.BUILD) || action.equals(ActionType.DESTROY))) {		
 						
-						if (TownySettings.getFarmPlotBlocks().contains(material.toString()))
+						if (TownySettings.isFarmPlotBlock(material))
 							return true;
 						
 					} else {
@@ -541,7 +537,7 @@ public class PlayerCacheUtil {
 
 					} else if (townBlock.getType() == TownBlockType.FARM && (action == ActionType.BUILD || action == ActionType.DESTROY)) {		
 						
-						if (TownySettings.getFarmPlotBlocks().contains(material.toString()))
+						if (TownySettings.isFarmPlotBlock(material))
 							return true;
 						
 					} else {
@@ -566,7 +562,7 @@ public class PlayerCacheUtil {
 
 					} else if (townBlock.getType() == TownBlockType.FARM && (action == ActionType.BUILD || action == ActionType.DESTROY)) {		
 						
-						if (TownySettings.getFarmPlotBlocks().contains(material.toString()))
+						if (TownySettings.isFarmPlotBlock(material))
 							return true;
 						
 					} else {
@@ -592,7 +588,7 @@ public class PlayerCacheUtil {
 
 					} else if (townBlock.getType() == TownBlockType.FARM && (action == ActionType.BUILD || action == ActionType.DESTROY)) {		
 						
-						if (TownySettings.getFarmPlotBlocks().contains(material.toString()))
+						if (TownySettings.isFarmPlotBlock(material))
 							return true;
 						
 					} else {
@@ -634,7 +630,7 @@ public class PlayerCacheUtil {
 
 				} else if (townBlock.getType() == TownBlockType.FARM && (action == ActionType.BUILD || action == ActionType.DESTROY)) {		
 					
-					if (TownySettings.getFarmPlotBlocks().contains(material.toString()))
+					if (TownySettings.isFarmPlotBlock(material))
 						return true;
 					
 				} else {
@@ -667,7 +663,7 @@ public class PlayerCacheUtil {
 
 				} else if (townBlock.getType() == TownBlockType.FARM && (action == ActionType.BUILD || action == ActionType.DESTROY)) {		
 					
-					if (TownySettings.getFarmPlotBlocks().contains(material.toString()))
+					if (TownySettings.isFarmPlotBlock(material))
 						return true;
 					
 				} else {
@@ -702,7 +698,7 @@ public class PlayerCacheUtil {
 
 				} else if (townBlock.getType() == TownBlockType.FARM && (action == ActionType.BUILD || action == ActionType.DESTROY)) {		
 					
-					if (TownySettings.getFarmPlotBlocks().contains(material.toString()))
+					if (TownySettings.isFarmPlotBlock(material))
 						return true;
 					
 				} else {
@@ -734,7 +730,7 @@ public class PlayerCacheUtil {
 
 				} else if (townBlock.getType() == TownBlockType.FARM && (action == ActionType.BUILD || action == ActionType.DESTROY)) {
 					
-					if (TownySettings.getFarmPlotBlocks().contains(material.toString()))
+					if (TownySettings.isFarmPlotBlock(material))
 						return true;
 					
 				} else {
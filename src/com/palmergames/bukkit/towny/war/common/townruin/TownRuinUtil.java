@@ -17,6 +17,7 @@ import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.Translation;
+import com.palmergames.bukkit.towny.tasks.TownyTimingWheel;
 import com.palmergames.bukkit.towny.utils.ResidentUtil;
 import com.palmergames.util.TimeTools;
 
@@ -26,6 +27,10 @@ import org.bukkit.entity.Player;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -34,6 +39,9 @@ import java.util.ListIterator;
  * @author Goosius
  */
 public class TownRuinUtil {
+	// Removal timers of the ruined towns, by town UUID.
+	private static final Map<UUID, TownyTimingWheel.Timer> ruinRemovals = new ConcurrentHashMap<>();
+
 	private TownRuinUtil() {
 		// Privatize implied public constructor.
 	}
@@ -114,6 +122,7 @@ public class TownRuinUtil {
 		
 		town.save();
 		plugin.resetCache();
+		scheduleRuinedTownRemoval(town);
 		
 		TownyMessaging.sendGlobalMessage(Translation.of("msg_ruin_town", town.getName()));
 	}
@@ -166,6 +175,9 @@ public class TownRuinUtil {
 	}
 
 	public static void reclaimTown(Resident resident, Town town) {
+		TownyTimingWheel.Timer timer = ruinRemovals.remove(town.getUUID());
+		if (timer != null)
+			timer.cancel();
 		town.setRuined(false);
 		town.setRuinedTime(0);
 
@@ -204,11 +216,52 @@ public class TownRuinUtil {
 		TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_new_mayor", newMayor.getName()));
 	}
 
+	/**
+	 * Schedules the removal of every ruined town, for when Towny is loaded or reloaded.
+	 */
+	public static void scheduleRuinedTownRemovals() {
+		ruinRemovals.values().forEach(TownyTimingWheel.Timer::cancel);
+		ruinRemovals.clear();
+		if (!TownRuinSettings.getTownRuinsEnabled())
+			return;
+		for (Town town : TownyUniverse.getInstance().getDataSource().getTowns())
+			if (town.isRuined() && town.getRuinedTime() != 0)
+				scheduleRuinedTownRemoval(town);
+	}
+
+	/*
+	 * A ruined town is removed once more than the max duration hours have passed since it was ruined.
+	 */
+	private static void scheduleRuinedTownRemoval(Town town) {
+		long removeAt = town.getRuinedTime() + TimeUnit.HOURS.toMillis(TownRuinSettings.getTownRuinsMaxDurationHours() + 1);
+		TownyTimingWheel.Timer timer = Towny.getPlugin().getTimingWheel().schedule(removeAt - System.currentTimeMillis(), () -> removeRuinedTown(town));
+		TownyTimingWheel.Timer previous = ruinRemovals.put(town.getUUID(), timer);
+		if (previous != null)
+			previous.cancel();
+	}
+
+	private static void removeRuinedTown(Town town) {
+		ruinRemovals.remove(town.getUUID());
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		// The town may have been deleted or reclaimed since the removal was scheduled.
+		if (!townyUniverse.getDataSource().hasTown(town.getName()) || !town.isRuined() || town.getRuinedTime() == 0)
+			return;
+
+		if (getTimeSinceRuining(town) > TownRuinSettings.getTownRuinsMaxDurationHours())
+			townyUniverse.getDataSource().removeTown(town, false);
+		else
+			// A delay longer than the timing wheel reaches runs early, wait again for the rest of it.
+			scheduleRuinedTownRemoval(town);
+	}
+
 	/**
 	 * This method cycles through all towns
 	 * If a town is in ruins, its remaining_ruin_time_hours counter is decreased
 	 * If a counter hits 0, the town is deleted
+	 * 
+	 * @deprecated Ruined towns are removed by their own timers, see {@link #scheduleRuinedTownRemovals()}.
 	 */
+	@Deprecated
     public static void evaluateRuinedTownRemovals() {
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
 		List<Town> towns = new ArrayList<>(townyUniverse.getDataSource().getTowns());
@@ -37,6 +37,7 @@ import org.bukkit.FireworkEffect.Type;
 import org.bukkit.Location;
 import org.bukkit.entity.Firework;
 import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
 import org.bukkit.inventory.meta.FireworkMeta;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitScheduler;
@@ -44,16 +45,21 @@ import org.bukkit.scheduler.BukkitScheduler;
 import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 //TODO: Extend a new class called TownyEvent
 public class War {
 	
 	// War Data
-	private static Hashtable<WorldCoord, Integer> warZone = new Hashtable<>();
+	// Read by the WarTimerTask off the main thread.
+	private static Map<WorldCoord, Integer> warZone = new ConcurrentHashMap<>();
 	private Hashtable<Town, Integer> townScores = new Hashtable<>();
-	public static List<Town> warringTowns = new ArrayList<>();
-	public static List<Nation> warringNations = new ArrayList<>();
+	public static Set<Town> warringTowns = ConcurrentHashMap.newKeySet();
+	public static Set<Nation> warringNations = ConcurrentHashMap.newKeySet();
 	private WarSpoils warSpoils = new WarSpoils();
+	private final WarZoneIndex warZoneIndex = new WarZoneIndex();
 	
 	private Towny plugin;
 	private boolean warTime = false;
@@ -120,14 +126,22 @@ public class War {
 		return townScores;
 	}
 
-	public Hashtable<WorldCoord, Integer> getWarZone()
+	public Map<WorldCoord, Integer> getWarZone()
 	{
 		return warZone;
 	}
 
+	/**
+	 * @return the players in each war zone plot and the plots on the edges of the warring towns.
+	 */
+	public WarZoneIndex getWarZoneIndex()
+	{
+		return warZoneIndex;
+	}
+
 	public List<Town> getWarringTowns()
 	{
-		return warringTowns;
+		return new ArrayList<>(warringTowns);
 	}
 	
 	public static boolean isWarZone(WorldCoord worldCoord) {
@@ -244,8 +258,16 @@ public class War {
 		TownyMessaging.sendGlobalMessage(Translation.of("msg_war_total_seeding_spoils", warSpoils.getHoldingBalance()));
 		TownyMessaging.sendGlobalMessage(Translation.of("msg_war_activate_war_hud_tip"));
 		
-		EventWarStartEvent event = new EventWarStartEvent(warringTowns, warringNations, warSpoils.getHoldingBalance());
+		EventWarStartEvent event = new EventWarStartEvent(new ArrayList<>(warringTowns), new ArrayList<>(warringNations), warSpoils.getHoldingBalance());
 		Bukkit.getServer().getPluginManager().callEvent(event);
+
+		// Index the war zone on the main thread, where players move.
+		BukkitTools.scheduleSyncDelayedTask(() -> {
+			if (!warTime)
+				return;
+			warZoneIndex.build(warZone.keySet());
+			Bukkit.getPluginManager().registerEvents(warZoneIndex, plugin);
+		}, 0);
 		
 		// Start the WarTimerTask
 		int id = BukkitTools.scheduleAsyncRepeatingTask(new WarTimerTask(plugin, this), 0, TimeTools.convertToTicks(5));
@@ -296,6 +318,9 @@ public class War {
 		}.runTask(plugin);
 		
 
+		HandlerList.unregisterAll(warZoneIndex);
+		warZoneIndex.clear();
+
 		warringNations.clear();
 		warringTowns.clear();
 		warZone.clear();
@@ -320,7 +345,7 @@ public class War {
 			getWarSpoils().payTo(halfWinnings, winningTownScore.key, "War - Town Winnings");
 			TownyMessaging.sendGlobalMessage(Translation.of("MSG_WAR_WINNING_TOWN_SPOILS", winningTownScore.key.getName(), TownyEconomyHandler.getFormattedBalance(halfWinnings),  winningTownScore.value));
 			
-			EventWarEndEvent event = new EventWarEndEvent(warringTowns, winningTownScore.key, halfWinnings, warringNations, nationWinnings);
+			EventWarEndEvent event = new EventWarEndEvent(new ArrayList<>(warringTowns), winningTownScore.key, halfWinnings, new ArrayList<>(warringNations), nationWinnings);
 			Bukkit.getServer().getPluginManager().callEvent(event);
 		} catch (TownyException e) {
 		}
@@ -785,11 +810,12 @@ public class War {
 	}
 
 	/**
-	 * Removes one WorldCoord from the warZone hashtable.
+	 * Removes one WorldCoord from the warZone map.
 	 * @param worldCoord WorldCoord being removed from the war.
 	 */
 	private void remove(WorldCoord worldCoord) {	
 		warZone.remove(worldCoord);
+		warZoneIndex.removePlot(worldCoord);
 	}
 	
 	private void sendEliminateMessage(String name) {
@@ -819,7 +845,7 @@ public class War {
 
 		if (warringNations.size() <= 1)
 			toggleEnd();
-		else if (CombatUtil.areAllAllies(warringNations))
+		else if (CombatUtil.areAllAllies(new ArrayList<>(warringNations)))
 			toggleEnd();
 	}
 
@@ -3,6 +3,7 @@ package com.palmergames.bukkit.towny.war.eventwar;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownyMessaging.DebugCategory;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
@@ -12,10 +13,11 @@ import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.tasks.TownyTimerTask;
-import com.palmergames.bukkit.util.BukkitTools;
 import org.bukkit.entity.Player;
 
-import java.util.Hashtable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 public class WarTimerTask extends TownyTimerTask {
 
@@ -40,79 +42,61 @@ public class WarTimerTask extends TownyTimerTask {
 			return;
 		}
 
+		// Nations which have turned neutral leave the war.
+		for (Nation nation : War.warringNations)
+			if (nation.isNeutral())
+				warEvent.nationLeave(nation);
+
+		// Only the war zone plots with players in them can be healed or attacked.
+		boolean healablePlots = TownySettings.getPlotsHealableInWar();
+		boolean edgesOnly = TownySettings.getOnlyAttackEdgesInWar();
 		int numPlayers = 0;
-		Hashtable<TownBlock, WarZoneData> plotList = new Hashtable<>();
-		for (Player player : BukkitTools.getOnlinePlayers()) {
-			if (player != null && !player.isFlying()) {
+		Map<TownBlock, WarZoneData> plotList = new HashMap<>();
+		for (Map.Entry<WorldCoord, Set<Player>> occupied : warEvent.getWarZoneIndex().getOccupiedPlots().entrySet()) {
+			WorldCoord worldCoord = occupied.getKey();
+			if (!War.isWarZone(worldCoord))
+				continue;
+			TownBlock townBlock = worldCoord.getTownBlockOrNull();
+			if (townBlock == null || !townBlock.hasTown())
+				continue;
+			Nation defendingNation = townBlock.getTownOrNull().getNationOrNull();
+			if (defendingNation == null)
+				continue;
+			boolean attackable = !edgesOnly || warEvent.getWarZoneIndex().isEdge(worldCoord);
+
+			WarZoneData wzd = null;
+			for (Player player : occupied.getValue()) {
+				if (player.isFlying())
+					continue;
 				numPlayers += 1;
-				TownyMessaging.sendDebugMsg("[War] " + player.getName() + ": ");
+				Resident resident = TownyUniverse.getInstance().getResident(player.getUniqueId());
+				if (resident == null || !resident.hasTown() || !War.isWarringTown(resident.getTownOrNull()))
+					continue;
+				Nation nation = resident.getTownOrNull().getNationOrNull();
+				if (nation == null || !warEvent.isWarringNation(nation))
+					continue;
+				if (player.getLocation().getBlockY() < TownySettings.getMinWarHeight())
+					continue;
+
+				if (healablePlots && (nation == defendingNation || defendingNation.hasAlly(nation))) {
+					if (wzd == null)
+						wzd = new WarZoneData();
+					wzd.addDefender(player);
+					continue;
+				}
+
+				//Enemy nation
+				if (!nation.hasEnemy(defendingNation) || resident.isJailed() || !attackable)
+					continue;
 				try {
-					Resident resident = TownyUniverse.getInstance().getResident(player.getUniqueId());
-					if (resident == null || !resident.hasTown() || !warEvent.isWarringTown(resident.getTown()))
-						continue;
-					
-					if (resident.hasNation()) {
-						Nation nation = resident.getTown().getNation();
-						TownyMessaging.sendDebugMsg("[War]   hasNation");
-						if (nation.isNeutral()) {
-							if (warEvent.isWarringNation(nation))
-								warEvent.nationLeave(nation);
-							continue;
-						}
-						TownyMessaging.sendDebugMsg("[War]   notPeaceful");
-						if (!warEvent.isWarringNation(nation))
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   warringNation");
-
-						WorldCoord worldCoord = plugin.getCache(player).getLastTownBlock();
-						if (!warEvent.isWarZone(worldCoord))
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   warZone");
-						if (player.getLocation().getBlockY() < TownySettings.getMinWarHeight())
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   aboveMinHeight");
-						TownBlock townBlock = worldCoord.getTownBlock(); //universe.getWorld(player.getWorld().getName()).getTownBlock(worldCoord);
-						boolean healablePlots = TownySettings.getPlotsHealableInWar();
-						if (healablePlots && (nation == townBlock.getTown().getNation() || townBlock.getTown().getNation().hasAlly(nation))) {
-							if (plotList.containsKey(townBlock))
-								plotList.get(townBlock).addDefender(player);
-							else {
-								WarZoneData wzd = new WarZoneData();
-								wzd.addDefender(player);
-								plotList.put(townBlock, wzd);
-							}
-							TownyMessaging.sendDebugMsg("[War]   healed");
-							continue;
-						}
-						
-						if (!resident.getTown().getNation().hasEnemy(townBlock.getTown().getNation()))
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   notAlly");
-						//Enemy nation
-						
-						if (resident.isJailed())
-							continue;
-
-						boolean edgesOnly = TownySettings.getOnlyAttackEdgesInWar();
-						if (edgesOnly && !isOnEdgeOfTown(townBlock, worldCoord, warEvent))
-							continue;
-						if (edgesOnly)
-							TownyMessaging.sendDebugMsg("[War]   onEdge");
-
-						//warEvent.damage(player, townBlock);
-						if (plotList.containsKey(townBlock))
-							plotList.get(townBlock).addAttacker(player);
-						else {
-							WarZoneData wzd = new WarZoneData();
-							wzd.addAttacker(player);
-							plotList.put(townBlock, wzd);
-						}
-						TownyMessaging.sendDebugMsg("[War]   damaged");
-
-					}
+					if (wzd == null)
+						wzd = new WarZoneData();
+					wzd.addAttacker(player);
 				} catch (NotRegisteredException ignored) {
 				}
 			}
+			if (wzd != null)
+				plotList.put(townBlock, wzd);
 		}
 
 		//Send health updates
@@ -124,9 +108,13 @@ public class WarTimerTask extends TownyTimerTask {
 			}
 		}
 
-		TownyMessaging.sendDebugMsg("[War] # Players: " + numPlayers);
+		TownyMessaging.sendDebugMsg(DebugCategory.WAR, "[War] # Players in the war zone: %s", numPlayers);
 	}	
 
+	/**
+	 * @deprecated edges are kept up to date by the war's {@link WarZoneIndex#isEdge(WorldCoord)}.
+	 */
+	@Deprecated
 	@SuppressWarnings("static-access")
 	public static boolean isOnEdgeOfTown(TownBlock townBlock, WorldCoord worldCoord, War warEvent) {
 
@@ -0,0 +1,172 @@
+package com.palmergames.bukkit.towny.war.eventwar;
+
+import com.palmergames.bukkit.towny.event.PlayerChangePlotEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownUnclaimEvent;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.util.BukkitTools;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the players standing in each war zone plot, and of the war
+ * zone plots which lie on the edge of their town, so the {@link WarTimerTask}
+ * only has to look at the plots which are occupied.
+ *
+ * Occupancy is updated as players change plots, join, quit and respawn. Edges
+ * are worked out when the war starts, and again around any plot which leaves
+ * the war zone or is claimed or unclaimed while the war is on.
+ *
+ * Changes are made on the main thread, the war timer task reads the index from its own thread.
+ */
+public class WarZoneIndex implements Listener {
+
+	private static final int[][] OFFSETS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+
+	private final Map<WorldCoord, Set<Player>> occupants = new ConcurrentHashMap<>();
+	// The war zone plot each player is standing in, players outside of the war zone are not kept.
+	private final Map<Player, WorldCoord> locations = new ConcurrentHashMap<>();
+	private final Set<WorldCoord> edges = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Works out the edges of the war zone and places every online player.
+	 *
+	 * @param warZone - Every plot in the war zone.
+	 */
+	public void build(Collection<WorldCoord> warZone) {
+
+		clear();
+		for (WorldCoord worldCoord : warZone)
+			updateEdge(worldCoord);
+		for (Player player : BukkitTools.getOnlinePlayers())
+			if (player != null)
+				move(player, WorldCoord.parseWorldCoord(player));
+	}
+
+	public void clear() {
+
+		occupants.clear();
+		locations.clear();
+		edges.clear();
+	}
+
+	/**
+	 * @return the players standing in each occupied war zone plot.
+	 */
+	public Map<WorldCoord, Set<Player>> getOccupiedPlots() {
+
+		return Collections.unmodifiableMap(occupants);
+	}
+
+	/**
+	 * @param worldCoord - War zone plot to check.
+	 * @return true if the plot borders the wilderness, another town or a plot which has fallen.
+	 */
+	public boolean isEdge(WorldCoord worldCoord) {
+
+		return edges.contains(worldCoord);
+	}
+
+	/**
+	 * Forgets a plot which has left the war zone, its neighbours may now be on the edge of their town.
+	 *
+	 * @param worldCoord - Plot which has left the war zone.
+	 */
+	public void removePlot(WorldCoord worldCoord) {
+
+		Set<Player> players = occupants.remove(worldCoord);
+		if (players != null)
+			for (Player player : players)
+				locations.remove(player, worldCoord);
+		updateEdges(worldCoord);
+	}
+
+	private void move(Player player, WorldCoord to) {
+
+		WorldCoord from = locations.remove(player);
+		if (from != null)
+			occupants.computeIfPresent(from, (worldCoord, players) -> {
+				players.remove(player);
+				return players.isEmpty() ? null : players;
+			});
+
+		if (to != null && War.isWarZone(to)) {
+			locations.put(player, to);
+			occupants.computeIfAbsent(to, worldCoord -> ConcurrentHashMap.newKeySet()).add(player);
+		}
+	}
+
+	private void updateEdges(WorldCoord worldCoord) {
+
+		updateEdge(worldCoord);
+		for (int[] offset : OFFSETS)
+			updateEdge(worldCoord.add(offset[0], offset[1]));
+	}
+
+	private void updateEdge(WorldCoord worldCoord) {
+
+		if (War.isWarZone(worldCoord) && isOnEdgeOfTown(worldCoord))
+			edges.add(worldCoord);
+		else
+			edges.remove(worldCoord);
+	}
+
+	private static boolean isOnEdgeOfTown(WorldCoord worldCoord) {
+
+		Town town = worldCoord.getTownOrNull();
+		for (int[] offset : OFFSETS) {
+			WorldCoord edge = worldCoord.add(offset[0], offset[1]);
+			if (edge.getTownOrNull() != town || !War.isWarZone(edge))
+				return true;
+		}
+		return false;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerChangePlot(PlayerChangePlotEvent event) {
+
+		move(event.getPlayer(), event.getTo());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerJoin(PlayerJoinEvent event) {
+
+		move(event.getPlayer(), WorldCoord.parseWorldCoord(event.getPlayer()));
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+
+		move(event.getPlayer(), null);
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerRespawn(PlayerRespawnEvent event) {
+
+		move(event.getPlayer(), WorldCoord.parseWorldCoord(event.getRespawnLocation()));
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownClaim(TownClaimEvent event) {
+
+		updateEdges(event.getTownBlock().getWorldCoord());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownUnclaim(TownUnclaimEvent event) {
+
+		updateEdges(event.getWorldCoord());
+	}
+}
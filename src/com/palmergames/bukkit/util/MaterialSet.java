@@ -0,0 +1,91 @@
+package com.palmergames.bukkit.util;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable set of Materials, built from a list of material names.
+ *
+ * Lookups by Material are answered from an EnumSet. The names the set was
+ * built from are kept as well, so that names which are not Materials on this
+ * version of MC still match the String based lookups.
+ */
+public final class MaterialSet {
+
+	private static final MaterialSet EMPTY = new MaterialSet(Collections.emptyList());
+
+	private final Set<Material> materials = EnumSet.noneOf(Material.class);
+	private final List<String> names;
+	private final Set<String> nameSet;
+
+	private MaterialSet(List<String> names) {
+
+		this.names = Collections.unmodifiableList(names);
+		this.nameSet = new HashSet<>(names);
+		for (String name : names) {
+			Material material = Material.matchMaterial(name);
+			if (material != null)
+				materials.add(material);
+		}
+	}
+
+	/**
+	 * @param names - Material names.
+	 * @return MaterialSet holding the named Materials.
+	 */
+	public static MaterialSet of(Collection<String> names) {
+
+		if (names == null || names.isEmpty())
+			return EMPTY;
+
+		return new MaterialSet(new ArrayList<>(names));
+	}
+
+	/**
+	 * Builds a MaterialSet, replacing any of the {@link ItemLists#GROUPS} with the contents of the group.
+	 *
+	 * @param names - Material names or group names.
+	 * @return MaterialSet holding the named Materials.
+	 */
+	public static MaterialSet ofGroups(Collection<String> names) {
+
+		List<String> expanded = new ArrayList<>();
+		for (String name : names) {
+			if (ItemLists.GROUPS.contains(name))
+				expanded.addAll(ItemLists.getGrouping(name));
+			else
+				expanded.add(name);
+		}
+		return of(expanded);
+	}
+
+	public boolean contains(Material material) {
+
+		return materials.contains(material);
+	}
+
+	public boolean contains(String name) {
+
+		return nameSet.contains(name);
+	}
+
+	/**
+	 * @return the names this set was built from, in their original order.
+	 */
+	public List<String> getNames() {
+
+		return names;
+	}
+
+	public boolean isEmpty() {
+
+		return names.isEmpty();
+	}
+}
@@ -23,11 +23,13 @@ import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -555,23 +557,53 @@ public final class FileMgmt {
 		
 		try {
 			readLock.lock();
-			HashMap<String, String> keys = new HashMap<>();
-			try (FileInputStream fis = new FileInputStream(file);
-				 InputStreamReader isr = new InputStreamReader(fis, StandardCharsets.UTF_8)) {
-				Properties properties = new Properties();
-				properties.load(isr);
-				for (String key : properties.stringPropertyNames()) {
-					String value = properties.getProperty(key);
-					keys.put(key, String.valueOf(value));
-				}
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-			return keys;
+			return readFileIntoHashMap(file);
 		} finally {
 			readLock.unlock();
 		}
 	}
+
+	/**
+	 * Reads many object files at once on the given pool, putting a hashmap of keys for each file into out.
+	 * 
+	 * Only used while the database loads, when nothing else writes the files, so
+	 * the batch doesn't take the read lock and hold up backups and other file work.
+	 * Files which don't exist are left out.
+	 *
+	 * @param files - Files from which the HashMaps will be made.
+	 * @param pool - ForkJoinPool to read the files on.
+	 * @param out - Thread safe map of file path to the keys and values read from that file.
+	 */
+	public static void loadFilesIntoHashMaps(Collection<File> files, ForkJoinPool pool, Map<String, HashMap<String, String>> out) {
+		
+		try {
+			pool.submit(() -> files.parallelStream()
+				.filter(File::isFile)
+				.forEach(file -> out.put(file.getPath(), readFileIntoHashMap(file)))
+			).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static HashMap<String, String> readFileIntoHashMap(File file) {
+		
+		HashMap<String, String> keys = new HashMap<>();
+		try (FileInputStream fis = new FileInputStream(file);
+			 InputStreamReader isr = new InputStreamReader(fis, StandardCharsets.UTF_8)) {
+			Properties properties = new Properties();
+			properties.load(isr);
+			for (String key : properties.stringPropertyNames()) {
+				String value = properties.getProperty(key);
+				keys.put(key, String.valueOf(value));
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return keys;
+	}
 	
 	/**
 	 * Method to save a PlotBlockData object to disk.
@@ -591,9 +623,8 @@ public final class FileMgmt {
 				fout.write(data.getVersion());
 				// Write the plot height (who knows Mojang might change it a second time.
 				fout.writeInt(data.getHeight());
-				// Write the actual blocks with their BlockData included.
-				for (String block : new ArrayList<>(data.getBlockList()))
-					fout.writeUTF(block);
+				// Write the palette of BlockData and the packed index of every block.
+				data.getBlocks().write(fout);
 			}
 		} catch (IOException e1) {
 			e1.printStackTrace();